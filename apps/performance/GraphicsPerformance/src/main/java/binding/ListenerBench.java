@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package binding;
+
+import java.util.ArrayList;
+import java.util.List;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.WeakInvalidationListener;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+
+/**
+ * Measures how long a property takes to notify its listeners when hundreds
+ * of weak listeners come and go (like cells of a virtualized control
+ * observing a shared property), and when listeners are added and removed
+ * during the notification.
+ *
+ * Usage: java binding.ListenerBench [seconds per test]
+ */
+public class ListenerBench {
+
+    static final int LISTENERS = 500;
+
+    static int notified;
+
+    // Not a lambda: a non-capturing lambda is a single shared instance
+    // that would never be collected
+    static class Cell implements InvalidationListener {
+        @Override
+        public void invalidated(Observable observable) {
+            notified++;
+        }
+    }
+
+    static void run(String name, Runnable op, long nanos) {
+        // Warm up
+        long end = System.nanoTime() + nanos / 2;
+        while (System.nanoTime() < end) {
+            op.run();
+        }
+
+        long start = System.nanoTime();
+        end = start + nanos;
+        long ops = 0;
+        while (System.nanoTime() < end) {
+            op.run();
+            ops++;
+        }
+        long time = System.nanoTime() - start;
+
+        System.out.println(String.format("%-32s %10.2f us/notification", name, time / 1e3 / ops));
+    }
+
+    public static void main(String[] args) {
+        long nanos = (args.length > 0 ? Long.parseLong(args[0]) : 2) * 1000000000L;
+
+        // Every notification, one cell is discarded and a new one is created.
+        // The discarded cells' weak listeners stay registered until purged.
+        final DoubleProperty shared = new SimpleDoubleProperty();
+        final List<InvalidationListener> cells = new ArrayList<>();
+        for (int i = 0; i < LISTENERS; i++) {
+            InvalidationListener cell = new Cell();
+            cells.add(cell);
+            shared.addListener(new WeakInvalidationListener(cell));
+        }
+        final int[] next = new int[1];
+        run("weak listeners, cells recycled", () -> {
+            InvalidationListener cell = new Cell();
+            cells.set(next[0]++ % LISTENERS, cell);
+            shared.addListener(new WeakInvalidationListener(cell));
+            if (next[0] % 1024 == 0) {
+                System.gc();
+            }
+            shared.set(shared.get() + 1);
+        }, nanos);
+
+        // One listener adds and removes another listener while notified
+        final DoubleProperty property = new SimpleDoubleProperty();
+        final InvalidationListener extra = o -> notified++;
+        property.addListener(o -> {
+            property.removeListener(extra);
+            property.addListener(extra);
+        });
+        for (int i = 0; i < LISTENERS; i++) {
+            property.addListener(o -> notified++);
+        }
+        run("add/remove while notifying", () -> property.set(property.get() + 1), nanos);
+
+        System.out.println(notified > 0 ? "" : "-");
+    }
+}
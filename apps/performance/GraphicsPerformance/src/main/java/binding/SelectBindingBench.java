@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package binding;
+
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.DoubleBinding;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.adapter.JavaBeanDoubleProperty;
+import javafx.beans.property.adapter.JavaBeanDoublePropertyBuilder;
+
+/**
+ * Measures the throughput of select bindings over JavaFX beans of two
+ * alternating classes and over plain Java objects, and of reading and
+ * writing a Java Bean property through a JavaBeanDoubleProperty.
+ *
+ * Usage: java binding.SelectBindingBench [seconds per test]
+ */
+public class SelectBindingBench {
+
+    public static class Item {
+        private final DoubleProperty value = new SimpleDoubleProperty(this, "value");
+        public Item(double value) { this.value.set(value); }
+        public DoubleProperty valueProperty() { return value; }
+    }
+
+    public static class OtherItem extends Item {
+        public OtherItem(double value) { super(value); }
+    }
+
+    public static class Holder {
+        private final ObjectProperty<Object> item = new SimpleObjectProperty<>(this, "item");
+        public ObjectProperty<Object> itemProperty() { return item; }
+    }
+
+    public static class Pojo {
+        private double value;
+        public Pojo(double value) { this.value = value; }
+        public double getValue() { return value; }
+        public void setValue(double value) { this.value = value; }
+    }
+
+    interface Op {
+        double run(int i);
+    }
+
+    static void run(String name, Op op, long nanos) {
+        double sink = 0;
+
+        // Warm up
+        long end = System.nanoTime() + nanos / 2;
+        int i = 0;
+        while (System.nanoTime() < end) {
+            sink += op.run(i++);
+        }
+
+        long start = System.nanoTime();
+        end = start + nanos;
+        long ops = 0;
+        while (System.nanoTime() < end) {
+            for (int j = 0; j < 1000; j++) {
+                sink += op.run(j);
+            }
+            ops += 1000;
+        }
+        long time = System.nanoTime() - start;
+
+        System.out.println(String.format("%-28s %10.1f ns/op %12.0f ops/s   (%s)",
+                                         name, (double) time / ops, ops * 1e9 / time,
+                                         sink != 0 ? "ok" : "-"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        long nanos = (args.length > 0 ? Long.parseLong(args[0]) : 2) * 1000000000L;
+
+        // The item changes for every evaluation, alternating between two classes
+        final Holder holder = new Holder();
+        final Item[] items = { new Item(1), new OtherItem(2) };
+        final DoubleBinding fxSelect = Bindings.selectDouble(holder.itemProperty(), "value");
+        run("select (JavaFX properties)", i -> {
+            holder.itemProperty().set(items[i & 1]);
+            return fxSelect.get();
+        }, nanos);
+
+        final Holder pojoHolder = new Holder();
+        final Pojo[] pojos = { new Pojo(1), new Pojo(2) };
+        final DoubleBinding pojoSelect = Bindings.selectDouble(pojoHolder.itemProperty(), "value");
+        run("select (plain Java objects)", i -> {
+            pojoHolder.itemProperty().set(pojos[i & 1]);
+            return pojoSelect.get();
+        }, nanos);
+
+        final Pojo pojo = new Pojo(0);
+        final JavaBeanDoubleProperty adapter =
+                JavaBeanDoublePropertyBuilder.create().bean(pojo).name("value").build();
+        run("JavaBeanDoubleProperty get", i -> adapter.get() + i, nanos);
+        run("JavaBeanDoubleProperty set", i -> {
+            adapter.set(i);
+            return pojo.getValue();
+        }, nanos);
+    }
+}
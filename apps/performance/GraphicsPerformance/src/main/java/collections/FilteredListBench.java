@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package collections;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+
+/**
+ * Measures how long a FilteredList takes to apply a new predicate to 100k
+ * and 500k rows, testing the rows serially, in parallel, and only testing
+ * the visible rows for a narrower predicate.
+ *
+ * Usage: java collections.FilteredListBench [seconds per test]
+ */
+public class FilteredListBench {
+
+    static final String[] WORDS = {
+        "alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf", "hotel"
+    };
+
+    static ObservableList<String> createRows(int size) {
+        Random random = new Random(0);
+        List<String> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            rows.add(WORDS[random.nextInt(WORDS.length)] + " " + random.nextInt(100000)
+                     + " " + WORDS[random.nextInt(WORDS.length)]);
+        }
+        return FXCollections.observableArrayList(rows);
+    }
+
+    static void run(String name, FilteredList<String> filtered, boolean narrow, long nanos) {
+        // Like typing a second word into a search field
+        Predicate<String> wide = s -> s.contains("alpha");
+        Predicate<String> narrower = s -> s.contains("alpha") && s.contains("echo");
+
+        // Warm up
+        long end = System.nanoTime() + nanos / 2;
+        while (System.nanoTime() < end) {
+            filtered.setPredicate(wide);
+            filtered.setPredicate(narrower);
+        }
+
+        long time = 0;
+        int ops = 0;
+        end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            filtered.setPredicate(wide);
+            long start = System.nanoTime();
+            if (narrow) {
+                filtered.narrowPredicate(narrower);
+            } else {
+                filtered.setPredicate(narrower);
+            }
+            time += System.nanoTime() - start;
+            ops++;
+        }
+
+        System.out.println(String.format("%-20s %8d rows %10.2f ms/refilter %8d visible",
+                                         name, filtered.getSource().size(),
+                                         time / 1e6 / ops, filtered.size()));
+    }
+
+    public static void main(String[] args) {
+        long nanos = (args.length > 0 ? Long.parseLong(args[0]) : 2) * 1000000000L;
+
+        for (int size : new int[] { 100000, 500000 }) {
+            ObservableList<String> rows = createRows(size);
+            for (int mode = 0; mode < 4; mode++) {
+                FilteredList<String> filtered = new FilteredList<>(rows);
+                filtered.addListener((ListChangeListener<String>) c -> { });
+                filtered.setParallel(mode == 1 || mode == 3);
+                boolean narrow = mode >= 2;
+                run((narrow ? "narrowing " : "") + (filtered.isParallel() ? "parallel" : "serial"),
+                    filtered, narrow, nanos);
+            }
+        }
+    }
+}
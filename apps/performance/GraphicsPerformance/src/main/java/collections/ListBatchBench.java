@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package collections;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
+
+/**
+ * Compares updating an observable list one element at a time with doing
+ * the same updates in a single batch, while a SortedList and a FilteredList
+ * are attached to it. This mimics a feed that changes a number of rows on
+ * every tick. The number of notifications received by the sorted and
+ * filtered lists is reported as well.
+ *
+ * Usage: java collections.ListBatchBench [list size [updates per tick [seconds per test]]]
+ */
+public class ListBatchBench {
+
+    interface Tick {
+        void run(ObservableList<Double> list, int[] indexes, double[] values);
+    }
+
+    static class Setup {
+        final ObservableList<Double> list;
+        final SortedList<Double> sorted;
+        final FilteredList<Double> filtered;
+        int notifications;
+
+        Setup(int size, Random random) {
+            List<Double> content = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                content.add(random.nextDouble() * 100);
+            }
+            list = FXCollections.observableArrayList(content);
+            sorted = list.sorted(Comparator.naturalOrder());
+            filtered = list.filtered(d -> d > 50);
+            ListChangeListener<Double> counter = c -> notifications++;
+            sorted.addListener(counter);
+            filtered.addListener(counter);
+        }
+    }
+
+    static void run(String name, Tick tick, int size, int updates, long nanos) {
+        Random random = new Random(0);
+        Setup setup = new Setup(size, random);
+        int[] indexes = new int[updates];
+        double[] values = new double[updates];
+
+        // Warm up
+        long end = System.nanoTime() + nanos / 2;
+        while (System.nanoTime() < end) {
+            nextTick(random, size, indexes, values);
+            tick.run(setup.list, indexes, values);
+        }
+
+        setup.notifications = 0;
+        long time = 0;
+        int ticks = 0;
+        end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            nextTick(random, size, indexes, values);
+            long start = System.nanoTime();
+            tick.run(setup.list, indexes, values);
+            time += System.nanoTime() - start;
+            ticks++;
+        }
+
+        System.out.println(String.format("%-24s %12.1f us/tick %12.1f notifications/tick",
+                                         name, time / 1000.0 / ticks,
+                                         (double) setup.notifications / ticks));
+    }
+
+    static void nextTick(Random random, int size, int[] indexes, double[] values) {
+        int start = random.nextInt(size - indexes.length + 1);
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = start + i;
+            values[i] = random.nextDouble() * 100;
+        }
+    }
+
+    static void set(ObservableList<Double> list, int[] indexes, double[] values) {
+        for (int i = 0; i < indexes.length; i++) {
+            list.set(indexes[i], values[i]);
+        }
+    }
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int updates = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        long nanos = (args.length > 2 ? Long.parseLong(args[2]) : 2) * 1000000000L;
+
+        System.out.println("List size " + size + ", " + updates + " consecutive rows updated per tick");
+
+        run("per element set", (list, indexes, values) -> set(list, indexes, values),
+            size, updates, nanos);
+        run("batched set", (list, indexes, values) ->
+                FXCollections.batch(list, l -> set(l, indexes, values)),
+            size, updates, nanos);
+        run("replaceRange", (list, indexes, values) -> {
+                List<Double> range = new ArrayList<>(values.length);
+                for (double v : values) {
+                    range.add(v);
+                }
+                FXCollections.replaceRange(list, indexes[0], indexes[0] + indexes.length, range);
+            }, size, updates, nanos);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package collections;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.SortedList;
+
+/**
+ * Measures how fast a SortedList follows the changes of its source list
+ * for lists of 10k, 100k and 1M elements. Each workload is a kind of tick
+ * that a live table would see: single inserts, removals and sets, and
+ * batches of inserts and sets made with FXCollections.batch.
+ *
+ * Usage: java collections.SortedListBench [seconds per test]
+ */
+public class SortedListBench {
+
+    static final int BATCH_SIZE = 1000;
+
+    interface Workload {
+        void run(ObservableList<Double> list, Random random);
+    }
+
+    static void run(String name, int size, Workload workload, long nanos) {
+        Random random = new Random(0);
+        List<Double> content = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            content.add(random.nextDouble());
+        }
+        ObservableList<Double> list = FXCollections.observableArrayList(content);
+        SortedList<Double> sorted = list.sorted(Comparator.naturalOrder());
+        int[] changes = new int[1];
+        sorted.addListener((ListChangeListener<Double>) c -> changes[0]++);
+
+        // Warm up
+        long end = System.nanoTime() + nanos / 2;
+        while (System.nanoTime() < end) {
+            workload.run(list, random);
+        }
+
+        changes[0] = 0;
+        long start = System.nanoTime();
+        end = start + nanos;
+        int ops = 0;
+        long now;
+        do {
+            workload.run(list, random);
+            ops++;
+        } while ((now = System.nanoTime()) < end);
+
+        System.out.println(String.format("%-20s %8d %14.1f us/op %10.1f ops/s",
+                                         name, size, (now - start) / 1000.0 / ops,
+                                         ops * 1e9 / (now - start)));
+    }
+
+    public static void main(String[] args) {
+        long nanos = (args.length > 0 ? Long.parseLong(args[0]) : 2) * 1000000000L;
+
+        for (int size : new int[] { 10000, 100000, 1000000 }) {
+            run("add + remove", size, (list, random) -> {
+                list.add(random.nextInt(list.size()), random.nextDouble());
+                list.remove(random.nextInt(list.size()));
+            }, nanos);
+            run("set", size, (list, random) -> {
+                list.set(random.nextInt(list.size()), random.nextDouble());
+            }, nanos);
+            run("batched add", size, (list, random) -> {
+                List<Double> added = new ArrayList<>(BATCH_SIZE);
+                for (int i = 0; i < BATCH_SIZE; i++) {
+                    added.add(random.nextDouble());
+                }
+                int index = random.nextInt(list.size());
+                list.addAll(index, added);
+                list.remove(index, index + BATCH_SIZE);
+            }, nanos);
+            run("batched set", size, (list, random) -> {
+                FXCollections.batch(list, l -> {
+                    for (int i = 0; i < BATCH_SIZE; i++) {
+                        l.set(random.nextInt(l.size()), random.nextDouble());
+                    }
+                });
+            }, nanos);
+        }
+    }
+}
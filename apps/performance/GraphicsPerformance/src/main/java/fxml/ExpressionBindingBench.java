@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package fxml;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Map;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Text;
+
+/**
+ * Measures FXML expression bindings on a form with 500 of them: for each of
+ * 250 rows the text of a label and the width of a bar are bound to the width
+ * of a source rectangle through <code>${...}</code> expressions. Reports the
+ * time to load the form (which creates the bindings) and the time to
+ * propagate a change of all source values to the bound properties.
+ *
+ * Usage: java fxml.ExpressionBindingBench [seconds per test] [rows]
+ */
+public class ExpressionBindingBench {
+
+    static double sum;
+
+    interface Op {
+        void run() throws IOException;
+    }
+
+    static void run(String name, Op op, long nanos, int bindings) throws IOException {
+        // Warm up
+        long end = System.nanoTime() + nanos / 2;
+        while (System.nanoTime() < end) {
+            op.run();
+        }
+
+        long start = System.nanoTime();
+        end = start + nanos;
+        long ops = 0;
+        while (System.nanoTime() < end) {
+            op.run();
+            ops++;
+        }
+        long time = System.nanoTime() - start;
+
+        System.out.println(String.format("%-24s %10.3f ms/op %10.1f ns/binding",
+            name, time / 1e6 / ops, (double) time / ops / bindings));
+    }
+
+    static String createDocument(int rows) {
+        StringBuilder document = new StringBuilder();
+        document.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        document.append("<?import javafx.scene.layout.*?>\n");
+        document.append("<?import javafx.scene.shape.*?>\n");
+        document.append("<?import javafx.scene.text.*?>\n");
+        document.append("<VBox xmlns:fx=\"http://javafx.com/fxml/1\">\n");
+        for (int i = 0; i < rows; i++) {
+            document.append("    <HBox>\n");
+            document.append("        <Rectangle fx:id=\"source").append(i).append("\" width=\"10\" height=\"10\"/>\n");
+            document.append("        <Text fx:id=\"label").append(i)
+                .append("\" text=\"${'Row ").append(i).append(" (' + (2 * 50) + '%): ' + source").append(i)
+                .append(".width}\"/>\n");
+            document.append("        <Rectangle fx:id=\"bar").append(i)
+                .append("\" height=\"10\" width=\"${source").append(i).append(".width * (3 - 1) + 4 / 2}\"/>\n");
+            document.append("    </HBox>\n");
+        }
+        document.append("</VBox>\n");
+
+        return document.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        long nanos = (args.length > 0 ? Long.parseLong(args[0]) : 2) * 1000000000L;
+        int rows = args.length > 1 ? Integer.parseInt(args[1]) : 250;
+        int bindings = rows * 2;
+
+        final byte[] document = createDocument(rows).getBytes("UTF-8");
+
+        System.out.println(String.format("%d rows, %d expression bindings", rows, bindings));
+
+        run("load", () -> {
+            FXMLLoader loader = new FXMLLoader();
+            loader.load(new ByteArrayInputStream(document));
+        }, nanos, bindings);
+
+        FXMLLoader loader = new FXMLLoader();
+        loader.load(new ByteArrayInputStream(document));
+        Map<String, Object> namespace = loader.getNamespace();
+
+        final Rectangle[] sources = new Rectangle[rows];
+        final Text[] labels = new Text[rows];
+        final Rectangle[] bars = new Rectangle[rows];
+        for (int i = 0; i < rows; i++) {
+            sources[i] = (Rectangle) namespace.get("source" + i);
+            labels[i] = (Text) namespace.get("label" + i);
+            bars[i] = (Rectangle) namespace.get("bar" + i);
+        }
+
+        run("update", new Op() {
+            double width = 10;
+
+            @Override
+            public void run() {
+                width = width == 10 ? 20 : 10;
+                for (int i = 0; i < sources.length; i++) {
+                    sources[i].setWidth(width);
+                    sum += labels[i].getText().length() + bars[i].getWidth();
+                }
+            }
+        }, nanos, bindings);
+
+        System.out.println(sum > 0 ? "" : "-");
+    }
+}
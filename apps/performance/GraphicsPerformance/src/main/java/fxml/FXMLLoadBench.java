@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package fxml;
+
+import com.sun.javafx.fxml.compiler.FXMLCompiler;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import javafx.fxml.FXMLLoader;
+import javafx.fxml.FXMLTemplate;
+import javax.tools.ToolProvider;
+
+/**
+ * Compares loading an FXML document by parsing it with loading the same
+ * document from an FXMLTemplate and through the class generated for it by
+ * FXMLCompiler. The document is a form of labeled rows, a few hundred nodes
+ * in all.
+ *
+ * Usage: java fxml.FXMLLoadBench [seconds per test] [rows]
+ */
+public class FXMLLoadBench {
+
+    static int loaded;
+
+    interface Load {
+        Object load() throws IOException;
+    }
+
+    static void run(String name, Load op, long nanos) throws IOException {
+        // Warm up
+        long end = System.nanoTime() + nanos / 2;
+        while (System.nanoTime() < end) {
+            op.load();
+        }
+
+        long start = System.nanoTime();
+        end = start + nanos;
+        long ops = 0;
+        while (System.nanoTime() < end) {
+            if (op.load() != null) {
+                loaded++;
+            }
+            ops++;
+        }
+        long time = System.nanoTime() - start;
+
+        System.out.println(String.format("%-32s %10.3f ms/load", name, time / 1e6 / ops));
+    }
+
+    static String createDocument(int rows) {
+        StringBuilder document = new StringBuilder();
+        document.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        document.append("<?import javafx.geometry.*?>\n");
+        document.append("<?import javafx.scene.layout.*?>\n");
+        document.append("<?import javafx.scene.shape.*?>\n");
+        document.append("<?import javafx.scene.text.*?>\n");
+        document.append("<VBox xmlns:fx=\"http://javafx.com/fxml/1\" spacing=\"4\">\n");
+        document.append("    <padding><Insets top=\"8\" right=\"8\" bottom=\"8\" left=\"8\"/></padding>\n");
+        for (int i = 0; i < rows; i++) {
+            document.append("    <HBox fx:id=\"row").append(i).append("\" spacing=\"6\" alignment=\"CENTER_LEFT\">\n");
+            document.append("        <Rectangle width=\"16\" height=\"16\" fill=\"#3366cc\" arcWidth=\"4\" arcHeight=\"4\"/>\n");
+            document.append("        <Text text=\"Row ").append(i).append("\" HBox.hgrow=\"ALWAYS\"/>\n");
+            document.append("        <Circle radius=\"6\" fill=\"ORANGE\" visible=\"").append(i % 2 == 0).append("\"/>\n");
+            document.append("    </HBox>\n");
+        }
+        document.append("</VBox>\n");
+
+        return document.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        long nanos = (args.length > 0 ? Long.parseLong(args[0]) : 2) * 1000000000L;
+        int rows = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        // Write the document and the class compiled from it to a temporary
+        // directory that is added to the loader's class path
+        File directory = File.createTempFile("fxmlbench", "");
+        directory.delete();
+        new File(directory, "fxml").mkdirs();
+        directory.deleteOnExit();
+        new File(directory, "fxml").deleteOnExit();
+
+        final byte[] document = createDocument(rows).getBytes("UTF-8");
+        File documentFile = new File(directory, "fxml/bench.fxml");
+        documentFile.deleteOnExit();
+        try (OutputStream outputStream = new FileOutputStream(documentFile)) {
+            outputStream.write(document);
+        }
+
+        String className = FXMLCompiler.getClassName("fxml/bench.fxml");
+        String source = new FXMLCompiler(FXMLLoadBench.class.getClassLoader())
+            .compile(new ByteArrayInputStream(document), className);
+        File sourceFile = new File(directory, className.replace('.', '/') + ".java");
+        sourceFile.deleteOnExit();
+        new File(directory, className.replace('.', '/') + ".class").deleteOnExit();
+        try (OutputStream outputStream = new FileOutputStream(sourceFile)) {
+            outputStream.write(source.getBytes("UTF-8"));
+        }
+
+        int result = ToolProvider.getSystemJavaCompiler().run(null, null, null, "-nowarn",
+            "-classpath", System.getProperty("java.class.path"),
+            "-d", directory.getPath(), sourceFile.getPath());
+        if (result != 0) {
+            throw new IllegalStateException("Unable to compile " + sourceFile);
+        }
+
+        final ClassLoader classLoader = new URLClassLoader(new URL[] {directory.toURI().toURL()},
+            FXMLLoadBench.class.getClassLoader());
+        final URL location = documentFile.toURI().toURL();
+
+        System.out.println(String.format("%d rows, %d nodes", rows, rows * 4 + 1));
+
+        run("parsed", () -> {
+            FXMLLoader loader = new FXMLLoader();
+            loader.setClassLoader(classLoader);
+            return loader.load(new ByteArrayInputStream(document));
+        }, nanos);
+
+        FXMLLoader templateLoader = new FXMLLoader(location);
+        templateLoader.setClassLoader(classLoader);
+        final FXMLTemplate template = templateLoader.loadTemplate();
+        run("template", () -> {
+            FXMLLoader loader = new FXMLLoader();
+            loader.setClassLoader(classLoader);
+            return loader.load(template);
+        }, nanos);
+
+        run("compiled", () -> {
+            FXMLLoader loader = new FXMLLoader(location);
+            loader.setClassLoader(classLoader);
+            return loader.load();
+        }, nanos);
+
+        System.out.println(loaded > 0 ? "" : "-");
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package imagedecode;
+
+import com.sun.javafx.iio.ImageFrame;
+import com.sun.javafx.iio.ImageStorage;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import javax.imageio.ImageIO;
+
+/**
+ * Measures the time and the peak heap needed to make a thumbnail of a
+ * large PNG or JPEG image with the image loaders, compared with decoding
+ * the image at its full size. The images are generated in memory, so the
+ * numbers do not include any I/O.
+ *
+ * Usage: java imagedecode.ThumbnailBench [width height [iterations]]
+ */
+public class ThumbnailBench {
+
+    static final int THUMBNAIL_SIZE = 160;
+
+    static byte[] createImage(int w, int h, int type, String format) throws IOException {
+        BufferedImage img = new BufferedImage(w, h, type);
+        Graphics2D g = img.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, Color.BLUE, w, h, Color.ORANGE));
+        g.fillRect(0, 0, w, h);
+        g.setColor(Color.WHITE);
+        for (int i = 0; i < 200; i++) {
+            g.drawLine(i * w / 200, 0, w - i * w / 200, h);
+        }
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(img, format, out);
+        return out.toByteArray();
+    }
+
+    static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    static ImageFrame load(byte[] data, int size) throws Exception {
+        ImageFrame[] frames = ImageStorage.loadAll(new ByteArrayInputStream(data),
+                                                   null, size, size, true, 1.0f, true);
+        return frames[0];
+    }
+
+    static void run(String name, byte[] data, int size, int iterations) throws Exception {
+        // Warm up
+        for (int i = 0; i < 3; i++) {
+            load(data, size);
+        }
+
+        System.gc();
+        long base = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        resetPeakHeap();
+        long start = System.nanoTime();
+        ImageFrame frame = null;
+        for (int i = 0; i < iterations; i++) {
+            frame = load(data, size);
+        }
+        long time = System.nanoTime() - start;
+        long peak = peakHeap() - base;
+
+        System.out.println(String.format("%-20s %5dx%-5d %10.1f ms/image %10d KB peak heap",
+                                         name, frame.getWidth(), frame.getHeight(),
+                                         time / 1000000.0 / iterations,
+                                         Math.max(0, peak) / 1024));
+    }
+
+    public static void main(String[] args) throws Exception {
+        int w = args.length > 1 ? Integer.parseInt(args[0]) : 6000;
+        int h = args.length > 1 ? Integer.parseInt(args[1]) : 4000;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        System.out.println("Source images are " + w + "x" + h);
+        byte[] png = createImage(w, h, BufferedImage.TYPE_INT_RGB, "png");
+        byte[] palette = createImage(w, h, BufferedImage.TYPE_BYTE_INDEXED, "png");
+        byte[] jpeg = createImage(w, h, BufferedImage.TYPE_INT_RGB, "jpeg");
+
+        run("png thumbnail", png, THUMBNAIL_SIZE, iterations);
+        run("png full size", png, 0, iterations);
+        run("palette thumbnail", palette, THUMBNAIL_SIZE, iterations);
+        run("palette full size", palette, 0, iterations);
+        run("jpeg thumbnail", jpeg, THUMBNAIL_SIZE, iterations);
+        run("jpeg full size", jpeg, 0, iterations);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package nodecount;
+
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+
+/**
+ * Renders a grid of stroked circles, which the software pipeline has to
+ * rasterize as general shapes. Run it with -Dprism.order=sw and different
+ * values of -Dprism.sw.threads (and optionally -Dprism.sw.tilesize) to
+ * see how the frame time scales with the number of cores.
+ */
+public class CircleBench extends BenchBase<Circle> {
+
+    @Override protected void resizeAndRelocate(Circle circle, double x, double y, double width, double height) {
+        circle.setCenterX(x + width / 2);
+        circle.setCenterY(y + height / 2);
+        circle.setRadius(Math.min(width, height) / 2);
+    }
+
+    @Override protected Circle createNode() {
+        Circle circle = new Circle();
+        circle.setFill(new Color(Math.random(), Math.random(), Math.random(), 0.8));
+        circle.setStroke(Color.BLACK);
+        circle.setStrokeWidth(2);
+        return circle;
+    }
+
+    @Override protected void printResults(BenchTest[] tests) {
+        System.out.println("prism.sw.threads=" + System.getProperty("prism.sw.threads", "0") +
+                           " prism.sw.tilesize=" + System.getProperty("prism.sw.tilesize", "256"));
+        System.out.println("nodes\tframe time (ms) simple\tpixel\trotating");
+        for (int i=0; i<tests.length; i+=3) {
+            System.out.print(tests[i].getNodeCount() + "\t");
+            System.out.print(1000 / tests[i].getMaxFPS() + "\t");
+            System.out.print(1000 / tests[i+1].getMaxFPS() + "\t");
+            System.out.println(1000 / tests[i+2].getMaxFPS() + "\t");
+        }
+    }
+
+    /**
+     * Java main for when running without JavaFX launcher
+     */
+    public static void main(String[] args) {
+        launch(args);
+    }
+}
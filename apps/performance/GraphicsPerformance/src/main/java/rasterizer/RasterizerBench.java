@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package rasterizer;
+
+import com.sun.javafx.geom.Ellipse2D;
+import com.sun.javafx.geom.Path2D;
+import com.sun.javafx.geom.RectBounds;
+import com.sun.javafx.geom.Shape;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.prism.BasicStroke;
+import com.sun.prism.impl.shape.NativePiscesRasterizer;
+import com.sun.prism.impl.shape.OpenPiscesRasterizer;
+import com.sun.prism.impl.shape.ScanlineRasterizer;
+import com.sun.prism.impl.shape.ShapeRasterizer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the throughput and the garbage produced by the shape
+ * rasterizers on a few workloads that are known to be expensive: dashed
+ * strokes, many thin strokes and paths with a very large number of
+ * segments. The rasterizers are driven directly, without a stage, so the
+ * numbers only reflect the mask generation.
+ *
+ * Usage: java rasterizer.RasterizerBench [seconds per test]
+ */
+public class RasterizerBench {
+
+    static class Workload {
+        final String name;
+        final Shape shape;
+        final BasicStroke stroke;
+        final RectBounds bounds;
+
+        Workload(String name, Shape shape, BasicStroke stroke) {
+            this.name = name;
+            this.shape = shape;
+            this.stroke = stroke;
+            Shape s = (stroke == null) ? shape : stroke.createStrokedShape(shape);
+            this.bounds = s.getBounds();
+        }
+    }
+
+    static List<Workload> createWorkloads() {
+        List<Workload> list = new ArrayList<>();
+
+        Ellipse2D ellipse = new Ellipse2D(10, 10, 480, 300);
+        list.add(new Workload("dashed ellipse", ellipse,
+                new BasicStroke(2f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10f,
+                                new float[] { 6f, 4f }, 0f)));
+
+        Path2D lines = new Path2D();
+        for (int i = 0; i < 1000; i++) {
+            lines.moveTo(10, 10 + i * 0.5f);
+            lines.lineTo(490, 20 + i * 0.5f);
+        }
+        list.add(new Workload("1000 thin strokes", lines,
+                new BasicStroke(0.5f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10f)));
+
+        Path2D big = new Path2D();
+        big.moveTo(250, 250);
+        int n = 100000;
+        for (int i = 1; i <= n; i++) {
+            double a = i * 2 * Math.PI / n;
+            double r = 120 + 100 * Math.sin(a * 173);
+            big.lineTo((float) (250 + r * Math.cos(a)), (float) (250 + r * Math.sin(a)));
+        }
+        big.closePath();
+        list.add(new Workload("100k segment fill", big, null));
+
+        return list;
+    }
+
+    static ShapeRasterizer createNativeRasterizer() {
+        try {
+            return new NativePiscesRasterizer();
+        } catch (Throwable t) {
+            System.out.println("Native Pisces rasterizer not available: " + t);
+            return null;
+        }
+    }
+
+    static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(
+                    Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    static void run(String name, ShapeRasterizer r, Workload w, long nanos) {
+        // Warm up
+        long end = System.nanoTime() + nanos / 2;
+        while (System.nanoTime() < end) {
+            r.getMaskData(w.shape, w.stroke, w.bounds, BaseTransform.IDENTITY_TRANSFORM, true, true);
+        }
+
+        long alloc0 = allocatedBytes();
+        long start = System.nanoTime();
+        end = start + nanos;
+        int ops = 0;
+        long now;
+        do {
+            r.getMaskData(w.shape, w.stroke, w.bounds, BaseTransform.IDENTITY_TRANSFORM, true, true);
+            ops++;
+        } while ((now = System.nanoTime()) < end);
+        long alloc1 = allocatedBytes();
+
+        double usPerOp = (now - start) / 1000.0 / ops;
+        String bytesPerOp = (alloc0 < 0) ? "n/a" : String.valueOf((alloc1 - alloc0) / ops);
+        System.out.println(String.format("%-20s %-12s %12.1f us/op %12s bytes/op",
+                                         w.name, name, usPerOp, bytesPerOp));
+    }
+
+    public static void main(String[] args) {
+        long nanos = (args.length > 0 ? Long.parseLong(args[0]) : 2) * 1000000000L;
+
+        List<String> names = new ArrayList<>();
+        List<ShapeRasterizer> rasterizers = new ArrayList<>();
+        names.add("scanline");
+        rasterizers.add(new ScanlineRasterizer());
+        names.add("openpisces");
+        rasterizers.add(new OpenPiscesRasterizer());
+        ShapeRasterizer nativeRasterizer = createNativeRasterizer();
+        if (nativeRasterizer != null) {
+            names.add("native");
+            rasterizers.add(nativeRasterizer);
+        }
+
+        for (Workload w : createWorkloads()) {
+            for (int i = 0; i < rasterizers.size(); i++) {
+                run(names.get(i), rasterizers.get(i), w, nanos);
+            }
+        }
+    }
+}
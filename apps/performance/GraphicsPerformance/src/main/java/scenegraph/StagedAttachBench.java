@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package scenegraph;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import com.sun.javafx.tk.Toolkit;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.SubtreeStaging;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Text;
+import javafx.stage.Stage;
+
+/**
+ * Measures how long the thread that owns the scene is blocked when a large
+ * subtree that was built on another thread is added to the scene: 2000 rows
+ * of an HBox with a Region, a Text, a Rectangle and a Circle, 10001 nodes in
+ * total, styled by a scene stylesheet with descendant and pseudo-class
+ * selectors and looked-up colors.
+ * <p>
+ * "plain" adds the subtree to the scene graph as built, "staged" applies
+ * CSS to the subtree and lays it out with {@link SubtreeStaging#prepare} on
+ * the worker thread and adds it with {@link SubtreeStaging#attach}. The time
+ * reported is that of adding the subtree plus the pulse that follows (CSS,
+ * layout and synchronization of the peers), which is fired directly on the
+ * JavaFX Application Thread. Rendering is not included. The worker's time
+ * to prepare a subtree is reported separately.
+ *
+ * Usage: java scenegraph.StagedAttachBench [seconds per test] [rows]
+ */
+public class StagedAttachBench extends Application {
+
+    static final String STYLESHEET =
+        ".root { row-color: #f4f4f4; accent: #3080d0; }\n" +
+        ".content .row { -fx-padding: 2 4 2 4; -fx-spacing: 6; -fx-background-color: row-color; }\n" +
+        ".content .row:hover { -fx-background-color: derive(row-color, -10%); }\n" +
+        ".row .swatch { -fx-min-width: 12; -fx-min-height: 12; -fx-background-color: accent; -fx-background-radius: 3; }\n" +
+        ".row .label { -fx-font-size: 12; -fx-fill: #202020; }\n" +
+        ".content:disabled .row .label { -fx-fill: #808080; }\n" +
+        ".row .bar { -fx-fill: accent; -fx-arc-width: 4; -fx-arc-height: 4; }\n" +
+        ".row .dot { -fx-fill: derive(accent, 40%); -fx-stroke: accent; }\n";
+
+    static Node createPage(int rows) {
+        VBox page = new VBox();
+        page.getStyleClass().add("page");
+        for (int i = 0; i < rows; i++) {
+            Region swatch = new Region();
+            swatch.getStyleClass().add("swatch");
+            Text label = new Text("Row " + i);
+            label.getStyleClass().add("label");
+            Rectangle bar = new Rectangle(40 + i % 60, 8);
+            bar.getStyleClass().add("bar");
+            Circle dot = new Circle(4);
+            dot.getStyleClass().add("dot");
+            HBox row = new HBox(swatch, label, bar, dot);
+            row.getStyleClass().add("row");
+            page.getChildren().add(row);
+        }
+        return page;
+    }
+
+    static int count(Node node) {
+        int count = 1;
+        if (node instanceof Pane) {
+            for (Node child : ((Pane) node).getChildren()) {
+                count += count(child);
+            }
+        }
+        return count;
+    }
+
+    interface Attach {
+        void attach(Node page);
+    }
+
+    // Builds (and if staging is not null, prepares) pages on a worker thread
+    static class Producer extends Thread {
+        final BlockingQueue<Node> pages = new ArrayBlockingQueue<>(2);
+        final AtomicLong prepareTime = new AtomicLong();
+        final AtomicLong prepared = new AtomicLong();
+        final SubtreeStaging staging;
+        final int rows;
+
+        Producer(SubtreeStaging staging, int rows) {
+            this.staging = staging;
+            this.rows = rows;
+            setDaemon(true);
+        }
+
+        @Override public void run() {
+            try {
+                while (true) {
+                    Node page = createPage(rows);
+                    if (staging != null) {
+                        long start = System.nanoTime();
+                        staging.prepare(page);
+                        prepareTime.addAndGet(System.nanoTime() - start);
+                        prepared.incrementAndGet();
+                    }
+                    pages.put(page);
+                }
+            } catch (InterruptedException e) {
+                // done
+            }
+        }
+    }
+
+    static void run(String name, Pane content, SubtreeStaging staging,
+                    Attach attach, int rows, long nanos) throws InterruptedException {
+        Producer producer = new Producer(staging, rows);
+        producer.start();
+
+        // Warm up
+        long end = System.nanoTime() + nanos / 2;
+        while (System.nanoTime() < end) {
+            attach.attach(producer.pages.take());
+            Toolkit.getToolkit().firePulse();
+            content.getChildren().clear();
+            Toolkit.getToolkit().firePulse();
+        }
+
+        long blocked = 0;
+        long ops = 0;
+        long prepareTime = producer.prepareTime.get();
+        long prepared = producer.prepared.get();
+        end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            Node page = producer.pages.take();
+            long start = System.nanoTime();
+            attach.attach(page);
+            Toolkit.getToolkit().firePulse();
+            blocked += System.nanoTime() - start;
+            ops++;
+            content.getChildren().clear();
+            Toolkit.getToolkit().firePulse();
+        }
+        prepareTime = producer.prepareTime.get() - prepareTime;
+        prepared = producer.prepared.get() - prepared;
+        producer.interrupt();
+        producer.join();
+
+        System.out.println(String.format("%-24s %10.3f ms blocked/attach", name, blocked / 1e6 / ops)
+            + (prepared > 0
+                ? String.format(" %10.3f ms prepare on worker", prepareTime / 1e6 / prepared)
+                : ""));
+    }
+
+    static void runBenchmarks(Stage stage, long nanos, int rows) throws IOException, InterruptedException {
+        File css = File.createTempFile("StagedAttachBench", ".css");
+        css.deleteOnExit();
+        try (Writer writer = new FileWriter(css)) {
+            writer.write(STYLESHEET);
+        }
+
+        Pane content = new Pane();
+        content.getStyleClass().add("content");
+        Scene scene = new Scene(new BorderPane(content), 800, 600);
+        scene.getStylesheets().add(css.toURI().toURL().toExternalForm());
+        stage.setScene(scene);
+        stage.show();
+        Toolkit.getToolkit().firePulse();
+
+        System.out.println(String.format("%d rows, %d nodes per subtree", rows, count(createPage(rows))));
+
+        run("plain", content, null,
+            page -> content.getChildren().add(page), rows, nanos);
+
+        SubtreeStaging staging = new SubtreeStaging(content);
+        run("staged", content, staging,
+            page -> staging.attach(page), rows, nanos);
+    }
+
+    @Override public void start(Stage stage) throws Exception {
+        List<String> args = getParameters().getRaw();
+        long nanos = (args.size() > 0 ? Long.parseLong(args.get(0)) : 4) * 1000000000L;
+        int rows = args.size() > 1 ? Integer.parseInt(args.get(1)) : 2000;
+        runBenchmarks(stage, nanos, rows);
+        Platform.exit();
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+}
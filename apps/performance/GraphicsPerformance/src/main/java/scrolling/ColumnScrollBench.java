@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package scrolling;
+
+import java.util.Arrays;
+import java.util.List;
+import com.sun.javafx.scene.control.skin.TableViewSkin;
+import com.sun.javafx.scene.control.skin.TableViewSkinBase;
+import com.sun.javafx.scene.control.skin.VirtualFlow;
+import com.sun.javafx.scene.control.skin.VirtualScrollBar;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.stage.Stage;
+
+/**
+ * Measures the frame times of scrolling a TableView of 500 columns, with and
+ * without column virtualization.
+ * <p>
+ * "horizontal" scrolls right by 120 pixels a frame (wrapping around at the
+ * end), "vertical" scrolls down by 80 pixels a frame. Each frame is followed
+ * by a CSS and layout pass. Also reported is the number of nodes in the scene
+ * graph, which is what column virtualization keeps down to the columns in the
+ * viewport.
+ *
+ * Usage: java scrolling.ColumnScrollBench [seconds per test]
+ */
+public class ColumnScrollBench extends Application {
+
+    static final int COLUMN_COUNT = 500;
+    static final int ROW_COUNT = 10000;
+
+    interface Workload {
+        void run(TableView<Integer> table, VirtualFlow<?> flow, VirtualScrollBar hbar);
+    }
+
+    static void layout(TableView<Integer> table) {
+        table.applyCss();
+        table.layout();
+    }
+
+    static int countNodes(Node node) {
+        int count = 1;
+        if (node instanceof Parent) {
+            for (Node child : ((Parent) node).getChildrenUnmodifiable()) {
+                count += countNodes(child);
+            }
+        }
+        return count;
+    }
+
+    static void run(String name, String mode, TableView<Integer> table, Workload workload, long nanos) {
+        VirtualFlow<?> flow = (VirtualFlow<?>) table.lookup(".virtual-flow");
+        VirtualScrollBar hbar = null;
+        for (Node child : flow.getChildrenUnmodifiable()) {
+            if (child instanceof VirtualScrollBar && ((VirtualScrollBar) child).getOrientation() == Orientation.HORIZONTAL) {
+                hbar = (VirtualScrollBar) child;
+            }
+        }
+
+        // Warm up
+        long end = System.nanoTime() + nanos / 2;
+        while (System.nanoTime() < end) {
+            workload.run(table, flow, hbar);
+        }
+
+        long[] frames = new long[1024];
+        int count = 0;
+        long start = System.nanoTime();
+        end = start + nanos;
+        long now = start;
+        do {
+            long frameStart = now;
+            workload.run(table, flow, hbar);
+            now = System.nanoTime();
+            if (count == frames.length) {
+                frames = Arrays.copyOf(frames, count * 2);
+            }
+            frames[count++] = now - frameStart;
+        } while (now < end);
+
+        Arrays.sort(frames, 0, count);
+        System.out.println(String.format("%-12s %-12s %10.2f ms/frame %10.2f ms p99 %10.2f ms max",
+                                         mode, name, (now - start) / 1e6 / count,
+                                         frames[(int) (count * 0.99)] / 1e6, frames[count - 1] / 1e6));
+    }
+
+    static void runBenchmarks(Stage stage, long nanos) {
+        ObservableList<Integer> items = FXCollections.observableArrayList();
+        for (int i = 0; i < ROW_COUNT; i++) {
+            items.add(i);
+        }
+
+        for (boolean virtualize : new boolean[] { false, true }) {
+            String mode = virtualize ? "virtualized" : "legacy";
+            TableView<Integer> table = new TableView<>(items);
+            for (int i = 0; i < COLUMN_COUNT; i++) {
+                final int column = i;
+                TableColumn<Integer,String> col = new TableColumn<>("Column " + i);
+                col.setPrefWidth(100);
+                col.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>("Cell " + param.getValue() + "," + column));
+                table.getColumns().add(col);
+            }
+            table.getProperties().put(TableViewSkinBase.COLUMN_VIRTUALIZATION_ENABLED_KEY, virtualize);
+            table.setSkin(new TableViewSkin<>(table));
+            table.setPrefSize(1200, 800);
+            stage.setScene(new Scene(new Group(table), 1200, 800));
+            stage.show();
+
+            long start = System.nanoTime();
+            layout(table);
+            System.out.println(String.format("%-12s %-12s %10.2f ms %10d nodes",
+                                             mode, "first layout", (System.nanoTime() - start) / 1e6, countNodes(table)));
+
+            run("horizontal", mode, table, (t, flow, hbar) -> {
+                hbar.setValue(hbar.getValue() >= hbar.getMax() ? 0 : Math.min(hbar.getMax(), hbar.getValue() + 120));
+                layout(t);
+            }, nanos);
+            run("vertical", mode, table, (t, flow, hbar) -> {
+                if (flow.getPosition() >= 1) {
+                    flow.setPosition(0);
+                }
+                flow.adjustPixels(80);
+                layout(t);
+            }, nanos);
+        }
+    }
+
+    @Override public void start(Stage stage) throws Exception {
+        List<String> args = getParameters().getRaw();
+        long nanos = (args.size() > 0 ? Long.parseLong(args.get(0)) : 2) * 1000000000L;
+        runBenchmarks(stage, nanos);
+        Platform.exit();
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package scrolling;
+
+import java.util.Arrays;
+import java.util.List;
+import com.sun.javafx.scene.control.CellValueFactory;
+import com.sun.javafx.scene.control.skin.ListViewSkin;
+import com.sun.javafx.scene.control.skin.VirtualContainerBase;
+import com.sun.javafx.scene.control.skin.VirtualFlow;
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.Scene;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.stage.Stage;
+
+/**
+ * Measures the frame times of a ListView whose cells are expensive to update
+ * (each takes about a millisecond, standing in for decoding an image or
+ * formatting many values), while it is scrolled in bursts: 16 rows per frame
+ * for 5 frames, then nothing for 35 frames, as when reading a list.
+ * <p>
+ * "legacy" updates the cells as they are scrolled into view. "prefetch"
+ * keeps 80 cells beyond either end of the viewport updated, doing so in the
+ * frames between the bursts. "prefetch + async" also computes the cell text
+ * on a background thread through a CellValueFactory, so the cells show a
+ * placeholder until the text is bound, a few at a time in each frame.
+ * Reported are the mean, 99th percentile and longest time between frames,
+ * and the number of frames that took longer than 33 ms.
+ *
+ * Usage: java scrolling.PrefetchScrollBench [frames per test]
+ */
+public class PrefetchScrollBench extends Application {
+
+    static final int ROW_COUNT = 100000;
+    static final int ROW_HEIGHT = 24;
+    static final int PREFETCH_COUNT = 80;
+    static final int BURST_ROWS = 16;
+    static final int BURST_FRAMES = 5;
+    static final int PERIOD = 40;
+
+    static final String[] MODES = { "legacy", "prefetch", "prefetch + async" };
+
+    /**
+     * The expensive part of updating a cell.
+     */
+    static String render(Integer item) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1500; i++) {
+            sb.setLength(0);
+            sb.append(String.format("%,.3f", item * 1.1 + i));
+        }
+        return "Row " + item + ": " + sb;
+    }
+
+    static class RenderingCell extends ListCell<Integer> {
+        @Override protected void updateItem(Integer item, boolean empty) {
+            super.updateItem(item, empty);
+            setText(empty || item == null ? null : render(item));
+        }
+    }
+
+    static class AsyncRenderingCell extends ListCell<Integer> {
+        final CellValueFactory<Integer, String> renderer;
+
+        AsyncRenderingCell(CellValueFactory<Integer, String> renderer) {
+            this.renderer = renderer;
+        }
+
+        @Override protected void updateItem(Integer item, boolean empty) {
+            super.updateItem(item, empty);
+            String text = empty ? null : renderer.getValue(item, this);
+            setText(empty ? null : text == null ? "Row " + item : text);
+        }
+    }
+
+    static ListView<Integer> createListView(String mode) {
+        ObservableList<Integer> items = FXCollections.observableArrayList();
+        for (int i = 0; i < ROW_COUNT; i++) {
+            items.add(i);
+        }
+        ListView<Integer> listView = new ListView<>(items);
+        listView.setFixedCellSize(ROW_HEIGHT);
+
+        if (mode.endsWith("async")) {
+            CellValueFactory<Integer, String> renderer =
+                    new CellValueFactory<>(PrefetchScrollBench::render, (cell, text) -> cell.setText(text));
+            listView.setCellFactory(l -> new AsyncRenderingCell(renderer));
+        } else {
+            listView.setCellFactory(l -> new RenderingCell());
+        }
+        if (mode.startsWith("prefetch")) {
+            listView.getProperties().put(VirtualContainerBase.PREFETCH_COUNT_KEY, PREFETCH_COUNT);
+        }
+        listView.setSkin(new ListViewSkin<>(listView));
+        return listView;
+    }
+
+    static void print(String mode, long[] frameNanos) {
+        long[] sorted = frameNanos.clone();
+        Arrays.sort(sorted);
+        long total = 0;
+        int slow = 0;
+        for (long nanos : sorted) {
+            total += nanos;
+            if (nanos > 33000000) slow++;
+        }
+        System.out.println(String.format("%-18s mean %6.2f ms   p99 %6.2f ms   max %6.2f ms   %4d frames over 33 ms",
+                                         mode, total / 1e6 / sorted.length,
+                                         sorted[(int) (sorted.length * 0.99)] / 1e6,
+                                         sorted[sorted.length - 1] / 1e6, slow));
+    }
+
+    static void runBenchmarks(Stage stage, int frames, Runnable onFinished) {
+        runBenchmark(stage, 0, frames, onFinished);
+    }
+
+    static void runBenchmark(Stage stage, int mode, int frames, Runnable onFinished) {
+        if (mode >= MODES.length) {
+            onFinished.run();
+            return;
+        }
+
+        ListView<Integer> listView = createListView(MODES[mode]);
+        stage.setScene(new Scene(listView, 400, 600));
+        stage.show();
+
+        new AnimationTimer() {
+            final long[] frameNanos = new long[frames];
+            // the first period is a warm up
+            int frame = -PERIOD;
+            long last;
+
+            @Override public void handle(long now) {
+                long time = System.nanoTime();
+                if (frame >= 0) {
+                    frameNanos[frame] = time - last;
+                }
+                last = time;
+
+                if (++frame == frames) {
+                    stop();
+                    print(MODES[mode], frameNanos);
+                    runBenchmark(stage, mode + 1, frames, onFinished);
+                    return;
+                }
+
+                if ((frame + PERIOD) % PERIOD < BURST_FRAMES) {
+                    VirtualFlow<?> flow = (VirtualFlow<?>) listView.lookup(".virtual-flow");
+                    flow.adjustPixels(BURST_ROWS * ROW_HEIGHT);
+                }
+            }
+        }.start();
+    }
+
+    @Override public void start(Stage stage) throws Exception {
+        List<String> args = getParameters().getRaw();
+        int frames = args.size() > 0 ? Integer.parseInt(args.get(0)) : 600;
+        runBenchmarks(stage, frames, Platform::exit);
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package scrolling;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.sun.javafx.scene.control.skin.ListViewSkin;
+import com.sun.javafx.scene.control.skin.TableViewSkin;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.scene.control.ListView;
+import javafx.scene.control.MultipleSelectionModel;
+import javafx.scene.control.SelectionMode;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TablePosition;
+import javafx.scene.control.TableView;
+import javafx.stage.Stage;
+
+/**
+ * Measures the latency and retained memory of bulk selection operations on a
+ * TableView of 200,000 rows by 50 columns (in cell selection mode) and on a
+ * ListView of 1,000,000 rows.
+ * <p>
+ * Each operation is timed from a cleared selection, except for "sort
+ * selected", which sorts with half of the rows selected (the difference to
+ * "sort" being the cost of remapping the selection), and "read indices",
+ * which walks the selected indices list of a full selection. After the last
+ * iteration the heap retained by the selection is reported. For comparison,
+ * "materialize" reports the cost of copying the selected cells into a list,
+ * which is roughly what holding one TablePosition per selected cell costs.
+ *
+ * Usage: java scrolling.SelectionBench [seconds per test]
+ */
+public class SelectionBench extends Application {
+
+    static final int TABLE_ROW_COUNT = 200000;
+    static final int TABLE_COLUMN_COUNT = 50;
+    static final int LIST_ROW_COUNT = 1000000;
+
+    interface Operation {
+        // prepares the selection, untimed
+        default void setup() { }
+        void run();
+    }
+
+    static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    static void run(String control, String name, Operation operation, long nanos) {
+        // Warm up
+        long end = System.nanoTime() + nanos / 2;
+        while (System.nanoTime() < end) {
+            operation.setup();
+            operation.run();
+        }
+
+        int count = 0;
+        long total = 0;
+        long retained = 0;
+        end = System.nanoTime() + nanos;
+        do {
+            operation.setup();
+            long before = usedMemory();
+            long start = System.nanoTime();
+            operation.run();
+            total += System.nanoTime() - start;
+            retained = usedMemory() - before;
+            count++;
+        } while (System.nanoTime() < end);
+
+        System.out.println(String.format("%-10s %-14s %10.2f ms/op %10.1f MB retained",
+                                         control, name, total / 1e6 / count, Math.max(0, retained) / 1e6));
+    }
+
+    static void runTableBenchmarks(Stage stage, long nanos) {
+        ObservableList<Integer> items = FXCollections.observableArrayList();
+        for (int i = 0; i < TABLE_ROW_COUNT; i++) {
+            items.add(i);
+        }
+
+        TableView<Integer> table = new TableView<>(items);
+        for (int i = 0; i < TABLE_COLUMN_COUNT; i++) {
+            final int column = i;
+            TableColumn<Integer,String> col = new TableColumn<>("Column " + i);
+            col.setPrefWidth(100);
+            col.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>("Cell " + param.getValue() + "," + column));
+            table.getColumns().add(col);
+        }
+        table.setSkin(new TableViewSkin<>(table));
+        table.setPrefSize(1200, 800);
+        stage.setScene(new Scene(new Group(table), 1200, 800));
+        stage.show();
+        table.applyCss();
+        table.layout();
+
+        TableView.TableViewSelectionModel<Integer> sm = table.getSelectionModel();
+        sm.setSelectionMode(SelectionMode.MULTIPLE);
+        sm.setCellSelectionEnabled(true);
+
+        TableColumn<Integer,?> first = table.getVisibleLeafColumn(0);
+        TableColumn<Integer,?> last = table.getVisibleLeafColumn(TABLE_COLUMN_COUNT - 1);
+        table.getSortOrder().add(first);
+
+        run("table", "select all", new Operation() {
+            @Override public void setup() { sm.clearSelection(); }
+            @Override public void run() { sm.selectAll(); }
+        }, nanos);
+        run("table", "shift-click", new Operation() {
+            @Override public void setup() { sm.clearAndSelect(10, first); }
+            @Override public void run() { sm.selectRange(10, first, TABLE_ROW_COUNT - 10, last); }
+        }, nanos);
+        Runnable toggleSort = () -> first.setSortType(first.getSortType() == TableColumn.SortType.ASCENDING ?
+                TableColumn.SortType.DESCENDING : TableColumn.SortType.ASCENDING);
+        run("table", "sort", new Operation() {
+            @Override public void setup() { sm.clearSelection(); }
+            @Override public void run() { toggleSort.run(); }
+        }, nanos);
+        run("table", "sort selected", new Operation() {
+            @Override public void setup() {
+                if (sm.getSelectedIndices().size() != TABLE_ROW_COUNT / 2) {
+                    sm.clearSelection();
+                    sm.selectRange(0, first, TABLE_ROW_COUNT / 2 - 1, last);
+                }
+            }
+            @Override public void run() { toggleSort.run(); }
+        }, nanos);
+        run("table", "materialize", new Operation() {
+            List<TablePosition> copy;
+            @Override public void setup() {
+                copy = null;
+                if (sm.getSelectedCells().size() != TABLE_ROW_COUNT * TABLE_COLUMN_COUNT) {
+                    sm.selectAll();
+                }
+            }
+            @Override public void run() { copy = new ArrayList<>(sm.getSelectedCells()); }
+        }, nanos);
+        sm.clearSelection();
+    }
+
+    static void runListBenchmarks(Stage stage, long nanos) {
+        ObservableList<Integer> items = FXCollections.observableArrayList();
+        for (int i = 0; i < LIST_ROW_COUNT; i++) {
+            items.add(i);
+        }
+
+        ListView<Integer> list = new ListView<>(items);
+        list.setSkin(new ListViewSkin<>(list));
+        list.setPrefSize(400, 800);
+        stage.setScene(new Scene(new Group(list), 400, 800));
+        list.applyCss();
+        list.layout();
+
+        MultipleSelectionModel<Integer> sm = list.getSelectionModel();
+        sm.setSelectionMode(SelectionMode.MULTIPLE);
+
+        run("list", "select all", new Operation() {
+            @Override public void setup() { sm.clearSelection(); }
+            @Override public void run() { sm.selectAll(); }
+        }, nanos);
+        run("list", "shift-click", new Operation() {
+            @Override public void setup() { sm.clearAndSelect(10); }
+            @Override public void run() { sm.selectRange(10, LIST_ROW_COUNT - 10); }
+        }, nanos);
+        run("list", "read indices", new Operation() {
+            @Override public void setup() {
+                if (sm.getSelectedIndices().size() != LIST_ROW_COUNT) {
+                    sm.selectAll();
+                }
+            }
+            @Override public void run() {
+                List<Integer> indices = sm.getSelectedIndices();
+                long sum = 0;
+                for (int i = 0, max = indices.size(); i < max; i++) {
+                    sum += indices.get(i);
+                }
+                if (sum < 0) throw new AssertionError();
+            }
+        }, nanos);
+        sm.clearSelection();
+    }
+
+    static void runBenchmarks(Stage stage, long nanos) {
+        runTableBenchmarks(stage, nanos);
+        runListBenchmarks(stage, nanos);
+    }
+
+    @Override public void start(Stage stage) throws Exception {
+        List<String> args = getParameters().getRaw();
+        long nanos = (args.size() > 0 ? Long.parseLong(args.get(0)) : 2) * 1000000000L;
+        runBenchmarks(stage, nanos);
+        Platform.exit();
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+}
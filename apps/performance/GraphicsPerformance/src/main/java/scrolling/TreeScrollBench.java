@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package scrolling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+import java.util.function.ToIntFunction;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.control.MultipleSelectionModel;
+import javafx.scene.control.SelectionMode;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeTableView;
+import javafx.scene.control.TreeView;
+import javafx.stage.Stage;
+
+/**
+ * Measures the row to TreeItem mapping that TreeView and TreeTableView (and
+ * their selection models) rely on, in trees of 1M nodes that are fully
+ * expanded: a flat tree where all nodes are children of the root, and a
+ * nested tree of 100 x 100 x 100 nodes.
+ * <p>
+ * "scroll" asks for the TreeItems of a page of 50 rows at a random position,
+ * as the skin does when the view is scrolled. "select row" and "select item"
+ * select a random row, or the row of a random TreeItem, through the
+ * selection model. "expand + scroll" collapses or expands a random branch
+ * and then asks for a page of rows, so that it includes the cost of bringing
+ * the counts up to date again. The selection is cleared first, so that this
+ * does not include the selection models shifting the selected rows. Only the
+ * controls are measured, no skin is created.
+ *
+ * Usage: java scrolling.TreeScrollBench [seconds per test]
+ */
+public class TreeScrollBench extends Application {
+
+    static final int PAGE_SIZE = 50;
+
+    static class Tree {
+        final String name;
+        final IntSupplier getRowCount;
+        final IntFunction<TreeItem<Integer>> getTreeItem;
+        final ToIntFunction<TreeItem<Integer>> getRow;
+        final MultipleSelectionModel<TreeItem<Integer>> selectionModel;
+        final List<TreeItem<Integer>> items;
+        final List<TreeItem<Integer>> branches;
+
+        Tree(String name, IntSupplier getRowCount, IntFunction<TreeItem<Integer>> getTreeItem,
+                ToIntFunction<TreeItem<Integer>> getRow,
+                MultipleSelectionModel<TreeItem<Integer>> selectionModel,
+                List<TreeItem<Integer>> items, List<TreeItem<Integer>> branches) {
+            this.name = name;
+            this.getRowCount = getRowCount;
+            this.getTreeItem = getTreeItem;
+            this.getRow = getRow;
+            this.selectionModel = selectionModel;
+            this.items = items;
+            this.branches = branches;
+        }
+    }
+
+    interface Workload {
+        void run(Tree tree, Random random);
+    }
+
+    static TreeItem<Integer> createTree(int[] fanOut, List<TreeItem<Integer>> items, List<TreeItem<Integer>> branches) {
+        TreeItem<Integer> root = new TreeItem<>(0);
+        root.setExpanded(true);
+        List<TreeItem<Integer>> level = new ArrayList<>();
+        level.add(root);
+        for (int depth = 0; depth < fanOut.length; depth++) {
+            List<TreeItem<Integer>> next = new ArrayList<>();
+            for (TreeItem<Integer> parent : level) {
+                List<TreeItem<Integer>> children = new ArrayList<>(fanOut[depth]);
+                for (int i = 0; i < fanOut[depth]; i++) {
+                    TreeItem<Integer> child = new TreeItem<>(items.size());
+                    child.setExpanded(true);
+                    children.add(child);
+                    items.add(child);
+                }
+                parent.getChildren().setAll(children);
+                next.addAll(children);
+                if (depth > 0) branches.add(parent);
+            }
+            level = next;
+        }
+        return root;
+    }
+
+    static void scroll(Tree tree, Random random) {
+        int top = random.nextInt(tree.getRowCount.getAsInt() - PAGE_SIZE);
+        for (int row = top; row < top + PAGE_SIZE; row++) {
+            if (tree.getTreeItem.apply(row) == null) {
+                throw new IllegalStateException("no TreeItem in row " + row);
+            }
+        }
+    }
+
+    static void run(String name, Tree tree, Workload workload, long nanos) {
+        Random random = new Random(0);
+
+        // Warm up
+        long end = System.nanoTime() + nanos / 2;
+        while (System.nanoTime() < end) {
+            workload.run(tree, random);
+        }
+
+        long start = System.nanoTime();
+        end = start + nanos;
+        int ops = 0;
+        long now;
+        do {
+            workload.run(tree, random);
+            ops++;
+        } while ((now = System.nanoTime()) < end);
+
+        System.out.println(String.format("%-14s %-16s %14.1f us/op %10.1f ops/s",
+                                         tree.name, name, (now - start) / 1000.0 / ops,
+                                         ops * 1e9 / (now - start)));
+    }
+
+    static void runBenchmarks(long nanos) {
+        for (int[] fanOut : new int[][] { { 1000000 }, { 100, 100, 100 } }) {
+            List<TreeItem<Integer>> items = new ArrayList<>();
+            List<TreeItem<Integer>> branches = new ArrayList<>();
+            TreeItem<Integer> root = createTree(fanOut, items, branches);
+            String shape = fanOut.length == 1 ? "flat" : "nested";
+
+            TreeView<Integer> treeView = new TreeView<>(root);
+            treeView.setShowRoot(false);
+            treeView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+            TreeTableView<Integer> treeTableView = new TreeTableView<>(root);
+            treeTableView.setShowRoot(false);
+            treeTableView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+
+            Tree[] trees = {
+                new Tree("TreeView " + shape, treeView::getExpandedItemCount,
+                         treeView::getTreeItem, treeView::getRow,
+                         treeView.getSelectionModel(), items, branches),
+                new Tree("TreeTable " + shape, treeTableView::getExpandedItemCount,
+                         treeTableView::getTreeItem, treeTableView::getRow,
+                         treeTableView.getSelectionModel(), items, branches)
+            };
+
+            for (Tree tree : trees) {
+                run("scroll", tree, TreeScrollBench::scroll, nanos);
+                run("select row", tree, (t, random) -> {
+                    t.selectionModel.clearAndSelect(random.nextInt(t.items.size()));
+                }, nanos);
+                run("select item", tree, (t, random) -> {
+                    TreeItem<Integer> item = t.items.get(random.nextInt(t.items.size()));
+                    t.selectionModel.clearAndSelect(t.getRow.applyAsInt(item));
+                }, nanos);
+                tree.selectionModel.clearSelection();
+                run("expand + scroll", tree, (t, random) -> {
+                    if (t.branches.isEmpty()) {
+                        // collapsing the root of the flat tree would leave
+                        // nothing to scroll, so give a random item a child
+                        TreeItem<Integer> item = t.items.get(random.nextInt(t.items.size()));
+                        item.getChildren().add(new TreeItem<>(-1));
+                        scroll(t, random);
+                        item.getChildren().clear();
+                    } else {
+                        TreeItem<Integer> branch = t.branches.get(random.nextInt(t.branches.size()));
+                        branch.setExpanded(false);
+                        scroll(t, random);
+                        branch.setExpanded(true);
+                    }
+                    scroll(t, random);
+                }, nanos);
+            }
+
+            // let go of the previous tree before building the next one
+            treeView.setRoot(null);
+            treeTableView.setRoot(null);
+        }
+    }
+
+    @Override public void start(Stage stage) throws Exception {
+        List<String> args = getParameters().getRaw();
+        long nanos = (args.size() > 0 ? Long.parseLong(args.get(0)) : 2) * 1000000000L;
+        runBenchmarks(nanos);
+        Platform.exit();
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+}
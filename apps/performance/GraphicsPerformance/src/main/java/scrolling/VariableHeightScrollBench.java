@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package scrolling;
+
+import java.util.List;
+import java.util.Random;
+import com.sun.javafx.scene.control.skin.ListViewSkin;
+import com.sun.javafx.scene.control.skin.VirtualContainerBase;
+import com.sun.javafx.scene.control.skin.VirtualFlow;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.stage.Stage;
+
+/**
+ * Measures scrolling a ListView of 100k rows of very different heights, such
+ * as a chat or log view, with and without the VirtualFlow size index.
+ * <p>
+ * "scrollTo" scrolls a random row into view, "page" scrolls down (or up) by
+ * the height of the viewport, "jump" scrolls 10000 pixels at once, as a
+ * fling or a click in the scroll bar track may, and "thumb" moves to a
+ * random position, as dragging the thumb does. Each is followed by a layout
+ * pass. After the timed runs, "thumb error" reports how far (as a fraction
+ * of the scroll bar) the thumb is from where it should be, when random rows
+ * are scrolled to the top. With the size index, this is only exact for the
+ * rows that have been measured so far.
+ *
+ * Usage: java scrolling.VariableHeightScrollBench [seconds per test]
+ */
+public class VariableHeightScrollBench extends Application {
+
+    static final int ROW_COUNT = 100000;
+
+    static class ChatCell extends ListCell<Integer> {
+        @Override protected void updateItem(Integer item, boolean empty) {
+            super.updateItem(item, empty);
+            setText(empty || item == null ? null : "Message " + item);
+        }
+
+        static double height(int item) {
+            // between 1 and 12 lines of 16 pixels, mostly short, with
+            // bursts of long messages (such as stack traces in a log)
+            int lines = 1 + Integer.numberOfTrailingZeros(item * 0x9E3779B9 | 0x800);
+            if (item / 5000 % 4 == 3) lines += 8;
+            return 8 + 16 * lines;
+        }
+
+        @Override protected double computePrefHeight(double width) {
+            Integer item = getItem();
+            return item == null ? height(0) : height(item);
+        }
+
+        @Override protected double computeMinHeight(double width) {
+            return computePrefHeight(width);
+        }
+
+        @Override protected double computeMaxHeight(double width) {
+            return computePrefHeight(width);
+        }
+    }
+
+    interface Workload {
+        void run(ListView<Integer> listView, VirtualFlow<?> flow, Random random);
+    }
+
+    static void layout(ListView<Integer> listView) {
+        listView.applyCss();
+        listView.layout();
+    }
+
+    static void run(String name, String mode, ListView<Integer> listView, Workload workload, long nanos) {
+        VirtualFlow<?> flow = (VirtualFlow<?>) listView.lookup(".virtual-flow");
+        Random random = new Random(0);
+
+        // Warm up
+        long end = System.nanoTime() + nanos / 2;
+        while (System.nanoTime() < end) {
+            workload.run(listView, flow, random);
+        }
+
+        long start = System.nanoTime();
+        end = start + nanos;
+        int ops = 0;
+        long now;
+        do {
+            workload.run(listView, flow, random);
+            ops++;
+        } while ((now = System.nanoTime()) < end);
+
+        System.out.println(String.format("%-12s %-14s %14.1f us/op %10.1f ops/s",
+                                         mode, name, (now - start) / 1000.0 / ops,
+                                         ops * 1e9 / (now - start)));
+    }
+
+    static double thumbError(ListView<Integer> listView, Random random) {
+        VirtualFlow<?> flow = (VirtualFlow<?>) listView.lookup(".virtual-flow");
+        double[] offsets = new double[ROW_COUNT + 1];
+        for (int i = 0; i < ROW_COUNT; i++) {
+            offsets[i + 1] = offsets[i] + ChatCell.height(i);
+        }
+        double maxOffset = offsets[ROW_COUNT] - flow.getHeight();
+
+        double error = 0;
+        for (int i = 0; i < 100; i++) {
+            int row = random.nextInt(ROW_COUNT);
+            flow.scrollToTop(row);
+            layout(listView);
+            error = Math.max(error, Math.abs(flow.getPosition() - offsets[row] / maxOffset));
+        }
+        return error;
+    }
+
+    static void runBenchmarks(Stage stage, long nanos) {
+        ObservableList<Integer> items = FXCollections.observableArrayList();
+        for (int i = 0; i < ROW_COUNT; i++) {
+            items.add(i);
+        }
+
+        for (boolean sizeIndex : new boolean[] { false, true }) {
+            String mode = sizeIndex ? "size index" : "legacy";
+            ListView<Integer> listView = new ListView<>(items);
+            listView.setCellFactory(l -> new ChatCell());
+            listView.getProperties().put(VirtualContainerBase.SIZE_INDEX_ENABLED_KEY, sizeIndex);
+            listView.setSkin(new ListViewSkin<>(listView));
+            listView.resize(400, 600);
+            stage.setScene(new Scene(new Group(listView), 400, 600));
+            stage.show();
+            layout(listView);
+
+            run("scrollTo", mode, listView, (l, flow, random) -> {
+                l.scrollTo(random.nextInt(ROW_COUNT));
+                layout(l);
+            }, nanos);
+            run("page", mode, listView, (l, flow, random) -> {
+                if (flow.getPosition() >= 1) {
+                    flow.setPosition(0);
+                }
+                flow.adjustPixels(flow.getHeight());
+                layout(l);
+            }, nanos);
+            run("jump", mode, listView, (l, flow, random) -> {
+                flow.adjustPixels(flow.getPosition() >= 0.5 ? -10000 : 10000);
+                layout(l);
+            }, nanos);
+            run("thumb", mode, listView, (l, flow, random) -> {
+                flow.setPosition(random.nextDouble());
+                layout(l);
+            }, nanos);
+
+            System.out.println(String.format("%-12s %-14s %14.2f %%",
+                                             mode, "thumb error", thumbError(listView, new Random(0)) * 100));
+        }
+    }
+
+    @Override public void start(Stage stage) throws Exception {
+        List<String> args = getParameters().getRaw();
+        long nanos = (args.size() > 0 ? Long.parseLong(args.get(0)) : 2) * 1000000000L;
+        runBenchmarks(stage, nanos);
+        Platform.exit();
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+}
@@ -30,7 +30,11 @@ import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import sun.util.logging.PlatformLogger;
 
+import java.lang.reflect.Field;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A convenience class for creating implementations of {@link javafx.beans.value.ObservableValue}.
@@ -38,7 +42,9 @@ import java.util.Arrays;
  * change event notification.
  * 
  * This implementation can handle adding and removing listeners while the
- * observers are being notified, but it is not thread-safe.
+ * observers are being notified, but it is not thread-safe. Listeners added
+ * during a notification are notified starting with the next notification,
+ * listeners removed during a notification are not notified anymore.
  * 
  * 
  */
@@ -82,6 +88,72 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
         }
     }
 
+    /**
+     * Returns the number of invalidation and change listeners registered with
+     * an observable that keeps its listeners in an {@code ExpressionHelper},
+     * like the properties and bindings of JavaFX. Weak listeners whose target
+     * was garbage collected are included until they are purged.
+     *
+     * @param observable the observable
+     * @return the number of listeners, or 0 if the observable does not use
+     *         an {@code ExpressionHelper}
+     */
+    public static int getListenerCount(ObservableValue<?> observable) {
+        return countListeners(getHelper(observable), false);
+    }
+
+    /**
+     * Returns the number of weak listeners registered with an observable whose
+     * target was garbage collected, but which were not purged yet. A high
+     * number indicates that the observable rarely fires and rarely gets new
+     * listeners.
+     *
+     * @param observable the observable
+     * @return the number of collected listeners, or 0 if the observable does
+     *         not use an {@code ExpressionHelper}
+     */
+    public static int getCollectedListenerCount(ObservableValue<?> observable) {
+        return countListeners(getHelper(observable), true);
+    }
+
+    /**
+     * Returns the total number of collected weak listeners that were purged
+     * from any helper since the application started.
+     *
+     * @return the number of purged listeners
+     */
+    public static long getPurgedListenerCount() {
+        return purgedCount.get();
+    }
+
+    // package for testing
+    static int countListeners(ExpressionHelper<?> helper, boolean collected) {
+        return (helper == null)? 0 : helper.getListenerCount(collected);
+    }
+
+    // The observables of JavaFX keep their ExpressionHelper in a field named helper
+    private static ExpressionHelper<?> getHelper(ObservableValue<?> observable) {
+        return AccessController.doPrivileged((PrivilegedAction<ExpressionHelper<?>>) () -> {
+            for (Class<?> c = observable.getClass(); c != null; c = c.getSuperclass()) {
+                try {
+                    final Field field = c.getDeclaredField("helper");
+                    if (field.getType() == ExpressionHelper.class) {
+                        field.setAccessible(true);
+                        return (ExpressionHelper<?>)field.get(observable);
+                    }
+                } catch (NoSuchFieldException e) {
+                    // try the superclass
+                } catch (IllegalAccessException e) {
+                    return null;
+                }
+            }
+            return null;
+        });
+    }
+
+    // Diagnostic counter, updated on any thread that notifies listeners
+    private static final AtomicLong purgedCount = new AtomicLong();
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     // Common implementations
 
@@ -99,6 +171,8 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
     
     protected abstract void fireValueChangedEvent();
 
+    protected abstract int getListenerCount(boolean collected);
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     // Implementations
 
@@ -131,6 +205,11 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
             return this;
         }
 
+        @Override
+        protected int getListenerCount(boolean collected) {
+            return (!collected || isGarbageCollected(listener))? 1 : 0;
+        }
+
         @Override
         protected void fireValueChangedEvent() {
             try {
@@ -172,6 +251,11 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
             return (listener.equals(this.listener))? null : this;
         }
 
+        @Override
+        protected int getListenerCount(boolean collected) {
+            return (!collected || isGarbageCollected(listener))? 1 : 0;
+        }
+
         @Override
         protected void fireValueChangedEvent() {
             final T oldValue = currentValue;
@@ -189,11 +273,21 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
     
     private static class Generic<T> extends ExpressionHelper<T> {
         
+        // While listeners are notified, the arrays are never shifted: removed
+        // listeners are replaced by null and new listeners are appended behind
+        // the range that is being notified. The arrays are compacted once the
+        // outermost notification finished.
         private InvalidationListener[] invalidationListeners;
         private ChangeListener<? super T>[] changeListeners;
         private int invalidationSize;
         private int changeSize;
-        private boolean locked;
+        private int lockCount;
+        private boolean compact;
+        // Index of the listener that is currently notified or -1. A weak
+        // listener whose target was collected removes itself while it is
+        // notified, which can be done without searching the array.
+        private int invalidationIndex = -1;
+        private int changeIndex = -1;
         private T currentValue;
         
         private Generic(ObservableValue<T> observable, InvalidationListener listener0, InvalidationListener listener1) {
@@ -225,11 +319,10 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
                 invalidationSize = 1;
             } else {
                 final int oldCapacity = invalidationListeners.length;
-                if (locked) {
-                    final int newCapacity = (invalidationSize < oldCapacity)? oldCapacity : (oldCapacity * 3)/2 + 1;
-                    invalidationListeners = Arrays.copyOf(invalidationListeners, newCapacity);
-                } else if (invalidationSize == oldCapacity) {
-                    invalidationSize = trim(invalidationSize, invalidationListeners);
+                if (invalidationSize == oldCapacity) {
+                    if (lockCount == 0) {
+                        invalidationSize = trimAndCount(invalidationSize, invalidationListeners);
+                    }
                     if (invalidationSize == oldCapacity) {
                         final int newCapacity = (oldCapacity * 3)/2 + 1;
                         invalidationListeners = Arrays.copyOf(invalidationListeners, newCapacity);
@@ -243,9 +336,15 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
         @Override
         protected ExpressionHelper<T> removeListener(InvalidationListener listener) {
             if (invalidationListeners != null) {
+                if ((invalidationIndex >= 0) && listener.equals(invalidationListeners[invalidationIndex])) {
+                    removeWhileLocked(invalidationListeners, invalidationIndex);
+                    return this;
+                }
                 for (int index = 0; index < invalidationSize; index++) {
                     if (listener.equals(invalidationListeners[index])) {
-                        if (invalidationSize == 1) {
+                        if (lockCount > 0) {
+                            removeWhileLocked(invalidationListeners, index);
+                        } else if (invalidationSize == 1) {
                             if (changeSize == 1) {
                                 return new SingleChange<T>(observable, changeListeners[0]);
                             }
@@ -255,18 +354,10 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
                             return new SingleInvalidation<T>(observable, invalidationListeners[1-index]);
                         } else {
                             final int numMoved = invalidationSize - index - 1;
-                            final InvalidationListener[] oldListeners = invalidationListeners;
-                            if (locked) {
-                                invalidationListeners = new InvalidationListener[invalidationListeners.length];
-                                System.arraycopy(oldListeners, 0, invalidationListeners, 0, index);
-                            }
                             if (numMoved > 0) {
-                                System.arraycopy(oldListeners, index+1, invalidationListeners, index, numMoved);
-                            }
-                            invalidationSize--;
-                            if (!locked) {
-                                invalidationListeners[invalidationSize] = null; // Let gc do its work
+                                System.arraycopy(invalidationListeners, index+1, invalidationListeners, index, numMoved);
                             }
+                            invalidationListeners[--invalidationSize] = null; // Let gc do its work
                         }
                         break;
                     }
@@ -282,11 +373,10 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
                 changeSize = 1;
             } else {
                 final int oldCapacity = changeListeners.length;
-                if (locked) {
-                    final int newCapacity = (changeSize < oldCapacity)? oldCapacity : (oldCapacity * 3)/2 + 1;
-                    changeListeners = Arrays.copyOf(changeListeners, newCapacity);
-                } else if (changeSize == oldCapacity) {
-                    changeSize = trim(changeSize, changeListeners);
+                if (changeSize == oldCapacity) {
+                    if (lockCount == 0) {
+                        changeSize = trimAndCount(changeSize, changeListeners);
+                    }
                     if (changeSize == oldCapacity) {
                         final int newCapacity = (oldCapacity * 3)/2 + 1;
                         changeListeners = Arrays.copyOf(changeListeners, newCapacity);
@@ -303,9 +393,15 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
         @Override
         protected ExpressionHelper<T> removeListener(ChangeListener<? super T> listener) {
             if (changeListeners != null) {
+                if ((changeIndex >= 0) && listener.equals(changeListeners[changeIndex])) {
+                    removeWhileLocked(changeListeners, changeIndex);
+                    return this;
+                }
                 for (int index = 0; index < changeSize; index++) {
                     if (listener.equals(changeListeners[index])) {
-                        if (changeSize == 1) {
+                        if (lockCount > 0) {
+                            removeWhileLocked(changeListeners, index);
+                        } else if (changeSize == 1) {
                             if (invalidationSize == 1) {
                                 return new SingleInvalidation<T>(observable, invalidationListeners[0]);
                             }
@@ -315,18 +411,10 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
                             return new SingleChange<T>(observable, changeListeners[1-index]);
                         } else {
                             final int numMoved = changeSize - index - 1;
-                            final ChangeListener<? super T>[] oldListeners = changeListeners;
-                            if (locked) {
-                                changeListeners = new ChangeListener[changeListeners.length];
-                                System.arraycopy(oldListeners, 0, changeListeners, 0, index);
-                            }
                             if (numMoved > 0) {
-                                System.arraycopy(oldListeners, index+1, changeListeners, index, numMoved);
-                            }
-                            changeSize--;
-                            if (!locked) {
-                                changeListeners[changeSize] = null; // Let gc do its work
+                                System.arraycopy(changeListeners, index+1, changeListeners, index, numMoved);
                             }
+                            changeListeners[--changeSize] = null; // Let gc do its work
                         }
                         break;
                     }
@@ -337,37 +425,106 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
 
         @Override
         protected void fireValueChangedEvent() {
-            final InvalidationListener[] curInvalidationList = invalidationListeners;
+            // Listeners added during the notification are not notified
             final int curInvalidationSize = invalidationSize;
-            final ChangeListener<? super T>[] curChangeList = changeListeners;
             final int curChangeSize = changeSize;
+            final int oldInvalidationIndex = invalidationIndex;
+            final int oldChangeIndex = changeIndex;
 
             try {
-                locked = true;
+                lockCount++;
                 for (int i = 0; i < curInvalidationSize; i++) {
-                    try {
-                        curInvalidationList[i].invalidated(observable);
-                    } catch (Exception e) {
-                        Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+                    // Read the current array, the listener may have been removed meanwhile
+                    final InvalidationListener listener = invalidationListeners[i];
+                    if (listener != null) {
+                        invalidationIndex = i;
+                        try {
+                            listener.invalidated(observable);
+                        } catch (Exception e) {
+                            Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+                        }
                     }
                 }
+                invalidationIndex = oldInvalidationIndex;
                 if (curChangeSize > 0) {
                     final T oldValue = currentValue;
                     currentValue = observable.getValue();
                     final boolean changed = (currentValue == null)? (oldValue != null) : !currentValue.equals(oldValue);
                     if (changed) {
                         for (int i = 0; i < curChangeSize; i++) {
-                            try {
-                                curChangeList[i].changed(observable, oldValue, currentValue);
-                            } catch (Exception e) {
-                                Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+                            final ChangeListener<? super T> listener = changeListeners[i];
+                            if (listener != null) {
+                                changeIndex = i;
+                                try {
+                                    listener.changed(observable, oldValue, currentValue);
+                                } catch (Exception e) {
+                                    Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+                                }
                             }
                         }
                     }
                 }
             } finally {
-                locked = false;
+                invalidationIndex = oldInvalidationIndex;
+                changeIndex = oldChangeIndex;
+                if ((--lockCount == 0) && compact) {
+                    compact = false;
+                    if (invalidationListeners != null) {
+                        invalidationSize = removeNulls(invalidationSize, invalidationListeners);
+                        if (invalidationSize == 0) {
+                            invalidationListeners = null;
+                        }
+                    }
+                    if (changeListeners != null) {
+                        changeSize = removeNulls(changeSize, changeListeners);
+                        if (changeSize == 0) {
+                            changeListeners = null;
+                        }
+                    }
+                }
+            }
+        }
+
+        private void removeWhileLocked(Object[] listeners, int index) {
+            if (isGarbageCollected(listeners[index])) {
+                purgedCount.incrementAndGet();
+            }
+            listeners[index] = null;
+            compact = true;
+        }
+
+        @Override
+        protected int getListenerCount(boolean collected) {
+            return count(invalidationSize, invalidationListeners, collected) + count(changeSize, changeListeners, collected);
+        }
+
+        private static int trimAndCount(int size, Object[] listeners) {
+            final int newSize = trim(size, listeners);
+            purgedCount.addAndGet(size - newSize);
+            return newSize;
+        }
+
+        private static int removeNulls(int size, Object[] listeners) {
+            int newSize = 0;
+            for (int index = 0; index < size; index++) {
+                final Object listener = listeners[index];
+                if (listener != null) {
+                    listeners[newSize++] = listener;
+                }
+            }
+            Arrays.fill(listeners, newSize, size, null); // Let gc do its work
+            return newSize;
+        }
+
+        private static int count(int size, Object[] listeners, boolean collected) {
+            int count = 0;
+            for (int index = 0; index < size; index++) {
+                final Object listener = listeners[index];
+                if ((listener != null) && (!collected || isGarbageCollected(listener))) {
+                    count++;
+                }
             }
+            return count;
         }
     }
 
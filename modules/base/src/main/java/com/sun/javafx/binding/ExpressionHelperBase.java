@@ -27,24 +27,34 @@ package com.sun.javafx.binding;
 
 import javafx.beans.WeakListener;
 
+import java.util.Arrays;
+
 /**
  */
 public class ExpressionHelperBase {
 
+    /**
+     * Removes all {@code null} entries and all {@link WeakListener}s that were
+     * garbage collected from the first {@code size} entries of
+     * {@code listeners} in a single pass, keeping the order of the remaining
+     * listeners.
+     *
+     * @return the number of remaining listeners
+     */
     protected static int trim(int size, Object[] listeners) {
+        int newSize = 0;
         for (int index = 0; index < size; index++) {
             final Object listener = listeners[index];
-            if (listener instanceof WeakListener) {
-                if (((WeakListener)listener).wasGarbageCollected()) {
-                    final int numMoved = size - index - 1;
-                    if (numMoved > 0)
-                        System.arraycopy(listeners, index+1, listeners, index, numMoved);
-                    listeners[--size] = null; // Let gc do its work
-                    index--;
-                }
+            if ((listener != null) && !isGarbageCollected(listener)) {
+                listeners[newSize++] = listener;
             }
         }
-        return size;
+        Arrays.fill(listeners, newSize, size, null); // Let gc do its work
+        return newSize;
+    }
+
+    protected static boolean isGarbageCollected(Object listener) {
+        return (listener instanceof WeakListener) && ((WeakListener)listener).wasGarbageCollected();
     }
 
 }
@@ -478,8 +478,7 @@ public class SelectBinding {
                     if ((propRefs[i] == null)
                             || (!obj.getClass().equals(
                             propRefs[i].getContainingClass()))) {
-                        propRefs[i] = new PropertyReference<Object>(obj.getClass(),
-                                propertyNames[i]);
+                        propRefs[i] = PropertyReference.of(obj.getClass(), propertyNames[i]);
                     }
                     if (propRefs[i].hasProperty()) {
                         properties[i + 1] = propRefs[i].getProperty(obj);
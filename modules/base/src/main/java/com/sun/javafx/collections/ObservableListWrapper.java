@@ -158,12 +158,54 @@ public class ObservableListWrapper<E> extends ModifiableObservableListBase<E> im
         }
     }
 
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        return addAll(size(), c);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends E> c) {
+        final int oldSize = backingList.size();
+        if (!backingList.addAll(index, c)) {
+            return false;
+        }
+        final int to = index + backingList.size() - oldSize;
+        if (elementObserver != null) {
+            for (int i = index; i < to; ++i) {
+                elementObserver.attachListener(backingList.get(i));
+            }
+        }
+        beginChange();
+        nextAdd(index, to);
+        ++modCount;
+        endChange();
+        return true;
+    }
+
     @Override
     public void remove(int fromIndex, int toIndex) {
+        if (fromIndex < toIndex) {
+            removeRange(fromIndex, toIndex);
+        }
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        final List<E> range = backingList.subList(fromIndex, toIndex);
+        if (range.isEmpty()) {
+            return;
+        }
+        if (elementObserver != null) {
+            for (int i = 0, sz = range.size(); i < sz; ++i) {
+                elementObserver.detachListener(range.get(i));
+            }
+        }
         beginChange();
-        for (int i = fromIndex; i < toIndex; ++i) {
-            remove(fromIndex);
+        if (hasListeners()) {
+            nextRemove(fromIndex, range);
         }
+        range.clear();
+        ++modCount;
         endChange();
     }
 
@@ -37,4 +37,6 @@ public class Logger {
     public void incrementCounter(String counter) {}
     public void newPhase(String name) {}
     public void newInput(String name) {}
+    public void newScene(Object scene) {}
+    public void disposeScene(Object scene) {}
 }
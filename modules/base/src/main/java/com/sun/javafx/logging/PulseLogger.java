@@ -42,6 +42,10 @@ public class PulseLogger {
         if (logger != null) {
             list.add(logger);
         }
+        logger = PulseRecorder.getInstance();
+        if (logger != null) {
+            list.add(logger);
+        }
         try {
             Class klass = Class.forName("com.sun.javafx.logging.JFRLogger");
             if (klass != null) {
@@ -107,4 +111,16 @@ public class PulseLogger {
             logger.newInput(name);
         }
     }
+
+    public static void newScene(Object scene) {
+        for (Logger logger: loggers) {
+            logger.newScene(scene);
+        }
+    }
+
+    public static void disposeScene(Object scene) {
+        for (Logger logger: loggers) {
+            logger.disposeScene(scene);
+        }
+    }
 }
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.logging;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps latency histograms of every pulse phase, both for the whole
+ * application and per scene, so that they can be monitored in production
+ * (see the PulseMXBean in the jmx module). It is enabled with
+ * {@code -Djavafx.pulseRecorder=true}.
+ * <p>
+ * The phases are the ones reported through {@link PulseLogger#newPhase},
+ * and are attributed to the scene last passed to
+ * {@link PulseLogger#newScene} on the same thread. Three synthetic phases
+ * are recorded as well: {@link #PULSE} covers the FX thread part of the
+ * pulse, {@link #RENDER} the render thread part and {@link #FRAME} the
+ * whole frame, from the start of the pulse to the end of its rendering.
+ * <p>
+ * All durations are recorded in microseconds. Once every phase has been
+ * seen, recording does not allocate nor lock.
+ */
+public final class PulseRecorder extends Logger {
+
+    public static final String PULSE = "Pulse";
+    public static final String RENDER = "Render";
+    public static final String FRAME = "Frame";
+
+    /**
+     * Histograms of a set of phases, keyed by phase name.
+     */
+    private static final class Phases {
+        final String name;
+        final ConcurrentHashMap<String, PulseHistogram> histograms = new ConcurrentHashMap<>();
+
+        Phases(String name) {
+            this.name = name;
+        }
+
+        PulseHistogram get(String phase) {
+            PulseHistogram h = histograms.get(phase);
+            if (h == null) {
+                PulseHistogram newHistogram = new PulseHistogram();
+                h = histograms.putIfAbsent(phase, newHistogram);
+                if (h == null) {
+                    h = newHistogram;
+                }
+            }
+            return h;
+        }
+
+        void record(String phase, long nanos) {
+            get(phase).record(nanos / 1000L);
+        }
+    }
+
+    private static final class ThreadLocalData {
+        Phases scene;
+        String phaseName;
+        long phaseStart;
+        Phases phaseScene;
+    }
+
+    private final ThreadLocal<ThreadLocalData> phaseData =
+        ThreadLocal.withInitial(ThreadLocalData::new);
+
+    private final Phases global = new Phases(null);
+    private final ConcurrentHashMap<Object, Phases> scenes = new ConcurrentHashMap<>();
+    private final AtomicInteger sceneCount = new AtomicInteger();
+    private final AtomicLong pulseCount = new AtomicLong();
+
+    /**
+     * Written on the FX thread only.
+     */
+    private long pulseStartTime;
+    private boolean pushedRender;
+
+    /**
+     * Handed from the FX thread to the render thread in renderStart.
+     */
+    private volatile long renderPulseStartTime;
+    private volatile long renderStartTime;
+
+    PulseRecorder() {
+    }
+
+    /**
+     * Creates the recorder when the class is first used. PulseLogger and
+     * the JMX extension may ask for it on different threads.
+     */
+    private static final class Holder {
+        static final PulseRecorder INSTANCE = createInstance();
+
+        private static PulseRecorder createInstance() {
+            boolean enabled = AccessController.doPrivileged((PrivilegedAction<Boolean>) () -> Boolean.getBoolean("javafx.pulseRecorder"));
+            return enabled ? new PulseRecorder() : null;
+        }
+    }
+
+    public static PulseRecorder getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    @Override
+    public void pulseStart() {
+        pulseCount.incrementAndGet();
+        pulseStartTime = System.nanoTime();
+        pushedRender = false;
+        phaseData.get().scene = null;
+    }
+
+    @Override
+    public void pulseEnd() {
+        newPhase(null);
+        long duration = System.nanoTime() - pulseStartTime;
+        global.record(PULSE, duration);
+        if (!pushedRender) {
+            global.record(FRAME, duration);
+        }
+    }
+
+    @Override
+    public void renderStart() {
+        newPhase(null); // finish the current phase on the FX thread
+        phaseData.get().scene = null;
+        pushedRender = true;
+        renderPulseStartTime = pulseStartTime;
+        renderStartTime = System.nanoTime();
+    }
+
+    @Override
+    public void renderEnd() {
+        newPhase(null); // finish the current phase on the render thread
+        phaseData.get().scene = null;
+        long now = System.nanoTime();
+        global.record(RENDER, now - renderStartTime);
+        global.record(FRAME, now - renderPulseStartTime);
+    }
+
+    @Override
+    public void newPhase(String name) {
+        long curTime = System.nanoTime();
+
+        ThreadLocalData data = phaseData.get();
+        if (data.phaseName != null) {
+            long duration = curTime - data.phaseStart;
+            global.record(data.phaseName, duration);
+            if (data.phaseScene != null) {
+                data.phaseScene.record(data.phaseName, duration);
+            }
+        }
+        data.phaseName = name;
+        data.phaseStart = curTime;
+        data.phaseScene = data.scene;
+    }
+
+    @Override
+    public void newScene(Object scene) {
+        Phases phases = null;
+        if (scene != null) {
+            phases = scenes.get(scene);
+            if (phases == null) {
+                Phases newPhases = new Phases("Scene " + sceneCount.incrementAndGet());
+                phases = scenes.putIfAbsent(scene, newPhases);
+                if (phases == null) {
+                    phases = newPhases;
+                }
+            }
+        }
+        phaseData.get().scene = phases;
+    }
+
+    @Override
+    public void disposeScene(Object scene) {
+        scenes.remove(scene);
+    }
+
+    /**
+     * Returns the number of pulses started since the recorder was created.
+     */
+    public long getPulseCount() {
+        return pulseCount.get();
+    }
+
+    /**
+     * Returns the histograms of all the phases seen so far, for all the
+     * scenes, keyed by phase name.
+     */
+    public Map<String, PulseHistogram> getPhaseHistograms() {
+        return Collections.unmodifiableMap(global.histograms);
+    }
+
+    /**
+     * Returns the phase histograms of every live scene, keyed by a scene
+     * name that stays the same for the life time of the scene.
+     */
+    public Map<String, Map<String, PulseHistogram>> getSceneHistograms() {
+        Map<String, Map<String, PulseHistogram>> result = new HashMap<>();
+        for (Phases phases : scenes.values()) {
+            result.put(phases.name, Collections.unmodifiableMap(phases.histograms));
+        }
+        return result;
+    }
+
+    /**
+     * Clears all the histograms.
+     */
+    public void reset() {
+        for (PulseHistogram h : global.histograms.values()) {
+            h.reset();
+        }
+        for (Phases phases : scenes.values()) {
+            for (PulseHistogram h : phases.histograms.values()) {
+                h.reset();
+            }
+        }
+    }
+}
@@ -24,13 +24,14 @@
  */
 package com.sun.javafx.property;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import javafx.beans.property.ReadOnlyObjectProperty;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import javafx.beans.property.ReadOnlyProperty;
 
 public final class JavaBeanAccessHelper {
     
-    private static Method JAVA_BEAN_QUICK_ACCESSOR_CREATE_RO;
+    private static MethodHandle JAVA_BEAN_QUICK_ACCESSOR_CREATE_RO;
     
     private static boolean initialized;
     
@@ -38,19 +39,21 @@ public final class JavaBeanAccessHelper {
         
     }
     
-    public static <T> ReadOnlyObjectProperty<T> createReadOnlyJavaBeanProperty(Object bean, String propertyName) throws NoSuchMethodException{
+    /**
+     * Creates a read-only adapter for a Java Bean property. Properties with
+     * a primitive getter are adapted by the matching primitive property
+     * (e.g. a {@code ReadOnlyDoubleProperty} for a {@code double} getter).
+     */
+    public static ReadOnlyProperty<?> createReadOnlyJavaBeanProperty(Object bean, String propertyName) throws NoSuchMethodException{
         init();
         if (JAVA_BEAN_QUICK_ACCESSOR_CREATE_RO == null) {
             throw new UnsupportedOperationException("Java beans are not supported.");
         }
         try {
-            return (ReadOnlyObjectProperty<T>) JAVA_BEAN_QUICK_ACCESSOR_CREATE_RO.invoke(null, bean, propertyName);
-        } catch (IllegalAccessException ex) {
-            throw new UnsupportedOperationException("Java beans are not supported.");
-        } catch (InvocationTargetException ex) {
-            if (ex.getCause() instanceof NoSuchMethodException) {
-                throw (NoSuchMethodException)ex.getCause();
-            }
+            return (ReadOnlyProperty<?>) JAVA_BEAN_QUICK_ACCESSOR_CREATE_RO.invokeExact(bean, propertyName);
+        } catch (NoSuchMethodException | RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
             throw new UnsupportedOperationException("Java beans are not supported.");
         }
     }
@@ -61,13 +64,16 @@ public final class JavaBeanAccessHelper {
                 Class accessor = Class.forName(
                         "com.sun.javafx.property.adapter.JavaBeanQuickAccessor",
                         true, JavaBeanAccessHelper.class.getClassLoader());
-                JAVA_BEAN_QUICK_ACCESSOR_CREATE_RO = 
-                        accessor.getDeclaredMethod("createReadOnlyJavaBeanObjectProperty",
-                        Object.class, String.class);
+                JAVA_BEAN_QUICK_ACCESSOR_CREATE_RO = MethodHandles.publicLookup().unreflect(
+                        accessor.getDeclaredMethod("createReadOnlyJavaBeanProperty",
+                        Object.class, String.class)).asType(
+                        MethodType.methodType(ReadOnlyProperty.class, Object.class, String.class));
             } catch (ClassNotFoundException ex) {
                 //ignore
             } catch (NoSuchMethodException ex) {
                 //ignore
+            } catch (IllegalAccessException ex) {
+                //ignore
             }
             initialized = true;
         }
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.property;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import sun.reflect.misc.MethodUtil;
+
+/**
+ * Utility methods to turn the reflected accessors of a property into
+ * {@code MethodHandle}s.
+ * <p>
+ * Only the public lookup is used, so a handle is created only for methods
+ * that any caller could invoke. If that is not possible (e.g. the method is
+ * caller-sensitive), the returned handle falls back to
+ * {@link MethodUtil#invoke(Method, Object, Object[])}. In both cases the
+ * handle throws the exception of the target method unwrapped.
+ */
+public final class MethodHelper {
+
+    private static final MethodHandle INVOKE_REFLECTIVELY;
+
+    static {
+        try {
+            INVOKE_REFLECTIVELY = MethodHandles.lookup().findStatic(MethodHelper.class, "invokeReflectively",
+                    MethodType.methodType(Object.class, Method.class, Object.class, Object[].class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private MethodHelper() {
+    }
+
+    /**
+     * Returns a handle for an instance or static method. The handle always
+     * takes the bean as first argument, typed as {@code Object}, followed by
+     * the parameters of the method. The return type is the return type of
+     * the method.
+     *
+     * @param method the method
+     * @return the handle
+     */
+    public static MethodHandle unreflect(Method method) {
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        final MethodType type = MethodType.methodType(method.getReturnType(), parameterTypes)
+                .insertParameterTypes(0, Object.class);
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.publicLookup().unreflect(method);
+            if (Modifier.isStatic(method.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+        } catch (IllegalAccessException e) {
+            handle = MethodHandles.insertArguments(INVOKE_REFLECTIVELY, 0, method)
+                    .asCollector(Object[].class, parameterTypes.length);
+        }
+        return handle.asType(type);
+    }
+
+    /**
+     * Adapts a handle created by {@link #unreflect(Method)} to the given type.
+     * A numeric primitive return value is read from a reference return value
+     * with the matching method of {@code Number} (e.g. {@code doubleValue()}),
+     * like the reflective accessors did. If the types are not directly
+     * convertible otherwise (e.g. a property of type {@code double} backed by a
+     * setter taking an {@code Integer}), the arguments are passed as
+     * {@code Object} and converted at invocation time, which fails with a
+     * {@code ClassCastException} for incompatible values.
+     *
+     * @param handle the handle
+     * @param type the requested type
+     * @return the adapted handle
+     */
+    public static MethodHandle asType(MethodHandle handle, MethodType type) {
+        final Class<?> from = handle.type().returnType();
+        final Class<?> to = type.returnType();
+        if (!from.isPrimitive() && to.isPrimitive() && (to != void.class) && (to != boolean.class)
+                && (to != char.class) && Number.class.isAssignableFrom(from)) {
+            try {
+                final MethodHandle numberValue = MethodHandles.publicLookup().findVirtual(Number.class,
+                        to.getName() + "Value", MethodType.methodType(to));
+                handle = MethodHandles.filterReturnValue(handle, numberValue.asType(
+                        MethodType.methodType(to, from)));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        try {
+            return handle.asType(type);
+        } catch (WrongMethodTypeException e) {
+            return handle.asType(handle.type().generic()).asType(type);
+        }
+    }
+
+    /**
+     * Wraps a {@code Throwable} thrown by a handle the same way
+     * {@code Method.invoke()} would have done.
+     *
+     * @param t the {@code Throwable}
+     * @return the {@code InvocationTargetException}
+     */
+    public static InvocationTargetException wrap(Throwable t) {
+        return new InvocationTargetException(t);
+    }
+
+    private static Object invokeReflectively(Method method, Object bean, Object[] args) throws Throwable {
+        try {
+            return MethodUtil.invoke(method, bean, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
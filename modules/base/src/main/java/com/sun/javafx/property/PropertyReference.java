@@ -27,27 +27,81 @@ package com.sun.javafx.property;
 
 import static java.security.AccessController.doPrivileged;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.security.PrivilegedAction;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javafx.beans.property.ReadOnlyProperty;
 
-import sun.reflect.misc.MethodUtil;
 import sun.reflect.misc.ReflectUtil;
 
 /**
  * A handle to a specific property defined on some {@link Bean}.
  */
 public final class PropertyReference<T> {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<ConcurrentMap<String, PropertyReference<?>>> CACHE =
+            new ClassValue<ConcurrentMap<String, PropertyReference<?>>>() {
+                @Override
+                protected ConcurrentMap<String, PropertyReference<?>> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
     private String name;
     private Method getter;
     private Method setter;
     private Method propertyGetter;
+    private MethodHandle getterHandle;
+    private MethodHandle setterHandle;
+    private MethodHandle propertyGetterHandle;
     private Class<?> clazz;
     private Class<?> type;
     private boolean reflected = false;
 
+    /**
+     * Returns a shared {@code PropertyReference} for a property of a bean.
+     * The returned instance is already introspected and is shared by all
+     * callers asking for the same class and name, so code that has to
+     * resolve the same property repeatedly (e.g. for rows of different
+     * classes) does not repeat the reflective lookup.
+     *
+     * @param clazz
+     *            The class of the {@link Bean} that contains the property
+     * @param name
+     *            The name of the property
+     * @return the {@code PropertyReference}
+     * @throws NullPointerException
+     *             if {@code clazz} or {@code name} are null
+     * @throws IllegalArgumentException
+     *             if {@code name} is an empty {@code String}
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> PropertyReference<T> of(Class<?> clazz, String name) {
+        if (clazz == null)
+            throw new NullPointerException("Class must be specified");
+        if (name == null)
+            throw new NullPointerException("Name must be specified");
+        ReflectUtil.checkPackageAccess(clazz);
+        final ConcurrentMap<String, PropertyReference<?>> references = CACHE.get(clazz);
+        PropertyReference<?> result = references.get(name);
+        if (result == null) {
+            final PropertyReference<?> reference = new PropertyReference<Object>(clazz, name);
+            reference.reflect();
+            result = references.putIfAbsent(name, reference);
+            if (result == null) {
+                result = reference;
+            }
+        }
+        return (PropertyReference<T>) result;
+    }
+
     // uses reflection to implement the get / set methods
     /**
      * Creates a new {@code PropertyReference} for a property of a bean.
@@ -149,9 +203,11 @@ public final class PropertyReference<T> {
                     "Cannot write to readonly property " + name);
         assert setter != null;
         try {
-            MethodUtil.invoke(setter, bean, new Object[] {value});
-        } catch (Exception ex) {
-            throw new RuntimeException(ex);
+            setterHandle.invokeExact(bean, (Object) value);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new RuntimeException(MethodHelper.wrap(ex));
         }
     }
 
@@ -172,9 +228,11 @@ public final class PropertyReference<T> {
                     "Cannot read from unreadable property " + name);
         assert getter != null;
         try {
-            return (T)MethodUtil.invoke(getter, bean, (Object[])null);
-        } catch (Exception ex) {
-            throw new RuntimeException(ex);
+            return (T) (Object) getterHandle.invokeExact(bean);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new RuntimeException(MethodHelper.wrap(ex));
         }
     }
 
@@ -195,9 +253,11 @@ public final class PropertyReference<T> {
             throw new IllegalStateException("Cannot get property " + name);
         assert propertyGetter != null;
         try {
-            return (ReadOnlyProperty<T>)MethodUtil.invoke(propertyGetter, bean, (Object[])null);
-        } catch (Exception ex) {
-            throw new RuntimeException(ex);
+            return (ReadOnlyProperty<T>) (Object) propertyGetterHandle.invokeExact(bean);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new RuntimeException(MethodHelper.wrap(ex));
         }
     }
 
@@ -296,6 +356,16 @@ public final class PropertyReference<T> {
                 } catch (NoSuchMethodException ex) {
                     // This is a legitimate error
                 }
+
+                if (getter != null) {
+                    getterHandle = MethodHelper.unreflect(getter).asType(GETTER_TYPE);
+                }
+                if (setter != null) {
+                    setterHandle = MethodHelper.unreflect(setter).asType(SETTER_TYPE);
+                }
+                if (propertyGetter != null) {
+                    propertyGetterHandle = MethodHelper.unreflect(propertyGetter).asType(GETTER_TYPE);
+                }
             } catch (RuntimeException e) {
                 System.err.println("Failed to introspect property " + name);
             }
@@ -26,6 +26,8 @@
 package com.sun.javafx.property.adapter;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import sun.reflect.misc.ReflectUtil;
 
@@ -37,6 +39,15 @@ public class JavaBeanPropertyBuilderHelper {
     private static final String GET_PREFIX = "get";
     private static final String SET_PREFIX = "set";
 
+    // Descriptors of properties with the default getter and setter, shared by all builders
+    private static final ClassValue<ConcurrentMap<String, PropertyDescriptor>> DESCRIPTORS =
+            new ClassValue<ConcurrentMap<String, PropertyDescriptor>>() {
+                @Override
+                protected ConcurrentMap<String, PropertyDescriptor> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
     private String propertyName;
     private Class<?> beanClass;
     private Object bean;
@@ -113,6 +124,16 @@ public class JavaBeanPropertyBuilderHelper {
             if (propertyName.isEmpty()) {
                 throw new IllegalArgumentException("Property name cannot be empty");
             }
+            final boolean isDefault = (getter == null) && (setter == null)
+                    && ((getterName == null) || getterName.isEmpty())
+                    && ((setterName == null) || setterName.isEmpty());
+            final ConcurrentMap<String, PropertyDescriptor> descriptors = isDefault? DESCRIPTORS.get(beanClass) : null;
+            if (isDefault) {
+                descriptor = descriptors.get(propertyName);
+                if (descriptor != null) {
+                    return descriptor;
+                }
+            }
             final String capitalizedName = ReadOnlyPropertyDescriptor.capitalizedName(propertyName);
             Method getterMethod = getter;
             if (getterMethod == null) {
@@ -136,6 +157,9 @@ public class JavaBeanPropertyBuilderHelper {
                 }
             }
             descriptor = new PropertyDescriptor(propertyName, beanClass, getterMethod, setterMethod);
+            if (isDefault) {
+                descriptors.putIfAbsent(propertyName, descriptor);
+            }
         }
         return descriptor;
     }
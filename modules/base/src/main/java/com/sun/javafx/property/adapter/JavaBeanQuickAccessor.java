@@ -25,8 +25,14 @@
 
 package com.sun.javafx.property.adapter;
 
+import javafx.beans.property.adapter.ReadOnlyJavaBeanBooleanPropertyBuilder;
+import javafx.beans.property.adapter.ReadOnlyJavaBeanDoublePropertyBuilder;
+import javafx.beans.property.adapter.ReadOnlyJavaBeanFloatPropertyBuilder;
+import javafx.beans.property.adapter.ReadOnlyJavaBeanIntegerPropertyBuilder;
+import javafx.beans.property.adapter.ReadOnlyJavaBeanLongPropertyBuilder;
 import javafx.beans.property.adapter.ReadOnlyJavaBeanObjectProperty;
 import javafx.beans.property.adapter.ReadOnlyJavaBeanObjectPropertyBuilder;
+import javafx.beans.property.adapter.ReadOnlyJavaBeanProperty;
 
 public final class JavaBeanQuickAccessor {
 
@@ -36,5 +42,30 @@ public final class JavaBeanQuickAccessor {
     public static <T> ReadOnlyJavaBeanObjectProperty<T> createReadOnlyJavaBeanObjectProperty(Object bean, String name) throws NoSuchMethodException {
         return ReadOnlyJavaBeanObjectPropertyBuilder.<T>create().bean(bean).name(name).build();
     }
+
+    /**
+     * Creates a read-only adapter whose type matches the getter of the Java
+     * Bean property. For primitive getters this is one of the primitive
+     * adapters, which implement {@code ObservableNumberValue} resp.
+     * {@code ObservableBooleanValue} and can be read without boxing.
+     */
+    public static ReadOnlyJavaBeanProperty<?> createReadOnlyJavaBeanProperty(Object bean, String name) throws NoSuchMethodException {
+        final ReadOnlyJavaBeanPropertyBuilderHelper helper = new ReadOnlyJavaBeanPropertyBuilderHelper();
+        helper.bean(bean);
+        helper.name(name);
+        final Class<?> type = helper.getDescriptor().getType();
+        if (type == double.class) {
+            return ReadOnlyJavaBeanDoublePropertyBuilder.create().bean(bean).name(name).build();
+        } else if (type == int.class) {
+            return ReadOnlyJavaBeanIntegerPropertyBuilder.create().bean(bean).name(name).build();
+        } else if (type == long.class) {
+            return ReadOnlyJavaBeanLongPropertyBuilder.create().bean(bean).name(name).build();
+        } else if (type == float.class) {
+            return ReadOnlyJavaBeanFloatPropertyBuilder.create().bean(bean).name(name).build();
+        } else if (type == boolean.class) {
+            return ReadOnlyJavaBeanBooleanPropertyBuilder.create().bean(bean).name(name).build();
+        }
+        return ReadOnlyJavaBeanObjectPropertyBuilder.create().bean(bean).name(name).build();
+    }
     
 }
@@ -33,9 +33,11 @@ import javafx.beans.value.ObservableValue;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyVetoException;
 import java.beans.VetoableChangeListener;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
+import com.sun.javafx.property.MethodHelper;
 import sun.reflect.misc.MethodUtil;
 
 /**
@@ -52,15 +54,18 @@ public class PropertyDescriptor extends ReadOnlyPropertyDescriptor {
     private static final int REMOVE_VETOABLE_LISTENER_TAKES_NAME = 2;
 
     private final Method setter;
+    private final MethodHandle setterHandle;
     private final Method addVetoListener;
     private final Method removeVetoListener;
     private final int flags;
 
     public Method getSetter() {return setter;}
+    public MethodHandle getSetterHandle() {return setterHandle;}
 
     public PropertyDescriptor(String propertyName, Class<?> beanClass, Method getter, Method setter) {
         super(propertyName, beanClass, getter);
         this.setter = setter;
+        this.setterHandle = (setter == null)? null : MethodHelper.unreflect(setter);
 
         Method tmpAddVetoListener = null;
         Method tmpRemoveVetoListener = null;
@@ -26,6 +26,8 @@
 package com.sun.javafx.property.adapter;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import sun.reflect.misc.ReflectUtil;
 
@@ -36,6 +38,15 @@ public class ReadOnlyJavaBeanPropertyBuilderHelper {
     private static final String IS_PREFIX = "is";
     private static final String GET_PREFIX = "get";
 
+    // Descriptors of properties with the default getter, shared by all builders
+    private static final ClassValue<ConcurrentMap<String, ReadOnlyPropertyDescriptor>> DESCRIPTORS =
+            new ClassValue<ConcurrentMap<String, ReadOnlyPropertyDescriptor>>() {
+                @Override
+                protected ConcurrentMap<String, ReadOnlyPropertyDescriptor> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
     private String propertyName;
     private Class<?> beanClass;
     private Object bean;
@@ -97,16 +108,23 @@ public class ReadOnlyJavaBeanPropertyBuilderHelper {
                 throw new IllegalArgumentException("Property name cannot be empty");
             }
             final String capitalizedName = ReadOnlyPropertyDescriptor.capitalizedName(propertyName);
-            if (getter == null) {
-                if ((getterName != null) && !getterName.isEmpty()) {
-                    getter = beanClass.getMethod(getterName);
-                } else {
+            if ((getter == null) && ((getterName == null) || getterName.isEmpty())) {
+                final ConcurrentMap<String, ReadOnlyPropertyDescriptor> descriptors = DESCRIPTORS.get(beanClass);
+                descriptor = descriptors.get(propertyName);
+                if (descriptor == null) {
+                    Method defaultGetter;
                     try {
-                        getter = beanClass.getMethod(IS_PREFIX + capitalizedName);
+                        defaultGetter = beanClass.getMethod(IS_PREFIX + capitalizedName);
                     } catch (NoSuchMethodException e) {
-                        getter = beanClass.getMethod(GET_PREFIX + capitalizedName);
+                        defaultGetter = beanClass.getMethod(GET_PREFIX + capitalizedName);
                     }
+                    descriptor = new ReadOnlyPropertyDescriptor(propertyName, beanClass, defaultGetter);
+                    descriptors.putIfAbsent(propertyName, descriptor);
                 }
+                return descriptor;
+            }
+            if (getter == null) {
+                getter = beanClass.getMethod(getterName);
             }
             descriptor = new ReadOnlyPropertyDescriptor(propertyName, beanClass, getter);
         }
@@ -30,10 +30,12 @@ import javafx.beans.property.adapter.ReadOnlyJavaBeanProperty;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.lang.invoke.MethodHandle;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
+import com.sun.javafx.property.MethodHelper;
 import sun.reflect.misc.ReflectUtil;
 
 import static java.util.Locale.ENGLISH;
@@ -54,6 +56,7 @@ public class ReadOnlyPropertyDescriptor {
     protected final String name;
     protected final Class<?> beanClass;
     private final Method getter;
+    private final MethodHandle getterHandle;
     private final Class<?> type;
 
     private final Method addChangeListener;
@@ -62,6 +65,7 @@ public class ReadOnlyPropertyDescriptor {
 
     public String getName() {return name;}
     public Method getGetter() {return getter;}
+    public MethodHandle getGetterHandle() {return getterHandle;}
     public Class<?> getType() {return type;}
 
     public ReadOnlyPropertyDescriptor(String propertyName, Class<?> beanClass, Method getter) {
@@ -70,6 +74,7 @@ public class ReadOnlyPropertyDescriptor {
         this.name = propertyName;
         this.beanClass = beanClass;
         this.getter = getter;
+        this.getterHandle = MethodHelper.unreflect(getter);
         this.type = getter.getReturnType();
 
         Method tmpAddChangeListener = null;
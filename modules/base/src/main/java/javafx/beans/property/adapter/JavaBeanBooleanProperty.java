@@ -26,13 +26,15 @@
 package javafx.beans.property.adapter;
 
 import com.sun.javafx.binding.ExpressionHelper;
+import com.sun.javafx.property.MethodHelper;
 import com.sun.javafx.property.adapter.PropertyDescriptor;
 import javafx.beans.InvalidationListener;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.UndeclaredThrowableException;
 import sun.misc.Cleaner;
 
@@ -40,8 +42,6 @@ import java.security.AccessControlContext;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 
-import sun.reflect.misc.MethodUtil;
-
 /**
  * A {@code JavaBeanBooleanProperty} provides an adapter between a regular
  * Java Bean property of type {@code boolean} or {@code Boolean} and a JavaFX 
@@ -71,10 +71,17 @@ public final class JavaBeanBooleanProperty extends BooleanProperty implements Ja
     private ObservableValue<? extends Boolean> observable = null;
     private ExpressionHelper<Boolean> helper = null;
 
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
     private final AccessControlContext acc = AccessController.getContext();
 
     JavaBeanBooleanProperty(PropertyDescriptor descriptor, Object bean) {
         this.descriptor = descriptor;
+        this.getter = MethodHelper.asType(descriptor.getGetterHandle(),
+                MethodType.methodType(boolean.class, Object.class));
+        this.setter = MethodHelper.asType(descriptor.getSetterHandle(),
+                MethodType.methodType(void.class, Object.class, boolean.class));
         this.listener = descriptor.new Listener<Boolean>(bean, this);
         descriptor.addListener(listener);
         Cleaner.create(this, new DescriptorListenerCleaner(descriptor, listener));
@@ -89,15 +96,20 @@ public final class JavaBeanBooleanProperty extends BooleanProperty implements Ja
      */
     @Override
     public boolean get() {
-        return AccessController.doPrivileged((PrivilegedAction<Boolean>) () -> {
-            try {
-                return (Boolean)MethodUtil.invoke(descriptor.getGetter(), getBean(), (Object[])null);
-            } catch (IllegalAccessException e) {
-                throw new UndeclaredThrowableException(e);
-            } catch (InvocationTargetException e) {
-                throw new UndeclaredThrowableException(e);
-            }
-        }, acc);
+        if (System.getSecurityManager() == null) {
+            return invokeGetter();
+        }
+        return AccessController.doPrivileged((PrivilegedAction<Boolean>) this::invokeGetter, acc);
+    }
+
+    private boolean invokeGetter() {
+        try {
+            return (boolean) getter.invokeExact(getBean());
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new UndeclaredThrowableException(MethodHelper.wrap(t));
+        }
     }
 
     /**
@@ -113,17 +125,25 @@ public final class JavaBeanBooleanProperty extends BooleanProperty implements Ja
             throw new RuntimeException("A bound value cannot be set.");
         }
 
-        AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
-            try {
-                MethodUtil.invoke(descriptor.getSetter(), getBean(), new Object[] {value});
-                ExpressionHelper.fireValueChangedEvent(helper);
-            } catch (IllegalAccessException e) {
-                throw new UndeclaredThrowableException(e);
-            } catch (InvocationTargetException e) {
-                throw new UndeclaredThrowableException(e);
-            }
-            return null;
-        }, acc);
+        if (System.getSecurityManager() == null) {
+            invokeSetter(value);
+        } else {
+            AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
+                invokeSetter(value);
+                return null;
+            }, acc);
+        }
+    }
+
+    private void invokeSetter(boolean value) {
+        try {
+            setter.invokeExact(getBean(), value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new UndeclaredThrowableException(MethodHelper.wrap(t));
+        }
+        ExpressionHelper.fireValueChangedEvent(helper);
     }
 
     /**
@@ -26,13 +26,15 @@
 package javafx.beans.property.adapter;
 
 import com.sun.javafx.binding.ExpressionHelper;
+import com.sun.javafx.property.MethodHelper;
 import com.sun.javafx.property.adapter.PropertyDescriptor;
 import javafx.beans.InvalidationListener;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.UndeclaredThrowableException;
 import sun.misc.Cleaner;
 
@@ -40,8 +42,6 @@ import java.security.AccessControlContext;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 
-import sun.reflect.misc.MethodUtil;
-
 /**
  * A {@code JavaBeanIntegerProperty} provides an adapter between a regular
  * Java Bean property of type {@code int} or {@code Integer} and a JavaFX 
@@ -71,10 +71,17 @@ public final class JavaBeanIntegerProperty extends IntegerProperty implements Ja
     private ObservableValue<? extends Number> observable = null;
     private ExpressionHelper<Number> helper = null;
 
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
     private final AccessControlContext acc = AccessController.getContext();
 
     JavaBeanIntegerProperty(PropertyDescriptor descriptor, Object bean) {
         this.descriptor = descriptor;
+        this.getter = MethodHelper.asType(descriptor.getGetterHandle(),
+                MethodType.methodType(int.class, Object.class));
+        this.setter = MethodHelper.asType(descriptor.getSetterHandle(),
+                MethodType.methodType(void.class, Object.class, int.class));
         this.listener = descriptor.new Listener<Number>(bean, this);
         descriptor.addListener(listener);
         Cleaner.create(this, new DescriptorListenerCleaner(descriptor, listener));
@@ -89,16 +96,20 @@ public final class JavaBeanIntegerProperty extends IntegerProperty implements Ja
      */
     @Override
     public int get() {
-        return AccessController.doPrivileged((PrivilegedAction<Integer>) () -> {
-            try {
-                return ((Number)MethodUtil.invoke(
-                    descriptor.getGetter(), getBean(), (Object[])null)).intValue();
-            } catch (IllegalAccessException e) {
-                throw new UndeclaredThrowableException(e);
-            } catch (InvocationTargetException e) {
-                throw new UndeclaredThrowableException(e);
-            }
-        }, acc);
+        if (System.getSecurityManager() == null) {
+            return invokeGetter();
+        }
+        return AccessController.doPrivileged((PrivilegedAction<Integer>) this::invokeGetter, acc);
+    }
+
+    private int invokeGetter() {
+        try {
+            return (int) getter.invokeExact(getBean());
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new UndeclaredThrowableException(MethodHelper.wrap(t));
+        }
     }
     
     /**
@@ -113,17 +124,26 @@ public final class JavaBeanIntegerProperty extends IntegerProperty implements Ja
         if (isBound()) {
             throw new RuntimeException("A bound value cannot be set.");
         }
-        AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
-            try {
-                MethodUtil.invoke(descriptor.getSetter(), getBean(), new Object[] {value});
-                ExpressionHelper.fireValueChangedEvent(helper);
-            } catch (IllegalAccessException e) {
-                throw new UndeclaredThrowableException(e);
-            } catch (InvocationTargetException e) {
-                throw new UndeclaredThrowableException(e);
-            }
-            return null;
-        }, acc);
+
+        if (System.getSecurityManager() == null) {
+            invokeSetter(value);
+        } else {
+            AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
+                invokeSetter(value);
+                return null;
+            }, acc);
+        }
+    }
+
+    private void invokeSetter(int value) {
+        try {
+            setter.invokeExact(getBean(), value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new UndeclaredThrowableException(MethodHelper.wrap(t));
+        }
+        ExpressionHelper.fireValueChangedEvent(helper);
     }
 
     /**
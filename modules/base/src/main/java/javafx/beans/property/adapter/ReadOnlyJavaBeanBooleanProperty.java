@@ -25,10 +25,12 @@
 
 package javafx.beans.property.adapter;
 
+import com.sun.javafx.property.MethodHelper;
 import com.sun.javafx.property.adapter.ReadOnlyPropertyDescriptor;
 import javafx.beans.property.ReadOnlyBooleanPropertyBase;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.UndeclaredThrowableException;
 import sun.misc.Cleaner;
 
@@ -36,8 +38,6 @@ import java.security.AccessController;
 import java.security.AccessControlContext;
 import java.security.PrivilegedAction;
 
-import sun.reflect.misc.MethodUtil;
-
 /**
  * A {@code ReadOnlyJavaBeanBooleanProperty} provides an adapter between a regular
  * read only Java Bean property of type {@code boolean} or {@code Boolean} and a JavaFX 
@@ -60,10 +60,14 @@ public final class ReadOnlyJavaBeanBooleanProperty extends ReadOnlyBooleanProper
     private final ReadOnlyPropertyDescriptor descriptor;
     private final ReadOnlyPropertyDescriptor.ReadOnlyListener<Boolean> listener;
 
+    private final MethodHandle getter;
+
     private final AccessControlContext acc = AccessController.getContext();
 
     ReadOnlyJavaBeanBooleanProperty(ReadOnlyPropertyDescriptor descriptor, Object bean) {
         this.descriptor = descriptor;
+        this.getter = MethodHelper.asType(descriptor.getGetterHandle(),
+                MethodType.methodType(boolean.class, Object.class));
         this.listener = descriptor.new ReadOnlyListener<Boolean>(bean, this);
         descriptor.addListener(listener);
         Cleaner.create(this, new DescriptorListenerCleaner(descriptor, listener));
@@ -78,15 +82,20 @@ public final class ReadOnlyJavaBeanBooleanProperty extends ReadOnlyBooleanProper
      */
     @Override
     public boolean get() {
-        return AccessController.doPrivileged((PrivilegedAction<Boolean>) () -> {
-            try {
-                return (Boolean)MethodUtil.invoke(descriptor.getGetter(), getBean(), (Object[])null);
-            } catch (IllegalAccessException e) {
-                throw new UndeclaredThrowableException(e);
-            } catch (InvocationTargetException e) {
-                throw new UndeclaredThrowableException(e);
-            }
-        }, acc);
+        if (System.getSecurityManager() == null) {
+            return invokeGetter();
+        }
+        return AccessController.doPrivileged((PrivilegedAction<Boolean>) this::invokeGetter, acc);
+    }
+
+    private boolean invokeGetter() {
+        try {
+            return (boolean) getter.invokeExact(getBean());
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new UndeclaredThrowableException(MethodHelper.wrap(t));
+        }
     }
 
     /**
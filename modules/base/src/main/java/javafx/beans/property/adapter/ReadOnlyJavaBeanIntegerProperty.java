@@ -25,10 +25,12 @@
 
 package javafx.beans.property.adapter;
 
+import com.sun.javafx.property.MethodHelper;
 import com.sun.javafx.property.adapter.ReadOnlyPropertyDescriptor;
 import javafx.beans.property.ReadOnlyIntegerPropertyBase;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.UndeclaredThrowableException;
 import sun.misc.Cleaner;
 
@@ -36,8 +38,6 @@ import java.security.AccessController;
 import java.security.AccessControlContext;
 import java.security.PrivilegedAction;
 
-import sun.reflect.misc.MethodUtil;
-
 /**
  * A {@code ReadOnlyJavaBeanIntegerProperty} provides an adapter between a regular
  * read only Java Bean property of type {@code int} or {@code Integer} and a JavaFX 
@@ -60,10 +60,14 @@ public final class ReadOnlyJavaBeanIntegerProperty extends ReadOnlyIntegerProper
     private final ReadOnlyPropertyDescriptor descriptor;
     private final ReadOnlyPropertyDescriptor.ReadOnlyListener<Number> listener;
 
+    private final MethodHandle getter;
+
     private final AccessControlContext acc = AccessController.getContext();
 
     ReadOnlyJavaBeanIntegerProperty(ReadOnlyPropertyDescriptor descriptor, Object bean) {
         this.descriptor = descriptor;
+        this.getter = MethodHelper.asType(descriptor.getGetterHandle(),
+                MethodType.methodType(int.class, Object.class));
         this.listener = descriptor.new ReadOnlyListener<Number>(bean, this);
         descriptor.addListener(listener);
         Cleaner.create(this, new DescriptorListenerCleaner(descriptor, listener));
@@ -78,16 +82,20 @@ public final class ReadOnlyJavaBeanIntegerProperty extends ReadOnlyIntegerProper
      */
     @Override
     public int get() {
-        return AccessController.doPrivileged((PrivilegedAction<Integer>) () -> {
-            try {
-                return ((Number)MethodUtil.invoke(
-                    descriptor.getGetter(), getBean(), (Object[])null)).intValue();
-            } catch (IllegalAccessException e) {
-                throw new UndeclaredThrowableException(e);
-            } catch (InvocationTargetException e) {
-                throw new UndeclaredThrowableException(e);
-            }
-        }, acc);
+        if (System.getSecurityManager() == null) {
+            return invokeGetter();
+        }
+        return AccessController.doPrivileged((PrivilegedAction<Integer>) this::invokeGetter, acc);
+    }
+
+    private int invokeGetter() {
+        try {
+            return (int) getter.invokeExact(getBean());
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new UndeclaredThrowableException(MethodHelper.wrap(t));
+        }
     }
 
     /**
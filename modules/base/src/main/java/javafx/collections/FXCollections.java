@@ -46,6 +46,7 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Random;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import javafx.beans.InvalidationListener;
 
@@ -53,8 +54,10 @@ import com.sun.javafx.collections.ObservableListWrapper;
 import com.sun.javafx.collections.ObservableMapWrapper;
 import com.sun.javafx.collections.ObservableSetWrapper;
 import com.sun.javafx.collections.MapAdapterChange;
+import com.sun.javafx.collections.ObservableDoubleArrayImpl;
 import com.sun.javafx.collections.ObservableFloatArrayImpl;
 import com.sun.javafx.collections.ObservableIntegerArrayImpl;
+import com.sun.javafx.collections.ObservableLongArrayImpl;
 import com.sun.javafx.collections.ObservableSequentialListWrapper;
 import com.sun.javafx.collections.SetAdapterChange;
 import com.sun.javafx.collections.SortableList;
@@ -295,6 +298,66 @@ public class FXCollections {
         return new ObservableFloatArrayImpl(array);
     }
 
+    /**
+     * Creates a new empty observable double array.
+     * @return a newly created ObservableDoubleArray
+     * @since JavaFX 8u40
+     */
+    public static ObservableDoubleArray observableDoubleArray() {
+        return new ObservableDoubleArrayImpl();
+    }
+
+    /**
+     * Creates a new observable double array with {@code values} set to it.
+     * @param values the values that will be in the new observable double array
+     * @return a newly created ObservableDoubleArray
+     * @since JavaFX 8u40
+     */
+    public static ObservableDoubleArray observableDoubleArray(double... values) {
+        return new ObservableDoubleArrayImpl(values);
+    }
+
+    /**
+     * Creates a new observable double array with copy of elements in given
+     * {@code array}.
+     * @param array observable double array to copy
+     * @return a newly created ObservableDoubleArray
+     * @since JavaFX 8u40
+     */
+    public static ObservableDoubleArray observableDoubleArray(ObservableDoubleArray array) {
+        return new ObservableDoubleArrayImpl(array);
+    }
+
+    /**
+     * Creates a new empty observable long array.
+     * @return a newly created ObservableLongArray
+     * @since JavaFX 8u40
+     */
+    public static ObservableLongArray observableLongArray() {
+        return new ObservableLongArrayImpl();
+    }
+
+    /**
+     * Creates a new observable long array with {@code values} set to it.
+     * @param values the values that will be in the new observable long array
+     * @return a newly created ObservableLongArray
+     * @since JavaFX 8u40
+     */
+    public static ObservableLongArray observableLongArray(long... values) {
+        return new ObservableLongArrayImpl(values);
+    }
+
+    /**
+     * Creates a new observable long array with copy of elements in given
+     * {@code array}.
+     * @param array observable long array to copy
+     * @return a newly created ObservableLongArray
+     * @since JavaFX 8u40
+     */
+    public static ObservableLongArray observableLongArray(ObservableLongArray array) {
+        return new ObservableLongArrayImpl(array);
+    }
+
     /**
      * Creates a new empty observable list that is backed by an arraylist.
      * @see #observableList(java.util.List) 
@@ -676,6 +739,95 @@ public class FXCollections {
         }
     }
 
+    /**
+     * Makes a series of modifications to the list and fires only <b>one</b>
+     * change notification for all of them. The modifications are coalesced
+     * the same way as the ones of a bulk operation, so for example setting a run
+     * of consecutive indexes is reported as a single replaced range.
+     * <p>
+     * The notification is fired when the mutator returns, or when it throws
+     * an exception after modifying the list. The mutator may call {@code batch}
+     * again; only the outermost call fires the notification.
+     * Lists that are not based on {@link ObservableListBase} (or a checked or
+     * synchronized wrapper of such a list) are modified directly and notify their
+     * listeners for every modification.
+     * @param list the list to modify
+     * @param mutator the modifications, called once with {@code list} as the argument
+     * @since JavaFX 8u40
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> void batch(ObservableList<E> list, Consumer<? super ObservableList<E>> mutator) {
+        if (list instanceof SynchronizedObservableList) {
+            synchronized (((SynchronizedObservableList<E>) list).mutex) {
+                doBatch(list, mutator);
+            }
+        } else {
+            doBatch(list, mutator);
+        }
+    }
+
+    private static <E> void doBatch(ObservableList<E> list, Consumer<? super ObservableList<E>> mutator) {
+        final ObservableListBase<E> target = getBatchTarget(list);
+        if (target == null) {
+            mutator.accept(list);
+            return;
+        }
+        target.beginChange();
+        try {
+            mutator.accept(list);
+        } finally {
+            target.endChange();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> ObservableListBase<E> getBatchTarget(ObservableList<E> list) {
+        while (true) {
+            if (list instanceof CheckedObservableList) {
+                list = ((CheckedObservableList<E>) list).list;
+            } else if (list instanceof SynchronizedObservableList) {
+                list = ((SynchronizedObservableList<E>) list).backingList;
+            } else if (list instanceof ObservableListBase) {
+                return (ObservableListBase<E>) list;
+            } else {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Replaces the elements between {@code from} (inclusive) and {@code to}
+     * (exclusive) with the elements of the collection.
+     * Fires only <b>one</b> change notification on the list. For the lists
+     * created by this class, it contains a single replaced range.
+     * @param list the list to modify
+     * @param from the index of the first element to replace
+     * @param to the end index (exclusive) of the range to replace
+     * @param c the new elements of the range
+     * @throws IndexOutOfBoundsException if {@code from} or {@code to} is out
+     *         of range or {@code from > to}
+     * @since JavaFX 8u40
+     */
+    public static <E> void replaceRange(ObservableList<E> list, int from, int to, Collection<? extends E> c) {
+        if (from < 0 || to > list.size() || from > to) {
+            throw new IndexOutOfBoundsException("from: " + from + ", to: " + to + ", size: " + list.size());
+        }
+        if (getBatchTarget(list) == null) {
+            final List<E> newContent = new ArrayList<E>(list.size() - (to - from) + c.size());
+            newContent.addAll(list.subList(0, from));
+            newContent.addAll(c);
+            newContent.addAll(list.subList(to, list.size()));
+            list.setAll(newContent);
+            return;
+        }
+        batch(list, l -> {
+            if (from < to) {
+                l.remove(from, to);
+            }
+            l.addAll(from, c);
+        });
+    }
+
     private static class EmptyObservableList<E> extends AbstractList<E> implements ObservableList<E> {
 
         private static final ListIterator iterator = new ListIterator() {
@@ -206,6 +206,11 @@ final class ListChangeBuilder<E> {
             last.from--;
             last.to--;
             last.removed.add(0, removed);
+        } else if (last != null && last.to < idx) {
+            // After all the other changes, no need to search or shift them
+            ArrayList<E> removedList = new ArrayList<E>();
+            removedList.add(removed);
+            addRemoveChanges.add(new SubChange<E>(idx, idx, removedList, EMPTY_PERM, false));
         } else {
             insertRemoved(idx, removed);
         }
@@ -233,6 +238,27 @@ final class ListChangeBuilder<E> {
 
     public void nextRemove(int idx, List<? extends E> removed) {
         checkState();
+        if (removed.isEmpty()) {
+            return;
+        }
+
+        if (updateChanges == null || updateChanges.isEmpty()) {
+            // Fast path for ranges that don't overlap with previous changes,
+            // which is the common case for bulk operations
+            checkAddRemoveList();
+            final SubChange<E> last = addRemoveChanges.isEmpty() ? null
+                    : addRemoveChanges.get(addRemoveChanges.size() - 1);
+            if (last == null || last.to < idx) {
+                addRemoveChanges.add(new SubChange<E>(idx, idx, new ArrayList<E>(removed), EMPTY_PERM, false));
+                return;
+            } else if (last.to == idx) {
+                if (last.removed == null) {
+                    last.removed = new ArrayList<E>();
+                }
+                last.removed.addAll(removed);
+                return;
+            }
+        }
 
         for (int i = 0; i < removed.size(); ++i) {
             nextRemove(idx, removed.get(i));
@@ -32,10 +32,15 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.Predicate;
 import javafx.beans.NamedArg;
+import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ObjectPropertyBase;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.collections.ListChangeListener.Change;
 import javafx.collections.ObservableList;
 
@@ -125,6 +130,56 @@ public final class FilteredList<E> extends TransformationList<E, E>{
         predicateProperty().set(predicate);
     }
 
+    /**
+     * Replaces the predicate with one that matches a subset of the elements
+     * matched by the current predicate, for example because it adds another
+     * condition to it. Only the elements that are currently in this list are
+     * tested, and the ones that don't match the new predicate are reported as
+     * removed.
+     * <p>
+     * If the new predicate matches an element that the current one doesn't,
+     * the element will still not be in the list.
+     * @param predicate the new predicate, which must not match any element
+     *        that is not matched by the current predicate
+     * @since JavaFX 8u40
+     */
+    public final void narrowPredicate(Predicate<? super E> predicate) {
+        narrowing = true;
+        try {
+            setPredicate(predicate);
+        } finally {
+            narrowing = false;
+        }
+    }
+
+    private boolean narrowing;
+
+    /**
+     * Whether the predicate may be tested on several elements in parallel when
+     * the predicate changes. This only happens for large source lists
+     * that implement {@link RandomAccess}. The predicate must be safe to call
+     * from other threads, and the source list must not be modified by other
+     * threads while the list is filtered.
+     * @defaultValue false
+     * @since JavaFX 8u40
+     */
+    private BooleanProperty parallel;
+
+    public final BooleanProperty parallelProperty() {
+        if (parallel == null) {
+            parallel = new SimpleBooleanProperty(this, "parallel");
+        }
+        return parallel;
+    }
+
+    public final boolean isParallel() {
+        return parallel == null ? false : parallel.get();
+    }
+
+    public final void setParallel(boolean value) {
+        parallelProperty().set(value);
+    }
+
     private Predicate<? super E> getPredicateImpl() {
         if (getPredicate() != null) {
             return getPredicate();
@@ -379,23 +434,116 @@ public final class FilteredList<E> extends TransformationList<E, E>{
     @SuppressWarnings("unchecked")
     private void refilter() {
         ensureSize(getSource().size());
+        if (narrowing) {
+            refilterVisible();
+            return;
+        }
         List<E> removed = null;
         if (hasListeners()) {
             removed = new ArrayList<>(this);
         }
         size = 0;
-        int i = 0;
         Predicate<? super E> pred = getPredicateImpl();
-        for (Iterator<? extends E> it = getSource().iterator();it.hasNext(); ) {
-            final E next = it.next();
-            if (pred.test(next)) {
-                filtered[size++] = i;
+        final boolean[] matches = testParallel(pred, null, getSource().size());
+        if (matches != null) {
+            for (int i = 0; i < matches.length; ++i) {
+                if (matches[i]) {
+                    filtered[size++] = i;
+                }
+            }
+        } else {
+            int i = 0;
+            for (Iterator<? extends E> it = getSource().iterator();it.hasNext(); ) {
+                final E next = it.next();
+                if (pred.test(next)) {
+                    filtered[size++] = i;
+                }
+                ++i;
             }
-            ++i;
         }
         if (hasListeners()) {
             fireChange(new GenericAddRemoveChange<>(0, size, removed, this));
         }
     }
 
+    /**
+     * Tests only the elements that are in the list, for a predicate that
+     * is narrower than the previous one.
+     */
+    private void refilterVisible() {
+        final Predicate<? super E> pred = getPredicateImpl();
+        final boolean[] matches = testParallel(pred, filtered, size);
+        final ObservableList<? extends E> source = getSource();
+        final ListIterator<? extends E> it = source instanceof RandomAccess ? null : source.listIterator();
+        beginChange();
+        int ptr = 0;
+        for (int i = 0; i < size; ++i) {
+            final E el;
+            if (it == null) {
+                el = source.get(filtered[i]);
+            } else {
+                advanceTo(it, filtered[i]);
+                el = it.next();
+            }
+            if (matches != null ? matches[i] : pred.test(el)) {
+                filtered[ptr++] = filtered[i];
+            } else {
+                nextRemove(ptr, el);
+            }
+        }
+        size = ptr;
+        endChange();
+    }
+
+    /**
+     * Tests the source elements in parallel, if enabled and worth it.
+     * @param indexes the source indexes of the elements to test, or null
+     *        to test the first count elements of the source list
+     * @return the results for each element, or null if the elements
+     *         need to be tested serially
+     */
+    private boolean[] testParallel(Predicate<? super E> pred, int[] indexes, int count) {
+        if (!isParallel() || count < 2 * PredicateTask.CHUNK_SIZE || !(getSource() instanceof RandomAccess)) {
+            return null;
+        }
+        final boolean[] matches = new boolean[count];
+        ForkJoinPool.commonPool().invoke(new PredicateTask<E>(pred, getSource(), indexes, matches, 0, count));
+        return matches;
+    }
+
+    // Never serialized, the predicate and the source need not be serializable
+    @SuppressWarnings("serial")
+    private static final class PredicateTask<E> extends RecursiveAction {
+        static final int CHUNK_SIZE = 4096;
+
+        private final Predicate<? super E> predicate;
+        private final List<? extends E> source;
+        private final int[] indexes;
+        private final boolean[] matches;
+        private final int from, to;
+
+        PredicateTask(Predicate<? super E> predicate, List<? extends E> source,
+                int[] indexes, boolean[] matches, int from, int to) {
+            this.predicate = predicate;
+            this.source = source;
+            this.indexes = indexes;
+            this.matches = matches;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                for (int i = from; i < to; ++i) {
+                    matches[i] = predicate.test(source.get(indexes == null ? i : indexes[i]));
+                }
+            } else {
+                final int mid = (from + to) >>> 1;
+                invokeAll(new PredicateTask<E>(predicate, source, indexes, matches, from, mid),
+                          new PredicateTask<E>(predicate, source, indexes, matches, mid, to));
+            }
+        }
+    }
+
 }
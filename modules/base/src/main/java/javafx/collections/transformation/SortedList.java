@@ -315,6 +315,9 @@ public final class SortedList<E> extends TransformationList<E, E>{
     @SuppressWarnings("empty-statement")
     private int findPosition(int idx ,E e) {
         int pos = findPosition(e);
+        if (pos < 0) {
+            return -1;
+        }
         if (sorted[pos].index == idx) {
             return pos;
         }
@@ -331,18 +334,75 @@ public final class SortedList<E> extends TransformationList<E, E>{
         return -1;
     }
 
-    private void insertToMapping(E e, int idx) {
-        int pos = findPosition(e);
-        if (pos < 0) {
-            pos = ~pos;
+    /**
+     * Batches up to this size are inserted and removed one by one, using a binary
+     * search to find the positions. Larger batches are removed in a single pass
+     * over the elements, or sorted and then merged into them.
+     */
+    private static final int SMALL_BATCH = 16;
+
+    @SuppressWarnings("unchecked")
+    private void insertToMapping(List<? extends E> list, int from, int to) {
+        final int count = to - from;
+        ensureSize(size + count);
+        if (count <= SMALL_BATCH) {
+            for (int i = from; i < to; ++i) {
+                final E e = list.get(i);
+                int pos = findPosition(e);
+                if (pos < 0) {
+                    pos = ~pos;
+                }
+                System.arraycopy(sorted, pos, sorted, pos + 1, size - pos);
+                sorted[pos] = new Element<>(e, i);
+                ++size;
+                nextAdd(pos, pos + 1);
+            }
+            return;
+        }
+        final Element<E>[] added = (Element<E>[]) new Element[count];
+        for (int i = 0; i < count; ++i) {
+            added[i] = new Element<>(list.get(from + i), from + i);
+        }
+        Arrays.sort(added, elementComparator);
+        final int[] positions = new int[count];
+        merge(added, positions);
+        for (int i = 0; i < count;) {
+            final int start = positions[i];
+            int end = start + 1;
+            while (++i < count && positions[i] == end) {
+                ++end;
+            }
+            nextAdd(start, end);
         }
-        ensureSize(size + 1);
-        updateIndices(idx, 1);
-        System.arraycopy(sorted, pos, sorted, pos + 1, size - pos);
-        sorted[pos] = new Element<>(e, idx);
-        ++size;
-        nextAdd(pos, pos + 1);
+    }
 
+    /**
+     * Merges the sorted elements into the sorted array, which must have enough
+     * room for them. Elements that compare equal to existing ones are placed
+     * after them. The final positions of the merged elements are stored in
+     * positions, in ascending order.
+     */
+    private void merge(Element<E>[] elements, int[] positions) {
+        int end = size;
+        for (int j = elements.length - 1; j >= 0; --j) {
+            // Find the first element greater than elements[j] and move the
+            // elements from there on to their final place in one go
+            int low = 0;
+            int high = end;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (elementComparator.compare(sorted[mid], elements[j]) > 0) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            System.arraycopy(sorted, low, sorted, low + j + 1, end - low);
+            sorted[low + j] = elements[j];
+            positions[j] = low + j;
+            end = low;
+        }
+        size += elements.length;
     }
 
     private void setAllToMapping(List<? extends E> list, int to) {
@@ -355,13 +415,53 @@ public final class SortedList<E> extends TransformationList<E, E>{
         nextAdd(0, size);
     }
 
-    private void removeFromMapping(int idx, E e) {
-        int pos = findPosition(idx, e);
-        System.arraycopy(sorted, pos + 1, sorted, pos, size - pos - 1);
-        --size;
-        sorted[size] = null;
-        updateIndices(idx + 1, - 1);
-        nextRemove(pos, e);
+    /**
+     * Removes the elements with source indexes from {@code from} to
+     * {@code from + removed.size()} and shifts the source indexes that follow
+     * them by {@code delta}.
+     */
+    private void removeFromMapping(int from, List<? extends E> removed, int delta) {
+        final int removedTo = from + removed.size();
+        if (removed.size() <= SMALL_BATCH) {
+            for (int i = 0, sz = removed.size(); i < sz; ++i) {
+                final E e = removed.get(i);
+                int pos = findPosition(from + i, e);
+                if (pos < 0) {
+                    pos = findSourceIndex(from + i);
+                }
+                System.arraycopy(sorted, pos + 1, sorted, pos, size - pos - 1);
+                --size;
+                sorted[size] = null;
+                nextRemove(pos, e);
+            }
+            if (delta != 0) {
+                updateIndices(removedTo, delta);
+            }
+            return;
+        }
+        int ptr = 0;
+        for (int i = 0; i < size; ++i) {
+            final Element<E> el = sorted[i];
+            if (el.index >= from && el.index < removedTo) {
+                nextRemove(ptr, el.e);
+            } else {
+                if (el.index >= removedTo) {
+                    el.index += delta;
+                }
+                sorted[ptr++] = el;
+            }
+        }
+        Arrays.fill(sorted, ptr, size, null);
+        size = ptr;
+    }
+
+    private int findSourceIndex(int idx) {
+        for (int i = 0; i < size; ++i) {
+            if (sorted[i].index == idx) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     private void removeAllFromMapping() {
@@ -373,29 +473,94 @@ public final class SortedList<E> extends TransformationList<E, E>{
         nextRemove(0, removed);
     }
 
+    @SuppressWarnings("unchecked")
     private void update(Change<? extends E> c) {
-        int[] perm = helper.sort(sorted, 0, size, elementComparator);
-        nextPermutation(0, size, perm);
-        for (int i = c.getFrom(), to = c.getTo(); i < to; ++i) {
-            nextUpdate(findPosition(i, c.getList().get(i)));
+        final int from = c.getFrom();
+        final int count = c.getTo() - from;
+
+        // Find the current positions of the updated elements
+        final int[] positions = new int[count];
+        for (int i = 0, n = 0; n < count && i < size; ++i) {
+            final int index = sorted[i].index;
+            if (index >= from && index < from + count) {
+                positions[n++] = i;
+            }
+        }
+
+        // If every updated element is still in order with its neighbours,
+        // the whole list is still sorted and nothing needs to move
+        boolean ordered = true;
+        for (int i = 0; i < count && ordered; ++i) {
+            final int pos = positions[i];
+            ordered = (pos == 0 || elementComparator.compare(sorted[pos - 1], sorted[pos]) <= 0)
+                    && (pos == size - 1 || elementComparator.compare(sorted[pos], sorted[pos + 1]) <= 0);
+        }
+        if (ordered) {
+            for (int i = 0; i < count; ++i) {
+                nextUpdate(positions[i]);
+            }
+            return;
+        }
+
+        // Take the updated elements out and merge them back at their new positions
+        final Element<E>[] updated = (Element<E>[]) new Element[count];
+        final int[] oldPositions = new int[count];
+        int ptr = positions[0];
+        for (int i = positions[0], n = 0; i < size; ++i) {
+            if (n < count && positions[n] == i) {
+                updated[n] = sorted[i];
+                oldPositions[sorted[i].index - from] = i;
+                ++n;
+            } else {
+                sorted[ptr++] = sorted[i];
+            }
+        }
+        size -= count;
+        Arrays.sort(updated, elementComparator);
+        final int[] newPositions = new int[count];
+        merge(updated, newPositions);
+
+        // Only the range between the first and the last moved element is permutated
+        final int lo = Math.min(positions[0], newPositions[0]);
+        final int hi = Math.max(positions[count - 1], newPositions[count - 1]) + 1;
+        final int[] perm = new int[hi - lo];
+        int oldPos = lo;
+        int n = 0;
+        for (int i = lo; i < hi; ++i) {
+            final int index = sorted[i].index;
+            if (index >= from && index < from + count) {
+                perm[oldPositions[index - from] - lo] = i;
+            } else {
+                while (n < count && positions[n] == oldPos) {
+                    ++oldPos;
+                    ++n;
+                }
+                perm[oldPos - lo] = i;
+                ++oldPos;
+            }
+        }
+        nextPermutation(lo, hi, perm);
+        for (int i = 0; i < count; ++i) {
+            nextUpdate(newPositions[i]);
         }
     }
 
     private void addRemove(Change<? extends E> c) {
-        if (c.getFrom() == 0 && c.getRemovedSize() == size) {
+        final int from = c.getFrom();
+        final int removedSize = c.getRemovedSize();
+        final int addedSize = c.getAddedSize();
+        if (from == 0 && removedSize == size) {
             removeAllFromMapping();
+        } else if (removedSize > 0) {
+            removeFromMapping(from, c.getRemoved(), addedSize - removedSize);
         } else {
-            for (int i = 0, sz = c.getRemovedSize(); i < sz; ++i) {
-                removeFromMapping(c.getFrom(), c.getRemoved().get(i));
-            }
+            updateIndices(from, addedSize);
         }
         if (size == 0) {
             setAllToMapping(c.getList(), c.getTo()); // This is basically equivalent to getAddedSubList
                                                      // as size is 0, only valid "from" is also 0
-        } else {
-            for (int i = c.getFrom(), to = c.getTo(); i < to; ++i) {
-                insertToMapping(c.getList().get(i), i);
-            }
+        } else if (addedSize > 0) {
+            insertToMapping(c.getList(), from, c.getTo());
         }
     }
 
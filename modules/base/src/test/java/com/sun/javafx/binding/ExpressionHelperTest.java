@@ -29,6 +29,8 @@ import javafx.beans.InvalidationListener;
 import javafx.beans.InvalidationListenerMock;
 import javafx.beans.Observable;
 import javafx.beans.WeakInvalidationListenerMock;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ChangeListenerMock;
 import javafx.beans.value.ObservableValue;
@@ -643,4 +645,90 @@ public class ExpressionHelperTest {
         assertEquals(4, called.get());
     }
 
+    @Test
+    public void testRemoveNotYetNotifiedWhileLocked() {
+        final InvalidationListener removingListener = observable -> {
+            helper = ExpressionHelper.removeListener(helper, invalidationListener[0]);
+            helper = ExpressionHelper.removeListener(helper, changeListener[0]);
+        };
+        helper = ExpressionHelper.addListener(helper, observable, removingListener);
+        helper = ExpressionHelper.addListener(helper, observable, invalidationListener[0]);
+        helper = ExpressionHelper.addListener(helper, observable, invalidationListener[1]);
+        helper = ExpressionHelper.addListener(helper, observable, changeListener[0]);
+        helper = ExpressionHelper.addListener(helper, observable, changeListener[1]);
+
+        observable.set(DATA_2);
+        ExpressionHelper.fireValueChangedEvent(helper);
+        invalidationListener[0].check(null, 0);
+        invalidationListener[1].check(observable, 1);
+        changeListener[0].check(null, UNDEFINED, UNDEFINED, 0);
+        changeListener[1].check(observable, DATA_1, DATA_2, 1);
+        assertEquals(3, ExpressionHelper.countListeners(helper, false));
+    }
+
+    @Test
+    public void testNestedFireWhileLocked() {
+        final InvalidationListener nestedListener = new InvalidationListener() {
+            boolean nested;
+            @Override public void invalidated(Observable o) {
+                if (!nested) {
+                    nested = true;
+                    ExpressionHelper.fireValueChangedEvent(helper);
+                    helper = ExpressionHelper.removeListener(helper, invalidationListener[1]);
+                }
+            }
+        };
+        helper = ExpressionHelper.addListener(helper, observable, invalidationListener[0]);
+        helper = ExpressionHelper.addListener(helper, observable, nestedListener);
+        helper = ExpressionHelper.addListener(helper, observable, invalidationListener[1]);
+        helper = ExpressionHelper.addListener(helper, observable, invalidationListener[2]);
+
+        ExpressionHelper.fireValueChangedEvent(helper);
+        invalidationListener[0].check(observable, 2);
+        invalidationListener[1].check(observable, 1);
+        invalidationListener[2].check(observable, 2);
+        assertEquals(3, ExpressionHelper.countListeners(helper, false));
+    }
+
+    @Test
+    public void testPurgeCollectedListenersWhileNotifying() {
+        helper = ExpressionHelper.addListener(helper, observable, invalidationListener[0]);
+        helper = ExpressionHelper.addListener(helper, observable, changeListener[0]);
+        for (int i = 0; i < 100; i++) {
+            // Like WeakInvalidationListener, remove itself when notified
+            helper = ExpressionHelper.addListener(helper, observable, new WeakInvalidationListenerMock() {
+                @Override public void invalidated(Observable o) {
+                    helper = ExpressionHelper.removeListener(helper, this);
+                }
+            });
+        }
+        assertEquals(0, ExpressionHelper.countListeners(null, false));
+        final int count = ExpressionHelper.countListeners(helper, false);
+        final int collected = ExpressionHelper.countListeners(helper, true);
+        assertTrue(collected > 0);
+        assertEquals(2, count - collected);
+
+        final long purged = ExpressionHelper.getPurgedListenerCount();
+        observable.set(DATA_2);
+        ExpressionHelper.fireValueChangedEvent(helper);
+        invalidationListener[0].check(observable, 1);
+        changeListener[0].check(observable, DATA_1, DATA_2, 1);
+        assertEquals(2, ExpressionHelper.countListeners(helper, false));
+        assertEquals(0, ExpressionHelper.countListeners(helper, true));
+        assertEquals(purged + collected, ExpressionHelper.getPurgedListenerCount());
+    }
+
+    @Test
+    public void testListenerCountOfProperty() {
+        final IntegerProperty property = new SimpleIntegerProperty();
+        assertEquals(0, ExpressionHelper.getListenerCount(property));
+        property.addListener(invalidationListener[0]);
+        property.addListener(changeListener[0]);
+        property.addListener(new WeakInvalidationListenerMock());
+        assertEquals(3, ExpressionHelper.getListenerCount(property));
+        assertEquals(1, ExpressionHelper.getCollectedListenerCount(property));
+        // the stub does not keep its listeners in an ExpressionHelper
+        assertEquals(0, ExpressionHelper.getListenerCount(observable));
+    }
+
 }
@@ -39,6 +39,7 @@ import javafx.beans.binding.IntegerBinding;
 import javafx.beans.binding.LongBinding;
 import javafx.beans.binding.ObjectBinding;
 import javafx.beans.binding.StringBinding;
+import javafx.beans.value.ObservableDoubleValue;
 import javafx.binding.Variable;
 import javafx.collections.ObservableList;
 import sun.util.logging.PlatformLogger.Level;
@@ -71,6 +72,20 @@ public class SelectBindingTest {
 
     }
 
+    public static class POJOMeasurement {
+
+        private final double value;
+
+        public POJOMeasurement(double value) {
+            this.value = value;
+        }
+
+        public double getValue() {
+            return value;
+        }
+
+    }
+
     public static class POJONext {
 
         private Object next;
@@ -321,6 +336,18 @@ public class SelectBindingTest {
         assertEquals(-18, binding1.get());
     }
 
+    @Test
+    public void testPOJOPrimitive() {
+        b.setNext(new POJOMeasurement(Math.PI));
+        final DoubleBinding binding1 = Bindings.selectDouble(a.nextProperty(), "next", "value");
+        assertEquals(Math.PI, binding1.get(), EPSILON_DOUBLE);
+        final ObservableList<?> dependencies1 = binding1.getDependencies();
+        assertTrue(dependencies1.get(dependencies1.size() - 1) instanceof ObservableDoubleValue);
+
+        b.setNext(new POJOMeasurement(-Math.E));
+        assertEquals(-Math.E, binding1.get(), EPSILON_DOUBLE);
+    }
+
     @Test
     public void testInteger() {
 
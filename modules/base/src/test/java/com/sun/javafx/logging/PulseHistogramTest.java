@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.logging;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PulseHistogramTest {
+
+    @Test
+    public void testEmpty() {
+        PulseHistogram h = new PulseHistogram();
+        assertEquals(0, h.getCount());
+        assertEquals(0, h.getMax());
+        assertEquals(0.0, h.getMean(), 0.0);
+        assertEquals(0, h.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void testBucketsAreContiguous() {
+        int last = -1;
+        for (long v = 0; v < 100000; v++) {
+            int index = PulseHistogram.indexOf(v);
+            assertTrue(index == last || index == last + 1);
+            assertTrue(PulseHistogram.highestValueAt(index) >= v);
+            last = index;
+        }
+    }
+
+    @Test
+    public void testRelativeError() {
+        for (long v = 1; v < (1L << 36); v = v * 3 + 1) {
+            long highest = PulseHistogram.highestValueAt(PulseHistogram.indexOf(v));
+            assertTrue(highest >= v);
+            assertTrue((double) (highest - v) / v <= 1.0 / 16);
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        PulseHistogram h = new PulseHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            h.record(i);
+        }
+        assertEquals(1000, h.getCount());
+        assertEquals(1000, h.getMax());
+        assertEquals(500.5, h.getMean(), 0.001);
+        assertEquals(500, h.getValueAtPercentile(50), 500 / 16);
+        assertEquals(990, h.getValueAtPercentile(99), 990 / 16);
+        assertEquals(1000, h.getValueAtPercentile(100));
+        assertEquals(1, h.getValueAtPercentile(0));
+    }
+
+    @Test
+    public void testOutOfRangeValues() {
+        PulseHistogram h = new PulseHistogram();
+        h.record(-5);
+        h.record(Long.MAX_VALUE);
+        assertEquals(2, h.getCount());
+        assertEquals(0, h.getValueAtPercentile(50));
+        assertTrue(h.getMax() > 0);
+    }
+
+    @Test
+    public void testReset() {
+        PulseHistogram h = new PulseHistogram();
+        h.record(42);
+        h.reset();
+        assertEquals(0, h.getCount());
+        assertEquals(0, h.getMax());
+    }
+}
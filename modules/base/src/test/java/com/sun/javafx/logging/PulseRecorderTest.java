@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.logging;
+
+import java.util.Map;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PulseRecorderTest {
+
+    @Test
+    public void testRecorderAttributesPhasesToScenes() throws Exception {
+        PulseRecorder recorder = new PulseRecorder();
+        Object scene1 = new Object();
+        Object scene2 = new Object();
+
+        recorder.pulseStart();
+        recorder.newScene(scene1);
+        recorder.newPhase("CSS Pass");
+        recorder.newPhase("Layout Pass");
+        recorder.newScene(scene2);
+        recorder.newPhase("CSS Pass");
+        recorder.renderStart();
+        recorder.pulseEnd();
+
+        Thread render = new Thread(() -> {
+            recorder.newScene(scene1);
+            recorder.newPhase("Painting");
+            recorder.renderEnd();
+        });
+        render.start();
+        render.join();
+
+        assertEquals(1, recorder.getPulseCount());
+        Map<String, PulseHistogram> phases = recorder.getPhaseHistograms();
+        assertEquals(2, phases.get("CSS Pass").getCount());
+        assertEquals(1, phases.get("Layout Pass").getCount());
+        assertEquals(1, phases.get("Painting").getCount());
+        assertEquals(1, phases.get(PulseRecorder.PULSE).getCount());
+        assertEquals(1, phases.get(PulseRecorder.RENDER).getCount());
+        assertEquals(1, phases.get(PulseRecorder.FRAME).getCount());
+
+        Map<String, Map<String, PulseHistogram>> scenes = recorder.getSceneHistograms();
+        assertEquals(2, scenes.size());
+        Map<String, PulseHistogram> s1 = scenes.get("Scene 1");
+        assertEquals(1, s1.get("CSS Pass").getCount());
+        assertEquals(1, s1.get("Layout Pass").getCount());
+        assertEquals(1, s1.get("Painting").getCount());
+        Map<String, PulseHistogram> s2 = scenes.get("Scene 2");
+        assertEquals(1, s2.get("CSS Pass").getCount());
+        assertNull(s2.get("Painting"));
+
+        recorder.disposeScene(scene2);
+        assertEquals(1, recorder.getSceneHistograms().size());
+
+        recorder.reset();
+        assertEquals(0, recorder.getPhaseHistograms().get("CSS Pass").getCount());
+    }
+
+    @Test
+    public void testFrameWithoutRendering() {
+        PulseRecorder recorder = new PulseRecorder();
+        recorder.pulseStart();
+        recorder.newPhase("CSS Pass");
+        recorder.pulseEnd();
+        Map<String, PulseHistogram> phases = recorder.getPhaseHistograms();
+        assertEquals(1, phases.get(PulseRecorder.FRAME).getCount());
+        assertNull(phases.get(PulseRecorder.RENDER));
+    }
+}
@@ -58,6 +58,26 @@ public class PropertyReferenceTest {
 		assertEquals(Integer.valueOf(42), property.get(person));
 	}
 	
+	@Test
+	public void testOf() {
+		final PropertyReference<Integer> property = PropertyReference.of(Person.class, "age");
+		assertSame(property, PropertyReference.of(Person.class, "age"));
+		assertEquals(new PropertyReference<Integer>(Person.class, "age"), property);
+		assertNotSame(property, PropertyReference.of(Person.class, "noWrite"));
+		assertTrue(property.isReadable());
+		assertTrue(property.isWritable());
+		assertEquals(person.ageProperty(), property.getProperty(person));
+
+		property.set(person, 42);
+		assertEquals(42, person.getAge());
+		assertEquals(Integer.valueOf(42), property.get(person));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testOf_EmptyName() {
+		PropertyReference.of(Person.class, " ");
+	}
+
 	@Test
 	public void testNoRead() {
 		final PropertyReference<Integer> property = new PropertyReference<Integer>(Person.class, "noRead");
@@ -118,4 +138,24 @@ public class PropertyReferenceTest {
 		Person.NO_READ_WRITE.set(person, 1);
 	}
 	
+	@Test(expected=IllegalArgumentException.class)
+	public void testGetterExceptionIsNotWrapped() {
+		new PropertyReference<Integer>(FailingBean.class, "value").get(new FailingBean());
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testSetterExceptionIsNotWrapped() {
+		new PropertyReference<Integer>(FailingBean.class, "value").set(new FailingBean(), 1);
+	}
+	
+	public static class FailingBean {
+		public int getValue() {
+			throw new IllegalArgumentException();
+		}
+		
+		public void setValue(int value) {
+			throw new IllegalArgumentException();
+		}
+	}
+	
 }
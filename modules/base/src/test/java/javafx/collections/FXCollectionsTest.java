@@ -97,6 +97,113 @@ public class FXCollectionsTest {
         observer.check1();
     }
 
+    @Test
+    public void batchTest() {
+        ObservableList<String> seq = FXCollections.observableArrayList("a", "b", "c", "d", "e");
+        final MockListObserver<String> observer = new MockListObserver<String>();
+
+        seq.addListener(observer);
+        FXCollections.batch(seq, l -> {
+            l.set(1, "foo");
+            l.set(2, "bar");
+            l.set(3, "ham");
+        });
+        assertArrayEquals(new String[] {"a", "foo", "bar", "ham", "e"}, seq.toArray(new String[0]));
+        observer.check1AddRemove(seq, Arrays.asList("b", "c", "d"), 1, 4);
+    }
+
+    @Test
+    public void batchNestedTest() {
+        ObservableList<String> seq = FXCollections.observableArrayList("a", "b");
+        final MockListObserver<String> observer = new MockListObserver<String>();
+
+        seq.addListener(observer);
+        FXCollections.batch(seq, l -> {
+            l.add("c");
+            FXCollections.batch(l, l2 -> l2.add("d"));
+            observer.check0();
+            l.remove(0);
+        });
+        assertArrayEquals(new String[] {"b", "c", "d"}, seq.toArray(new String[0]));
+        observer.checkAddRemove(0, seq, Arrays.asList("a"), 0, 0);
+        observer.checkAddRemove(1, seq, null, 1, 3);
+    }
+
+    @Test
+    public void batchExceptionTest() {
+        ObservableList<String> seq = FXCollections.observableArrayList("a", "b");
+        final MockListObserver<String> observer = new MockListObserver<String>();
+
+        seq.addListener(observer);
+        try {
+            FXCollections.batch(seq, l -> {
+                l.add("c");
+                l.get(10);
+            });
+            fail("Expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+        }
+        observer.check1AddRemove(seq, null, 2, 3);
+
+        observer.clear();
+        seq.add("d");
+        observer.check1AddRemove(seq, null, 3, 4);
+    }
+
+    @Test
+    public void batchCheckedAndSynchronizedTest() {
+        ObservableList<String> seq = FXCollections.observableArrayList("a", "b", "c");
+        ObservableList<String> wrapper = FXCollections.synchronizedObservableList(
+                FXCollections.checkedObservableList(seq, String.class));
+        final MockListObserver<String> observer = new MockListObserver<String>();
+
+        wrapper.addListener(observer);
+        FXCollections.batch(wrapper, l -> {
+            l.set(0, "foo");
+            l.set(1, "bar");
+        });
+        assertArrayEquals(new String[] {"foo", "bar", "c"}, wrapper.toArray(new String[0]));
+        observer.check1AddRemove(wrapper, Arrays.asList("a", "b"), 0, 2);
+    }
+
+    @Test
+    public void replaceRangeTest() {
+        ObservableList<String> seq = FXCollections.observableArrayList("a", "b", "c", "d", "e");
+        final MockListObserver<String> observer = new MockListObserver<String>();
+
+        seq.addListener(observer);
+        FXCollections.replaceRange(seq, 1, 4, Arrays.asList("foo", "bar"));
+        assertArrayEquals(new String[] {"a", "foo", "bar", "e"}, seq.toArray(new String[0]));
+        observer.check1AddRemove(seq, Arrays.asList("b", "c", "d"), 1, 3);
+
+        observer.clear();
+        FXCollections.replaceRange(seq, 4, 4, Arrays.asList("ham"));
+        assertArrayEquals(new String[] {"a", "foo", "bar", "e", "ham"}, seq.toArray(new String[0]));
+        observer.check1AddRemove(seq, null, 4, 5);
+
+        observer.clear();
+        FXCollections.replaceRange(seq, 0, 2, Collections.<String>emptyList());
+        assertArrayEquals(new String[] {"bar", "e", "ham"}, seq.toArray(new String[0]));
+        observer.check1AddRemove(seq, Arrays.asList("a", "foo"), 0, 0);
+    }
+
+    @Test
+    public void replaceRangeSequentialTest() {
+        ObservableList<String> seq = FXCollections.observableList(new LinkedList<String>(Arrays.asList("a", "b", "c")));
+        final MockListObserver<String> observer = new MockListObserver<String>();
+
+        seq.addListener(observer);
+        FXCollections.replaceRange(seq, 0, 2, Arrays.asList("foo", "bar", "ham"));
+        assertArrayEquals(new String[] {"foo", "bar", "ham", "c"}, seq.toArray(new String[0]));
+        observer.check1AddRemove(seq, Arrays.asList("a", "b"), 0, 3);
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void replaceRangeOutOfBoundsTest() {
+        ObservableList<String> seq = FXCollections.observableArrayList("a", "b");
+        FXCollections.replaceRange(seq, 1, 3, Arrays.asList("foo"));
+    }
+
     @Test
     public void reverseTest() {
 
@@ -150,6 +150,57 @@ public class FilteredListTest {
         assertEquals(list, filteredList);
     }
 
+    @Test
+    public void testNarrowPredicate() {
+        list.addAll("b", "dd", "e");
+        mlo.clear();
+        assertEquals(Arrays.asList("a", "d", "b", "dd", "e"), filteredList);
+
+        filteredList.narrowPredicate((String e) -> !e.equals("c") && !e.startsWith("d"));
+        assertEquals(Arrays.asList("a", "b", "e"), filteredList);
+        assertEquals(2, mlo.calls.size());
+        mlo.checkAddRemove(0, filteredList, Arrays.asList("d"), 1, 1);
+        mlo.checkAddRemove(1, filteredList, Arrays.asList("dd"), 2, 2);
+        assertEquals(0, filteredList.getSourceIndex(0));
+        assertEquals(4, filteredList.getSourceIndex(1));
+        assertEquals(6, filteredList.getSourceIndex(2));
+
+        mlo.clear();
+        list.add(1, "f");
+        assertEquals(Arrays.asList("a", "f", "b", "e"), filteredList);
+        mlo.check1AddRemove(filteredList, Collections.<String>emptyList(), 1, 2);
+    }
+
+    @Test
+    public void testParallelRefilter() {
+        ObservableList<Integer> source = FXCollections.observableArrayList();
+        for (int i = 0; i < 50000; ++i) {
+            source.add(i);
+        }
+        FilteredList<Integer> filtered = new FilteredList<>(source);
+        filtered.setParallel(true);
+        assertTrue(filtered.isParallel());
+        MockListObserver<Integer> observer = new MockListObserver<>();
+        filtered.addListener(observer);
+
+        filtered.setPredicate(i -> i % 3 == 0);
+        observer.check1();
+        assertEquals(16667, filtered.size());
+        for (int i = 0; i < filtered.size(); ++i) {
+            assertEquals(3 * i, (int) filtered.get(i));
+            assertEquals(3 * i, filtered.getSourceIndex(i));
+        }
+
+        observer.clear();
+        filtered.narrowPredicate(i -> i % 6 == 0);
+        assertEquals(8334, filtered.size());
+        for (int i = 0; i < filtered.size(); ++i) {
+            assertEquals(6 * i, (int) filtered.get(i));
+        }
+        assertEquals(8333, observer.calls.size());
+        observer.checkAddRemove(0, filtered, Arrays.asList(3), 1, 1);
+    }
+
     private Person createPerson(String name) {
         Person p =  new Person();
         p.name.set(name);
@@ -333,6 +333,250 @@ public class ObservableArrayTest  {
         }
     }
 
+    private static class DoubleArrayWrapper extends ArrayWrapper<ObservableDoubleArray, double[], Double> {
+
+        double nextValue = 0;
+
+        @Override DoubleArrayWrapper newInstance() {
+            return new DoubleArrayWrapper();
+        }
+
+        @Override ObservableDoubleArray createEmptyArray() {
+            return array = FXCollections.observableDoubleArray();
+        }
+
+        @Override ObservableDoubleArray createNotEmptyArray(double[] elements) {
+            return array = FXCollections.observableDoubleArray(elements);
+        }
+
+        @Override
+        Double getNextValue() {
+            return nextValue++;
+        }
+
+        @Override void set(int index, Double value) {
+            array.set(index, value);
+        }
+
+        @Override double[] createPrimitiveArray(int size, boolean fillWithData) {
+            double[] res = new double[size];
+            if (fillWithData) {
+                for (int i = 0; i < size; i++) {
+                    res[i] = nextValue++;
+                }
+            }
+            return res;
+        }
+
+        @Override void setAllA(double[] src) {
+            array.setAll(src);
+        }
+
+        @Override void copyToA(int srcIndex, double[] dest, int destIndex, int length) {
+            array.copyTo(srcIndex, dest, destIndex, length);
+        }
+
+        @Override void copyToT(int srcIndex, ObservableDoubleArray dest, int destIndex, int length) {
+            array.copyTo(srcIndex, dest, destIndex, length);
+        }
+
+        @Override Double get(int index) {
+            return array.get(index);
+        }
+
+        @Override double[] toArray(double[] dest) {
+            return array.toArray(dest);
+        }
+
+        @Override double[] toArray(int srcIndex, double[] dest, int length) {
+            return array.toArray(srcIndex, dest, length);
+        }
+
+        @Override void setA(int destIndex, double[] src, int srcIndex, int length) {
+            array.set(destIndex, src, srcIndex, length);
+        }
+
+        @Override int arrayLength(double[] array) {
+            return array.length;
+        }
+
+        @Override
+        Double get(double[] array, int index) {
+            return array[index];
+        }
+
+        @Override
+        void assertElementsEqual(double[] actual, int from, int to, double[] expected, int expFrom) {
+            for(int i = from, j = expFrom; i < to; i++, j++) {
+                assertEquals("expected double = " + expected[j] + ", actual double = " + actual[i],
+                        Double.doubleToRawLongBits(expected[j]),
+                        Double.doubleToRawLongBits(actual[i]));
+            }
+        }
+
+        @Override double[] clonePrimitiveArray(double[] array) {
+            return Arrays.copyOf(array, array.length);
+        }
+
+        @Override void setAllT(ObservableDoubleArray src) {
+            array.setAll(src);
+        }
+
+        @Override void setAllA(double[] src, int srcIndex, int length) {
+            array.setAll(src, srcIndex, length);
+        }
+
+        @Override void setAllT(ObservableDoubleArray src, int srcIndex, int length) {
+            array.setAll(src, srcIndex, length);
+        }
+
+        @Override void addAllA(double[] src) {
+            array.addAll(src);
+        }
+
+        @Override void addAllT(ObservableDoubleArray src) {
+            array.addAll(src);
+        }
+
+        @Override void addAllA(double[] src, int srcIndex, int length) {
+            array.addAll(src, srcIndex, length);
+        }
+
+        @Override void addAllT(ObservableDoubleArray src, int srcIndex, int length) {
+            array.addAll(src, srcIndex, length);
+        }
+
+        @Override void setT(int destIndex, ObservableDoubleArray src, int srcIndex, int length) {
+            array.set(destIndex, src, srcIndex, length);
+        }
+
+        @Override
+        String primitiveArrayToString(double[] array) {
+            return Arrays.toString(array);
+        }
+    }
+
+    private static class LongArrayWrapper extends ArrayWrapper<ObservableLongArray, long[], Long> {
+
+        long nextValue = 0;
+
+        @Override LongArrayWrapper newInstance() {
+            return new LongArrayWrapper();
+        }
+
+        @Override ObservableLongArray createEmptyArray() {
+            return array = FXCollections.observableLongArray();
+        }
+
+        @Override ObservableLongArray createNotEmptyArray(long[] elements) {
+            return array = FXCollections.observableLongArray(elements);
+        }
+
+        @Override
+        Long getNextValue() {
+            return nextValue++;
+        }
+
+        @Override void set(int index, Long value) {
+            array.set(index, value);
+        }
+
+        @Override long[] createPrimitiveArray(int size, boolean fillWithData) {
+            long[] res = new long[size];
+            if (fillWithData) {
+                for (int i = 0; i < size; i++) {
+                    res[i] = nextValue++;
+                }
+            }
+            return res;
+        }
+
+        @Override void setAllA(long[] src) {
+            array.setAll(src);
+        }
+
+        @Override void copyToA(int srcIndex, long[] dest, int destIndex, int length) {
+            array.copyTo(srcIndex, dest, destIndex, length);
+        }
+
+        @Override void copyToT(int srcIndex, ObservableLongArray dest, int destIndex, int length) {
+            array.copyTo(srcIndex, dest, destIndex, length);
+        }
+
+        @Override Long get(int index) {
+            return array.get(index);
+        }
+
+        @Override long[] toArray(long[] dest) {
+            return array.toArray(dest);
+        }
+
+        @Override long[] toArray(int srcIndex, long[] dest, int length) {
+            return array.toArray(srcIndex, dest, length);
+        }
+
+        @Override void setA(int destIndex, long[] src, int srcIndex, int length) {
+            array.set(destIndex, src, srcIndex, length);
+        }
+
+        @Override int arrayLength(long[] array) {
+            return array.length;
+        }
+
+        @Override
+        Long get(long[] array, int index) {
+            return array[index];
+        }
+
+        @Override
+        void assertElementsEqual(long[] actual, int from, int to, long[] expected, int expFrom) {
+            for(int i = from, j = expFrom; i < to; i++, j++) {
+                assertEquals(actual[i], expected[j]);
+            }
+        }
+
+        @Override long[] clonePrimitiveArray(long[] array) {
+            return Arrays.copyOf(array, array.length);
+        }
+
+        @Override void setAllT(ObservableLongArray src) {
+            array.setAll(src);
+        }
+
+        @Override void setAllA(long[] src, int srcIndex, int length) {
+            array.setAll(src, srcIndex, length);
+        }
+
+        @Override void setAllT(ObservableLongArray src, int srcIndex, int length) {
+            array.setAll(src, srcIndex, length);
+        }
+
+        @Override void addAllA(long[] src) {
+            array.addAll(src);
+        }
+
+        @Override void addAllT(ObservableLongArray src) {
+            array.addAll(src);
+        }
+
+        @Override void addAllA(long[] src, int srcIndex, int length) {
+            array.addAll(src, srcIndex, length);
+        }
+
+        @Override void addAllT(ObservableLongArray src, int srcIndex, int length) {
+            array.addAll(src, srcIndex, length);
+        }
+
+        @Override void setT(int destIndex, ObservableLongArray src, int srcIndex, int length) {
+            array.set(destIndex, src, srcIndex, length);
+        }
+
+        @Override
+        String primitiveArrayToString(long[] array) {
+            return Arrays.toString(array);
+        }
+    }
+
     static final List<String> EMPTY = Collections.emptyList();
     final ArrayWrapper wrapper;
     private int initialSize;
@@ -349,6 +593,8 @@ public class ObservableArrayTest  {
         Object[][] data = new Object[][] {
             { new FloatArrayWrapper() },
             { new IntegerArrayWrapper() },
+            { new DoubleArrayWrapper() },
+            { new LongArrayWrapper() },
          };
         return Arrays.asList(data);
     }
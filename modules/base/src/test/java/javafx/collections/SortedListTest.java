@@ -38,6 +38,7 @@ import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.Map;
+import java.util.Random;
 
 import javafx.beans.Observable;
 import javafx.beans.property.ObjectProperty;
@@ -228,7 +229,12 @@ public class SortedListTest {
         ListChangeListener<Person> listener = c -> {
             c.next();
             assertTrue(c.wasPermutated());
-            assertArrayEquals(new int[] {0, 4, 1, 2, 3}, c.getPermutation());
+            assertEquals(1, c.getFrom());
+            assertEquals(5, c.getTo());
+            assertEquals(4, c.getPermutation(1));
+            assertEquals(1, c.getPermutation(2));
+            assertEquals(2, c.getPermutation(3));
+            assertEquals(3, c.getPermutation(4));
             assertTrue(c.next());
             assertTrue(c.wasUpdated());
             assertEquals(4, c.getFrom());
@@ -474,4 +480,111 @@ public class SortedListTest {
         assertEquals(Arrays.asList("a", "e", "d", "c"), sortedList);
         mockListObserver.check1Permutation(sortedList, new int[] {0, 3, 2, 1});
     }
+
+    private static <E> void replay(Change<? extends E> c, List<E> mirror) {
+        while (c.next()) {
+            if (c.wasPermutated()) {
+                List<E> permutated = new ArrayList<>(mirror.subList(c.getFrom(), c.getTo()));
+                for (int i = c.getFrom(); i < c.getTo(); ++i) {
+                    mirror.set(c.getPermutation(i), permutated.get(i - c.getFrom()));
+                }
+            } else if (!c.wasUpdated()) {
+                List<E> removed = mirror.subList(c.getFrom(), c.getFrom() + c.getRemovedSize());
+                assertEquals(c.getRemoved(), removed);
+                removed.clear();
+                mirror.addAll(c.getFrom(), c.getAddedSubList());
+            }
+        }
+    }
+
+    private static <E> void checkSorted(SortedList<E> sorted, ObservableList<E> source, Comparator<? super E> comparator) {
+        List<E> expected = new ArrayList<>(source);
+        Collections.sort(expected, comparator);
+        assertEquals(expected, sorted);
+        for (int i = 0; i < sorted.size(); ++i) {
+            assertSame(sorted.get(i), source.get(sorted.getSourceIndex(i)));
+        }
+    }
+
+    @Test
+    public void testLargeBatches() {
+        Random random = new Random(12345);
+        ObservableList<Integer> source = FXCollections.observableArrayList();
+        for (int i = 0; i < 200; ++i) {
+            source.add(random.nextInt(100));
+        }
+        Comparator<Integer> comparator = Comparator.naturalOrder();
+        SortedList<Integer> sorted = new SortedList<>(source, comparator);
+        List<Integer> mirror = new ArrayList<>(sorted);
+        sorted.addListener((Change<? extends Integer> c) -> replay(c, mirror));
+
+        List<Integer> added = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            added.add(random.nextInt(100));
+        }
+        source.addAll(50, added);
+        checkSorted(sorted, source, comparator);
+        assertEquals(mirror, sorted);
+
+        source.remove(20, 120);
+        checkSorted(sorted, source, comparator);
+        assertEquals(mirror, sorted);
+
+        FXCollections.replaceRange(source, 10, 60, added);
+        checkSorted(sorted, source, comparator);
+        assertEquals(mirror, sorted);
+
+        FXCollections.batch(source, l -> {
+            for (int i = 0; i < l.size(); i += 3) {
+                l.set(i, random.nextInt(100));
+            }
+        });
+        checkSorted(sorted, source, comparator);
+        assertEquals(mirror, sorted);
+
+        for (int i = 0; i < 20; ++i) {
+            source.add(random.nextInt(source.size()), random.nextInt(100));
+            source.remove(random.nextInt(source.size()));
+        }
+        checkSorted(sorted, source, comparator);
+        assertEquals(mirror, sorted);
+    }
+
+    @Test
+    public void testLargeUpdate() {
+        Random random = new Random(54321);
+        ObservableList<Person> source = FXCollections.observableArrayList((Person p) -> new Observable[] {p.name});
+        for (int i = 0; i < 100; ++i) {
+            source.add(new Person(String.valueOf(1000 + random.nextInt(1000))));
+        }
+        Comparator<Person> comparator = (p1, p2) -> p1.name.get().compareTo(p2.name.get());
+        SortedList<Person> sorted = new SortedList<>(source, comparator);
+        List<Person> mirror = new ArrayList<>(sorted);
+        sorted.addListener((Change<? extends Person> c) -> replay(c, mirror));
+
+        FXCollections.batch(source, l -> {
+            for (int i = 20; i < 60; ++i) {
+                l.get(i).name.set(String.valueOf(1000 + random.nextInt(1000)));
+            }
+        });
+        checkSorted(sorted, source, comparator);
+        assertEquals(mirror, sorted);
+
+        source.get(7).name.set("0");
+        checkSorted(sorted, source, comparator);
+        assertEquals(mirror, sorted);
+    }
+
+    @Test
+    public void testUpdateWithoutMove() {
+        ObservableList<Person> source = FXCollections.observableArrayList((Person p) -> new Observable[] {p.name});
+        source.addAll(new Person("b"), new Person("d"), new Person("f"));
+        SortedList<Person> sorted = new SortedList<>(source, new NaturalElementComparator<>());
+        MockListObserver<Person> observer = new MockListObserver<>();
+        sorted.addListener(observer);
+
+        source.get(1).name.set("e");
+        assertEquals(Arrays.asList(new Person("b"), new Person("e"), new Person("f")), sorted);
+        observer.check1Update(sorted, 1, 2);
+    }
 }
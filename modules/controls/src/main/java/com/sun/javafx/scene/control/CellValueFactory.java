@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.scene.control;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.scene.control.Cell;
+import javafx.util.Callback;
+
+/**
+ * Computes the values that cells show for their items on a background
+ * thread, for cells whose content is expensive to compute (decoded images,
+ * formatted text and so on). A cell asks for the value of its item when it is
+ * updated: if the value has been computed already it is returned, otherwise
+ * null is returned (and the cell shows a placeholder), and once the value
+ * has been computed it is handed to the binder, on the FX thread, provided
+ * that the cell still shows the same item.
+ *
+ * <p>The binder is called in the pulses after the values have been
+ * computed, for as many values as fit in the pulse budget, so that a burst of
+ * values arriving at once does not drop frames. The most recently used
+ * values are cached, so cells that are scrolled back into view (or that the
+ * VirtualFlow updates in advance, see
+ * {@link com.sun.javafx.scene.control.skin.VirtualFlow#setPrefetchCount(int)})
+ * get their value right away.</p>
+ *
+ * <pre>
+ * final CellValueFactory&lt;Photo, Image&gt; thumbnails = new CellValueFactory&lt;&gt;(
+ *         photo -&gt; new Image(photo.getUrl(), 64, 64, true, true),
+ *         (cell, image) -&gt; cell.setGraphic(new ImageView(image)));
+ *
+ * listView.setCellFactory(l -&gt; new ListCell&lt;Photo&gt;() {
+ *     &#064;Override protected void updateItem(Photo photo, boolean empty) {
+ *         super.updateItem(photo, empty);
+ *         Image image = empty ? null : thumbnails.getValue(photo, this);
+ *         setGraphic(image == null ? null : new ImageView(image));
+ *     }
+ * });
+ * </pre>
+ *
+ * <p>The value factory is called on the executor's threads, so it must not
+ * touch the scene graph. It should not return null.</p>
+ *
+ * @param <T> The type of the items of the cells.
+ * @param <V> The type of the values computed for the items.
+ */
+public class CellValueFactory<T, V> {
+
+    private static final int THREAD_POOL_SIZE = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    private static final ThreadFactory THREAD_FACTORY = run -> {
+        final Thread th = new Thread(run, "CellValueFactory");
+        th.setPriority(Thread.MIN_PRIORITY);
+        th.setDaemon(true);
+        return th;
+    };
+
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
+            THREAD_POOL_SIZE, THREAD_POOL_SIZE,
+            1000, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), THREAD_FACTORY);
+
+    static {
+        EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private final Callback<T, V> valueFactory;
+    private final BiConsumer<? super Cell<T>, ? super V> binder;
+    private final Executor executor;
+
+    private int cacheSize = 1000;
+    private long pulseBudget = 2000000;
+
+    // accessed on the FX thread only
+    private final Map<T, V> cache = new LinkedHashMap<T, V>(16, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(Map.Entry<T, V> eldest) {
+            return size() > cacheSize;
+        }
+    };
+    private final Map<T, List<Cell<T>>> pending = new HashMap<>();
+
+    // the values computed by the executor, waiting to be bound
+    private final Queue<Result<T, V>> results = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean binding = new AtomicBoolean();
+    private final AnimationTimer bindTimer = new AnimationTimer() {
+        @Override public void handle(long now) {
+            if (bindResults(System.nanoTime() + pulseBudget)) return;
+
+            stop();
+            binding.set(false);
+            // a result may have been added after the last poll, by a thread
+            // that saw binding still set
+            if (! results.isEmpty() && binding.compareAndSet(false, true)) {
+                start();
+            }
+        }
+    };
+
+    /**
+     * Creates a CellValueFactory that computes values on a shared pool of
+     * daemon threads.
+     */
+    public CellValueFactory(Callback<T, V> valueFactory, BiConsumer<? super Cell<T>, ? super V> binder) {
+        this(valueFactory, binder, EXECUTOR);
+    }
+
+    public CellValueFactory(Callback<T, V> valueFactory, BiConsumer<? super Cell<T>, ? super V> binder,
+                            Executor executor) {
+        if (valueFactory == null || binder == null || executor == null) {
+            throw new NullPointerException();
+        }
+        this.valueFactory = valueFactory;
+        this.binder = binder;
+        this.executor = executor;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * Sets the number of values that are cached, which should be well above
+     * the number of cells that are shown (and prefetched) at once.
+     */
+    public void setCacheSize(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("cacheSize: " + value);
+        }
+        this.cacheSize = value;
+    }
+
+    public long getPulseBudget() {
+        return pulseBudget;
+    }
+
+    /**
+     * Sets the time, in nanoseconds, that may be spent binding values in each
+     * pulse. At least one value is bound in each pulse.
+     */
+    public void setPulseBudget(long value) {
+        this.pulseBudget = value;
+    }
+
+    /**
+     * Returns the value for the given item if it has been computed, and
+     * otherwise returns null and has the value computed, to be handed to the
+     * binder along with the given cell (if it still shows the item by then).
+     * This must be called on the FX thread.
+     */
+    public V getValue(T item, Cell<T> cell) {
+        if (item == null) return null;
+
+        V value = cache.get(item);
+        if (value != null) return value;
+
+        List<Cell<T>> waiting = pending.get(item);
+        if (waiting == null) {
+            waiting = new ArrayList<>(1);
+            pending.put(item, waiting);
+            executor.execute(() -> compute(item));
+        }
+        if (cell != null && ! waiting.contains(cell)) {
+            waiting.add(cell);
+        }
+        return null;
+    }
+
+    /**
+     * Forgets all computed values, for example when the items have been
+     * modified. Values that are being computed are still bound.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    private void compute(T item) {
+        Result<T, V> result;
+        try {
+            result = new Result<>(item, valueFactory.call(item), null);
+        } catch (RuntimeException e) {
+            result = new Result<>(item, null, e);
+        }
+        results.add(result);
+        if (binding.compareAndSet(false, true)) {
+            Platform.runLater(bindTimer::start);
+        }
+    }
+
+    /**
+     * Binds the computed values, until the deadline (in terms of
+     * System.nanoTime()) is reached. Returns true if there are values left to
+     * bind.
+     */
+    boolean bindResults(long deadline) {
+        Result<T, V> result;
+        while ((result = results.poll()) != null) {
+            List<Cell<T>> waiting = pending.remove(result.item);
+            if (result.error != null) {
+                // leave it to the next request to try again
+                Logging.getControlsLogger().warning("Failed to compute the cell value for " + result.item, result.error);
+            } else if (result.value != null) {
+                cache.put(result.item, result.value);
+                if (waiting != null) {
+                    for (int i = 0, max = waiting.size(); i < max; i++) {
+                        Cell<T> cell = waiting.get(i);
+                        if (result.item.equals(cell.getItem())) {
+                            binder.accept(cell, result.value);
+                        }
+                    }
+                }
+            }
+            if (System.nanoTime() >= deadline) {
+                return ! results.isEmpty();
+            }
+        }
+        return false;
+    }
+
+    private static class Result<T, V> {
+        final T item;
+        final V value;
+        final Throwable error;
+
+        Result(T item, V value, Throwable error) {
+            this.item = item;
+            this.value = value;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.javafx.scene.control;
+
+/**
+ * A binary indexed (Fenwick) tree over a fixed number of non-negative int
+ * values. It supports updating a single value, computing the sum of a prefix
+ * of the values, and finding the value that contains a given offset into the
+ * running total, all in O(log n) time.
+ *
+ * <p>This is used by TreeItem to map between rows and TreeItems without
+ * walking all of the preceding siblings: each TreeItem keeps one of these
+ * over the expanded descendant counts of its children.</p>
+ */
+public final class FenwickTree {
+
+    // 1-based, tree[i] holds the sum of the (i & -i) values ending at i - 1
+    private final int[] tree;
+    private final int size;
+    private int total;
+
+    /**
+     * Creates a tree holding a copy of the given values, in O(n) time.
+     */
+    public FenwickTree(int[] values) {
+        this.size = values.length;
+        this.tree = new int[size + 1];
+
+        System.arraycopy(values, 0, tree, 1, size);
+        for (int i = 1; i <= size; i++) {
+            total += values[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= size) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the sum of all values.
+     */
+    public int total() {
+        return total;
+    }
+
+    /**
+     * Returns the sum of the first {@code count} values.
+     */
+    public int prefixSum(int count) {
+        if (count < 0 || count > size) {
+            throw new IndexOutOfBoundsException("count: " + count + ", size: " + size);
+        }
+
+        int sum = 0;
+        for (int i = count; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    public int get(int index) {
+        return prefixSum(index + 1) - prefixSum(index);
+    }
+
+    public void set(int index, int value) {
+        add(index, value - get(index));
+    }
+
+    public void add(int index, int delta) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+        if (delta == 0) return;
+
+        total += delta;
+        for (int i = index + 1; i <= size; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Returns the index of the value that covers the given offset, that is
+     * the index i for which {@code prefixSum(i) <= offset < prefixSum(i + 1)},
+     * or -1 if the offset is negative or not less than {@link #total()}.
+     */
+    public int find(int offset) {
+        if (offset < 0 || offset >= total) return -1;
+
+        int pos = 0;
+        for (int step = Integer.highestOneBit(size); step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next <= size && tree[next] <= offset) {
+                pos = next;
+                offset -= tree[next];
+            }
+        }
+        return pos;
+    }
+}
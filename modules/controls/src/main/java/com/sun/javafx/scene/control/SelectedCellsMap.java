@@ -24,201 +24,867 @@
  */
 package com.sun.javafx.scene.control;
 
-import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.SortedList;
+import javafx.scene.control.TableColumnBase;
 import javafx.scene.control.TablePositionBase;
 
 import java.util.*;
+import java.util.function.BinaryOperator;
+import java.util.function.IntUnaryOperator;
 
 /**
  * Implementation code used by the TableSelectionModel implementations. In short
  * this code exists to speed up some common use cases which were incredibly
  * slow in the old approach. The old approach essentially required a lot of
- * iterating through the selectedCells list. The new approach is to keep this
- * list for what it is good for (representing selection order primarily), and
- * introduce a Map<Integer, BitSet> to speed up the slow parts - namely looking
- * up whether a given row/column intersection is selected or not.
+ * iterating through the selectedCells list, and kept one TablePosition per
+ * selected cell alive (so select all on a 1,000,000 row, 50 column table
+ * created 50,000,000 objects).
  *
- * Note that a map that contains an empty bitset is used to represent that the
- * row is selected.
+ * The selection is now stored as a sorted, run-length encoded list of row
+ * ranges, where each range shares one set of selected columns (see
+ * {@link Snapshot}). Select all and shift-click ranges therefore cost O(ranges)
+ * rather than O(cells), and TablePosition instances are only created when they
+ * are read (via {@link #get(int)} or the lists handed out in change events).
+ * Subclasses provide the positions by overriding
+ * {@link #createPosition(int, TableColumnBase)}.
+ *
+ * Columns are keyed by their visible leaf index at the time they were
+ * selected, offset by one so that the 'no column' case of row selection can
+ * be represented. In row selection mode a row only ever holds the column of
+ * the first position that selected it.
  *
  * Refer to RT-33442 for more information on this issue.
  */
 // T == TablePosition<S,?>
 public abstract class SelectedCellsMap<T extends TablePositionBase> {
-    private final ObservableList<T> selectedCells;
-    private final ObservableList<T> sortedSelectedCells;
+    private static final int[] EMPTY_ROWS = new int[0];
+
+    private static final BinaryOperator<Columns> UNION = (a, b) -> a == null ? b : a.union(b);
+    private static final BinaryOperator<Columns> FIRST = (a, b) -> a == null ? b : a;
+    private static final BinaryOperator<Columns> DIFFERENCE = (a, b) -> a == null ? null : a.minus(b);
 
-    private final Map<Integer, BitSet> selectedCellBitSetMap;
+    private final ReadOnlyUnbackedObservableList<T> sortedSelectedCells;
+
+    private Snapshot cells = Snapshot.EMPTY;
 
     public SelectedCellsMap(final ListChangeListener<T> listener) {
-        selectedCells = FXCollections.<T>observableArrayList();
-        sortedSelectedCells = new SortedList<>(selectedCells, (T o1, T o2) -> {
-            int result = o1.getRow() - o2.getRow();
-            return result == 0 ? (o1.getColumn() - o2.getColumn()) : result;
-        });
-        sortedSelectedCells.addListener(listener);
+        sortedSelectedCells = new ReadOnlyUnbackedObservableList<T>() {
+            @Override public T get(int i) {
+                return SelectedCellsMap.this.get(i);
+            }
+
+            @Override public int size() {
+                return SelectedCellsMap.this.size();
+            }
 
-        selectedCellBitSetMap = new TreeMap<>((o1, o2) -> o1.compareTo(o2));
+            @Override public int indexOf(Object o) {
+                return o instanceof TablePositionBase ? SelectedCellsMap.this.indexOf((T) o) : -1;
+            }
+        };
+        sortedSelectedCells.addListener(listener);
     }
 
     public abstract boolean isCellSelectionEnabled();
 
+    /**
+     * Creates the position handed out for the given selected cell. Selected
+     * cells are not retained as objects, so positions are created through
+     * this method whenever they are read back out of the map.
+     */
+    protected abstract T createPosition(int row, TableColumnBase<?,?> column);
+
     public int size() {
-        return selectedCells.size();
+        return (int) Math.min(Integer.MAX_VALUE, cells.size);
     }
 
     public T get(int i) {
         if (i < 0) {
             return null;
         }
-        return sortedSelectedCells.get(i);
+        if (i >= cells.size) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size());
+        }
+        return cellAt(cells, i);
     }
 
     public void add(T tp) {
         final int row = tp.getRow();
-        final int columnIndex = tp.getColumn();
-
-        // update the bitset map
-        boolean isNewBitSet = false;
-        BitSet bitset;
-        if (! selectedCellBitSetMap.containsKey(row)) {
-            bitset = new BitSet();
-            selectedCellBitSetMap.put(row, bitset);
-            isNewBitSet = true;
+        final Columns columns = Columns.of(tp.getColumn() + 1, tp.getTableColumn());
+        update(Snapshot.combine(cells, Snapshot.of(row, row + 1, columns), mergeOperator()));
+    }
+
+    public void addAll(Collection<T> cells) {
+        update(Snapshot.combine(this.cells, Snapshot.of(cells, ! isCellSelectionEnabled()), mergeOperator()));
+    }
+
+    /**
+     * Selects, in every row from fromRow (inclusive) to toRow (exclusive), the
+     * columns of the given cells. The cost is independent of the number of rows.
+     */
+    public void addAll(int fromRow, int toRow, Collection<T> rowCells) {
+        final Columns columns = Columns.of(rowCells, ! isCellSelectionEnabled());
+        update(Snapshot.combine(cells, Snapshot.of(fromRow, toRow, columns), mergeOperator()));
+    }
+
+    public void setAll(Collection<T> cells) {
+        replace(Snapshot.of(cells, ! isCellSelectionEnabled()));
+    }
+
+    /**
+     * Replaces the selection with the columns of the given cells in every row
+     * from fromRow (inclusive) to toRow (exclusive).
+     */
+    public void setAll(int fromRow, int toRow, Collection<T> rowCells) {
+        replace(Snapshot.of(fromRow, toRow, Columns.of(rowCells, ! isCellSelectionEnabled())));
+    }
+
+    public void setAll(Snapshot snapshot) {
+        replace(snapshot);
+    }
+
+    public void remove(T tp) {
+        final int row = tp.getRow();
+        final Columns columns = cells.columnsAt(row);
+        if (columns == null) {
+            return;
+        }
+
+        final int index = columns.find(tp);
+        if (index < 0) {
+            return;
+        }
+
+        update(Snapshot.combine(cells, Snapshot.of(row, row + 1, columns.single(index)), DIFFERENCE));
+    }
+
+    public void clear() {
+        update(Snapshot.EMPTY);
+    }
+
+    public boolean isSelected(int row, int columnIndex) {
+        final Columns columns = cells.columnsAt(row);
+        if (columnIndex < 0) {
+            return columns != null;
         } else {
-            bitset = selectedCellBitSetMap.get(row);
+            return columns != null && columns.bits.get(columnIndex + 1);
+        }
+    }
+
+    public int indexOf(T tp) {
+        final int row = tp.getRow();
+        final int run = cells.runOf(row);
+        if (run < 0) {
+            return -1;
         }
 
-        final boolean cellSelectionModeEnabled = isCellSelectionEnabled();
+        final Columns columns = cells.columns[run];
+        final int index = columns.find(tp);
+        if (index < 0) {
+            return -1;
+        }
+        return (int) (cells.start[run] + (long) (row - cells.from[run]) * columns.size() + index);
+    }
+
+    public boolean isEmpty() {
+        return cells.isEmpty();
+    }
+
+    /**
+     * Returns the column of the first selected cell in the given row, which is
+     * null if the row has no selected cells, or if it was selected without a
+     * column (i.e. in row selection mode).
+     */
+    public TableColumnBase<?,?> getFirstColumn(int row) {
+        final Columns columns = cells.columnsAt(row);
+        return columns == null ? null : columns.refs[0];
+    }
+
+    /**
+     * Removes the first selected cell in the given row, if any. This doesn't
+     * create a position, so it is safe to call whilst the rows of the control
+     * are being updated.
+     */
+    public void removeFirstCell(int row) {
+        final Columns columns = cells.columnsAt(row);
+        if (columns != null) {
+            update(Snapshot.combine(cells, Snapshot.of(row, row + 1, columns.single(0)), DIFFERENCE));
+        }
+    }
 
-        if (cellSelectionModeEnabled) {
-            if (columnIndex >= 0) {
-                boolean isAlreadySet = bitset.get(columnIndex);
+    /**
+     * Returns the selected cells, sorted by row and then column. Positions are
+     * created on demand as the list is read.
+     */
+    public ObservableList<T> getSelectedCells() {
+        return sortedSelectedCells;
+    }
 
-                if (!isAlreadySet) {
-                    bitset.set(columnIndex);
+    /**
+     * Returns an immutable copy of the current selection. This is O(1), as
+     * the selection is never modified in place.
+     */
+    public Snapshot snapshot() {
+        return cells;
+    }
 
-                    // add into the list
-                    selectedCells.add(tp);
+    /**
+     * Returns the selection that results from moving each selected row in
+     * [from, to) to the row given by the permutation, or null if no selected
+     * row moves. Rows outside of the range are unaffected. A run that covers
+     * the whole range maps onto itself and is not split into its rows.
+     */
+    public Snapshot permute(int from, int to, IntUnaryOperator permutation) {
+        final Snapshot cells = this.cells;
+        final Builder result = new Builder();
+
+        boolean changed = false;
+        Columns coveringRun = null;
+        int movedCount = 0;
+        long[] moved = new long[16];
+        Columns[] movedColumns = new Columns[16];
+
+        for (int k = 0; k < cells.count; k++) {
+            final int start = Math.max(cells.from[k], from);
+            final int end = Math.min(cells.to[k], to);
+            if (start >= end) continue;
+
+            if (start == from && end == to) {
+                coveringRun = cells.columns[k];
+                for (int row = from; row < to && ! changed; row++) {
+                    changed = permutation.applyAsInt(row) != row;
                 }
-            } else {
-                // FIXME slow path (for now)
-                if (!selectedCells.contains(tp)) {
-                    selectedCells.add(tp);
+                continue;
+            }
+
+            for (int row = start; row < end; row++) {
+                final int newRow = permutation.applyAsInt(row);
+                changed |= newRow != row;
+
+                if (movedCount == moved.length) {
+                    moved = Arrays.copyOf(moved, movedCount * 2);
+                    movedColumns = Arrays.copyOf(movedColumns, movedCount * 2);
                 }
+                // sort key: the new row in the high bits, the entry in the low bits
+                moved[movedCount] = ((long) (newRow - from) << 32) | movedCount;
+                movedColumns[movedCount] = cells.columns[k];
+                movedCount++;
             }
+        }
+
+        if (! changed) {
+            return null;
+        }
+
+        for (int k = 0; k < cells.count; k++) {
+            result.add(cells.from[k], Math.min(cells.to[k], from), cells.columns[k]);
+        }
+        if (coveringRun != null) {
+            result.add(from, to, coveringRun);
         } else {
-            if (isNewBitSet) {
-                if (columnIndex >= 0) {
-                    bitset.set(columnIndex);
-                }
-                selectedCells.add(tp);
+            Arrays.sort(moved, 0, movedCount);
+            for (int i = 0; i < movedCount; i++) {
+                final int newRow = from + (int) (moved[i] >>> 32);
+                result.add(newRow, newRow + 1, movedColumns[(int) moved[i]]);
             }
         }
+        for (int k = 0; k < cells.count; k++) {
+            result.add(Math.max(cells.from[k], to), cells.to[k], cells.columns[k]);
+        }
+        return result.build();
     }
 
-    public void addAll(Collection<T> cells) {
-        // update bitset
-        for (T tp : cells) {
-            final int row = tp.getRow();
-            final int columnIndex = tp.getColumn();
+    /**
+     * Creates the change that describes the selection moving from the given
+     * snapshot to the current selection as the result of a sort: the cells no
+     * longer selected are removed and the whole selection is added. Returns
+     * null if no cell moved.
+     */
+    public ListChangeListener.Change<T> createPermutationChange(Snapshot previous) {
+        final Snapshot removed = Snapshot.combine(previous, cells, DIFFERENCE);
+        if (removed.isEmpty()) {
+            return null;
+        }
 
-            // update the bitset map
-            BitSet bitset;
-            if (! selectedCellBitSetMap.containsKey(row)) {
-                bitset = new BitSet();
-                selectedCellBitSetMap.put(row, bitset);
-            } else {
-                bitset = selectedCellBitSetMap.get(row);
-            }
+        final int addedSize = (int) Math.min(Integer.MAX_VALUE, Math.min(previous.size, cells.size));
+        return new CellsChange<>(sortedSelectedCells, new int[] { 0, addedSize },
+                Collections.<List<T>>singletonList(new CellsList(removed, 0, removed.size)),
+                removed.rows(), cells.rows(), true);
+    }
 
-            if (columnIndex < 0) {
-                continue;
+    /**
+     * Creates an add change for the selected cells from index from (inclusive)
+     * to index to (exclusive) of the sorted selection.
+     */
+    public ListChangeListener.Change<T> createAddChange(int from, int to) {
+        final int[] rows = from < to ? cells.rows(cells.rowAt(from), cells.rowAt(to - 1) + 1) : EMPTY_ROWS;
+        return new CellsChange<>(sortedSelectedCells, new int[] { from, to }, null, EMPTY_ROWS, rows, false);
+    }
+
+
+
+    /***************************************************************************
+     *                                                                         *
+     * Private implementation                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    private BinaryOperator<Columns> mergeOperator() {
+        return isCellSelectionEnabled() ? UNION : FIRST;
+    }
+
+    private T cellAt(Snapshot cells, long i) {
+        final int run = cells.runAt(i);
+        final Columns columns = cells.columns[run];
+        final long offset = i - cells.start[run];
+        final int width = columns.size();
+        return createPosition(cells.from[run] + (int) (offset / width), columns.refs[(int) (offset % width)]);
+    }
+
+    // Moves to the given selection, firing a change for the cells that were
+    // added or removed.
+    private void update(Snapshot newCells) {
+        final Snapshot oldCells = cells;
+        if (newCells == oldCells) {
+            return;
+        }
+
+        final Snapshot added = Snapshot.combine(newCells, oldCells, DIFFERENCE);
+        final Snapshot removed = Snapshot.combine(oldCells, newCells, DIFFERENCE);
+        cells = newCells;
+
+        if (removed.isEmpty()) {
+            if (added.isEmpty()) {
+                return;
+            }
+            sortedSelectedCells.callObservers(new CellsChange<>(sortedSelectedCells,
+                    indicesOf(added, newCells), null, EMPTY_ROWS, added.rows(), false));
+        } else if (added.isEmpty()) {
+            // convert the removed ranges (which are indices into the old
+            // selection) into a sequence of removals
+            final int[] ranges = indicesOf(removed, oldCells);
+            final List<List<T>> removedLists = new ArrayList<>(ranges.length / 2);
+            int shift = 0;
+            for (int i = 0; i < ranges.length; i += 2) {
+                final int from = ranges[i];
+                final int to = ranges[i + 1];
+                removedLists.add(new CellsList(oldCells, from, to));
+                ranges[i] = ranges[i + 1] = from - shift;
+                shift += to - from;
             }
+            sortedSelectedCells.callObservers(new CellsChange<>(sortedSelectedCells,
+                    ranges, removedLists, removed.rows(), EMPTY_ROWS, false));
+        } else {
+            fireReplace(oldCells, newCells);
+        }
+    }
 
-            bitset.set(columnIndex);
+    // Moves to the given selection, firing a change that replaces all of the
+    // old selection with all of the new selection.
+    private void replace(Snapshot newCells) {
+        final Snapshot oldCells = cells;
+        cells = newCells;
+        fireReplace(oldCells, newCells);
+    }
+
+    private void fireReplace(Snapshot oldCells, Snapshot newCells) {
+        if (oldCells.isEmpty() && newCells.isEmpty()) {
+            return;
         }
 
-        // add into the list
-        selectedCells.addAll(cells);
+        final List<List<T>> removed = oldCells.isEmpty() ? null :
+                Collections.<List<T>>singletonList(new CellsList(oldCells, 0, oldCells.size));
+        sortedSelectedCells.callObservers(new CellsChange<>(sortedSelectedCells,
+                new int[] { 0, (int) Math.min(Integer.MAX_VALUE, newCells.size) },
+                removed, oldCells.rows(), newCells.rows(), false));
     }
 
-    public void setAll(Collection<T> cells) {
-        // update bitset
-        selectedCellBitSetMap.clear();
-        for (T tp : cells) {
-            final int row = tp.getRow();
-            final int columnIndex = tp.getColumn();
-
-            // update the bitset map
-            BitSet bitset;
-            if (! selectedCellBitSetMap.containsKey(row)) {
-                bitset = new BitSet();
-                selectedCellBitSetMap.put(row, bitset);
-            } else {
-                bitset = selectedCellBitSetMap.get(row);
-            }
-
-            if (columnIndex < 0) {
-                continue;
+    // Returns the index ranges, as (from, to) pairs, that the cells of subset
+    // occupy within cells. The subset must be contained in cells.
+    private static int[] indicesOf(Snapshot subset, Snapshot cells) {
+        final Ranges ranges = new Ranges();
+        int k = 0;
+        for (int i = 0; i < subset.count; i++) {
+            final int from = subset.from[i];
+            final int to = subset.to[i];
+            final Columns columns = subset.columns[i];
+
+            while (k < cells.count && cells.to[k] <= from) k++;
+
+            for (; k < cells.count && cells.from[k] < to; k++) {
+                final int start = Math.max(from, cells.from[k]);
+                final int end = Math.min(to, cells.to[k]);
+                final Columns runColumns = cells.columns[k];
+                final int width = runColumns.size();
+                final long base = cells.start[k] - (long) cells.from[k] * width;
+
+                if (columns.equals(runColumns)) {
+                    ranges.add((int) (base + (long) start * width), (int) (base + (long) end * width));
+                } else {
+                    for (int row = start; row < end; row++) {
+                        final long rowStart = base + (long) row * width;
+                        for (int bit = columns.bits.nextSetBit(0); bit >= 0; bit = columns.bits.nextSetBit(bit + 1)) {
+                            final int index = (int) (rowStart + runColumns.rank(bit));
+                            ranges.add(index, index + 1);
+                        }
+                    }
+                }
+
+                if (cells.to[k] > to) break;
             }
+        }
+        return ranges.toArray();
+    }
 
-            bitset.set(columnIndex);
+    /**
+     * A lazily materialized view of part of a selection.
+     */
+    private final class CellsList extends AbstractList<T> {
+        private final Snapshot cells;
+        private final long from;
+        private final int size;
+
+        CellsList(Snapshot cells, long from, long to) {
+            this.cells = cells;
+            this.from = from;
+            this.size = (int) Math.min(Integer.MAX_VALUE, to - from);
         }
 
-        // add into the list
-        selectedCells.setAll(cells);
+        @Override public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return cellAt(cells, from + index);
+        }
+
+        @Override public int size() {
+            return size;
+        }
     }
 
-    public void remove(T tp) {
-        final int row = tp.getRow();
-        final int columnIndex = tp.getColumn();
+    /**
+     * An immutable, run-length encoded selection. Each run is a range of rows
+     * sharing the same selected columns.
+     */
+    public static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new int[0], new int[0], new Columns[0], 0);
+
+        private final int[] from;
+        private final int[] to;
+        private final Columns[] columns;
+        private final int count;
+
+        // the index of the first cell of each run within the selection
+        private final long[] start;
+        private final long size;
+
+        private Snapshot(int[] from, int[] to, Columns[] columns, int count) {
+            this.from = from;
+            this.to = to;
+            this.columns = columns;
+            this.count = count;
+
+            this.start = new long[count];
+            long size = 0;
+            for (int i = 0; i < count; i++) {
+                start[i] = size;
+                size += (long) (to[i] - from[i]) * columns[i].size();
+            }
+            this.size = size;
+        }
 
-        // update the bitset map
-        if (selectedCellBitSetMap.containsKey(row)) {
-            BitSet bitset = selectedCellBitSetMap.get(row);
+        /**
+         * Returns the number of selected cells.
+         */
+        public int size() {
+            return (int) Math.min(Integer.MAX_VALUE, size);
+        }
+
+        boolean isEmpty() {
+            return count == 0;
+        }
 
-            if (columnIndex >= 0) {
-                bitset.clear(columnIndex);
+        // the run containing the given row, or -1
+        int runOf(int row) {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                if (row < from[mid]) {
+                    high = mid - 1;
+                } else if (row >= to[mid]) {
+                    low = mid + 1;
+                } else {
+                    return mid;
+                }
             }
+            return -1;
+        }
+
+        Columns columnsAt(int row) {
+            final int run = runOf(row);
+            return run < 0 ? null : columns[run];
+        }
 
-            if (bitset.isEmpty()) {
-                selectedCellBitSetMap.remove(row);
+        // the run containing the cell at the given index
+        int runAt(long index) {
+            int low = 0;
+            int high = count - 1;
+            while (low < high) {
+                final int mid = (low + high + 1) >>> 1;
+                if (start[mid] <= index) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
             }
+            return low;
         }
 
-        // update list
-        selectedCells.remove(tp);
-    }
+        int rowAt(long index) {
+            final int run = runAt(index);
+            return from[run] + (int) ((index - start[run]) / columns[run].size());
+        }
 
-    public void clear() {
-        // update bitset
-        selectedCellBitSetMap.clear();
+        // the selected rows, as (from, to) pairs
+        int[] rows() {
+            return rows(Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
 
-        // update list
-        selectedCells.clear();
+        int[] rows(int fromRow, int toRow) {
+            final Ranges ranges = new Ranges();
+            for (int i = 0; i < count; i++) {
+                ranges.add(Math.max(from[i], fromRow), Math.min(to[i], toRow));
+            }
+            return ranges.toArray();
+        }
+
+        static Snapshot of(int fromRow, int toRow, Columns columns) {
+            final Builder builder = new Builder();
+            builder.add(fromRow, toRow, columns);
+            return builder.build();
+        }
+
+        static Snapshot of(Collection<? extends TablePositionBase> cells, boolean firstOnly) {
+            if (cells.isEmpty()) {
+                return EMPTY;
+            }
+
+            final TablePositionBase[] sorted = cells.toArray(new TablePositionBase[cells.size()]);
+            Arrays.sort(sorted, (o1, o2) -> Integer.compare(o1.getRow(), o2.getRow()));
+
+            final List<TablePositionBase> list = Arrays.asList(sorted);
+            final Builder builder = new Builder();
+            for (int i = 0, j; i < sorted.length; i = j) {
+                final int row = sorted[i].getRow();
+                for (j = i + 1; j < sorted.length && sorted[j].getRow() == row; j++);
+                builder.add(row, row + 1, Columns.of(list.subList(i, j), firstOnly));
+            }
+            return builder.build();
+        }
+
+        // Walks both selections in row order, combining the columns of each
+        // row with the given operator (either argument may be null when the
+        // row is only selected in one of them).
+        static Snapshot combine(Snapshot a, Snapshot b, BinaryOperator<Columns> operator) {
+            final Builder builder = new Builder();
+            int i = 0;
+            int j = 0;
+            int row = Integer.MIN_VALUE;
+            while (i < a.count || j < b.count) {
+                final int aStart = i < a.count ? Math.max(a.from[i], row) : Integer.MAX_VALUE;
+                final int bStart = j < b.count ? Math.max(b.from[j], row) : Integer.MAX_VALUE;
+                final int start = Math.min(aStart, bStart);
+                final boolean inA = aStart == start;
+                final boolean inB = bStart == start;
+
+                final int end;
+                if (inA && inB) {
+                    end = Math.min(a.to[i], b.to[j]);
+                } else if (inA) {
+                    end = Math.min(a.to[i], bStart);
+                } else {
+                    end = Math.min(b.to[j], aStart);
+                }
+
+                builder.add(start, end, operator.apply(inA ? a.columns[i] : null, inB ? b.columns[j] : null));
+
+                row = end;
+                if (inA && end == a.to[i]) i++;
+                if (inB && end == b.to[j]) j++;
+            }
+            return builder.build();
+        }
     }
 
-    public boolean isSelected(int row, int columnIndex) {
-        if (columnIndex < 0) {
-            return selectedCellBitSetMap.containsKey(row);
-        } else {
-            return selectedCellBitSetMap.containsKey(row) ? selectedCellBitSetMap.get(row).get(columnIndex) : false;
+    private static final class Builder {
+        private int[] from = new int[8];
+        private int[] to = new int[8];
+        private Columns[] columns = new Columns[8];
+        private int count;
+
+        void add(int start, int end, Columns runColumns) {
+            if (start >= end || runColumns == null) return;
+
+            // merge with the previous run where possible
+            if (count > 0 && to[count - 1] == start && columns[count - 1].equals(runColumns)) {
+                to[count - 1] = end;
+                return;
+            }
+
+            if (count == from.length) {
+                from = Arrays.copyOf(from, count * 2);
+                to = Arrays.copyOf(to, count * 2);
+                columns = Arrays.copyOf(columns, count * 2);
+            }
+            from[count] = start;
+            to[count] = end;
+            columns[count] = runColumns;
+            count++;
+        }
+
+        Snapshot build() {
+            return count == 0 ? Snapshot.EMPTY : new Snapshot(from, to, columns, count);
         }
     }
 
-    public int indexOf(T tp) {
-        return sortedSelectedCells.indexOf(tp);
+    /**
+     * The set of columns selected in a run of rows. Bits are the visible leaf
+     * index of the column plus one (so bit zero is 'no column'), and refs holds
+     * the column of each set bit, in ascending bit order.
+     */
+    private static final class Columns {
+        private final BitSet bits;
+        private final TableColumnBase<?,?>[] refs;
+
+        private Columns(BitSet bits, TableColumnBase<?,?>[] refs) {
+            this.bits = bits;
+            this.refs = refs;
+        }
+
+        static Columns of(int bit, TableColumnBase<?,?> column) {
+            final BitSet bits = new BitSet();
+            bits.set(Math.max(0, bit));
+            return new Columns(bits, new TableColumnBase<?,?>[] { column });
+        }
+
+        // the columns of the given cells, or null if there are none. Where two
+        // cells share a column index, the first one wins.
+        static Columns of(Collection<? extends TablePositionBase> cells, boolean firstOnly) {
+            if (cells.isEmpty()) {
+                return null;
+            }
+            if (firstOnly) {
+                final TablePositionBase tp = cells.iterator().next();
+                return of(tp.getColumn() + 1, tp.getTableColumn());
+            }
+
+            final TreeMap<Integer, TableColumnBase<?,?>> columns = new TreeMap<>();
+            for (TablePositionBase tp : cells) {
+                final int bit = Math.max(0, tp.getColumn() + 1);
+                if (! columns.containsKey(bit)) {
+                    columns.put(bit, tp.getTableColumn());
+                }
+            }
+
+            final BitSet bits = new BitSet();
+            for (Integer bit : columns.keySet()) {
+                bits.set(bit);
+            }
+            return new Columns(bits, columns.values().toArray(new TableColumnBase<?,?>[columns.size()]));
+        }
+
+        int size() {
+            return refs.length;
+        }
+
+        // the number of set bits below the given bit
+        int rank(int bit) {
+            int rank = 0;
+            for (int i = bits.nextSetBit(0); i >= 0 && i < bit; i = bits.nextSetBit(i + 1)) {
+                rank++;
+            }
+            return rank;
+        }
+
+        // the index of the column of the given position, or -1. As with
+        // TablePositionBase.equals, columns are matched by identity.
+        int find(TablePositionBase tp) {
+            final Object column = tp.getTableColumn();
+            for (int i = 0; i < refs.length; i++) {
+                if (refs[i] == column) return i;
+            }
+            return -1;
+        }
+
+        Columns single(int index) {
+            int bit = bits.nextSetBit(0);
+            for (int i = 0; i < index; i++) {
+                bit = bits.nextSetBit(bit + 1);
+            }
+            return of(bit, refs[index]);
+        }
+
+        Columns union(Columns other) {
+            if (other == null || other == this) return this;
+
+            final BitSet union = (BitSet) bits.clone();
+            union.or(other.bits);
+            if (union.equals(bits)) return this;
+
+            final TableColumnBase<?,?>[] unionRefs = new TableColumnBase<?,?>[union.cardinality()];
+            int i = 0, a = 0, b = 0;
+            for (int bit = union.nextSetBit(0); bit >= 0; bit = union.nextSetBit(bit + 1)) {
+                final boolean inThis = bits.get(bit);
+                final boolean inOther = other.bits.get(bit);
+                unionRefs[i++] = inThis ? refs[a] : other.refs[b];
+                if (inThis) a++;
+                if (inOther) b++;
+            }
+            return new Columns(union, unionRefs);
+        }
+
+        // the columns not in other, or null if there are none
+        Columns minus(Columns other) {
+            if (other == null || ! bits.intersects(other.bits)) return this;
+
+            final BitSet difference = (BitSet) bits.clone();
+            difference.andNot(other.bits);
+            if (difference.isEmpty()) return null;
+
+            final TableColumnBase<?,?>[] differenceRefs = new TableColumnBase<?,?>[difference.cardinality()];
+            int i = 0, a = 0;
+            for (int bit = bits.nextSetBit(0); bit >= 0; bit = bits.nextSetBit(bit + 1), a++) {
+                if (difference.get(bit)) {
+                    differenceRefs[i++] = refs[a];
+                }
+            }
+            return new Columns(difference, differenceRefs);
+        }
+
+        @Override public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (! (obj instanceof Columns)) return false;
+            final Columns other = (Columns) obj;
+            return bits.equals(other.bits) && Arrays.equals(refs, other.refs);
+        }
+
+        @Override public int hashCode() {
+            return bits.hashCode();
+        }
     }
 
-    public boolean isEmpty() {
-        return selectedCells.isEmpty();
+    /**
+     * A growable list of (from, to) ranges. Adjacent ranges are merged.
+     */
+    private static final class Ranges {
+        private int[] values = new int[8];
+        private int size;
+
+        void add(int from, int to) {
+            if (from >= to) return;
+            if (size > 0 && values[size - 1] == from) {
+                values[size - 1] = to;
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = from;
+            values[size++] = to;
+        }
+
+        int[] toArray() {
+            return size == 0 ? EMPTY_ROWS : Arrays.copyOf(values, size);
+        }
     }
 
-    public ObservableList<T> getSelectedCells() {
-        return selectedCells;
+    /**
+     * The change fired by SelectedCellsMap. As well as the usual list change
+     * API, it reports the rows whose cells were removed and added as (from, to)
+     * pairs, so that listeners can update row based state without reading
+     * every cell of the change.
+     */
+    public static final class CellsChange<E> extends ListChangeListener.Change<E> {
+        private static final int[] EMPTY_PERM = new int[0];
+
+        private final int[] ranges;
+        private final List<List<E>> removed;
+        private final int[] removedRows;
+        private final int[] addedRows;
+        private final boolean rowPermutation;
+
+        private int cursor = -1;
+
+        CellsChange(ObservableList<E> list, int[] ranges, List<List<E>> removed,
+                    int[] removedRows, int[] addedRows, boolean rowPermutation) {
+            super(list);
+            this.ranges = ranges;
+            this.removed = removed;
+            this.removedRows = removedRows;
+            this.addedRows = addedRows;
+            this.rowPermutation = rowPermutation;
+        }
+
+        /**
+         * Returns the rows of the removed cells, as (from, to) pairs.
+         */
+        public int[] getRemovedRows() {
+            return removedRows;
+        }
+
+        /**
+         * Returns the rows of the added cells, as (from, to) pairs.
+         */
+        public int[] getAddedRows() {
+            return addedRows;
+        }
+
+        /**
+         * Returns true if this change only moved the selected cells to new
+         * rows (as the result of a sort), so that the selected items are
+         * unchanged.
+         */
+        public boolean isRowPermutation() {
+            return rowPermutation;
+        }
+
+        @Override public boolean next() {
+            if (cursor + 1 < ranges.length / 2) {
+                cursor++;
+                return true;
+            }
+            return false;
+        }
+
+        @Override public void reset() {
+            cursor = -1;
+        }
+
+        @Override public int getFrom() {
+            checkState();
+            return ranges[cursor * 2];
+        }
+
+        @Override public int getTo() {
+            checkState();
+            return ranges[cursor * 2 + 1];
+        }
+
+        @Override public List<E> getRemoved() {
+            checkState();
+            return removed == null ? Collections.<E>emptyList() : removed.get(cursor);
+        }
+
+        @Override protected int[] getPermutation() {
+            checkState();
+            return EMPTY_PERM;
+        }
+
+        private void checkState() {
+            if (cursor < 0) {
+                throw new IllegalStateException("Invalid Change state: next() must be called before inspecting the Change.");
+            }
+        }
     }
-}
\ No newline at end of file
+}
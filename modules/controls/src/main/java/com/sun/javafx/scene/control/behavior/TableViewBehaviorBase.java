@@ -244,7 +244,13 @@ public abstract class TableViewBehaviorBase<C extends Control, T, TC extends Tab
             int addedSize = c.getAddedSize();
             List<TablePositionBase> addedSubList = (List<TablePositionBase>) c.getAddedSubList();
 
-            for (TablePositionBase tpb : addedSubList) {
+            // The added cells are distinct, so at most 10 of any 20 of them
+            // can already be in the history (which holds 10 cells), and the
+            // rest push out everything that was there before. Processing
+            // the last 30 therefore gives the same history as processing
+            // them all, which matters for select all on large tables.
+            for (int i = Math.max(0, addedSize - 30); i < addedSize; i++) {
+                TablePositionBase tpb = addedSubList.get(i);
                 if (! selectionHistory.contains(tpb)) {
                     selectionHistory.add(tpb);
                 }
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.javafx.scene.control.skin;
+
+import java.util.Arrays;
+
+/**
+ * Keeps track of the lengths of the cells in a VirtualFlow, so that the
+ * offset of any cell, and the cell at any offset, can be found in O(log n)
+ * time. Cells that have not been measured yet are assumed to be as long as
+ * the average of the cells that have been measured.
+ *
+ * <p>This is a binary indexed (Fenwick) tree over the measured lengths, with
+ * a second one over the number of measured cells, so that a change of the
+ * estimated length does not require any of the tree to be updated.</p>
+ *
+ * This class is package private solely for the sake of testing.
+ */
+class CellSizeIndex {
+
+    // the length of each cell, or NaN if the cell is not measured
+    private double[] lengths = new double[0];
+
+    // 1-based Fenwick trees over the measured lengths, and over the number of
+    // measured cells. Both are sized to the capacity of lengths.
+    private double[] lengthTree = new double[1];
+    private int[] countTree = new int[1];
+
+    private int size;
+    private double measuredLength;
+    private int measuredCount;
+
+    // the length used for all cells until one has been measured
+    private double defaultLength;
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Changes the number of cells. Measurements of the cells that remain are
+     * kept, cells that are added are not measured.
+     */
+    public void setSize(int newSize) {
+        if (newSize == size) return;
+        if (newSize < 0) throw new IllegalArgumentException("size: " + newSize);
+
+        if (newSize > lengths.length) {
+            int capacity = Math.max(newSize, Math.max(16, lengths.length * 2));
+            double[] newLengths = Arrays.copyOf(lengths, capacity);
+            Arrays.fill(newLengths, lengths.length, capacity, Double.NaN);
+            lengths = newLengths;
+            rebuild();
+        } else if (newSize < size) {
+            if (size - newSize > 64) {
+                Arrays.fill(lengths, newSize, size, Double.NaN);
+                rebuild();
+            } else {
+                for (int i = newSize; i < size; i++) {
+                    clearLength(i);
+                }
+            }
+        }
+        size = newSize;
+    }
+
+    /**
+     * Forgets all measurements.
+     */
+    public void clear() {
+        Arrays.fill(lengths, Double.NaN);
+        rebuild();
+    }
+
+    public boolean isMeasured(int index) {
+        return ! Double.isNaN(lengths[index]);
+    }
+
+    public int getMeasuredCount() {
+        return measuredCount;
+    }
+
+    public double getDefaultLength() {
+        return defaultLength;
+    }
+
+    public void setDefaultLength(double value) {
+        this.defaultLength = value;
+    }
+
+    /**
+     * Returns the length assumed for cells that are not measured.
+     */
+    public double getEstimatedLength() {
+        return measuredCount == 0 ? defaultLength : measuredLength / measuredCount;
+    }
+
+    /**
+     * Returns the measured length of the cell, or the estimated length if it
+     * is not measured.
+     */
+    public double getLength(int index) {
+        double length = lengths[index];
+        return Double.isNaN(length) ? getEstimatedLength() : length;
+    }
+
+    /**
+     * Records the measured length of the cell. Returns true if this changed
+     * the index.
+     */
+    public boolean setLength(int index, double length) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+        double old = lengths[index];
+        if (old == length) return false;
+
+        boolean measured = ! Double.isNaN(old);
+        lengths[index] = length;
+        update(index, measured ? length - old : length, measured ? 0 : 1);
+        return true;
+    }
+
+    public void clearLength(int index) {
+        double old = lengths[index];
+        if (Double.isNaN(old)) return;
+
+        lengths[index] = Double.NaN;
+        update(index, -old, -1);
+    }
+
+    /**
+     * Returns the sum of the lengths of all cells.
+     */
+    public double getTotalLength() {
+        return getOffset(size);
+    }
+
+    /**
+     * Returns the offset of the cell at the given index, that is the sum of
+     * the lengths of all the cells before it.
+     */
+    public double getOffset(int index) {
+        double length = 0;
+        int count = 0;
+        for (int i = index; i > 0; i -= i & -i) {
+            length += lengthTree[i];
+            count += countTree[i];
+        }
+        return length + (index - count) * getEstimatedLength();
+    }
+
+    /**
+     * Returns the index of the cell that contains the given offset, clamped
+     * to the cells that exist, or -1 if there are none.
+     */
+    public int getIndex(double offset) {
+        if (size == 0) return -1;
+        if (offset <= 0) return 0;
+
+        final double estimate = getEstimatedLength();
+        int pos = 0;
+        for (int step = Integer.highestOneBit(lengths.length); step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next > lengths.length) continue;
+
+            // the node at next covers the step cells after pos
+            double length = lengthTree[next] + (step - countTree[next]) * estimate;
+            if (length <= offset) {
+                pos = next;
+                offset -= length;
+            }
+        }
+        return Math.min(pos, size - 1);
+    }
+
+    private void update(int index, double lengthDelta, int countDelta) {
+        measuredLength += lengthDelta;
+        measuredCount += countDelta;
+        for (int i = index + 1; i < lengthTree.length; i += i & -i) {
+            lengthTree[i] += lengthDelta;
+            countTree[i] += countDelta;
+        }
+    }
+
+    private void rebuild() {
+        final int capacity = lengths.length;
+        lengthTree = new double[capacity + 1];
+        countTree = new int[capacity + 1];
+        measuredLength = 0;
+        measuredCount = 0;
+
+        for (int i = 1; i <= capacity; i++) {
+            double length = lengths[i - 1];
+            if (! Double.isNaN(length)) {
+                lengthTree[i] += length;
+                countTree[i]++;
+                measuredLength += length;
+                measuredCount++;
+            }
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                lengthTree[parent] += lengthTree[i];
+                countTree[parent] += countTree[i];
+            }
+        }
+    }
+}
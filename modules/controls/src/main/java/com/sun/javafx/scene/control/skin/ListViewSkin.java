@@ -363,7 +363,7 @@ public class ListViewSkin<T> extends VirtualContainerBase<ListView<T>, ListViewB
         // Fix for RT-11299
         IndexedCell<T> cell = flow.getFirstVisibleCell();
         if (cell == null || pos < cell.getIndex()) {
-            flow.setPosition(pos / (double) getItemCount());
+            flow.scrollToTop(pos);
         }
     }
 
@@ -377,7 +377,7 @@ public class ListViewSkin<T> extends VirtualContainerBase<ListView<T>, ListViewB
         // Fix for RT-11299
         ListCell<T> cell = flow.getLastVisibleCell();
         if (cell == null || cell.getIndex() < pos) {
-            flow.setPosition(pos / (double) getItemCount());
+            flow.scrollToTop(pos);
         }
     }
 
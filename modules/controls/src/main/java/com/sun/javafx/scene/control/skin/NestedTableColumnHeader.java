@@ -90,6 +90,10 @@ public class NestedTableColumnHeader extends TableColumnHeader {
     // drag rectangle overlays
     private Map<TableColumnBase<?,?>, Rectangle> dragRects = new WeakHashMap<>();
 
+    // true if headers may have been taken out of the scenegraph by column
+    // virtualization (see layoutChildren())
+    private boolean headersCulled = false;
+
     boolean updateColumns = true;
 
 
@@ -366,6 +370,28 @@ public class NestedTableColumnHeader extends TableColumnHeader {
             label.relocate(snappedLeftInset(), snappedTopInset());
         }
 
+        // with column virtualization only the headers intersecting the
+        // viewport are kept in the scenegraph. The viewport is converted
+        // into the coordinates of this header by taking off the offset of this
+        // header within the root header.
+        final TableViewSkinBase<?,?,?,?,?,?> skin = getTableViewSkin();
+        final boolean virtualize = skin != null && skin.isColumnVirtualizationEnabled();
+        double viewportStart = 0;
+        double viewportEnd = 0;
+        if (virtualize) {
+            double offset = 0;
+            for (TableColumnHeader header = this; header.getParentHeader() != null; header = header.getParentHeader()) {
+                offset += header.getLayoutX();
+            }
+            viewportStart = skin.getColumnViewportStart() - offset;
+            viewportEnd = viewportStart + skin.getColumnViewportWidth();
+            headersCulled = true;
+        } else if (headersCulled) {
+            // put back any headers taken out while virtualization was enabled
+            headersCulled = false;
+            updateContent();
+        }
+
         // children columns need to share the total available width
         double x = snappedLeftInset();
         int pos = 0;
@@ -380,6 +406,16 @@ public class NestedTableColumnHeader extends TableColumnHeader {
             n.resize(prefWidth, snapSize(h - labelHeight));
             n.relocate(x, labelHeight + snappedTopInset());
 
+            if (virtualize) {
+                final boolean inViewport = x + prefWidth > viewportStart && x < viewportEnd;
+                if (! inViewport && n.getParent() == this) {
+                    getChildren().remove(n);
+                } else if (inViewport && n.getParent() == null) {
+                    // directly above the label, and below the drag overlays
+                    getChildren().add(1, n);
+                }
+            }
+
 //            // ...but, if there are no children of this column, we should ensure
 //            // that it is resized vertically such that it goes to the very
 //            // bottom of the table header row.
@@ -36,7 +36,7 @@ import javafx.scene.control.TableColumn;
  */
 public class TableCellSkin<S,T> extends TableCellSkinBase<TableCell<S,T>, TableCellBehavior<S,T>> {
     
-    private final TableColumn<S,T> tableColumn;
+    private TableColumn<S,T> tableColumn;
     
     public TableCellSkin(TableCell<S,T> tableCell) {
         super(tableCell, new TableCellBehavior<S,T>(tableCell));
@@ -44,6 +44,20 @@ public class TableCellSkin<S,T> extends TableCellSkinBase<TableCell<S,T>, TableC
         this.tableColumn = tableCell.getTableColumn();
         
         super.init(tableCell);
+
+        registerChangeListener(tableCell.tableColumnProperty(), "TABLE_COLUMN");
+    }
+
+    @Override protected void handleControlPropertyChanged(String p) {
+        super.handleControlPropertyChanged(p);
+        if ("TABLE_COLUMN".equals(p)) {
+            TableColumn<S,T> newTableColumn = getSkinnable().getTableColumn();
+            if (newTableColumn != null && newTableColumn != tableColumn) {
+                ReadOnlyDoubleProperty oldColumnWidthProperty = columnWidthProperty();
+                tableColumn = newTableColumn;
+                columnChanged(oldColumnWidthProperty);
+            }
+        }
     }
 
     @Override protected BooleanProperty columnVisibleProperty() {
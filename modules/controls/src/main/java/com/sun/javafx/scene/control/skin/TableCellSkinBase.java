@@ -131,6 +131,24 @@ public abstract class TableCellSkinBase<C extends IndexedCell, B extends CellBeh
         }
     }
     
+    /*
+     * Called by subclasses when the cell has been moved to another column (as
+     * happens when cells are recycled between columns by TableRowSkinBase), so
+     * that the cell follows the width of its new column.
+     */
+    void columnChanged(ReadOnlyDoubleProperty oldColumnWidthProperty) {
+        if (oldColumnWidthProperty != null) {
+            oldColumnWidthProperty.removeListener(weakColumnWidthListener);
+        }
+
+        ReadOnlyDoubleProperty columnWidthProperty = columnWidthProperty();
+        if (columnWidthProperty != null) {
+            columnWidthProperty.addListener(weakColumnWidthListener);
+        }
+
+        getSkinnable().requestLayout();
+    }
+    
     @Override public void dispose() {
         ReadOnlyDoubleProperty columnWidthProperty = columnWidthProperty();
         if (columnWidthProperty != null) {
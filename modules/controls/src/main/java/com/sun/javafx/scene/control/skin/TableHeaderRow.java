@@ -347,6 +347,13 @@ public class TableHeaderRow extends StackPane {
         scrollX = flow.getHbar().isVisible() ? -flow.getHbar().getValue() : 0.0F;
         requestLayout();
 
+        // with column virtualization the nested headers take the headers
+        // that scrolled out of view out of the scenegraph, and so need to be
+        // laid out again
+        if (tableSkin.isColumnVirtualizationEnabled()) {
+            requestNestedHeaderLayout();
+        }
+
         // Fix for RT-36392: without this call even though we call requestLayout()
         // we don't seem to ever see the layoutChildren() method above called,
         // which means the layout is not always updated to use the latest scrollX.
@@ -389,6 +396,22 @@ public class TableHeaderRow extends StackPane {
         return header;
     }
 
+    void requestNestedHeaderLayout() {
+        requestNestedHeaderLayout(header);
+    }
+
+    private void requestNestedHeaderLayout(NestedTableColumnHeader nestedHeader) {
+        nestedHeader.requestLayout();
+
+        final List<TableColumnHeader> headers = nestedHeader.getColumnHeaders();
+        for (int i = 0, max = headers.size(); i < max; i++) {
+            TableColumnHeader header = headers.get(i);
+            if (header instanceof NestedTableColumnHeader) {
+                requestNestedHeaderLayout((NestedTableColumnHeader) header);
+            }
+        }
+    }
+
     // protected to allow subclass to customise the width, to allow for features
     // such as row headers
     protected void updateTableWidth() {
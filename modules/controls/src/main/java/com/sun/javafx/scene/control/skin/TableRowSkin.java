@@ -114,6 +114,26 @@ public class TableRowSkin<T> extends TableRowSkinBase<T, TableRow<T>, CellBehavi
         return cell.getTableColumn();
     }
 
+    @Override protected boolean isColumnVirtualizationEnabled() {
+        return tableViewSkin == null ? false : tableViewSkin.isColumnVirtualizationEnabled();
+    }
+
+    @Override protected double getColumnViewportStart() {
+        return tableViewSkin == null ? 0 : tableViewSkin.getColumnViewportStart();
+    }
+
+    @Override protected double getColumnViewportWidth() {
+        return tableViewSkin == null ? 0 : tableViewSkin.getColumnViewportWidth();
+    }
+
+    @Override protected Object getCellFactory(TableColumnBase tc) {
+        return ((TableColumn<T,?>) tc).getCellFactory();
+    }
+
+    @Override protected void updateCellColumn(TableCell<T, ?> cell, TableColumnBase tc) {
+        cell.updateTableColumn((TableColumn) tc);
+    }
+
     @Override protected ObjectProperty<Node> graphicProperty() {
         return null;
     }
@@ -122,6 +122,19 @@ public abstract class TableRowSkinBase<T,
 
     private int columnCount = 0;
 
+    /*
+     * Column virtualization state. When enabled, only the columns in the range
+     * [firstVisibleColumn, lastVisibleColumn] have cells, and cells released by
+     * columns leaving that range are kept in recycledCells, keyed by the cell
+     * factory that created them, so that they can be reused by the next column
+     * with the same cell factory that scrolls into view.
+     */
+    private boolean columnVirtualization = false;
+    private int firstVisibleColumn = 0;
+    private int lastVisibleColumn = -1;
+    private double firstVisibleColumnX = 0;
+    private final Map<Object, List<R>> recycledCells = new HashMap<>();
+
 
 
     /***************************************************************************
@@ -143,6 +156,7 @@ public abstract class TableRowSkinBase<T,
     protected void init(C control) {
         getSkinnable().setPickOnBounds(false);
 
+        columnVirtualization = isColumnVirtualizationEnabled();
         recreateCells();
         updateCells(true);
 
@@ -211,6 +225,40 @@ public abstract class TableRowSkinBase<T,
 
     protected abstract TableColumnBase<T,?> getTableColumnBase(R cell);
 
+    /**
+     * Returns true if only the cells of the columns that intersect the
+     * viewport of the table should exist and be laid out. By default column
+     * virtualization is disabled.
+     */
+    protected boolean isColumnVirtualizationEnabled() {
+        return false;
+    }
+
+    // the horizontal offset of the viewport into the columns of the table
+    protected double getColumnViewportStart() {
+        return 0;
+    }
+
+    // the width of the viewport onto the columns of the table
+    protected double getColumnViewportWidth() {
+        return 0;
+    }
+
+    /**
+     * Returns the cell factory of the given column. Cells created by the same
+     * cell factory may be moved between columns when column virtualization is
+     * enabled. Returning null (the default) means the cells of the column are
+     * never recycled.
+     */
+    protected Object getCellFactory(TableColumnBase tc) {
+        return null;
+    }
+
+    // cell.updateTableColumn(tc), for cells recycled from another column
+    protected void updateCellColumn(R cell, TableColumnBase tc) {
+        // no-op
+    }
+
 
 
     /***************************************************************************
@@ -239,7 +287,24 @@ public abstract class TableRowSkinBase<T,
     }
 
     @Override protected void layoutChildren(double x, final double y, final double w, final double h) {
+        final boolean virtualize = isColumnVirtualizationEnabled();
+        if (virtualize != columnVirtualization) {
+            columnVirtualization = virtualize;
+            if (! virtualize) {
+                clearRecycledCells();
+            }
+            isDirty = true;
+        }
+
         checkState();
+
+        // the columns in the viewport may have changed due to horizontal
+        // scrolling or column resizing, in which case the cells need to be
+        // moved across to the columns that are now visible
+        if (columnVirtualization && updateVisibleColumnRange()) {
+            updateCells(false);
+        }
+
         if (cellsMap.isEmpty()) return;
 
         ObservableList<? extends TableColumnBase> visibleLeafColumns = getVisibleLeafColumns();
@@ -326,12 +391,24 @@ public abstract class TableRowSkinBase<T,
         int index = control.getIndex();
         if (index < 0/* || row >= itemsProperty().get().size()*/) return;
 
-        for (int column = 0, max = cells.size(); column < max; column++) {
-            R tableCell = cells.get(column);
+        // with column virtualization the cells only cover the visible columns,
+        // so we start at the offset of the first of them
+        final int firstColumn = columnVirtualization ? firstVisibleColumn : 0;
+        if (columnVirtualization) {
+            x += firstVisibleColumnX;
+        }
+
+        for (int i = 0, max = cells.size(); i < max; i++) {
+            R tableCell = cells.get(i);
             TableColumnBase<T, ?> tableColumn = getTableColumnBase(tableCell);
+            final int column = firstColumn + i;
 
             boolean isVisible = true;
-            if (fixedCellSizeEnabled) {
+            if (columnVirtualization) {
+                // the cells have already been limited to the visible columns
+                height = fixedCellSizeEnabled ? fixedCellSize :
+                        snapSize(Math.max(controlHeight, tableCell.prefHeight(-1))) - snapSize(verticalPadding);
+            } else if (fixedCellSizeEnabled) {
                 // we determine if the cell is visible, and if not we have the
                 // ability to take it out of the scenegraph to help improve
                 // performance. However, we only do this when there is a
@@ -350,7 +427,7 @@ public abstract class TableRowSkinBase<T,
             }
 
             if (isVisible) {
-                if (fixedCellSizeEnabled && tableCell.getParent() == null) {
+                if ((fixedCellSizeEnabled || columnVirtualization) && tableCell.getParent() == null) {
                     getChildren().add(tableCell);
                 }
 
@@ -500,6 +577,11 @@ public abstract class TableRowSkinBase<T,
             fullRefreshCounter--;
         }
 
+        if (columnVirtualization) {
+            updateVisibleCells(resetChildren);
+            return;
+        }
+
         // if clear isn't called first, we can run into situations where the
         // cells aren't updated properly.
         final boolean cellsEmpty = cells.isEmpty();
@@ -530,6 +612,184 @@ public abstract class TableRowSkinBase<T,
         }
     }
 
+    /*
+     * The column virtualization counterpart of updateCells(): only the columns
+     * in the viewport get a cell, and the cells of columns that have left the
+     * viewport are released so they can be reused by the columns that entered it.
+     */
+    private void updateVisibleCells(boolean resetChildren) {
+        updateVisibleColumnRange();
+
+        final boolean cellsEmpty = cells.isEmpty();
+        cells.clear();
+
+        final List<? extends TableColumnBase/*<T,?>*/> visibleLeafColumns = getVisibleLeafColumns();
+        final int first = firstVisibleColumn;
+        final int last = Math.min(lastVisibleColumn, visibleLeafColumns.size() - 1);
+
+        // release the cells of the columns that are no longer in the viewport
+        // (or no longer visible at all) before handing out cells to the
+        // columns that are
+        final Set<TableColumnBase> visibleColumns = new HashSet<>();
+        for (int i = first; i <= last; i++) {
+            visibleColumns.add(visibleLeafColumns.get(i));
+        }
+        Iterator<Map.Entry<TableColumnBase, R>> entries = cellsMap.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<TableColumnBase, R> entry = entries.next();
+            if (! visibleColumns.contains(entry.getKey())) {
+                entries.remove();
+                releaseCell(entry.getKey(), entry.getValue());
+            }
+        }
+
+        final C skinnable = getSkinnable();
+        final int skinnableIndex = skinnable.getIndex();
+        for (int i = first; i <= last; i++) {
+            TableColumnBase<T,?> col = visibleLeafColumns.get(i);
+
+            R cell = cellsMap.get(col);
+            if (cell == null) {
+                cell = obtainCell(col);
+            }
+
+            updateCell(cell, skinnable);
+            cell.updateIndex(skinnableIndex);
+            cells.add(cell);
+        }
+
+        // keep no more spare cells around than there are columns in view
+        for (List<R> spares : recycledCells.values()) {
+            while (spares.size() > cells.size()) {
+                disposeCell(spares.remove(spares.size() - 1));
+            }
+        }
+
+        if (resetChildren || cellsEmpty) {
+            getChildren().setAll(cells);
+        } else {
+            updateVisibleChildren();
+        }
+    }
+
+    /*
+     * Adds the cells of the columns that entered the viewport to the children,
+     * keeping the cells in the children in column order. Only when the columns
+     * themselves have been reordered do we need to reset the children.
+     */
+    private void updateVisibleChildren() {
+        final C skinnable = getSkinnable();
+        final ObservableList<Node> children = getChildren();
+
+        int childIndex = 0;
+        for (int i = 0, max = cells.size(); i < max; i++) {
+            R cell = cells.get(i);
+            if (cell.getParent() != skinnable) {
+                children.add(childIndex++, cell);
+                continue;
+            }
+
+            int index = children.indexOf(cell);
+            if (index < childIndex) {
+                List<Node> content = new ArrayList<>(cells);
+                for (Node child : children) {
+                    if (! cells.contains(child)) {
+                        content.add(child);
+                    }
+                }
+                children.setAll(content);
+                return;
+            }
+            childIndex = index + 1;
+        }
+    }
+
+    /*
+     * Recomputes the range of columns intersecting the viewport, returning
+     * true if it differs from the range the cells currently cover.
+     */
+    private boolean updateVisibleColumnRange() {
+        final List<? extends TableColumnBase/*<T,?>*/> visibleLeafColumns = getVisibleLeafColumns();
+        final double horizontalPadding = snapSize(snappedLeftInset() + snappedRightInset());
+        final double viewportStart = getColumnViewportStart();
+        final double viewportEnd = viewportStart + getColumnViewportWidth();
+
+        int first = 0;
+        int last = -1;
+        double firstX = 0;
+        double x = 0;
+        for (int i = 0, max = visibleLeafColumns.size(); i < max && x < viewportEnd; i++) {
+            double width = snapSize(visibleLeafColumns.get(i).getWidth()) - horizontalPadding;
+            if (x + width <= viewportStart) {
+                first = i + 1;
+                firstX = x + width;
+            } else {
+                last = i;
+            }
+            x += width;
+        }
+        if (last < first) {
+            first = 0;
+            last = -1;
+            firstX = 0;
+        }
+
+        firstVisibleColumnX = firstX;
+        if (first == firstVisibleColumn && last == lastVisibleColumn) {
+            return false;
+        }
+        firstVisibleColumn = first;
+        lastVisibleColumn = last;
+        return true;
+    }
+
+    private R obtainCell(TableColumnBase col) {
+        Object cellFactory = getCellFactory(col);
+        List<R> spares = cellFactory == null ? null : recycledCells.get(cellFactory);
+        if (spares == null || spares.isEmpty()) {
+            return createCell(col);
+        }
+
+        R cell = spares.remove(spares.size() - 1);
+        updateCellColumn(cell, col);
+        cellsMap.put(col, cell);
+        return cell;
+    }
+
+    private void releaseCell(TableColumnBase col, R cell) {
+        getChildren().remove(cell);
+        cell.updateIndex(-1);
+
+        Object cellFactory = getCellFactory(col);
+        if (cellFactory == null) {
+            disposeCell(cell);
+            return;
+        }
+
+        List<R> spares = recycledCells.get(cellFactory);
+        if (spares == null) {
+            spares = new ArrayList<>();
+            recycledCells.put(cellFactory, spares);
+        }
+        spares.add(cell);
+    }
+
+    private void clearRecycledCells() {
+        for (List<R> spares : recycledCells.values()) {
+            for (int i = 0, max = spares.size(); i < max; i++) {
+                disposeCell(spares.get(i));
+            }
+        }
+        recycledCells.clear();
+    }
+
+    private void disposeCell(R cell) {
+        if (cell.getSkin() != null) {
+            cell.getSkin().dispose();
+            cell.setSkin(null);
+        }
+    }
+
     private VirtualFlow<C> getVirtualFlow() {
         Parent p = getSkinnable();
         while (p != null) {
@@ -662,6 +922,7 @@ public abstract class TableRowSkinBase<T,
             }
             cellsMap.clear();
         }
+        clearRecycledCells();
 
         ObservableList<? extends TableColumnBase/*<T,?>*/> columns = getVisibleLeafColumns();
 
@@ -671,6 +932,10 @@ public abstract class TableRowSkinBase<T,
 
         columnCount = columns.size();
 
+        // with column virtualization the cells are created on demand, as
+        // their columns scroll into view
+        if (columnVirtualization) return;
+
         for (TableColumnBase col : columns) {
             if (cellsMap.containsKey(col)) {
                 continue;
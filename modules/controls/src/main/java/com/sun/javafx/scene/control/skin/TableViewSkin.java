@@ -290,7 +290,7 @@ public class TableViewSkin<T> extends TableViewSkinBase<T, T, TableView<T>, Tabl
 
     @Override protected void horizontalScroll() {
         super.horizontalScroll();
-        if (getSkinnable().getFixedCellSize() > 0) {
+        if (getSkinnable().getFixedCellSize() > 0 || isColumnVirtualizationEnabled()) {
             flow.requestCellLayout();
         }
     }
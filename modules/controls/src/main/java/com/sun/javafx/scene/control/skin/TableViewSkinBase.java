@@ -78,6 +78,16 @@ public abstract class TableViewSkinBase<M, S, C extends Control, B extends Behav
     public static final String REFRESH = "tableRefreshKey";
     public static final String RECREATE = "tableRecreateKey";
 
+    /**
+     * Setting this key to Boolean.TRUE in the properties of the control
+     * enables column virtualization: rows only create and lay out cells for
+     * the columns that intersect the viewport, recycling cells between
+     * columns that share a cell factory, and column headers outside the
+     * viewport are taken out of the scenegraph. This is worthwhile for
+     * tables with a large number of columns.
+     */
+    public static final String COLUMN_VIRTUALIZATION_ENABLED_KEY = "tableColumnVirtualizationEnabled";
+
 
 
     /***************************************************************************
@@ -231,6 +241,13 @@ public abstract class TableViewSkinBase<M, S, C extends Control, B extends Behav
      **************************************************************************/
 
     private MapChangeListener<Object, Object> propertiesMapListener = c -> {
+        if (COLUMN_VIRTUALIZATION_ENABLED_KEY.equals(c.getKey())) {
+            // the rows and the headers need to update the columns they show
+            tableHeaderRow.requestNestedHeaderLayout();
+            flow.requestCellLayout();
+            return;
+        }
+
         if (! c.wasAdded()) return;
         if (REFRESH.equals(c.getKey())) {
             refreshView();
@@ -536,6 +553,21 @@ public abstract class TableViewSkinBase<M, S, C extends Control, B extends Behav
         return (start >= scrollX || end > scrollX) && (start < (headerWidth + scrollX) || end <= (headerWidth + scrollX));
     }
 
+    boolean isColumnVirtualizationEnabled() {
+        return Boolean.TRUE.equals(getSkinnable().getProperties().get(COLUMN_VIRTUALIZATION_ENABLED_KEY));
+    }
+
+    // the horizontal offset of the viewport into the columns of the table
+    double getColumnViewportStart() {
+        return flow.getHbar().isVisible() ? flow.getHbar().getValue() : 0;
+    }
+
+    // the width of the viewport onto the columns of the table
+    double getColumnViewportWidth() {
+        final Insets padding = getSkinnable().getPadding();
+        return getSkinnable().getWidth() - padding.getLeft() - padding.getRight();
+    }
+
     protected void horizontalScroll() {
         tableHeaderRow.updateScrollX();
     }
@@ -42,7 +42,7 @@ import javafx.scene.control.TreeTableView;
 public class TreeTableCellSkin<S,T> extends TableCellSkinBase<TreeTableCell<S,T>, TreeTableCellBehavior<S,T>> {
     
     private final TreeTableCell<S,T> treeTableCell;
-    private final TreeTableColumn<S,T> tableColumn;
+    private TreeTableColumn<S,T> tableColumn;
     
     public TreeTableCellSkin(TreeTableCell<S,T> treeTableCell) {
         super(treeTableCell, new TreeTableCellBehavior<S,T>(treeTableCell));
@@ -51,6 +51,20 @@ public class TreeTableCellSkin<S,T> extends TableCellSkinBase<TreeTableCell<S,T>
         this.tableColumn = treeTableCell.getTableColumn();
         
         super.init(treeTableCell);
+
+        registerChangeListener(treeTableCell.tableColumnProperty(), "TABLE_COLUMN");
+    }
+
+    @Override protected void handleControlPropertyChanged(String p) {
+        super.handleControlPropertyChanged(p);
+        if ("TABLE_COLUMN".equals(p)) {
+            TreeTableColumn<S,T> newTableColumn = getSkinnable().getTableColumn();
+            if (newTableColumn != null && newTableColumn != tableColumn) {
+                ReadOnlyDoubleProperty oldColumnWidthProperty = columnWidthProperty();
+                tableColumn = newTableColumn;
+                columnChanged(oldColumnWidthProperty);
+            }
+        }
     }
 
     @Override protected BooleanProperty columnVisibleProperty() {
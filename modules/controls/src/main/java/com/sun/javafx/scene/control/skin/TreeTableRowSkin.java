@@ -85,11 +85,14 @@ public class TreeTableRowSkin<T> extends TableRowSkinBase<TreeItem<T>, TreeTable
     
     public TreeTableRowSkin(TreeTableRow<T> control) {
         super(control, new TreeTableRowBehavior<T>(control));
-        
+
+        // the TreeTableViewSkin is needed by init(), to know whether column
+        // virtualization is enabled
+        updateTableViewSkin();
+
         super.init(control);
         
         updateTreeItem();
-        updateTableViewSkin();
 
         registerChangeListener(control.treeTableViewProperty(), "TREE_TABLE_VIEW");
         registerChangeListener(control.indexProperty(), "INDEX");
@@ -269,6 +272,26 @@ public class TreeTableRowSkin<T> extends TableRowSkinBase<TreeItem<T>, TreeTable
         return cell.getTableColumn();
     }
 
+    @Override protected boolean isColumnVirtualizationEnabled() {
+        return treeTableViewSkin == null ? false : treeTableViewSkin.isColumnVirtualizationEnabled();
+    }
+
+    @Override protected double getColumnViewportStart() {
+        return treeTableViewSkin == null ? 0 : treeTableViewSkin.getColumnViewportStart();
+    }
+
+    @Override protected double getColumnViewportWidth() {
+        return treeTableViewSkin == null ? 0 : treeTableViewSkin.getColumnViewportWidth();
+    }
+
+    @Override protected Object getCellFactory(TableColumnBase tc) {
+        return ((TreeTableColumn<T,?>) tc).getCellFactory();
+    }
+
+    @Override protected void updateCellColumn(TreeTableCell<T, ?> cell, TableColumnBase tc) {
+        cell.updateTreeTableColumn((TreeTableColumn) tc);
+    }
+
     @Override protected ObjectProperty<Node> graphicProperty() {
         TreeTableRow<T> treeTableRow = getSkinnable();
         if (treeTableRow == null) return null;
@@ -392,7 +392,7 @@ public class TreeTableViewSkin<S> extends TableViewSkinBase<S, TreeItem<S>, Tree
 
     @Override protected void horizontalScroll() {
         super.horizontalScroll();
-        if (getSkinnable().getFixedCellSize() > 0) {
+        if (getSkinnable().getFixedCellSize() > 0 || isColumnVirtualizationEnabled()) {
             flow.requestCellLayout();
         }
     }
@@ -85,10 +85,13 @@ public class Utils {
      * but irrelevant when computing the width.
      *
      * Note: This code assumes that TextBoundsType#VISUAL is never used by controls.
+     *
+     * The methods that use helper or layout are synchronized, as skins may be
+     * laid out off the FX application thread (see javafx.scene.SubtreeStaging).
      * */
     static final TextLayout layout = Toolkit.getToolkit().getTextLayoutFactory().createLayout();
 
-    static double getAscent(Font font, TextBoundsType boundsType) {
+    synchronized static double getAscent(Font font, TextBoundsType boundsType) {
         layout.setContent("", font.impl_getNativeFont());
         layout.setWrapWidth(0);
         layout.setLineSpacing(0);
@@ -100,7 +103,7 @@ public class Utils {
         return -layout.getBounds().getMinY();
     }
 
-    static double getLineHeight(Font font, TextBoundsType boundsType) {
+    synchronized static double getLineHeight(Font font, TextBoundsType boundsType) {
         layout.setContent("", font.impl_getNativeFont());
         layout.setWrapWidth(0);
         layout.setLineSpacing(0);
@@ -114,7 +117,7 @@ public class Utils {
         return layout.getLines()[0].getBounds().getHeight();
     }
 
-    static double computeTextWidth(Font font, String text, double wrappingWidth) {
+    synchronized static double computeTextWidth(Font font, String text, double wrappingWidth) {
         layout.setContent(text != null ? text : "", font.impl_getNativeFont());
         layout.setWrapWidth((float)wrappingWidth);
         return layout.getBounds().getWidth();
@@ -125,7 +128,7 @@ public class Utils {
     }
 
     @SuppressWarnings("deprecation")
-    static double computeTextHeight(Font font, String text, double wrappingWidth, double lineSpacing, TextBoundsType boundsType) {
+    synchronized static double computeTextHeight(Font font, String text, double wrappingWidth, double lineSpacing, TextBoundsType boundsType) {
         layout.setContent(text != null ? text : "", font.impl_getNativeFont());
         layout.setWrapWidth((float)wrappingWidth);
         layout.setLineSpacing((float)lineSpacing);
@@ -137,7 +140,7 @@ public class Utils {
         return layout.getBounds().getHeight();
     }
 
-    static int computeTruncationIndex(Font font, String text, double width) {
+    synchronized static int computeTruncationIndex(Font font, String text, double width) {
         helper.setText(text);
         helper.setFont(font);
         helper.setWrappingWidth(0);
@@ -356,7 +359,7 @@ public class Utils {
         }
     }
 
-    static String computeClippedWrappedText(Font font, String text, double width,
+    synchronized static String computeClippedWrappedText(Font font, String text, double width,
                                             double height, OverrunStyle truncationStyle,
                                             String ellipsisString, TextBoundsType boundsType) {
         if (font == null) {
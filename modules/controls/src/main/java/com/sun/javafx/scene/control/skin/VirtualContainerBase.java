@@ -39,6 +39,23 @@ import com.sun.javafx.scene.control.behavior.BehaviorBase;
  * @profile common
  */
 public abstract class VirtualContainerBase<C extends Control, B extends BehaviorBase<C>, I extends IndexedCell> extends BehaviorSkinBase<C, B> {
+
+    /**
+     * Setting this key to Boolean.TRUE in the properties of the control
+     * enables the size index of the VirtualFlow (see
+     * {@link VirtualFlow#setSizeIndexEnabled(boolean)}), which is worthwhile
+     * when the cells are of very different lengths.
+     */
+    public static final String SIZE_INDEX_ENABLED_KEY = "virtualFlowSizeIndexEnabled";
+
+    /**
+     * Setting this key to an Integer in the properties of the control sets
+     * the number of cells beyond either end of the viewport that the
+     * VirtualFlow keeps updated (see
+     * {@link VirtualFlow#setPrefetchCount(int)}), which is worthwhile when
+     * the cells are expensive to update.
+     */
+    public static final String PREFETCH_COUNT_KEY = "virtualFlowPrefetchCount";
     
     protected boolean rowCountDirty;
 
@@ -109,6 +126,10 @@ public abstract class VirtualContainerBase<C extends Control, B extends Behavior
     }
 
     protected void checkState() {
+        flow.setSizeIndexEnabled(Boolean.TRUE.equals(getSkinnable().getProperties().get(SIZE_INDEX_ENABLED_KEY)));
+        Object prefetchCount = getSkinnable().getProperties().get(PREFETCH_COUNT_KEY);
+        flow.setPrefetchCount(prefetchCount instanceof Integer ? Math.max(0, (Integer) prefetchCount) : 0);
+
         if (rowCountDirty) {
             updateRowCount();
             rowCountDirty = false;
@@ -30,6 +30,7 @@ import com.sun.javafx.scene.traversal.Algorithm;
 import com.sun.javafx.scene.traversal.Direction;
 import com.sun.javafx.scene.traversal.ParentTraversalEngine;
 import com.sun.javafx.scene.traversal.TraversalContext;
+import javafx.animation.AnimationTimer;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.beans.InvalidationListener;
@@ -204,6 +205,10 @@ public class VirtualFlow<T extends IndexedCell> extends Region {
         
         boolean countChanged = oldCount != cellCount;
 
+        if (sizeIndex != null) {
+            sizeIndex.setSize(cellCount);
+        }
+
         // ensure that the virtual scrollbar adjusts in size based on the current
         // cell count.
         if (countChanged) {
@@ -277,6 +282,77 @@ public class VirtualFlow<T extends IndexedCell> extends Region {
         needsCellsLayout = true;
         layoutChildren();
     }
+
+    /**
+     * When enabled, the length of every cell that is laid out is recorded in
+     * a {@link CellSizeIndex}, and the position is mapped to cells by pixel
+     * offset using that index, rather than by assuming that every cell takes
+     * up the same fraction of the scroll bar. Cells that have not been laid
+     * out yet are assumed to be of the average length of those that have.
+     * This makes the scroll bar exact (once the cells have been measured)
+     * for cells of very different lengths, and means that off-screen cells
+     * are measured once, not every time they are passed over.
+     */
+    private CellSizeIndex sizeIndex;
+
+    public boolean isSizeIndexEnabled() {
+        return sizeIndex != null;
+    }
+
+    public void setSizeIndexEnabled(boolean value) {
+        if (value == isSizeIndexEnabled()) return;
+
+        // keep the first visible cell at the top of the viewport
+        T firstCell = getFirstVisibleCell();
+        if (value) {
+            sizeIndex = new CellSizeIndex();
+            sizeIndex.setSize(getCellCount());
+        } else {
+            sizeIndex = null;
+        }
+        if (firstCell != null && getPosition() != 0 && getPosition() != 1) {
+            adjustPositionToIndex(getCellIndex(firstCell));
+        }
+        requestLayout();
+    }
+
+    /**
+     * The number of cells beyond either end of the viewport that are kept
+     * updated, in the pile, so that when they are scrolled into view they do
+     * not have to be updated (or laid out) in that pulse. The cells are
+     * updated after the visible cells have been laid out, a few at a time in
+     * each pulse, within PREFETCH_BUDGET.
+     */
+    private int prefetchCount;
+
+    /**
+     * The time, in nanoseconds, that may be spent updating cells beyond the
+     * viewport in each pulse.
+     */
+    private static final long PREFETCH_BUDGET = 4000000;
+
+    private AnimationTimer prefetchTimer;
+
+    // whether the last scroll was towards the end
+    private boolean prefetchForward = true;
+
+    public int getPrefetchCount() {
+        return prefetchCount;
+    }
+
+    public void setPrefetchCount(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("prefetchCount: " + value);
+        }
+        if (value == prefetchCount) return;
+
+        this.prefetchCount = value;
+        if (value > 0) {
+            startPrefetch();
+        } else if (prefetchTimer != null) {
+            prefetchTimer.stop();
+        }
+    }
     
     /**
      * Callback which is invoked whenever the VirtualFlow needs a new
@@ -290,6 +366,7 @@ public class VirtualFlow<T extends IndexedCell> extends Region {
 
         if (createCell != null) {
             accumCell = null;
+            if (sizeIndex != null) sizeIndex.clear();
             setNeedsLayout(true);
             recreateCells();
             if (getParent() != null) getParent().requestLayout();
@@ -938,6 +1015,12 @@ public class VirtualFlow<T extends IndexedCell> extends Region {
             for (int i=0; i<cells.size(); i++) {
                 cells.get(i).updateIndex(-1);
             }
+            if (prefetchCount > 0) {
+                // the prefetched cells are out of date as well
+                for (int i = 0; i < pile.size(); i++) {
+                    pile.get(i).updateIndex(-1);
+                }
+            }
             addAllToPile();
             releaseAllPrivateCells();
         } else if (needsReconfigureCells) {
@@ -1206,9 +1289,86 @@ public class VirtualFlow<T extends IndexedCell> extends Region {
         lastHeight = getHeight();
         lastCellCount = getCellCount();
         lastVertical = isVertical();
+        if (getPosition() != lastPosition) {
+            prefetchForward = getPosition() > lastPosition;
+        }
         lastPosition = getPosition();
 
         cleanPile();
+
+        if (prefetchCount > 0) {
+            startPrefetch();
+        }
+    }
+
+    private void startPrefetch() {
+        if (prefetchTimer == null) {
+            prefetchTimer = new AnimationTimer() {
+                @Override public void handle(long now) {
+                    if (getScene() == null || ! prefetchCells(System.nanoTime() + PREFETCH_BUDGET)) {
+                        stop();
+                    }
+                }
+            };
+        }
+        prefetchTimer.start();
+    }
+
+    /**
+     * Updates the cells within prefetchCount of the viewport that are not in
+     * the pile yet, those in the direction of the last scroll first, nearest
+     * first, until the deadline (in terms of System.nanoTime()) is reached.
+     * Returns true if there are cells left to update.
+     */
+    boolean prefetchCells(long deadline) {
+        if (cells.isEmpty()) return false;
+
+        final int first = getCellIndex(cells.getFirst());
+        final int last = getCellIndex(cells.getLast());
+        for (int i = 0; i < prefetchCount * 2; i++) {
+            boolean after = (i < prefetchCount) == prefetchForward;
+            int index = after ? last + 1 + i % prefetchCount : first - 1 - i % prefetchCount;
+            if (index < 0 || index >= cellCount || isPrefetched(index)) continue;
+            if (System.nanoTime() >= deadline) return true;
+            prefetchCell(index, first, last);
+        }
+        return false;
+    }
+
+    private boolean isPrefetched(int index) {
+        for (int i = 0, max = pile.size(); i < max; i++) {
+            if (getCellIndex(pile.get(i)) == index) return true;
+        }
+        return false;
+    }
+
+    private void prefetchCell(int index, int first, int last) {
+        // reuse a cell from the pile that is not for another cell in the band
+        // (or for a visible cell, which it is no longer used for)
+        T cell = null;
+        for (int i = 0, max = pile.size(); i < max; i++) {
+            int cellIndex = getCellIndex(pile.get(i));
+            if (cellIndex < first - prefetchCount || cellIndex > last + prefetchCount
+                    || (cellIndex >= first && cellIndex <= last)) {
+                cell = pile.remove(i);
+                break;
+            }
+        }
+        if (cell == null) {
+            cell = getCreateCell().call(this);
+        }
+        if (cell.getParent() == null) {
+            sheetChildren.add(cell);
+        }
+
+        setCellIndex(cell, index);
+        resizeCellSize(cell);
+        cell.setVisible(false);
+        // get the css and layout work done now, rather than when the cell is
+        // scrolled into view
+        cell.applyCss();
+        cell.layout();
+        pile.addLast(cell);
     }
 
     /**
@@ -1603,7 +1763,15 @@ public class VirtualFlow<T extends IndexedCell> extends Region {
         
         // determine how many cells there are on screen so that the scrollbar
         // thumb can be appropriately sized
-        if (recreate && (lengthBar.isVisible() || BehaviorSkinBase.IS_TOUCH_SUPPORTED)) {
+        if (sizeIndex != null) {
+            if (lengthBar.isVisible() || BehaviorSkinBase.IS_TOUCH_SUPPORTED) {
+                // the size index knows the (estimated) length of all cells, so
+                // the thumb can be sized by pixels
+                double totalLength = sizeIndex.getTotalLength();
+                lengthBar.setMax(1);
+                lengthBar.setVisibleAmount(totalLength <= 0 ? 1 : Math.min(1, viewportLength / totalLength));
+            }
+        } else if (recreate && (lengthBar.isVisible() || BehaviorSkinBase.IS_TOUCH_SUPPORTED)) {
             int numCellsVisibleOnScreen = 0;
             for (int i = 0, max = cells.size(); i < max; i++) {
                 T cell = cells.get(i);
@@ -1764,6 +1932,13 @@ public class VirtualFlow<T extends IndexedCell> extends Region {
             return pile.get(0);
         }
 
+        return getAccumCell(index);
+    }
+
+    /**
+     * Returns the accumCell, configured for the given index and resized.
+     */
+    private T getAccumCell(int index) {
         // We need to use the accumCell and return that
         if (accumCell == null) {
             Callback<VirtualFlow,T> createCell = getCreateCell();
@@ -1868,8 +2043,15 @@ public class VirtualFlow<T extends IndexedCell> extends Region {
      */
     protected double getCellLength(int index) {
         if (fixedCellSizeEnabled) return fixedCellSize;
+
+        final boolean indexed = sizeIndex != null && index >= 0 && index < sizeIndex.getSize();
+        if (indexed && sizeIndex.isMeasured(index)) {
+            return sizeIndex.getLength(index);
+        }
         
-        T cell = getCell(index);
+        // a cell from the pile may be for another index, which is fine for
+        // an estimate but not for the size index
+        T cell = indexed && getVisibleCell(index) == null ? getAccumCell(index) : getCell(index);
         double length = getCellLength(cell);
         releaseCell(cell);
         return length;
@@ -1942,6 +2124,65 @@ public class VirtualFlow<T extends IndexedCell> extends Region {
             double height = Math.max(getMaxPrefBreadth(), getViewportBreadth());
             cell.resize(fixedCellSizeEnabled ? fixedCellSize : Utils.boundedSize(cell.prefWidth(height), cell.minWidth(height), cell.maxWidth(height)), height);
         }
+
+        if (sizeIndex != null) {
+            int index = cell.getIndex();
+            if (index >= 0 && index < sizeIndex.getSize()) {
+                setIndexedCellLength(index, getCellLength(cell));
+            }
+        }
+    }
+
+    /**
+     * Records the length of the given cell in the size index (or forgets it
+     * if the length is NaN), adjusting the position such that the cell and
+     * the offset into it that is shown at the top of the viewport stay the
+     * same, unless the position is at either end.
+     */
+    private void setIndexedCellLength(int index, double length) {
+        if (Double.isNaN(length) ? ! sizeIndex.isMeasured(index)
+                : sizeIndex.isMeasured(index) && sizeIndex.getLength(index) == length) {
+            return;
+        }
+
+        final double pos = getPosition();
+        if (pos == 0 || pos == 1 || sizeIndex.getMeasuredCount() == 0) {
+            updateIndexedCellLength(index, length);
+            return;
+        }
+
+        double offset = getIndexedOffset(pos);
+        int currentIndex = getIndexedCell(offset);
+        double offsetInCell = Math.max(0, offset - sizeIndex.getOffset(currentIndex));
+
+        updateIndexedCellLength(index, length);
+
+        offset = sizeIndex.getOffset(currentIndex) + Math.min(offsetInCell, sizeIndex.getLength(currentIndex));
+        double maxOffset = getMaxIndexedOffset();
+        // set the field directly, nothing on screen moves
+        this.position = maxOffset <= 0 ? 0 : com.sun.javafx.Utils.clamp(0, offset / maxOffset, 1);
+    }
+
+    private void updateIndexedCellLength(int index, double length) {
+        if (Double.isNaN(length)) {
+            sizeIndex.clearLength(index);
+        } else {
+            sizeIndex.setLength(index, length);
+        }
+    }
+
+    /**
+     * Returns the largest offset (from the start of the first cell to the
+     * start of the viewport) that can be scrolled to, when the size index is
+     * enabled.
+     */
+    private double getMaxIndexedOffset() {
+        if (sizeIndex.getMeasuredCount() == 0 && getCellCount() > 0) {
+            // nothing has been laid out yet, so measure the first cell to
+            // have something to go on
+            sizeIndex.setDefaultLength(getCellLength(0));
+        }
+        return Math.max(0, sizeIndex.getTotalLength() - getViewportLength());
     }
 
     protected void setCellIndex(T cell, int index) {
@@ -2265,6 +2506,14 @@ public class VirtualFlow<T extends IndexedCell> extends Region {
         }
     }
 
+    /**
+     * Adjusts the position such that the cell at the given index is the first
+     * cell in the viewport (where possible).
+     */
+    public void scrollToTop(int index) {
+        adjustPositionToIndex(index);
+    }
+
     public void scrollTo(int index) {
         boolean posSet = false;
         
@@ -2428,6 +2677,7 @@ public class VirtualFlow<T extends IndexedCell> extends Region {
 
     public void recreateCells() {
         needsRecreateCells = true;
+        if (sizeIndex != null) sizeIndex.clear();
         requestLayout();
     }
     
@@ -2443,6 +2693,9 @@ public class VirtualFlow<T extends IndexedCell> extends Region {
 
     public void setCellDirty(int index) {
         dirtyCells.set(index);
+        if (sizeIndex != null && index >= 0 && index < sizeIndex.getSize()) {
+            setIndexedCellLength(index, Double.NaN);
+        }
         requestLayout();
     }
 
@@ -2505,6 +2758,13 @@ public class VirtualFlow<T extends IndexedCell> extends Region {
      */
     private double computeViewportOffset(double position) {
         double p = com.sun.javafx.Utils.clamp(0, position, 1);
+        if (sizeIndex != null) {
+            if (position == getPosition()) measureCurrentIndexedCell();
+            double offset = getIndexedOffset(p);
+            int cellIndex = getIndexedCell(offset);
+            return cellIndex == -1 ? 0 : Math.max(0, offset - sizeIndex.getOffset(cellIndex));
+        }
+
         double fractionalPosition = p * getCellCount();
         int cellIndex = (int) fractionalPosition;
         double fraction = fractionalPosition - cellIndex;
@@ -2518,6 +2778,10 @@ public class VirtualFlow<T extends IndexedCell> extends Region {
         int cellCount = getCellCount();
         if (cellCount <= 0) {
             setPosition(0.0f);
+        } else if (sizeIndex != null) {
+            double maxOffset = getMaxIndexedOffset();
+            int i = com.sun.javafx.Utils.clamp(0, index, cellCount);
+            setPosition(maxOffset <= 0 ? 0 : sizeIndex.getOffset(i) / maxOffset);
         } else {            
             setPosition(((double)index) / cellCount);
         }
@@ -2532,6 +2796,13 @@ public class VirtualFlow<T extends IndexedCell> extends Region {
      */
     private void adjustByPixelAmount(double numPixels) {
         if (numPixels == 0) return;
+        if (sizeIndex != null) {
+            // with the size index the position is simply a fraction of the
+            // total length
+            double maxOffset = getMaxIndexedOffset();
+            setPosition(maxOffset <= 0 ? 0 : (getPosition() * maxOffset + numPixels) / maxOffset);
+            return;
+        }
         // Starting from the current cell, we move in the direction indicated
         // by numPixels one cell at a team. For each cell, we discover how many
         // pixels the "position" line would move within that cell, and adjust
@@ -2602,9 +2873,47 @@ public class VirtualFlow<T extends IndexedCell> extends Region {
     }
 
     private int computeCurrentIndex() {
+        if (sizeIndex != null) {
+            return Math.max(0, measureCurrentIndexedCell());
+        }
         return (int) (getPosition() * getCellCount());
     }
 
+    /**
+     * Returns the offset from the start of the first cell to the start of the
+     * viewport for the given position, when the size index is enabled.
+     */
+    private double getIndexedOffset(double position) {
+        return position * getMaxIndexedOffset();
+    }
+
+    /**
+     * Returns the index of the cell at the given offset, when the size index
+     * is enabled. A cell which starts a fraction of a pixel below the offset
+     * is taken to start at it, so that a cell scrolled to the top of the
+     * viewport is not lost to floating point error.
+     */
+    private int getIndexedCell(double offset) {
+        return sizeIndex.getIndex(offset + 0.001);
+    }
+
+    /**
+     * Measures the cell at the current position, if it has not been measured
+     * yet, so that the offset into it is exact, and returns its index. The
+     * position may change as a result, but what is shown at the top of the
+     * viewport does not.
+     */
+    private int measureCurrentIndexedCell() {
+        int index = getIndexedCell(getIndexedOffset(getPosition()));
+        while (index >= 0 && ! sizeIndex.isMeasured(index)) {
+            getCellLength(index);
+            // the fixed cell size is not recorded when measuring
+            if (! sizeIndex.isMeasured(index)) break;
+            index = getIndexedCell(getIndexedOffset(getPosition()));
+        }
+        return index;
+    }
+
     /**
      * Given an item index, this function will compute and return the viewport
      * offset from the beginning of the specified item. Notice that because each
@@ -2613,6 +2922,10 @@ public class VirtualFlow<T extends IndexedCell> extends Region {
      * calculation.
      */
     private double computeOffsetForCell(int itemIndex) {
+        // with the size index the position maps directly to pixels, rather
+        // than to a cell plus a fraction of the viewport
+        if (sizeIndex != null) return 0;
+
         double cellCount = getCellCount();
         double p = com.sun.javafx.Utils.clamp(0, itemIndex, cellCount) / cellCount;
         return -(getViewportLength() * p);
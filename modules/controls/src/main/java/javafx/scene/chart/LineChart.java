@@ -46,6 +46,7 @@ import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.value.WritableValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableDoubleArray;
 import javafx.collections.ObservableList;
 import javafx.scene.AccessibleRole;
 import javafx.scene.Node;
@@ -204,6 +205,7 @@ public class LineChart<X,Y> extends XYChart<X,Y> {
                     if(xData != null) xData.add(data.getXValue());
                     if(yData != null) yData.add(data.getYValue());
                 }
+                addValuesBounds(series, xData, yData);
             }
             // RT-32838 No need to invalidate range if there is one data item - whose value is zero. 
             if(xData != null && !(xData.size() == 1 && getXAxis().toNumericValue(xData.get(0)) == 0)) {
@@ -216,6 +218,34 @@ public class LineChart<X,Y> extends XYChart<X,Y> {
         }
     }
     
+    /**
+     * Adds the lowest and highest of the primitive x and y values of a series
+     * to the lists of values the axes have to plot. The values in between do
+     * not matter for the range.
+     */
+    private void addValuesBounds(Series<X,Y> series, List<X> xData, List<Y> yData) {
+        final int size = series.getValuesSize();
+        if (size > 0) {
+            if(xData != null) addBounds(getXAxis(), series.getXValues(), size, xData);
+            if(yData != null) addBounds(getYAxis(), series.getYValues(), size, yData);
+        }
+    }
+
+    private static <T> void addBounds(Axis<T> axis, ObservableDoubleArray values, int size, List<T> data) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            final double value = values.get(i);
+            if (value < min) min = value;
+            if (value > max) max = value;
+        }
+        // Comparisons are false for NaN, so only NaN values leave the bounds untouched
+        if (min <= max) {
+            data.add(axis.toRealValue(min));
+            data.add(axis.toRealValue(max));
+        }
+    }
+
     @Override protected void dataItemAdded(final Series<X,Y> series, int itemIndex, final Data<X,Y> item) {
         final Node symbol = createSymbol(series, getData().indexOf(series), item, itemIndex);
         if (shouldAnimate()) {
@@ -500,6 +530,10 @@ public class LineChart<X,Y> extends XYChart<X,Y> {
                         symbol.resizeRelocate(x-(w/2), y-(h/2),w,h);
                     }
                 }
+                final int valuesSize = series.getValuesSize();
+                if (valuesSize > 0) {
+                    addValues(series, valuesSize, seriesYAnimMultiplier.getValue(), constructedPath);
+                }
                 switch (getAxisSortingPolicy()) {
                     case X_AXIS:
                         Collections.sort(constructedPath, (e1, e2) -> Double.compare(e1.getX(), e2.getX()));
@@ -517,6 +551,70 @@ public class LineChart<X,Y> extends XYChart<X,Y> {
             }
         }
     }
+
+    /**
+     * Adds the line through the primitive values of a series. Consecutive
+     * points that fall into the same pixel column are reduced to the first,
+     * lowest, highest and last of them, which draws the same line with at most
+     * four elements per column however many points a series has.
+     */
+    private void addValues(Series<X,Y> series, int size, double yMultiplier, List<LineTo> constructedPath) {
+        final Axis<X> xa = getXAxis();
+        final Axis<Y> ya = getYAxis();
+        final ObservableDoubleArray xValues = series.getXValues();
+        final ObservableDoubleArray yValues = series.getYValues();
+        double column = Double.NaN;
+        int first = -1, min = -1, max = -1, last = -1;
+        double minY = 0, maxY = 0;
+        for (int i = 0; i < size; i++) {
+            final double x = getDisplayPosition(xa, xValues.get(i));
+            final double y = getDisplayPosition(ya, yValues.get(i) * yMultiplier);
+            if (Double.isNaN(x) || Double.isNaN(y)) {
+                continue;
+            }
+            if (first >= 0 && Math.floor(x) == column) {
+                if (y < minY) { minY = y; min = i; }
+                if (y > maxY) { maxY = y; max = i; }
+                last = i;
+            } else {
+                if (first >= 0) {
+                    addColumn(xValues, yValues, yMultiplier, first, min, max, last, constructedPath);
+                }
+                column = Math.floor(x);
+                first = min = max = last = i;
+                minY = maxY = y;
+            }
+        }
+        if (first >= 0) {
+            addColumn(xValues, yValues, yMultiplier, first, min, max, last, constructedPath);
+        }
+    }
+
+    private void addColumn(ObservableDoubleArray xValues, ObservableDoubleArray yValues, double yMultiplier,
+            int first, int min, int max, int last, List<LineTo> constructedPath) {
+        // keep the original order of the points within the column
+        int previous = -1;
+        for (int i : new int[] {first, Math.min(min, max), Math.max(min, max), last}) {
+            if (i != previous) {
+                final double x = getDisplayPosition(getXAxis(), xValues.get(i));
+                final double y = getDisplayPosition(getYAxis(), yValues.get(i) * yMultiplier);
+                constructedPath.add(new LineTo(x, y));
+                previous = i;
+            }
+        }
+    }
+
+    /**
+     * Gets the display position of a primitive value. NumberAxis is final and
+     * uses the ValueAxis mapping, so the value does not have to be boxed.
+     */
+    private static <T> double getDisplayPosition(Axis<T> axis, double value) {
+        if (axis instanceof NumberAxis) {
+            return ((NumberAxis)axis).getNumericDisplayPosition(value);
+        }
+        return axis.getDisplayPosition(axis.toRealValue(value));
+    }
+
     /** @inheritDoc */
     @Override void dataBeingRemovedIsAdded(Data item, Series series) {
         if (fadeSymbolTransition != null) {
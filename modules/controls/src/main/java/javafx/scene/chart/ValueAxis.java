@@ -461,6 +461,14 @@ public abstract class ValueAxis<T extends Number> extends Axis<T> {
         return Math.round(offset + ((value.doubleValue() - currentLowerBound.get()) * getScale()));
     }
 
+    /**
+     * Same as getDisplayPosition(toRealValue(value)) for an axis that does
+     * not override either of them, but without boxing the value.
+     */
+    double getNumericDisplayPosition(double value) {
+        return Math.round(offset + ((value - currentLowerBound.get()) * getScale()));
+    }
+
     /**
      * Get the data value for the given display position on this axis. If the axis
      * is a CategoryAxis this will be the nearest value.
@@ -49,9 +49,11 @@ import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.StringProperty;
 import javafx.beans.property.StringPropertyBase;
 import javafx.beans.value.WritableValue;
+import javafx.collections.ArrayChangeListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ListChangeListener.Change;
+import javafx.collections.ObservableDoubleArray;
 import javafx.collections.ObservableList;
 import javafx.css.CssMetaData;
 import javafx.css.Styleable;
@@ -504,6 +506,12 @@ public abstract class XYChart<X,Y> extends Chart {
         requestChartLayout();
     }
 
+    /** Called when the primitive x or y values of a series have changed */
+    private void seriesValuesChanged(Series<X,Y> series) {
+        invalidateRange();
+        requestChartLayout();
+    }
+
     private void dataXValueChanged(Data<X,Y> item) {
         if(item.getCurrentX() != item.getXValue()) invalidateRange();
         dataItemChanged(item);
@@ -1569,6 +1577,52 @@ public abstract class XYChart<X,Y> extends Chart {
         public final void setData(ObservableList<Data<X,Y>> value) { data.setValue(value); }
         public final ObjectProperty<ObservableList<Data<X,Y>>> dataProperty() { return data; }
 
+        private final ArrayChangeListener<ObservableDoubleArray> valuesChangeListener = (array, sizeChanged, from, to) -> {
+            final XYChart<X,Y> chart = getChart();
+            if (chart != null) chart.seriesValuesChanged(Series.this);
+        };
+
+        private ObservableDoubleArray xValues;
+        private ObservableDoubleArray yValues;
+
+        /**
+         * The x values of data points that are stored as primitive doubles
+         * instead of {@link Data} items. Together with {@link #getYValues()}
+         * they are an alternative to the data list for large series on
+         * numeric axes, like time series with millions of points: a point
+         * needs 16 bytes and no nodes, but cannot be styled or animated
+         * individually. The number of points is the smaller of the sizes of
+         * both arrays. Only {@link LineChart} displays these values, after
+         * the data items and without symbols, and includes them in the
+         * ranges of its axes.
+         *
+         * @return the x values of this series, never {@code null}
+         * @since JavaFX 8u40
+         */
+        public final ObservableDoubleArray getXValues() {
+            if (xValues == null) {
+                xValues = FXCollections.observableDoubleArray();
+                xValues.addListener(valuesChangeListener);
+            }
+            return xValues;
+        }
+
+        /**
+         * The y values of data points that are stored as primitive doubles
+         * instead of {@link Data} items.
+         *
+         * @return the y values of this series, never {@code null}
+         * @see #getXValues()
+         * @since JavaFX 8u40
+         */
+        public final ObservableDoubleArray getYValues() {
+            if (yValues == null) {
+                yValues = FXCollections.observableDoubleArray();
+                yValues.addListener(valuesChangeListener);
+            }
+            return yValues;
+        }
+
         // -------------- CONSTRUCTORS ----------------------------------------------
 
         /**
@@ -1631,6 +1685,11 @@ public abstract class XYChart<X,Y> extends Chart {
         int getDataSize() {
             return displayedData.size();
         }
+
+        /** The number of points stored as primitive x and y values */
+        int getValuesSize() {
+            return (xValues == null || yValues == null) ? 0 : Math.min(xValues.size(), yValues.size());
+        }
     }
     
 }
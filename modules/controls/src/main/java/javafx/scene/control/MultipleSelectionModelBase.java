@@ -30,7 +30,6 @@ import com.sun.javafx.collections.NonIterableChange;
 import static javafx.scene.control.SelectionMode.SINGLE;
 
 import java.util.AbstractList;
-import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
@@ -67,7 +66,7 @@ abstract class MultipleSelectionModelBase<T> extends MultipleSelectionModel<T> {
             setSelectedItem(getModelItem(getSelectedIndex()));
         });
         
-        selectedIndices = new BitSet();
+        selectedIndices = new SelectedIndices();
 
         selectedIndicesSeq = createListFromBitSet(selectedIndices);
         
@@ -478,14 +477,16 @@ abstract class MultipleSelectionModelBase<T> extends MultipleSelectionModel<T> {
 
             selectedIndicesSeq.callObservers(new NonIterableChange.SimpleAddChange<Integer>(0, 1, selectedIndicesSeq));
         } else {
-            final List<Integer> actualSelectedRows = new ArrayList<Integer>();
+            // the newly selected rows are collected into a bitset, which
+            // gives them to us sorted (and as ranges) without boxing
+            final BitSet actualSelectedRows = new BitSet();
             
             int lastIndex = -1;
             if (row >= 0 && row < rowCount) {
                 lastIndex = row;
                 if (! selectedIndices.get(row)) {
                     selectedIndices.set(row);
-                    actualSelectedRows.add(row);
+                    actualSelectedRows.set(row);
                 }
             }
 
@@ -496,7 +497,7 @@ abstract class MultipleSelectionModelBase<T> extends MultipleSelectionModel<T> {
                 
                 if (! selectedIndices.get(index)) {
                     selectedIndices.set(index);
-                    actualSelectedRows.add(index);
+                    actualSelectedRows.set(index);
                 }
             }
 
@@ -513,8 +514,7 @@ abstract class MultipleSelectionModelBase<T> extends MultipleSelectionModel<T> {
             // we may have requested to select row 5, and the selectedIndices
             // list may therefore have the following: [1,4,5], meaning row 5
             // is in position 2 of the selectedIndices list
-            Collections.sort(actualSelectedRows);
-            Change<Integer> change = createRangeChange(selectedIndicesSeq, actualSelectedRows);
+            Change<Integer> change = createRangeChange(selectedIndicesSeq, toRanges(actualSelectedRows));
             selectedIndicesSeq.callObservers(change);
         }
     }
@@ -596,6 +596,110 @@ abstract class MultipleSelectionModelBase<T> extends MultipleSelectionModel<T> {
         return change;
     }
 
+    /*
+     * As above, but with the added rows given as sorted, non-overlapping
+     * (from, to) pairs, so that the change can be built in time
+     * proportional to the number of ranges rather than the number of rows.
+     */
+    static Change<Integer> createRangeChange(final ObservableList<Integer> list, final int[] addedRanges) {
+        return new Change<Integer>(list) {
+            private final int[] EMPTY_PERM = new int[0];
+
+            private int pos = -2;
+            private int from;
+            private int to;
+
+            @Override public int getFrom() {
+                checkState();
+                return from;
+            }
+
+            @Override public int getTo() {
+                checkState();
+                return to;
+            }
+
+            @Override public List<Integer> getRemoved() {
+                checkState();
+                return Collections.<Integer>emptyList();
+            }
+
+            @Override protected int[] getPermutation() {
+                checkState();
+                return EMPTY_PERM;
+            }
+
+            @Override public boolean next() {
+                if (pos + 2 >= addedRanges.length) return false;
+
+                pos += 2;
+                from = list.indexOf(addedRanges[pos]);
+                to = from + (addedRanges[pos + 1] - addedRanges[pos]);
+                return true;
+            }
+
+            @Override public void reset() {
+                pos = -2;
+            }
+
+            private void checkState() {
+                if (pos < 0) {
+                    throw new IllegalStateException("Invalid Change state: next() must be called before inspecting the Change.");
+                }
+            }
+        };
+    }
+
+    /*
+     * Sets (or clears) the given rows, which are given as sorted (from, to)
+     * pairs, in the selectedIndices bitset. Returns the rows whose state
+     * actually changed, again as (from, to) pairs, or null if none did.
+     */
+    int[] updateSelectedIndices(final int[] rows, final boolean selected) {
+        if (rows == null || rows.length == 0) return null;
+
+        final BitSet changed = new BitSet();
+        for (int i = 0; i < rows.length; i += 2) {
+            final int from = rows[i];
+            final int to = rows[i + 1];
+            if (from >= to) continue;
+
+            for (int row = from; row < to; ) {
+                final int start = selected ?
+                        selectedIndices.nextClearBit(row) :
+                        selectedIndices.nextSetBit(row);
+                if (start < 0 || start >= to) break;
+
+                int end = selected ?
+                        selectedIndices.nextSetBit(start) :
+                        selectedIndices.nextClearBit(start);
+                if (end < 0 || end > to) end = to;
+
+                changed.set(start, end);
+                row = end;
+            }
+            selectedIndices.set(from, to, selected);
+        }
+
+        return changed.isEmpty() ? null : toRanges(changed);
+    }
+
+    // returns the runs of set bits in the given bitset as (from, to) pairs
+    static int[] toRanges(final BitSet bits) {
+        int count = 0;
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(bits.nextClearBit(i))) {
+            count++;
+        }
+
+        final int[] ranges = new int[count * 2];
+        int pos = 0;
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(ranges[pos - 1])) {
+            ranges[pos++] = i;
+            ranges[pos++] = bits.nextClearBit(i);
+        }
+        return ranges;
+    }
+
     @Override public void selectAll() {
         if (getSelectionMode() == SINGLE) return;
 
@@ -669,13 +773,28 @@ abstract class MultipleSelectionModelBase<T> extends MultipleSelectionModel<T> {
         if (! selectedIndices.isEmpty()) {
             List<Integer> removed = new AbstractList<Integer>() {
                 final BitSet clone = (BitSet) selectedIndices.clone();
+                final int size = clone.cardinality();
+
+                private int pos = -1;
+                private int val = -1;
 
                 @Override public Integer get(int index) {
-                    return clone.nextSetBit(index);
+                    if (index < 0 || index >= size) {
+                        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+                    }
+                    if (pos < 0 || index < pos) {
+                        pos = 0;
+                        val = clone.nextSetBit(0);
+                    }
+                    while (pos < index) {
+                        val = clone.nextSetBit(val + 1);
+                        pos++;
+                    }
+                    return val;
                 }
 
                 @Override public int size() {
-                    return clone.cardinality();
+                    return size;
                 }
             };
 
@@ -750,20 +869,78 @@ abstract class MultipleSelectionModelBase<T> extends MultipleSelectionModel<T> {
 
     private ReadOnlyUnbackedObservableList<Integer> createListFromBitSet(final BitSet bitset) {
         return new ReadOnlyUnbackedObservableList<Integer>() {
+            // The selected indices list is read sequentially (by listeners,
+            // the selectedItems list, and so on), so rather than walking the
+            // bitset from the start on every get(int) call we remember where
+            // the last lookup ended up. Both caches are discarded whenever
+            // the bitset is modified, which is only detectable when it is a
+            // SelectedIndices instance - for plain bitsets (e.g. copies) we
+            // simply don't cache.
+            private int cachedModCount = -1;
+            private int cachedCardinality;
+            private int cursorPos = -1;
+            private int cursorVal = -1;
+
+            private boolean validateCache() {
+                if (! (bitset instanceof SelectedIndices)) return false;
+
+                final int modCount = ((SelectedIndices) bitset).modCount;
+                if (modCount != cachedModCount) {
+                    cachedModCount = modCount;
+                    cachedCardinality = bitset.cardinality();
+                    cursorPos = -1;
+                    cursorVal = -1;
+                }
+                return true;
+            }
+
             @Override public Integer get(int index) {
                 if (index < 0 || index >= getItemCount()) return -1;
 
-                for (int pos = 0, val = bitset.nextSetBit(0);
-                     val >= 0 || pos == index;
-                     pos++, val = bitset.nextSetBit(val+1)) {
-                    if (pos == index) return val;
+                if (! validateCache()) {
+                    for (int pos = 0, val = bitset.nextSetBit(0);
+                         val >= 0 || pos == index;
+                         pos++, val = bitset.nextSetBit(val+1)) {
+                        if (pos == index) return val;
+                    }
+                    return -1;
                 }
 
-                return -1;
+                if (index >= cachedCardinality) return -1;
+
+                int pos = cursorPos;
+                int val = cursorVal;
+                if (pos < 0 || index < pos / 2) {
+                    pos = 0;
+                    val = bitset.nextSetBit(0);
+                }
+                while (pos < index) {
+                    val = bitset.nextSetBit(val + 1);
+                    pos++;
+                }
+                while (pos > index) {
+                    val = bitset.previousSetBit(val - 1);
+                    pos--;
+                }
+
+                cursorPos = pos;
+                cursorVal = val;
+                return val;
             }
 
             @Override public int size() {
-                return bitset.cardinality();
+                return validateCache() ? cachedCardinality : bitset.cardinality();
+            }
+
+            @Override public int indexOf(Object o) {
+                if (! contains(o)) return -1;
+                final int index = ((Number) o).intValue();
+                return index == 0 ? 0 : bitset.get(0, index).cardinality();
+            }
+
+            @Override public int lastIndexOf(Object o) {
+                // the bitset cannot hold duplicates
+                return indexOf(o);
             }
 
             @Override public boolean contains(Object o) {
@@ -779,4 +956,79 @@ abstract class MultipleSelectionModelBase<T> extends MultipleSelectionModel<T> {
             }
         };
     }
+
+    /*
+     * A BitSet that counts its modifications, so that the lists created by
+     * createListFromBitSet can cache their size and lookup position.
+     */
+    static final class SelectedIndices extends BitSet {
+        private static final long serialVersionUID = 1L;
+
+        int modCount = 0;
+
+        @Override public void set(int bitIndex) {
+            modCount++;
+            super.set(bitIndex);
+        }
+
+        @Override public void set(int bitIndex, boolean value) {
+            modCount++;
+            super.set(bitIndex, value);
+        }
+
+        @Override public void set(int fromIndex, int toIndex) {
+            modCount++;
+            super.set(fromIndex, toIndex);
+        }
+
+        @Override public void set(int fromIndex, int toIndex, boolean value) {
+            modCount++;
+            super.set(fromIndex, toIndex, value);
+        }
+
+        @Override public void clear(int bitIndex) {
+            modCount++;
+            super.clear(bitIndex);
+        }
+
+        @Override public void clear(int fromIndex, int toIndex) {
+            modCount++;
+            super.clear(fromIndex, toIndex);
+        }
+
+        @Override public void clear() {
+            modCount++;
+            super.clear();
+        }
+
+        @Override public void flip(int bitIndex) {
+            modCount++;
+            super.flip(bitIndex);
+        }
+
+        @Override public void flip(int fromIndex, int toIndex) {
+            modCount++;
+            super.flip(fromIndex, toIndex);
+        }
+
+        @Override public void and(BitSet set) {
+            modCount++;
+            super.and(set);
+        }
+
+        @Override public void or(BitSet set) {
+            modCount++;
+            super.or(set);
+        }
+
+        @Override public void xor(BitSet set) {
+            modCount++;
+            super.xor(set);
+        }
+
+        @Override public void andNot(BitSet set) {
+            modCount++;
+            super.andNot(set);
+        }
+    }
 }
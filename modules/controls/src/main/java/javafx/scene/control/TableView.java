@@ -1505,8 +1505,10 @@ public class TableView<S> extends Control {
             return;
         }
 
-        final List<TablePosition> prevState = new ArrayList<>(getSelectionModel().getSelectedCells());
-        final int itemCount = prevState.size();
+        // the selection is immutable once captured, so this is O(1)
+        final TableViewSelectionModel<S> selectionModel = getSelectionModel();
+        final SelectedCellsMap.Snapshot prevState = selectionModel instanceof TableViewArrayListSelectionModel ?
+                ((TableViewArrayListSelectionModel<S>) selectionModel).selectedCellsMap.snapshot() : null;
 
         // we set makeAtomic to true here, so that we don't fire intermediate
         // sort events - instead we send a single permutation event at the end
@@ -1531,25 +1533,17 @@ public class TableView<S> extends Control {
             // selection model that the items list has 'permutated' to a new ordering
 
             // FIXME we should support alternative selection model implementations!
-            if (getSelectionModel() instanceof TableViewArrayListSelectionModel) {
-                final TableViewArrayListSelectionModel<S> sm = (TableViewArrayListSelectionModel<S>) getSelectionModel();
-                final ObservableList<TablePosition<S,?>> newState = (ObservableList<TablePosition<S,?>>)(Object)sm.getSelectedCells();
-
-                List<TablePosition<S, ?>> removed = new ArrayList<>();
-                for (int i = 0; i < itemCount; i++) {
-                    TablePosition<S, ?> prevItem = prevState.get(i);
-                    if (!newState.contains(prevItem)) {
-                        removed.add(prevItem);
-                    }
-                }
-
-                if (!removed.isEmpty()) {
-                    // the sort operation effectively permutates the selectedCells list,
-                    // but we cannot fire a permutation event as we are talking about
-                    // TablePosition's changing (which may reside in the same list
-                    // position before and after the sort). Therefore, we need to fire
-                    // a single add/remove event to cover the added and removed positions.
-                    ListChangeListener.Change<TablePosition<S, ?>> c = new NonIterableChange.GenericAddRemoveChange<>(0, itemCount, removed, newState);
+            if (prevState != null && getSelectionModel() == selectionModel) {
+                final TableViewArrayListSelectionModel<S> sm = (TableViewArrayListSelectionModel<S>) selectionModel;
+
+                // the sort operation effectively permutates the selectedCells list,
+                // but we cannot fire a permutation event as we are talking about
+                // TablePosition's changing (which may reside in the same list
+                // position before and after the sort). Therefore, we need to fire
+                // a single add/remove event to cover the added and removed positions.
+                // The change is null if no selected position moved.
+                ListChangeListener.Change<TablePosition<S, ?>> c = sm.selectedCellsMap.createPermutationChange(prevState);
+                if (c != null) {
                     sm.handleSelectedCellsListChangeEvent(c);
                 }
             }
@@ -2031,6 +2025,10 @@ public class TableView<S> extends Control {
                 @Override public boolean isCellSelectionEnabled() {
                     return TableViewArrayListSelectionModel.this.isCellSelectionEnabled();
                 }
+
+                @Override protected TablePosition<S,?> createPosition(int row, TableColumnBase<?,?> column) {
+                    return new TablePosition<>(tableView, row, (TableColumn<S,?>) column);
+                }
             };
 
             selectedItems = new ReadOnlyUnbackedObservableList<S>() {
@@ -2051,6 +2049,10 @@ public class TableView<S> extends Control {
                 @Override public int size() {
                     return selectedCellsMap.size();
                 }
+
+                @Override public int indexOf(Object o) {
+                    return o instanceof TablePosition ? selectedCellsMap.indexOf((TablePosition<S,?>) o) : -1;
+                }
             };
 
 
@@ -2244,52 +2246,27 @@ public class TableView<S> extends Control {
                 } else if (c.wasPermutated()) {
                     // General approach:
                     //   -- detected a sort has happened
-                    //   -- Create a permutation lookup map (1)
-                    //   -- dump all the selected indices into a list (2)
-                    //   -- create a list containing the new indices (3)
-                    //   -- for each previously-selected index (4)
-                    //     -- if index is in the permutation lookup map
-                    //       -- add the new index to the new indices list
-                    //   -- Perform batch selection (5)
+                    //   -- move each selected row to its new location (1).
+                    //      This works on the runs of selected rows rather
+                    //      than on each selected cell, so a selection that
+                    //      spans the whole permutation (e.g. select all) is
+                    //      not expanded at all
+                    //   -- Perform batch selection (2)
 
                     startAtomic();
 
                     final int oldSelectedIndex = getSelectedIndex();
 
                     // (1)
-                    int length = c.getTo() - c.getFrom();
-                    HashMap<Integer, Integer> pMap = new HashMap<> (length);
-                    for (int i = c.getFrom(); i < c.getTo(); i++) {
-                        pMap.put(i, c.getPermutation(i));
-                    }
-
-                    // (2)
-                    List<TablePosition<S,?>> selectedIndices = new ArrayList<>((ObservableList<TablePosition<S,?>>)(Object)getSelectedCells());
-
-                    // (3)
-                    List<TablePosition<S,?>> newIndices = new ArrayList<>(selectedIndices.size());
-
-                    // (4)
-                    boolean selectionIndicesChanged = false;
-                    for (int i = 0; i < selectedIndices.size(); i++) {
-                        final TablePosition<S,?> oldIndex = selectedIndices.get(i);
-                        final int oldRow = oldIndex.getRow();
-
-                        if (pMap.containsKey(oldRow)) {
-                            int newIndex = pMap.get(oldRow);
+                    final SelectedCellsMap.Snapshot newSelection =
+                            selectedCellsMap.permute(c.getFrom(), c.getTo(), c::getPermutation);
 
-                            selectionIndicesChanged = selectionIndicesChanged || newIndex != oldRow;
-
-                            newIndices.add(new TablePosition<>(oldIndex.getTableView(), newIndex, oldIndex.getTableColumn()));
-                        }
-                    }
-
-                    if (selectionIndicesChanged) {
-                        // (5)
+                    if (newSelection != null) {
+                        // (2)
                         quietClearSelection();
                         stopAtomic();
 
-                        selectedCellsMap.setAll(newIndices);
+                        selectedCellsMap.setAll(newSelection);
 
                         if (oldSelectedIndex >= 0 && oldSelectedIndex < itemCount) {
                             int newIndex = c.getPermutation(oldSelectedIndex);
@@ -2555,36 +2532,31 @@ public class TableView<S> extends Control {
         @Override public void selectAll() {
             if (getSelectionMode() == SelectionMode.SINGLE) return;
 
+            // the selection is stored as a single run of rows, so we only
+            // create the positions for one row here
+            final int itemCount = getItemCount();
             if (isCellSelectionEnabled()) {
-                List<TablePosition<S,?>> indices = new ArrayList<>();
-                TableColumn<S,?> column;
+                List<TablePosition<S,?>> rowCells = new ArrayList<>();
                 TablePosition<S,?> tp = null;
-                for (int col = 0; col < getTableView().getVisibleLeafColumns().size(); col++) {
-                    column = getTableView().getVisibleLeafColumns().get(col);
-                    for (int row = 0; row < getItemCount(); row++) {
-                        tp = new TablePosition<>(getTableView(), row, column);
-                        indices.add(tp);
-                    }
+                for (TableColumn<S,?> column : getTableView().getVisibleLeafColumns()) {
+                    tp = new TablePosition<>(getTableView(), itemCount - 1, column);
+                    rowCells.add(tp);
                 }
-                selectedCellsMap.setAll(indices);
+                selectedCellsMap.setAll(0, itemCount, rowCells);
                 
-                if (tp != null) {
+                if (tp != null && itemCount > 0) {
                     select(tp.getRow(), tp.getTableColumn());
                     focus(tp.getRow(), tp.getTableColumn());
                 }
             } else {
-                List<TablePosition<S,?>> indices = new ArrayList<>();
-                for (int i = 0; i < getItemCount(); i++) {
-                    indices.add(new TablePosition<>(getTableView(), i, null));
-                }
-                selectedCellsMap.setAll(indices);
+                TablePosition<S,?> tp = new TablePosition<>(getTableView(), itemCount - 1, null);
+                selectedCellsMap.setAll(0, itemCount, Collections.singletonList(tp));
                 
                 int focusedIndex = getFocusedIndex();
                 if (focusedIndex == -1) {
-                    final int itemCount = getItemCount();
                     if (itemCount > 0) {
                         select(itemCount - 1);
-                        focus(indices.get(indices.size() - 1));
+                        focus(tp);
                     }
                 } else {
                     select(focusedIndex);
@@ -2614,30 +2586,28 @@ public class TableView<S> extends Control {
             final int _minRow = Math.min(minRow, maxRow);
             final int _maxRow = Math.max(minRow, maxRow);
 
-            List<TablePosition<S,?>> cellsToSelect = new ArrayList<>();
-
-            for (int _row = _minRow; _row <= _maxRow; _row++) {
-                // begin copy/paste of select(int, column) method (with some
-                // slight modifications)
-                if (_row < 0 || _row >= itemCount) continue;
+            // the same columns are selected in every row of the range, so we
+            // only create the positions for one row and select them as a
+            // single run of rows
+            final int fromRow = Math.max(0, _minRow);
+            final int toRow = Math.min(itemCount, _maxRow + 1);
+            List<TablePosition<S,?>> rowCells = new ArrayList<>();
 
-                if (! isCellSelectionEnabled) {
-                    cellsToSelect.add(new TablePosition<>(tableView, _row, (TableColumn<S,?>)minColumn));
-                } else {
-                    for (int _col = _minColumnIndex; _col <= _maxColumnIndex; _col++) {
-                        final TableColumn<S, ?> column = tableView.getVisibleLeafColumn(_col);
+            if (! isCellSelectionEnabled) {
+                rowCells.add(new TablePosition<>(tableView, fromRow, (TableColumn<S,?>)minColumn));
+            } else {
+                for (int _col = _minColumnIndex; _col <= _maxColumnIndex; _col++) {
+                    final TableColumn<S, ?> column = tableView.getVisibleLeafColumn(_col);
 
-                        // if I'm in cell selection mode but the column is null, I don't want
-                        // to select the whole row instead...
-                        if (column == null && isCellSelectionEnabled) continue;
+                    // if I'm in cell selection mode but the column is null, I don't want
+                    // to select the whole row instead...
+                    if (column == null && isCellSelectionEnabled) continue;
 
-                        cellsToSelect.add(new TablePosition<>(tableView, _row, column));
-                        // end copy/paste
-                    }
+                    rowCells.add(new TablePosition<>(tableView, fromRow, column));
                 }
             }
 
-            selectedCellsMap.addAll(cellsToSelect);
+            selectedCellsMap.addAll(fromRow, toRow, rowCells);
             stopAtomic();
 
             // fire off events.
@@ -2651,7 +2621,7 @@ public class TableView<S> extends Control {
             if (startChangeIndex > -1 && endChangeIndex > -1) {
                 final int startIndex = Math.min(startChangeIndex, endChangeIndex);
                 final int endIndex = Math.max(startChangeIndex, endChangeIndex);
-                ListChangeListener.Change c = new NonIterableChange.SimpleAddChange<>(startIndex, endIndex + 1, selectedCellsSeq);
+                ListChangeListener.Change<TablePosition<S,?>> c = selectedCellsMap.createAddChange(startIndex, endIndex + 1);
                 handleSelectedCellsListChangeEvent(c);
             }
         }
@@ -2669,18 +2639,10 @@ public class TableView<S> extends Control {
             final boolean csMode = isCellSelectionEnabled();
             final int row = tp.getRow();
 
-            for (TablePosition pos : getSelectedCells()) {
-                if (! csMode) {
-                    if (pos.getRow() == row) {
-                        selectedCellsMap.remove(pos);
-                        break;
-                    }
-                } else {
-                    if (pos.equals(tp)) {
-                        selectedCellsMap.remove(tp);
-                        break;
-                    }
-                }
+            if (! csMode) {
+                selectedCellsMap.removeFirstCell(row);
+            } else if (selectedCellsMap.indexOf(tp) >= 0) {
+                selectedCellsMap.remove(tp);
             }
 
             if (isEmpty() && ! isAtomic()) {
@@ -2942,33 +2904,47 @@ public class TableView<S> extends Control {
             final List<Integer> newlySelectedRows = new ArrayList<>();
             final List<Integer> newlyUnselectedRows = new ArrayList<>();
 
-            while (c.next()) {
-                if (c.wasRemoved()) {
-                    List<? extends TablePosition<S,?>> removed = c.getRemoved();
-                    for (int i = 0; i < removed.size(); i++) {
-                        final TablePosition<S,?> tp = removed.get(i);
-                        final int row = tp.getRow();
-
-                        if (selectedIndices.get(row)) {
-                            selectedIndices.clear(row);
-                            newlyUnselectedRows.add(row);
+            // Changes fired by the SelectedCellsMap report their rows as
+            // ranges, so we can update the bitset (and build the
+            // selectedIndices change) without reading every cell.
+            final SelectedCellsMap.CellsChange<?> cellsChange =
+                    c instanceof SelectedCellsMap.CellsChange ? (SelectedCellsMap.CellsChange<?>) c : null;
+            boolean rowsUnselected = false;
+            int[] newlySelectedRowRanges = null;
+
+            if (cellsChange != null) {
+                rowsUnselected = updateSelectedIndices(cellsChange.getRemovedRows(), false) != null;
+                newlySelectedRowRanges = updateSelectedIndices(cellsChange.getAddedRows(), true);
+            } else {
+                while (c.next()) {
+                    if (c.wasRemoved()) {
+                        List<? extends TablePosition<S,?>> removed = c.getRemoved();
+                        for (int i = 0; i < removed.size(); i++) {
+                            final TablePosition<S,?> tp = removed.get(i);
+                            final int row = tp.getRow();
+
+                            if (selectedIndices.get(row)) {
+                                selectedIndices.clear(row);
+                                newlyUnselectedRows.add(row);
+                            }
                         }
                     }
-                }
-                if (c.wasAdded()) {
-                    List<? extends TablePosition<S,?>> added = c.getAddedSubList();
-                    for (int i = 0; i < added.size(); i++) {
-                        final TablePosition<S,?> tp = added.get(i);
-                        final int row = tp.getRow();
-
-                        if (! selectedIndices.get(row)) {
-                            selectedIndices.set(row);
-                            newlySelectedRows.add(row);
+                    if (c.wasAdded()) {
+                        List<? extends TablePosition<S,?>> added = c.getAddedSubList();
+                        for (int i = 0; i < added.size(); i++) {
+                            final TablePosition<S,?> tp = added.get(i);
+                            final int row = tp.getRow();
+
+                            if (! selectedIndices.get(row)) {
+                                selectedIndices.set(row);
+                                newlySelectedRows.add(row);
+                            }
                         }
                     }
                 }
+                c.reset();
+                rowsUnselected = ! newlyUnselectedRows.isEmpty();
             }
-            c.reset();
 
             if (isAtomic()) {
                 return;
@@ -2994,23 +2970,22 @@ public class TableView<S> extends Control {
                 final int addedSize = c.getAddedSize();
                 if (removedSize != addedSize) {
                     fireChangeEvent = true;
+                } else if (cellsChange != null && (cellsChange.isRowPermutation() ||
+                        Arrays.equals(cellsChange.getRemovedRows(), cellsChange.getAddedRows()))) {
+                    // a sort moves the same items to new rows, and if the
+                    // rows are unchanged then so are the items
+                    fireChangeEvent = false;
                 } else {
+                    final Set<S> addedItems = new HashSet<>();
+                    for (TablePosition<S, ?> added : c.getAddedSubList()) {
+                        addedItems.add(added.getItem());
+                    }
+
                     for (int i = 0; i < removedSize; i++) {
                         TablePosition<S, ?> removed = c.getRemoved().get(i);
                         S removedItem = removed.getItem();
 
-                        boolean matchFound = false;
-                        for (int j = 0; j < addedSize; j++) {
-                            TablePosition<S, ?> added = c.getAddedSubList().get(j);
-                            S addedItem = added.getItem();
-
-                            if (removedItem.equals(addedItem)) {
-                                matchFound = true;
-                                break;
-                            }
-                        }
-
-                        if (!matchFound) {
+                        if (removedItem == null || ! addedItems.contains(removedItem)) {
                             fireChangeEvent = true;
                             break outer;
                         }
@@ -3045,7 +3020,9 @@ public class TableView<S> extends Control {
             final ReadOnlyUnbackedObservableList<Integer> selectedIndicesSeq =
                     (ReadOnlyUnbackedObservableList<Integer>)getSelectedIndices();
 
-            if (! newlySelectedRows.isEmpty() && newlyUnselectedRows.isEmpty()) {
+            if (newlySelectedRowRanges != null && ! rowsUnselected) {
+                selectedIndicesSeq.callObservers(createRangeChange(selectedIndicesSeq, newlySelectedRowRanges));
+            } else if (! newlySelectedRows.isEmpty() && ! rowsUnselected) {
                 // need to come up with ranges based on the actualSelectedRows, and
                 // then fire the appropriate number of changes. We also need to
                 // translate from a desired row to select to where that row is
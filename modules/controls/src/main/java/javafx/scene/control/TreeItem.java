@@ -25,6 +25,7 @@
 
 package javafx.scene.control;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -43,6 +44,7 @@ import javafx.event.EventType;
 import javafx.scene.Node;
 
 import com.sun.javafx.event.EventHandlerManager;
+import com.sun.javafx.scene.control.FenwickTree;
 import java.util.Comparator;
 import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.beans.property.ReadOnlyBooleanWrapper;
@@ -353,6 +355,13 @@ public class TreeItem<T> implements EventTarget { //, Comparable<TreeItem<T>> {
         new EventHandler<TreeModificationEvent<Object>>() {
             @Override public void handle(TreeModificationEvent<Object> event) {
                 expandedDescendentCountDirty = true;
+
+                // the event bubbles up from the TreeItem that changed, so the
+                // count of exactly one of our children changed with it
+                TreeItem<?> source = event.getTreeItem();
+                if (source != null && source != TreeItem.this) {
+                    childCountChanged(source);
+                }
             }
     };
 
@@ -391,6 +400,22 @@ public class TreeItem<T> implements EventTarget { //, Comparable<TreeItem<T>> {
     // when all children are collapsed.
     int previousExpandedDescendentCount = 1;
     
+    // An index over the number of rows each child contributes to the expanded
+    // descendent count, allowing TreeUtil to map between rows and TreeItems in
+    // O(log n) time. It is rebuilt lazily when the children list changes, and
+    // otherwise only the children listed in changedChildren are updated.
+    private FenwickTree childIndex;
+    private boolean childIndexDirty = true;
+    private List<TreeItem<?>> changedChildren;
+
+    // The position of this TreeItem within its parents children list when
+    // the parents childIndex was last built. This is only a hint, and is
+    // always verified before it is used.
+    private int indexInParent = -1;
+
+    // true when this TreeItem is in its parents changedChildren list
+    private boolean countChangePending = false;
+
     Comparator<TreeItem<T>> lastComparator = null;
     TreeSortMode lastSortMode = null;
     
@@ -409,6 +434,7 @@ public class TreeItem<T> implements EventTarget { //, Comparable<TreeItem<T>> {
     // called whenever the contents of the children sequence changes
     private ListChangeListener<TreeItem<T>> childrenListener = c -> {
         expandedDescendentCountDirty = true;
+        childIndexDirty = true;
         while (c.next()) {
             updateChildren(c);
         }
@@ -889,14 +915,116 @@ public class TreeItem<T> implements EventTarget { //, Comparable<TreeItem<T>> {
         previousExpandedDescendentCount = expandedDescendentCount;
         expandedDescendentCount = 1;
 
-        ignoreSortUpdate = true;
         if (!isLeaf() && isExpanded()) {
-            for (TreeItem<T> child : getChildren()) {
-                if (child == null) continue;
-                expandedDescendentCount += child.isExpanded() ? child.getExpandedDescendentCount(reset) : 1;
+            expandedDescendentCount += getChildIndex(reset, true).total();
+        }
+    }
+
+    /*
+     * Returns the index of the child whose rows contain the given row offset,
+     * where offset 0 is the row immediately following this TreeItem, or -1 if
+     * the offset is out of range. This TreeItem is expected to be expanded.
+     */
+    int getChildIndexForOffset(int offset) {
+        return getChildIndex(false, false).find(offset);
+    }
+
+    /*
+     * Returns the number of rows (in an expanded TreeItem) taken up by the
+     * children before the child at the given index.
+     */
+    int getChildOffset(int index) {
+        return getChildIndex(false, false).prefixSum(index);
+    }
+
+    // Returns the position of the given child in the children list, using the
+    // hint recorded when the child index was built where possible.
+    int indexOfChild(TreeItem<T> child) {
+        if (child == null || children == null) return -1;
+
+        FenwickTree index = getChildIndex(false, false);
+        int i = child.indexInParent;
+        if (i >= 0 && i < index.size() && i < children.size() && children.get(i) == child) {
+            return i;
+        }
+
+        // the hint is stale, which may happen when a child was added to more
+        // than one TreeItem, so fall back to a search
+        return children.indexOf(child);
+    }
+
+    // When loadChildren is false the index is built from the children list
+    // as it currently stands, rather than by calling getChildren(). This is
+    // what TreeUtil wants, as calling getChildren() on a TreeItem that lazily
+    // populates its children whilst it is firing events for the children it
+    // is adding is not safe (see RT-37502).
+    private FenwickTree getChildIndex(boolean reset, boolean loadChildren) {
+        ignoreSortUpdate = true;
+        try {
+            List<TreeItem<T>> list = loadChildren ? getChildren() : children;
+            if (list == null) list = Collections.emptyList();
+
+            if (reset || childIndexDirty || childIndex == null) {
+                rebuildChildIndex(list, reset);
+            } else if (changedChildren != null && ! changedChildren.isEmpty()) {
+                updateChildIndex(list);
+            }
+        } finally {
+            ignoreSortUpdate = false;
+        }
+        return childIndex;
+    }
+
+    private void rebuildChildIndex(List<TreeItem<T>> children, boolean reset) {
+        final int size = children.size();
+        final int[] counts = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            TreeItem<T> child = children.get(i);
+            if (child == null) continue;
+            child.indexInParent = i;
+            child.countChangePending = false;
+            counts[i] = child.isExpanded() ? child.getExpandedDescendentCount(reset) : 1;
+        }
+
+        childIndex = new FenwickTree(counts);
+        childIndexDirty = false;
+        if (changedChildren != null) {
+            changedChildren.clear();
+        }
+    }
+
+    private void updateChildIndex(List<TreeItem<T>> children) {
+        for (int n = 0; n < changedChildren.size(); n++) {
+            @SuppressWarnings("unchecked")
+            TreeItem<T> child = (TreeItem<T>) changedChildren.get(n);
+            child.countChangePending = false;
+
+            int i = child.indexInParent;
+            if (i < 0 || i >= childIndex.size() || i >= children.size() || children.get(i) != child) {
+                rebuildChildIndex(children, false);
+                return;
             }
+            childIndex.set(i, child.isExpanded() ? child.getExpandedDescendentCount(false) : 1);
+        }
+        changedChildren.clear();
+    }
+
+    // Called when a modification event bubbles up from the given descendant
+    private void childCountChanged(TreeItem<?> descendant) {
+        if (childIndexDirty) return;
+
+        TreeItem<?> child = descendant;
+        while (child != null && child.getParent() != this) {
+            child = child.getParent();
+        }
+        if (child == null || child.countChangePending) return;
+
+        if (changedChildren == null) {
+            changedChildren = new ArrayList<>();
         }
-        ignoreSortUpdate = false;
+        child.countChangePending = true;
+        changedChildren.add(child);
     }
 
     private void updateChildren(ListChangeListener.Change<? extends TreeItem<T>> c) {
@@ -48,7 +48,6 @@ import javafx.event.WeakEventHandler;
 
 import com.sun.javafx.scene.control.skin.TreeTableViewSkin;
 
-import java.lang.ref.SoftReference;
 import java.lang.ref.WeakReference;
 import java.util.*;
 
@@ -594,10 +593,6 @@ public class TreeTableView<S> extends Control {
     // be recalculated.
     private boolean expandedItemCountDirty = true;
 
-    // Used in the getTreeItem(int row) method to act as a cache.
-    // See RT-26716 for the justification and performance gains.
-    private Map<Integer, SoftReference<TreeItem<S>>> treeItemCacheMap = new HashMap<>();
-
     // this is the only publicly writable list for columns. This represents the
     // columns as they are given initially by the developer.
     private final ObservableList<TreeTableColumn<S,?>> columns = FXCollections.observableArrayList();
@@ -1551,7 +1546,7 @@ public class TreeTableView<S> extends Control {
      *      be found.
      */
     public int getRow(TreeItem<S> item) {
-        return TreeUtil.getRow(item, getRoot(), expandedItemCountDirty, isShowRoot());
+        return TreeUtil.getRow(item, getRoot(), isShowRoot());
     }
 
     /**
@@ -1568,19 +1563,9 @@ public class TreeTableView<S> extends Control {
 
         if (expandedItemCountDirty) {
             updateExpandedItemCount(getRoot());
-        } else {
-            if (treeItemCacheMap.containsKey(_row)) {
-                SoftReference<TreeItem<S>> treeItemRef = treeItemCacheMap.get(_row);
-                TreeItem<S> treeItem = treeItemRef.get();
-                if (treeItem != null) {
-                    return treeItem;
-                }
-            }
         }
 
-        TreeItem<S> treeItem = TreeUtil.getItem(getRoot(), _row, expandedItemCountDirty);
-        treeItemCacheMap.put(_row, new SoftReference<>(treeItem));
-        return treeItem;
+        return TreeUtil.getItem(getRoot(), _row);
     }
 
     /**
@@ -1818,14 +1803,7 @@ public class TreeTableView<S> extends Control {
     }
     
     private void updateExpandedItemCount(TreeItem<S> treeItem) {
-        setExpandedItemCount(TreeUtil.updateExpandedItemCount(treeItem, expandedItemCountDirty, isShowRoot()));
-
-        if (expandedItemCountDirty) {
-            // this is a very inefficient thing to do, but for now having a cache
-            // is better than nothing at all...
-            treeItemCacheMap.clear();
-        }
-
+        setExpandedItemCount(TreeUtil.updateExpandedItemCount(treeItem, isShowRoot()));
         expandedItemCountDirty = false;
     }
 
@@ -2284,6 +2262,10 @@ public class TreeTableView<S> extends Control {
                 @Override public boolean isCellSelectionEnabled() {
                     return TreeTableViewArrayListSelectionModel.this.isCellSelectionEnabled();
                 }
+
+                @Override protected TreeTablePosition<S,?> createPosition(int row, TableColumnBase<?,?> column) {
+                    return new TreeTablePosition<>(treeTableView, row, (TreeTableColumn<S,?>) column);
+                }
             };
 
             selectedItems = new ReadOnlyUnbackedObservableList<TreeItem<S>>() {
@@ -2304,6 +2286,10 @@ public class TreeTableView<S> extends Control {
                 @Override public int size() {
                     return selectedCellsMap.size();
                 }
+
+                @Override public int indexOf(Object o) {
+                    return o instanceof TreeTablePosition ? selectedCellsMap.indexOf((TreeTablePosition<S,?>) o) : -1;
+                }
             };
 
 
@@ -2493,22 +2479,21 @@ public class TreeTableView<S> extends Control {
                         // from within shiftSelection, so this is ok.
                         startAtomic();
 
+                        // we don't create a position for the old row, as
+                        // resolving its TreeItem here may re-enter this
+                        // listener (e.g. by sorting the expanded children)
                         final int clearIndex = param.getClearIndex();
-                        TreeTablePosition<S,?> oldTP = null;
-                        if (clearIndex > -1) {
-                            for (int i = 0; i < selectedCellsMap.size(); i++) {
-                                TreeTablePosition<S,?> tp = selectedCellsMap.get(i);
-                                if (tp.getRow() == clearIndex) {
-                                    oldTP = tp;
-                                    selectedCellsMap.remove(tp);
-                                    break;
-                                }
-                            }
+                        boolean wasSelected = false;
+                        TreeTableColumn<S,?> oldColumn = null;
+                        if (clearIndex > -1 && selectedCellsMap.isSelected(clearIndex, -1)) {
+                            wasSelected = true;
+                            oldColumn = (TreeTableColumn<S,?>) selectedCellsMap.getFirstColumn(clearIndex);
+                            selectedCellsMap.removeFirstCell(clearIndex);
                         }
 
-                        if (oldTP != null && param.isSelected()) {
+                        if (wasSelected && param.isSelected()) {
                             TreeTablePosition<S,?> newTP = new TreeTablePosition<>(
-                                    treeTableView, param.getSetIndex(), oldTP.getTableColumn());
+                                    treeTableView, param.getSetIndex(), oldColumn);
 
                             selectedCellsMap.add(newTP);
                         }
@@ -2807,36 +2792,32 @@ public class TreeTableView<S> extends Control {
         @Override public void selectAll() {
             if (getSelectionMode() == SelectionMode.SINGLE) return;
 
+            // the selection is stored as a single run of rows, so we only
+            // create the positions for one row here
+            final int rowCount = getRowCount();
             if (isCellSelectionEnabled()) {
-                List<TreeTablePosition<S,?>> indices = new ArrayList<>();
-                TreeTableColumn<S,?> column;
+                List<TreeTablePosition<S,?>> rowCells = new ArrayList<>();
                 TreeTablePosition<S,?> tp = null;
-                for (int col = 0; col < getTreeTableView().getVisibleLeafColumns().size(); col++) {
-                    column = getTreeTableView().getVisibleLeafColumns().get(col);
-                    for (int row = 0; row < getRowCount(); row++) {
-                        tp = new TreeTablePosition<>(getTreeTableView(), row, column);
-                        indices.add(tp);
-                    }
+                for (TreeTableColumn<S,?> column : getTreeTableView().getVisibleLeafColumns()) {
+                    tp = new TreeTablePosition<>(getTreeTableView(), rowCount - 1, column);
+                    rowCells.add(tp);
                 }
-                selectedCellsMap.setAll(indices);
+                selectedCellsMap.setAll(0, rowCount, rowCells);
                 
-                if (tp != null) {
+                if (tp != null && rowCount > 0) {
                     select(tp.getRow(), tp.getTableColumn());
                     focus(tp.getRow(), tp.getTableColumn());
                 }
             } else {
-                List<TreeTablePosition<S,?>> indices = new ArrayList<>();
-                for (int i = 0; i < getRowCount(); i++) {
-                    indices.add(new TreeTablePosition<>(getTreeTableView(), i, null));
-                }
-                selectedCellsMap.setAll(indices);
+                TreeTablePosition<S,?> tp = new TreeTablePosition<>(getTreeTableView(), rowCount - 1, null);
+                selectedCellsMap.setAll(0, rowCount, Collections.singletonList(tp));
                 
                 int focusedIndex = getFocusedIndex();
                 if (focusedIndex == -1) {
                     final int itemCount = getItemCount();
                     if (itemCount > 0) {
                         select(itemCount - 1);
-                        focus(indices.get(indices.size() - 1));
+                        focus(tp);
                     }
                 } else {
                     select(focusedIndex);
@@ -2866,30 +2847,28 @@ public class TreeTableView<S> extends Control {
             final int _minRow = Math.min(minRow, maxRow);
             final int _maxRow = Math.max(minRow, maxRow);
 
-            List<TreeTablePosition<S,?>> cellsToSelect = new ArrayList<>();
+            // the same columns are selected in every row of the range, so we
+            // only create the positions for one row and select them as a
+            // single run of rows
+            final int fromRow = Math.max(0, _minRow);
+            final int toRow = Math.min(itemCount, _maxRow + 1);
+            List<TreeTablePosition<S,?>> rowCells = new ArrayList<>();
 
-            for (int _row = _minRow; _row <= _maxRow; _row++) {
-                // begin copy/paste of select(int, column) method (with some
-                // slight modifications)
-                if (_row < 0 || _row >= itemCount) continue;
-
-                if (! isCellSelectionEnabled) {
-                    cellsToSelect.add(new TreeTablePosition<>(treeTableView, _row, (TreeTableColumn<S,?>)minColumn));
-                } else {
-                    for (int _col = _minColumnIndex; _col <= _maxColumnIndex; _col++) {
-                        final TreeTableColumn<S, ?> column = treeTableView.getVisibleLeafColumn(_col);
+            if (! isCellSelectionEnabled) {
+                rowCells.add(new TreeTablePosition<>(treeTableView, fromRow, (TreeTableColumn<S,?>)minColumn));
+            } else {
+                for (int _col = _minColumnIndex; _col <= _maxColumnIndex; _col++) {
+                    final TreeTableColumn<S, ?> column = treeTableView.getVisibleLeafColumn(_col);
 
-                        // if I'm in cell selection mode but the column is null, I don't want
-                        // to select the whole row instead...
-                        if (column == null && isCellSelectionEnabled) continue;
+                    // if I'm in cell selection mode but the column is null, I don't want
+                    // to select the whole row instead...
+                    if (column == null && isCellSelectionEnabled) continue;
 
-                        cellsToSelect.add(new TreeTablePosition<>(treeTableView, _row, column));
-                        // end copy/paste
-                    }
+                    rowCells.add(new TreeTablePosition<>(treeTableView, fromRow, column));
                 }
             }
 
-            selectedCellsMap.addAll(cellsToSelect);
+            selectedCellsMap.addAll(fromRow, toRow, rowCells);
             stopAtomic();
 
             // fire off events
@@ -2903,7 +2882,7 @@ public class TreeTableView<S> extends Control {
             if (startChangeIndex > -1 && endChangeIndex > -1) {
                 final int startIndex = Math.min(startChangeIndex, endChangeIndex);
                 final int endIndex = Math.max(startChangeIndex, endChangeIndex);
-                ListChangeListener.Change c = new NonIterableChange.SimpleAddChange<>(startIndex, endIndex + 1, selectedCellsSeq);
+                ListChangeListener.Change<TreeTablePosition<S,?>> c = selectedCellsMap.createAddChange(startIndex, endIndex + 1);
                 handleSelectedCellsListChangeEvent(c);
             }
         }
@@ -2921,18 +2900,10 @@ public class TreeTableView<S> extends Control {
             final boolean csMode = isCellSelectionEnabled();
             final int row = tp.getRow();
 
-            for (TreeTablePosition<S,?> pos : getSelectedCells()) {
-                if (! csMode) {
-                    if (pos.getRow() == row) {
-                        selectedCellsMap.remove(pos);
-                        break;
-                    }
-                } else {
-                    if (pos.equals(tp)) {
-                        selectedCellsMap.remove(tp);
-                        break;
-                    }
-                }
+            if (! csMode) {
+                selectedCellsMap.removeFirstCell(row);
+            } else if (selectedCellsMap.indexOf(tp) >= 0) {
+                selectedCellsMap.remove(tp);
             }
 
             if (isEmpty() && ! isAtomic()) {
@@ -3178,33 +3149,46 @@ public class TreeTableView<S> extends Control {
             final List<Integer> newlySelectedRows = new ArrayList<>();
             final List<Integer> newlyUnselectedRows = new ArrayList<>();
 
-            while (c.next()) {
-                if (c.wasRemoved()) {
-                    List<? extends TreeTablePosition<S,?>> removed = c.getRemoved();
-                    for (int i = 0; i < removed.size(); i++) {
-                        final TreeTablePosition<S,?> tp = removed.get(i);
-                        final int row = tp.getRow();
-
-                        if (selectedIndices.get(row)) {
-                            selectedIndices.clear(row);
-                            newlyUnselectedRows.add(row);
+            // Changes fired by the SelectedCellsMap report their rows as
+            // ranges, so we can update the bitset (and build the
+            // selectedIndices change) without reading every cell.
+            boolean rowsUnselected = false;
+            int[] newlySelectedRowRanges = null;
+
+            if (c instanceof SelectedCellsMap.CellsChange) {
+                final SelectedCellsMap.CellsChange<?> cellsChange = (SelectedCellsMap.CellsChange<?>) c;
+                rowsUnselected = updateSelectedIndices(cellsChange.getRemovedRows(), false) != null;
+                newlySelectedRowRanges = updateSelectedIndices(cellsChange.getAddedRows(), true);
+            } else {
+                while (c.next()) {
+                    if (c.wasRemoved()) {
+                        List<? extends TreeTablePosition<S,?>> removed = c.getRemoved();
+                        for (int i = 0; i < removed.size(); i++) {
+                            final TreeTablePosition<S,?> tp = removed.get(i);
+                            final int row = tp.getRow();
+
+                            if (selectedIndices.get(row)) {
+                                selectedIndices.clear(row);
+                                newlyUnselectedRows.add(row);
+                            }
                         }
                     }
-                }
-                if (c.wasAdded()) {
-                    List<? extends TreeTablePosition<S,?>> added = c.getAddedSubList();
-                    for (int i = 0; i < added.size(); i++) {
-                        final TreeTablePosition<S,?> tp = added.get(i);
-                        final int row = tp.getRow();
-
-                        if (! selectedIndices.get(row)) {
-                            selectedIndices.set(row);
-                            newlySelectedRows.add(row);
+                    if (c.wasAdded()) {
+                        List<? extends TreeTablePosition<S,?>> added = c.getAddedSubList();
+                        for (int i = 0; i < added.size(); i++) {
+                            final TreeTablePosition<S,?> tp = added.get(i);
+                            final int row = tp.getRow();
+
+                            if (! selectedIndices.get(row)) {
+                                selectedIndices.set(row);
+                                newlySelectedRows.add(row);
+                            }
                         }
                     }
                 }
+                c.reset();
+                rowsUnselected = ! newlyUnselectedRows.isEmpty();
             }
-            c.reset();
 
             if (isAtomic()) {
                 return;
@@ -3231,22 +3215,16 @@ public class TreeTableView<S> extends Control {
                 if (removedSize != addedSize) {
                     fireChangeEvent = true;
                 } else {
-                    for (int i = 0; i < c.getRemovedSize(); i++) {
+                    final Set<TreeItem<S>> addedTreeItems = new HashSet<>();
+                    for (TreeTablePosition<S, ?> added : c.getAddedSubList()) {
+                        addedTreeItems.add(added.getTreeItem());
+                    }
+
+                    for (int i = 0; i < removedSize; i++) {
                         TreeTablePosition<S, ?> removed = c.getRemoved().get(i);
                         TreeItem<S> removedTreeItem = removed.getTreeItem();
 
-                        boolean matchFound = false;
-                        for (int j = 0; j < c.getAddedSize(); j++) {
-                            TreeTablePosition<S, ?> added = c.getAddedSubList().get(j);
-                            TreeItem<S> addedTreeItem = added.getTreeItem();
-
-                            if (removedTreeItem != null && removedTreeItem.equals(addedTreeItem)) {
-                                matchFound = true;
-                                break;
-                            }
-                        }
-
-                        if (!matchFound) {
+                        if (removedTreeItem == null || ! addedTreeItems.contains(removedTreeItem)) {
                             fireChangeEvent = true;
                             break outer;
                         }
@@ -3277,7 +3255,9 @@ public class TreeTableView<S> extends Control {
             final ReadOnlyUnbackedObservableList<Integer> selectedIndicesSeq =
                     (ReadOnlyUnbackedObservableList<Integer>)getSelectedIndices();
 
-            if (! newlySelectedRows.isEmpty() && newlyUnselectedRows.isEmpty()) {
+            if (newlySelectedRowRanges != null && ! rowsUnselected) {
+                selectedIndicesSeq.callObservers(createRangeChange(selectedIndicesSeq, newlySelectedRowRanges));
+            } else if (! newlySelectedRows.isEmpty() && ! rowsUnselected) {
                 // need to come up with ranges based on the actualSelectedRows, and
                 // then fire the appropriate number of changes. We also need to
                 // translate from a desired row to select to where that row is
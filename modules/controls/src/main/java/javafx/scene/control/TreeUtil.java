@@ -32,68 +32,61 @@ import java.util.List;
  * the level of code duplication.
  */
 class TreeUtil {
-    
-    static <T> int getExpandedDescendantCount(TreeItem<T> node, boolean treeItemCountDirty) {
+
+    // Each TreeItem keeps its expanded descendant count, and an index over
+    // the counts of its children, up to date as TreeModificationEvents bubble
+    // up through it. This allows the methods below to map between rows and
+    // TreeItems by descending (or ascending) the tree one level at a time,
+    // at a cost of O(log n) per level, rather than by visiting every
+    // preceding row.
+
+    static <T> int getExpandedDescendantCount(TreeItem<T> node) {
         if (node == null) return 0;
         if (node.isLeaf()) return 1;
         
-        return node.getExpandedDescendentCount(treeItemCountDirty);
+        return node.getExpandedDescendentCount(false);
     }
     
-    static int updateExpandedItemCount(TreeItem treeItem, boolean treeItemCountDirty, boolean isShowRoot) {
+    static int updateExpandedItemCount(TreeItem treeItem, boolean isShowRoot) {
         if (treeItem == null) {
             return 0;
         } else if (! treeItem.isExpanded()) {
             return 1;
         } else {
-            int count = getExpandedDescendantCount(treeItem, treeItemCountDirty);
+            int count = getExpandedDescendantCount(treeItem);
             if (! isShowRoot) count--;
 
             return count;
         }
     }
 
-    static <T> TreeItem<T> getItem(TreeItem<T> parent, int itemIndex, boolean treeItemCountDirty) {
-        if (parent == null) return null;
+    static <T> TreeItem<T> getItem(TreeItem<T> parent, int itemIndex) {
+        while (parent != null) {
+            // if itemIndex is 0 then our parent is what we were looking for
+            if (itemIndex == 0) return parent;
 
-        // if itemIndex is 0 then our parent is what we were looking for
-        if (itemIndex == 0) return parent;
+            // if itemIndex is > the total item count, then it is out of range
+            if (itemIndex >= getExpandedDescendantCount(parent)) return null;
 
-        // if itemIndex is > the total item count, then it is out of range
-        if (itemIndex >= getExpandedDescendantCount(parent, treeItemCountDirty)) return null;
+            // if we got here, then one of our descendants is the item we're
+            // after. Calling getChildren() gives the TreeItem the chance to
+            // apply any pending sort before we index into its children.
+            List<TreeItem<T>> children = parent.getChildren();
+            if (children == null) return null;
 
-        // if we got here, then one of our descendants is the item we're after
-        List<TreeItem<T>> children = parent.getChildren();
-        if (children == null) return null;
-        
-        int idx = itemIndex - 1;
+            int idx = itemIndex - 1;
+            int childIndex = parent.getChildIndexForOffset(idx);
 
-        TreeItem<T> child;
-        for (int i = 0, max = children.size(); i < max; i++) {
-            child = children.get(i);
-            if (idx == 0) return child;
-            
-            if (child.isLeaf() || ! child.isExpanded()) {
-                idx--;
-                continue;
-            }
-            
-            int expandedChildCount = getExpandedDescendantCount(child, treeItemCountDirty);
-            if (idx >= expandedChildCount) {
-                idx -= expandedChildCount;
-                continue;
-            }
+            // We might get here if getItem(0) is called on an empty tree
+            if (childIndex == -1) return null;
 
-            TreeItem<T> result = getItem(child, idx, treeItemCountDirty);
-            if (result != null) return result;
-            idx--;
+            itemIndex = idx - parent.getChildOffset(childIndex);
+            parent = children.get(childIndex);
         }
-
-        // We might get here if getItem(0) is called on an empty tree
         return null;
     }
     
-    static <T> int getRow(TreeItem<T> item, TreeItem<T> root, boolean treeItemCountDirty, boolean isShowRoot) {
+    static <T> int getRow(TreeItem<T> item, TreeItem<T> root, boolean isShowRoot) {
         if (item == null) {
             return -1;
         } else if (isShowRoot && item.equals(root)) {
@@ -104,21 +97,13 @@ class TreeUtil {
         TreeItem<T> i = item;
         TreeItem<T> p = item.getParent();
         
-        TreeItem<T> sibling;
-        List<TreeItem<T>> siblings;
-        
         while (!i.equals(root) && p != null) {
-            siblings = p.children;
-            
-            // work up each sibling, from the current item
-            int itemIndex = siblings.indexOf(i);
-            for (int pos = itemIndex - 1; pos > -1; pos--) {
-                sibling = siblings.get(pos);
-                if (sibling == null) continue;
-                
-                row += getExpandedDescendantCount(sibling, treeItemCountDirty);
-                
-                if (sibling.equals(root)) {
+            // count the rows of each sibling before the current item
+            int itemIndex = p.indexOfChild(i);
+            if (itemIndex > 0) {
+                int rootIndex = root == null || root.getParent() != p ? -1 : p.indexOfChild(root);
+                if (rootIndex != -1 && rootIndex < itemIndex) {
+                    row += p.getChildOffset(itemIndex) - p.getChildOffset(rootIndex);
                     if (! isShowRoot) {
                         // special case: we've found out that our sibling is 
                         // actually the root node AND we aren't showing root nodes.
@@ -127,6 +112,7 @@ class TreeUtil {
                     }
                     return row;
                 }
+                row += p.getChildOffset(itemIndex);
             }
             
             i = p;
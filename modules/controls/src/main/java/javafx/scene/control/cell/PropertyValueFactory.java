@@ -138,7 +138,7 @@ public class PropertyValueFactory<S,T> implements Callback<CellDataFeatures<S,T>
                 // create a new PropertyReference
                 this.columnClass = rowData.getClass();
                 this.previousProperty = getProperty();
-                this.propertyRef = new PropertyReference<T>(rowData.getClass(), getProperty());
+                this.propertyRef = PropertyReference.of(rowData.getClass(), getProperty());
             }
 
             if (propertyRef.hasProperty()) {
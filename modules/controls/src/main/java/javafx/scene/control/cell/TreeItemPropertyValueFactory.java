@@ -136,7 +136,7 @@ public class TreeItemPropertyValueFactory<S,T> implements Callback<TreeTableColu
                 // create a new PropertyReference
                 this.columnClass = rowData.getClass();
                 this.previousProperty = getProperty();
-                this.propertyRef = new PropertyReference<T>(rowData.getClass(), getProperty());
+                this.propertyRef = PropertyReference.of(rowData.getClass(), getProperty());
             }
 
             return propertyRef.getProperty(rowData);
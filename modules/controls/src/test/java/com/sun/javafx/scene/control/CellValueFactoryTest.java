@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.scene.control;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.scene.control.Cell;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class CellValueFactoryTest {
+    private List<Runnable> tasks;
+    private List<String> computed;
+    private List<String> bound;
+    private CellValueFactory<String, String> factory;
+
+    private static class CellStub extends Cell<String> {
+        void show(String item) {
+            updateItem(item, item == null);
+        }
+    }
+
+    @Before public void setUp() {
+        tasks = new ArrayList<>();
+        computed = new ArrayList<>();
+        bound = new ArrayList<>();
+        factory = new CellValueFactory<>(item -> {
+            computed.add(item);
+            if (item.equals("error")) throw new IllegalStateException(item);
+            return item.toUpperCase();
+        }, (cell, value) -> bound.add(cell.getItem() + "=" + value), tasks::add);
+    }
+
+    private void runTasks() {
+        List<Runnable> toRun = new ArrayList<>(tasks);
+        tasks.clear();
+        for (Runnable task : toRun) {
+            task.run();
+        }
+    }
+
+    @Test public void testValueIsComputedInTheBackgroundAndBound() {
+        CellStub cell = new CellStub();
+        cell.show("a");
+        assertNull(factory.getValue("a", cell));
+        assertTrue(computed.isEmpty());
+        assertEquals(1, tasks.size());
+
+        runTasks();
+        assertEquals(1, computed.size());
+        assertTrue(bound.isEmpty());
+
+        assertFalse(factory.bindResults(Long.MAX_VALUE));
+        assertEquals(1, bound.size());
+        assertEquals("a=A", bound.get(0));
+        assertEquals("A", factory.getValue("a", cell));
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test public void testValueIsComputedOnceForSeveralRequests() {
+        CellStub cell1 = new CellStub();
+        CellStub cell2 = new CellStub();
+        cell1.show("a");
+        cell2.show("a");
+        factory.getValue("a", cell1);
+        factory.getValue("a", cell1);
+        factory.getValue("a", cell2);
+        assertEquals(1, tasks.size());
+
+        runTasks();
+        factory.bindResults(Long.MAX_VALUE);
+        assertEquals(1, computed.size());
+        assertEquals(2, bound.size());
+    }
+
+    @Test public void testCellThatMovedOnIsNotBound() {
+        CellStub cell = new CellStub();
+        cell.show("a");
+        factory.getValue("a", cell);
+        cell.show("b");
+        factory.getValue("b", cell);
+
+        runTasks();
+        factory.bindResults(Long.MAX_VALUE);
+        assertEquals(1, bound.size());
+        assertEquals("b=B", bound.get(0));
+        // the value for a is still cached
+        assertEquals("A", factory.getValue("a", null));
+    }
+
+    @Test public void testBindingStopsAtTheDeadline() {
+        CellStub[] cells = new CellStub[3];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new CellStub();
+            cells[i].show("item" + i);
+            factory.getValue("item" + i, cells[i]);
+        }
+        runTasks();
+
+        // at least one value is bound in each pulse
+        assertTrue(factory.bindResults(0));
+        assertEquals(1, bound.size());
+        assertFalse(factory.bindResults(Long.MAX_VALUE));
+        assertEquals(3, bound.size());
+    }
+
+    @Test public void testFailedValueIsRequestedAgain() {
+        CellStub cell = new CellStub();
+        cell.show("error");
+        factory.getValue("error", cell);
+        runTasks();
+        factory.bindResults(Long.MAX_VALUE);
+        assertTrue(bound.isEmpty());
+
+        assertNull(factory.getValue("error", cell));
+        assertEquals(1, tasks.size());
+    }
+
+    @Test public void testLeastRecentlyUsedValuesAreEvicted() {
+        factory.setCacheSize(2);
+        for (String item : new String[] { "a", "b" }) {
+            factory.getValue(item, null);
+        }
+        runTasks();
+        factory.bindResults(Long.MAX_VALUE);
+
+        // use a, so that b is the least recently used
+        assertEquals("A", factory.getValue("a", null));
+        factory.getValue("c", null);
+        runTasks();
+        factory.bindResults(Long.MAX_VALUE);
+
+        assertEquals("A", factory.getValue("a", null));
+        assertNull(factory.getValue("b", null));
+        assertEquals("C", factory.getValue("c", null));
+    }
+
+    @Test public void testClearForgetsValues() {
+        factory.getValue("a", null);
+        runTasks();
+        factory.bindResults(Long.MAX_VALUE);
+        factory.clear();
+        assertNull(factory.getValue("a", null));
+        assertEquals(1, tasks.size());
+    }
+}
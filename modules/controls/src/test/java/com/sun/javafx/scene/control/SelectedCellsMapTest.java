@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.scene.control;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javafx.collections.ListChangeListener;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableColumnBase;
+import javafx.scene.control.TablePosition;
+import javafx.scene.control.TableView;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SelectedCellsMapTest {
+    private TableView<String> table;
+    private TableColumn<String,String> c0, c1, c2;
+    private List<ListChangeListener.Change<? extends TablePosition<String,?>>> changes;
+    private boolean cellSelectionEnabled;
+    private SelectedCellsMap<TablePosition<String,?>> map;
+
+    @Before public void setUp() {
+        table = new TableView<>();
+        c0 = new TableColumn<>("c0");
+        c1 = new TableColumn<>("c1");
+        c2 = new TableColumn<>("c2");
+        table.getColumns().addAll(c0, c1, c2);
+
+        changes = new ArrayList<>();
+        cellSelectionEnabled = true;
+        map = new SelectedCellsMap<TablePosition<String,?>>(changes::add) {
+            @Override public boolean isCellSelectionEnabled() {
+                return cellSelectionEnabled;
+            }
+
+            @Override protected TablePosition<String,?> createPosition(int row, TableColumnBase<?,?> column) {
+                return new TablePosition<>(table, row, (TableColumn<String,?>) column);
+            }
+        };
+    }
+
+    private TablePosition<String,?> pos(int row, TableColumn<String,?> column) {
+        return new TablePosition<>(table, row, column);
+    }
+
+    private void assertCell(int row, TableColumn<String,?> column, TablePosition<String,?> tp) {
+        assertEquals(row, tp.getRow());
+        assertSame(column, tp.getTableColumn());
+    }
+
+    private static int[] ranges(int... ranges) {
+        return ranges;
+    }
+
+    @Test public void emptyMap() {
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.size());
+        assertNull(map.get(-1));
+        assertFalse(map.isSelected(0, -1));
+        assertEquals(-1, map.indexOf(pos(0, c0)));
+    }
+
+    @Test public void cellsAreSortedByRowThenColumn() {
+        map.add(pos(5, c2));
+        map.add(pos(1, c1));
+        map.add(pos(5, c0));
+        map.add(pos(1, c1));
+
+        assertEquals(3, map.size());
+        assertCell(1, c1, map.get(0));
+        assertCell(5, c0, map.get(1));
+        assertCell(5, c2, map.get(2));
+        assertEquals(1, map.indexOf(pos(5, c0)));
+        assertEquals(-1, map.indexOf(pos(5, c1)));
+        assertTrue(map.isSelected(5, 2));
+        assertFalse(map.isSelected(5, 1));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getBeyondSizeThrows() {
+        map.add(pos(0, c0));
+        map.get(1);
+    }
+
+    @Test public void rangeOfRowsIsStoredWithoutExpanding() {
+        final int rows = 10_000_000;
+        map.setAll(0, rows, Arrays.asList(pos(0, c0), pos(0, c1), pos(0, c2)));
+
+        assertEquals(rows * 3, map.size());
+        assertEquals(1, map.snapshot().rows().length / 2);
+        assertCell(0, c0, map.get(0));
+        assertCell(rows - 1, c2, map.get(rows * 3 - 1));
+        assertCell(1234567, c1, map.get(1234567 * 3 + 1));
+        assertEquals(1234567 * 3 + 2, map.indexOf(pos(1234567, c2)));
+        assertTrue(map.isSelected(rows - 1, 1));
+        assertFalse(map.isSelected(rows, 1));
+    }
+
+    @Test public void removingACellSplitsTheRun() {
+        map.setAll(0, 10, Arrays.asList(pos(0, c0), pos(0, c1)));
+        map.remove(pos(4, c1));
+
+        assertEquals(19, map.size());
+        assertArrayEquals(ranges(0, 10), map.snapshot().rows());
+        assertCell(4, c0, map.get(8));
+        assertCell(5, c0, map.get(9));
+        assertFalse(map.isSelected(4, 1));
+        assertTrue(map.isSelected(4, 0));
+    }
+
+    @Test public void adjacentRangesWithTheSameColumnsAreMerged() {
+        map.addAll(0, 5, Arrays.asList(pos(0, c1)));
+        map.addAll(5, 10, Arrays.asList(pos(5, c1)));
+        assertArrayEquals(ranges(0, 10), map.snapshot().rows());
+        assertEquals(10, map.size());
+    }
+
+    @Test public void rowSelectionKeepsOnlyTheFirstCellOfARow() {
+        cellSelectionEnabled = false;
+        map.addAll(Arrays.asList(pos(3, c1), pos(3, c2)));
+        map.add(pos(3, c0));
+
+        assertEquals(1, map.size());
+        assertCell(3, c1, map.get(0));
+        assertSame(c1, map.getFirstColumn(3));
+
+        map.removeFirstCell(3);
+        assertTrue(map.isEmpty());
+    }
+
+    @Test public void addingARangeFiresOneChangeWithTheAddedRows() {
+        map.add(pos(0, c0));
+        changes.clear();
+
+        map.addAll(10, 20, Arrays.asList(pos(10, c0), pos(10, c1)));
+
+        assertEquals(1, changes.size());
+        SelectedCellsMap.CellsChange<?> c = (SelectedCellsMap.CellsChange<?>) changes.get(0);
+        assertTrue(c.next());
+        assertTrue(c.wasAdded());
+        assertFalse(c.wasRemoved());
+        assertEquals(1, c.getFrom());
+        assertEquals(21, c.getTo());
+        assertFalse(c.next());
+        assertArrayEquals(ranges(10, 20), c.getAddedRows());
+        assertArrayEquals(ranges(), c.getRemovedRows());
+    }
+
+    @Test public void removalChangeHasTheRemovedCells() {
+        map.addAll(0, 4, Arrays.asList(pos(0, c0)));
+        changes.clear();
+
+        map.remove(pos(2, c0));
+
+        assertEquals(1, changes.size());
+        ListChangeListener.Change<? extends TablePosition<String,?>> c = changes.get(0);
+        assertTrue(c.next());
+        assertTrue(c.wasRemoved());
+        assertFalse(c.wasAdded());
+        assertEquals(2, c.getFrom());
+        assertEquals(1, c.getRemovedSize());
+        assertCell(2, c0, c.getRemoved().get(0));
+        assertFalse(c.next());
+    }
+
+    @Test public void clearFiresRemovalOfEverything() {
+        map.setAll(0, 100, Arrays.asList(pos(0, c0), pos(0, c2)));
+        changes.clear();
+
+        map.clear();
+
+        assertTrue(map.isEmpty());
+        assertEquals(1, changes.size());
+        ListChangeListener.Change<? extends TablePosition<String,?>> c = changes.get(0);
+        assertTrue(c.next());
+        assertEquals(200, c.getRemovedSize());
+        assertCell(99, c2, c.getRemoved().get(199));
+    }
+
+    @Test public void snapshotIsUnaffectedByLaterChanges() {
+        map.addAll(0, 10, Arrays.asList(pos(0, c0)));
+        SelectedCellsMap.Snapshot snapshot = map.snapshot();
+
+        map.clear();
+
+        assertEquals(10, snapshot.size());
+        map.setAll(snapshot);
+        assertEquals(10, map.size());
+    }
+
+    @Test public void identityPermutationReturnsNull() {
+        map.addAll(0, 10, Arrays.asList(pos(0, c0)));
+        assertNull(map.permute(0, 10, i -> i));
+    }
+
+    @Test public void fullyCoveringRunIsNotExpandedByAPermutation() {
+        map.setAll(0, 1000, Arrays.asList(pos(0, c0), pos(0, c1)));
+        // reverse everything
+        SelectedCellsMap.Snapshot permuted = map.permute(0, 1000, i -> 999 - i);
+        assertEquals(2000, permuted.size());
+        assertArrayEquals(ranges(0, 1000), permuted.rows());
+    }
+
+    @Test public void permutationMovesRowsAndKeepsRowsOutsideTheRange() {
+        map.add(pos(1, c0));
+        map.add(pos(2, c2));
+        map.add(pos(20, c1));
+
+        // swap rows 1 and 8 and rows 2 and 9, leaving row 20 alone
+        SelectedCellsMap.Snapshot permuted = map.permute(0, 10, i ->
+                i == 1 ? 8 : i == 8 ? 1 : i == 2 ? 9 : i == 9 ? 2 : i);
+        SelectedCellsMap.Snapshot previous = map.snapshot();
+        map.setAll(permuted);
+
+        assertEquals(3, map.size());
+        assertCell(8, c0, map.get(0));
+        assertCell(9, c2, map.get(1));
+        assertCell(20, c1, map.get(2));
+
+        ListChangeListener.Change<TablePosition<String,?>> c = map.createPermutationChange(previous);
+        assertTrue(((SelectedCellsMap.CellsChange<?>) c).isRowPermutation());
+        assertTrue(c.next());
+        assertEquals(2, c.getRemovedSize());
+        assertCell(1, c0, c.getRemoved().get(0));
+        assertCell(2, c2, c.getRemoved().get(1));
+        assertEquals(3, c.getAddedSize());
+    }
+
+    @Test public void selectedCellsListDelegatesToTheMap() {
+        map.addAll(0, 3, Arrays.asList(pos(0, c1)));
+        assertEquals(3, map.getSelectedCells().size());
+        assertEquals(2, map.getSelectedCells().indexOf(pos(2, c1)));
+        assertCell(1, c1, map.getSelectedCells().get(1));
+    }
+}
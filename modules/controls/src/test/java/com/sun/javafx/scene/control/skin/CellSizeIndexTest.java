@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.scene.control.skin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class CellSizeIndexTest {
+    private CellSizeIndex index;
+
+    @Before public void setUp() {
+        index = new CellSizeIndex();
+        index.setDefaultLength(10);
+        index.setSize(100);
+    }
+
+    @Test public void testCellSizeIndex_NothingMeasured_UsesDefaultLength() {
+        assertEquals(0, index.getMeasuredCount());
+        assertFalse(index.isMeasured(0));
+        assertEquals(10, index.getLength(50), 0.0);
+        assertEquals(1000, index.getTotalLength(), 0.0);
+        assertEquals(500, index.getOffset(50), 0.0);
+    }
+
+    @Test public void testCellSizeIndex_UnmeasuredCellsUseAverageLength() {
+        index.setLength(0, 20);
+        index.setLength(1, 40);
+        assertEquals(30, index.getEstimatedLength(), 0.0);
+        assertEquals(30, index.getLength(2), 0.0);
+        assertEquals(60 + 98 * 30, index.getTotalLength(), 0.0);
+    }
+
+    @Test public void testCellSizeIndex_OffsetIsExactOnceAllCellsAreMeasured() {
+        double total = 0;
+        for (int i = 0; i < 100; i++) {
+            assertEquals(total, index.getOffset(i), 0.0);
+            index.setLength(i, i % 10 == 0 ? 100 : 25);
+            total += index.getLength(i);
+        }
+        assertEquals(3250, index.getTotalLength(), 0.0);
+        assertEquals(3 * 100 + 27 * 25, index.getOffset(30), 0.0);
+    }
+
+    @Test public void testCellSizeIndex_GetIndexIsTheInverseOfGetOffset() {
+        for (int i = 0; i < 100; i += 3) {
+            index.setLength(i, 5 + i);
+        }
+        for (int i = 0; i < 100; i++) {
+            double offset = index.getOffset(i);
+            assertEquals(i, index.getIndex(offset));
+            assertEquals(i, index.getIndex(offset + index.getLength(i) / 2));
+        }
+    }
+
+    @Test public void testCellSizeIndex_GetIndexIsClamped() {
+        assertEquals(0, index.getIndex(-10));
+        assertEquals(99, index.getIndex(100000));
+        index.setSize(0);
+        assertEquals(-1, index.getIndex(0));
+    }
+
+    @Test public void testCellSizeIndex_SetLengthTwiceOnlyCountsOnce() {
+        assertTrue(index.setLength(5, 20));
+        assertFalse(index.setLength(5, 20));
+        assertTrue(index.setLength(5, 30));
+        assertEquals(1, index.getMeasuredCount());
+        assertEquals(30 + 99 * 30, index.getTotalLength(), 0.0);
+    }
+
+    @Test public void testCellSizeIndex_ClearLength() {
+        index.setLength(5, 20);
+        index.setLength(6, 40);
+        index.clearLength(5);
+        assertFalse(index.isMeasured(5));
+        assertEquals(1, index.getMeasuredCount());
+        assertEquals(40, index.getLength(5), 0.0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testCellSizeIndex_SetLengthOutOfRange() {
+        index.setLength(100, 20);
+    }
+
+    @Test public void testCellSizeIndex_GrowingKeepsMeasurements() {
+        index.setLength(99, 50);
+        index.setSize(1000);
+        assertTrue(index.isMeasured(99));
+        assertFalse(index.isMeasured(100));
+        assertEquals(1000 * 50, index.getTotalLength(), 0.0);
+        assertEquals(99 * 50, index.getOffset(99), 0.0);
+    }
+
+    @Test public void testCellSizeIndex_ShrinkingForgetsRemovedCells() {
+        index.setSize(1000);
+        index.setLength(10, 20);
+        index.setLength(500, 40);
+        index.setSize(50);
+        assertEquals(1, index.getMeasuredCount());
+        assertEquals(50 * 20, index.getTotalLength(), 0.0);
+
+        index.setSize(1000);
+        assertFalse(index.isMeasured(500));
+    }
+
+    @Test public void testCellSizeIndex_Clear() {
+        index.setLength(10, 20);
+        index.clear();
+        assertEquals(0, index.getMeasuredCount());
+        assertEquals(100, index.getSize());
+        assertEquals(1000, index.getTotalLength(), 0.0);
+    }
+}
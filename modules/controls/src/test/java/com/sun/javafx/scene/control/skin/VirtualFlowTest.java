@@ -1059,6 +1059,185 @@ public class VirtualFlowTest {
         assertMinimalNumberOfCellsAreUsed(flow);
         assertEquals(flow.getViewportLength()-25.0, flow.cells.getLast().getLayoutY(), 0.0);
     }
+
+    /***************************************************************************
+     * Tests for the size index                                                *
+     **************************************************************************/
+
+    // every tenth cell is 100 tall, all others are 25 tall, 3250 in total
+    private void useVariableLengthCells() {
+        flow.setCreateCell(p -> new CellStub(flow) {
+            @Override protected double computeMinHeight(double width) { return computePrefHeight(width); }
+            @Override protected double computeMaxHeight(double width) { return computePrefHeight(width); }
+            @Override protected double computePrefHeight(double width) {
+                return getIndex() % 10 == 0 ? 100 : 25;
+            }
+        });
+        flow.setSizeIndexEnabled(true);
+        pulse();
+    }
+
+    private void assertFirstVisibleCell(int index, double layoutY) {
+        IndexedCell cell = flow.getFirstVisibleCell();
+        assertEquals(index, cell.getIndex());
+        assertEquals(layoutY, cell.getLayoutY(), 1.0);
+    }
+
+    @Test public void testSizeIndexIsDisabledByDefault() {
+        assertFalse(flow.isSizeIndexEnabled());
+    }
+
+    @Test public void testSizeIndex_thumbIsExactOnceAllCellsAreMeasured() {
+        useVariableLengthCells();
+        while (flow.getPosition() < 1) {
+            flow.adjustPixels(flow.getViewportLength());
+            pulse();
+        }
+        assertEquals(flow.getViewportLength() / 3250, flow.getVbar().getVisibleAmount(), 0.00001);
+    }
+
+    @Test public void testSizeIndex_adjustPixelsScrollsByPixels() {
+        useVariableLengthCells();
+        // measure all cells, then go back to the top
+        while (flow.getPosition() < 1) {
+            flow.adjustPixels(flow.getViewportLength());
+            pulse();
+        }
+        flow.adjustPixels(-3250);
+        pulse();
+        assertFirstVisibleCell(0, 0);
+
+        flow.adjustPixels(130);
+        pulse();
+        assertFirstVisibleCell(2, -5);
+
+        // cells 0 to 29 take up 3 * 100 + 27 * 25 = 975 pixels, so this is
+        // 35 pixels into cell 30
+        flow.adjustPixels(1010 - 130);
+        pulse();
+        assertFirstVisibleCell(30, -35);
+
+        flow.adjustPixels(-1010);
+        pulse();
+        assertEquals(0, flow.getPosition(), 0.0);
+        assertFirstVisibleCell(0, 0);
+    }
+
+    @Test public void testSizeIndex_scrollToPutsCellAtTop() {
+        useVariableLengthCells();
+        flow.scrollTo(50);
+        pulse();
+        assertFirstVisibleCell(50, 0);
+
+        flow.scrollToTop(73);
+        pulse();
+        assertFirstVisibleCell(73, 0);
+    }
+
+    @Test public void testSizeIndex_measuringCellsAboveDoesNotMoveTheView() {
+        useVariableLengthCells();
+        flow.scrollTo(60);
+        pulse();
+        assertFirstVisibleCell(60, 0);
+        double position = flow.getPosition();
+
+        // cell 10 is four times as long as estimated
+        assertEquals(100, flow.getCellLength(10), 0.0);
+        pulse();
+        assertFirstVisibleCell(60, 0);
+        assertTrue(flow.getPosition() != position);
+    }
+
+    @Test public void testSizeIndex_offScreenCellsAreMeasuredOnce() {
+        final int[] measured = new int[100];
+        flow.setCreateCell(p -> new CellStub(flow) {
+            @Override protected double computePrefHeight(double width) {
+                if (getIndex() >= 0 && getIndex() < measured.length) measured[getIndex()]++;
+                return 25;
+            }
+            @Override protected double computeMinHeight(double width) { return 25; }
+            @Override protected double computeMaxHeight(double width) { return 25; }
+        });
+        flow.setSizeIndexEnabled(true);
+        pulse();
+
+        for (int i = 0; i < 3; i++) {
+            flow.getCellLength(50);
+        }
+        assertEquals(25, flow.getCellLength(50), 0.0);
+        int count = measured[50];
+        flow.getCellLength(50);
+        assertEquals(count, measured[50]);
+    }
+
+    private IndexedCell getPrefetchedCell(int index) {
+        for (int i = 0; i < flow.pile.size(); i++) {
+            IndexedCell cell = flow.pile.get(i);
+            if (cell.getIndex() == index) return cell;
+        }
+        return null;
+    }
+
+    @Test public void testPrefetchIsDisabledByDefault() {
+        assertEquals(0, flow.getPrefetchCount());
+        assertFalse(flow.prefetchCells(Long.MAX_VALUE));
+        assertNull(getPrefetchedCell(flow.getLastVisibleCell().getIndex() + 1));
+    }
+
+    @Test public void testPrefetch_cellsBeyondTheViewportAreUpdated() {
+        flow.setPrefetchCount(5);
+        flow.adjustPixels(25 * 10);
+        pulse();
+        int first = flow.getFirstVisibleCell().getIndex();
+        int last = flow.getLastVisibleCell().getIndex();
+
+        assertFalse(flow.prefetchCells(Long.MAX_VALUE));
+        for (int i = 1; i <= 5; i++) {
+            IndexedCell cell = getPrefetchedCell(last + i);
+            assertNotNull("no cell for " + (last + i), cell);
+            assertFalse(cell.isVisible());
+            assertNotNull("no cell for " + (first - i), getPrefetchedCell(first - i));
+        }
+        assertNull(getPrefetchedCell(last + 6));
+    }
+
+    @Test public void testPrefetch_stopsAtTheDeadline() {
+        flow.setPrefetchCount(5);
+        pulse();
+        assertTrue(flow.prefetchCells(0));
+        assertNull(getPrefetchedCell(flow.getLastVisibleCell().getIndex() + 1));
+    }
+
+    @Test public void testPrefetch_scrollingShowsThePrefetchedCells() {
+        flow.setPrefetchCount(5);
+        pulse();
+        flow.prefetchCells(Long.MAX_VALUE);
+        int last = flow.getLastVisibleCell().getIndex();
+        IndexedCell next = getPrefetchedCell(last + 1);
+
+        flow.adjustPixels(25);
+        pulse();
+        assertSame(next, flow.getVisibleCell(last + 1));
+        assertTrue(next.isVisible());
+    }
+
+    @Test public void testPrefetch_onlyCellsWithinTheBandArePrefetched() {
+        flow.setPrefetchCount(3);
+        flow.adjustPixels(25 * 10);
+        pulse();
+        flow.prefetchCells(Long.MAX_VALUE);
+        int cellCount = flow.cells.size() + flow.pile.size();
+
+        // scroll a long way, the cells of the old band are reused for the new one
+        flow.adjustPixels(25 * 40);
+        pulse();
+        flow.prefetchCells(Long.MAX_VALUE);
+        int last = flow.getLastVisibleCell().getIndex();
+        for (int i = 1; i <= 3; i++) {
+            assertNotNull(getPrefetchedCell(last + i));
+        }
+        assertEquals(cellCount, flow.cells.size() + flow.pile.size());
+    }
 }
 
 class CellStub extends IndexedCell {
@@ -31,6 +31,7 @@ package javafx.scene.chart;
  */
 import org.junit.Test;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import javafx.collections.*;
 
 import com.sun.javafx.pgstub.StubToolkit;
@@ -165,4 +166,39 @@ public class LineChartTest extends XYChartTestBase {
         pulse();
         assertEquals(true, lineChart.getAnimated());
     }
+
+    @Test
+    public void testSeriesValues() {
+        startApp();
+        lineChart.setCreateSymbols(false);
+        final XYChart.Series<Number, Number> series2 = new XYChart.Series<Number, Number>();
+        final int size = 100000;
+        final double[] x = new double[size];
+        final double[] y = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = i;
+            y[i] = i % 100;
+        }
+        series2.getXValues().setAll(x);
+        series2.getYValues().setAll(y);
+        lineChart.getData().addAll(series2);
+        pulse();
+        final NumberAxis xAxis = (NumberAxis)lineChart.getXAxis();
+        final NumberAxis yAxis = (NumberAxis)lineChart.getYAxis();
+        assertTrue(xAxis.getUpperBound() >= size - 1);
+        assertTrue(yAxis.getUpperBound() >= 99);
+        // at most four points per pixel column are drawn
+        final Path line = (Path)series2.getNode();
+        final int elements = line.getElements().size();
+        assertTrue(elements > 0);
+        assertTrue(elements <= 4 * (xAxis.getWidth() + 1) + 1);
+
+        series2.getYValues().set(0, 1000);
+        pulse();
+        assertTrue(yAxis.getUpperBound() >= 1000);
+
+        series2.getYValues().clear();
+        pulse();
+        assertEquals(0, line.getElements().size());
+    }
 }
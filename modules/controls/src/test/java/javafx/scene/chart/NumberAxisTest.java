@@ -255,4 +255,14 @@ public class NumberAxisTest {
         assertArrayEquals(new double[] {8.45, 8.55, 8.65}, asDoubleArray, 1e-10);
     }
 
+    @Test public void testNumericDisplayPositionMatchesDisplayPosition() {
+        threeValueAxis.resize(500, 30);
+        threeValueAxis.layout();
+        assertTrue(threeValueAxis.getDisplayPosition(100.0) > threeValueAxis.getDisplayPosition(0.0));
+        for (double value : new double[] {-12.5, 0, 3.3, 50, 99.9, 100, 250}) {
+            assertEquals(threeValueAxis.getDisplayPosition(threeValueAxis.toRealValue(value)),
+                    threeValueAxis.getNumericDisplayPosition(value), 0);
+        }
+    }
+
 }
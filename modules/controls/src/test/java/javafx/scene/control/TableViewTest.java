@@ -60,6 +60,7 @@ import javafx.event.Event;
 import javafx.event.EventHandler;
 import javafx.geometry.Orientation;
 import javafx.scene.Group;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.cell.*;
 import javafx.scene.image.ImageView;
@@ -2698,6 +2699,10 @@ public class TableViewTest {
             @Override public boolean isCellSelectionEnabled() {
                 return false;
             }
+
+            @Override protected TablePosition createPosition(int row, TableColumnBase<?,?> column) {
+                return new TablePosition(table, row, (TableColumn) column);
+            }
         };
         ReadOnlyUnbackedObservableList<TablePosition<Object, ?>> selectedCellsSeq = new ReadOnlyUnbackedObservableList<TablePosition<Object, ?>>() {
             @Override public TablePosition<Object, ?> get(int i) {
@@ -4759,4 +4764,217 @@ public class TableViewTest {
 
         sl.dispose();
     }
+
+    private int columnVirtualizationCellCount = 0;
+    private TableView<Integer> createColumnVirtualizationTable(int columnCount) {
+        TableView<Integer> table = new TableView<>();
+        for (int i = 0; i < 100; i++) {
+            table.getItems().add(i);
+        }
+
+        // all columns share the one cell factory, so cells can be recycled between them
+        Callback<TableColumn<Integer,String>, TableCell<Integer,String>> cellFactory = param -> {
+            columnVirtualizationCellCount++;
+            return new TableCell<Integer,String>() {
+                @Override protected void updateItem(String item, boolean empty) {
+                    super.updateItem(item, empty);
+                    setText(empty ? null : item);
+                }
+            };
+        };
+        for (int i = 0; i < columnCount; i++) {
+            final int column = i;
+            TableColumn<Integer,String> col = new TableColumn<>("Column " + i);
+            col.setPrefWidth(50);
+            col.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(param.getValue() + "," + column));
+            col.setCellFactory(cellFactory);
+            table.getColumns().add(col);
+        }
+
+        table.setPrefSize(400, 300);
+        table.getProperties().put(TableViewSkinBase.COLUMN_VIRTUALIZATION_ENABLED_KEY, Boolean.TRUE);
+        columnVirtualizationCellCount = 0;
+        return table;
+    }
+
+    private List<IndexedCell> getTableCells(IndexedCell row) {
+        List<IndexedCell> cells = new ArrayList<>();
+        for (Node n : row.getChildrenUnmodifiable()) {
+            if (n instanceof IndexedCell) {
+                cells.add((IndexedCell) n);
+            }
+        }
+        return cells;
+    }
+
+    @Test public void test_columnVirtualization_onlyVisibleColumnsHaveCells() {
+        TableView<Integer> table = createColumnVirtualizationTable(100);
+        StageLoader sl = new StageLoader(table);
+
+        IndexedCell row = VirtualFlowTestUtils.getCell(table, 3);
+        List<IndexedCell> cells = getTableCells(row);
+        assertTrue("Expected only the visible cells, but got " + cells.size(), cells.size() > 0 && cells.size() <= 9);
+        for (int i = 0; i < cells.size(); i++) {
+            assertEquals("3," + i, cells.get(i).getText());
+        }
+
+        sl.dispose();
+    }
+
+    @Test public void test_columnVirtualization_horizontalScrollRecyclesCells() {
+        TableView<Integer> table = createColumnVirtualizationTable(100);
+        StageLoader sl = new StageLoader(table);
+        final int initialCellCount = columnVirtualizationCellCount;
+        assertTrue(initialCellCount > 0);
+
+        VirtualScrollBar hbar = VirtualFlowTestUtils.getVirtualFlowHorizontalScrollbar(table);
+        for (int x = 0; x <= 2500; x += 25) {
+            hbar.setValue(x);
+            Toolkit.getToolkit().firePulse();
+        }
+
+        // column 50 starts at 2500px, and it is the cell of the row for that column
+        // that is shown first
+        IndexedCell row = VirtualFlowTestUtils.getCell(table, 3);
+        List<IndexedCell> cells = getTableCells(row);
+        assertTrue(cells.size() <= 9);
+        assertEquals("3,50", cells.get(0).getText());
+        assertEquals(table.getVisibleLeafColumn(50), ((TableCell)cells.get(0)).getTableColumn());
+
+        // the cells moved across to the columns scrolled into view rather than
+        // new cells being created for them
+        assertTrue("Expected cells to be recycled, but " + columnVirtualizationCellCount + " cells were created",
+                columnVirtualizationCellCount < initialCellCount * 2);
+
+        sl.dispose();
+    }
+
+    @Test public void test_columnVirtualization_onlyVisibleColumnHeadersInScenegraph() {
+        TableView<Integer> table = createColumnVirtualizationTable(100);
+        StageLoader sl = new StageLoader(table);
+
+        TableColumn<Integer,?> firstColumn = table.getVisibleLeafColumn(0);
+        TableColumn<Integer,?> column50 = table.getVisibleLeafColumn(50);
+        assertNotNull(VirtualFlowTestUtils.getTableColumnHeader(table, firstColumn).getParent());
+        assertNull(VirtualFlowTestUtils.getTableColumnHeader(table, column50).getParent());
+
+        VirtualFlowTestUtils.getVirtualFlowHorizontalScrollbar(table).setValue(2500);
+        Toolkit.getToolkit().firePulse();
+
+        assertNull(VirtualFlowTestUtils.getTableColumnHeader(table, firstColumn).getParent());
+        assertNotNull(VirtualFlowTestUtils.getTableColumnHeader(table, column50).getParent());
+
+        sl.dispose();
+    }
+
+    @Test public void test_columnVirtualization_disable() {
+        TableView<Integer> table = createColumnVirtualizationTable(20);
+        StageLoader sl = new StageLoader(table);
+        assertTrue(getTableCells(VirtualFlowTestUtils.getCell(table, 3)).size() <= 9);
+
+        table.getProperties().remove(TableViewSkinBase.COLUMN_VIRTUALIZATION_ENABLED_KEY);
+        Toolkit.getToolkit().firePulse();
+
+        List<IndexedCell> cells = getTableCells(VirtualFlowTestUtils.getCell(table, 3));
+        assertEquals(20, cells.size());
+        for (int i = 0; i < cells.size(); i++) {
+            assertEquals("3," + i, cells.get(i).getText());
+        }
+        assertNotNull(VirtualFlowTestUtils.getTableColumnHeader(table, table.getVisibleLeafColumn(19)).getParent());
+
+        sl.dispose();
+    }
+
+    private TableView<Integer> createLargeSelectionTable(int rowCount, int columnCount) {
+        List<Integer> items = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            items.add(i);
+        }
+        TableView<Integer> table = new TableView<>(FXCollections.observableArrayList(items));
+        for (int i = 0; i < columnCount; i++) {
+            TableColumn<Integer,Integer> col = new TableColumn<>("Column " + i);
+            col.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(param.getValue()));
+            table.getColumns().add(col);
+        }
+        return table;
+    }
+
+    @Test public void test_largeSelection_selectAllInCellSelectionMode() {
+        final int rowCount = 1_000_000;
+        TableView<Integer> table = createLargeSelectionTable(rowCount, 20);
+        TableView.TableViewSelectionModel<Integer> sm = table.getSelectionModel();
+        sm.setSelectionMode(SelectionMode.MULTIPLE);
+        sm.setCellSelectionEnabled(true);
+
+        sm.selectAll();
+
+        ObservableList<TablePosition> cells = sm.getSelectedCells();
+        assertEquals(rowCount * 20, cells.size());
+        assertEquals(rowCount, sm.getSelectedIndices().size());
+        assertEquals(rowCount, sm.getSelectedItems().size());
+        assertEquals(500_000, (int) sm.getSelectedIndices().get(500_000));
+        assertEquals(500_000, sm.getSelectedIndices().indexOf(500_000));
+        assertEquals(750_000, (int) sm.getSelectedItems().get(750_000));
+
+        TablePosition last = cells.get(cells.size() - 1);
+        assertEquals(rowCount - 1, last.getRow());
+        assertEquals(table.getVisibleLeafColumn(19), last.getTableColumn());
+        assertTrue(sm.isSelected(123_456, table.getVisibleLeafColumn(7)));
+        assertEquals(123_456 * 20 + 7, cells.indexOf(new TablePosition<>(table, 123_456, table.getVisibleLeafColumn(7))));
+    }
+
+    @Test public void test_largeSelection_selectRangeFiresOneChange() {
+        TableView<Integer> table = createLargeSelectionTable(200_000, 5);
+        TableView.TableViewSelectionModel<Integer> sm = table.getSelectionModel();
+        sm.setSelectionMode(SelectionMode.MULTIPLE);
+        sm.setCellSelectionEnabled(true);
+
+        final int[] indicesChangeCount = new int[1];
+        sm.getSelectedIndices().addListener((ListChangeListener<Integer>) c -> indicesChangeCount[0]++);
+        final int[] cellsChangeCount = new int[1];
+        sm.getSelectedCells().addListener((ListChangeListener<TablePosition>) c -> {
+            cellsChangeCount[0]++;
+            assertTrue(c.next());
+            assertTrue(c.wasAdded());
+            assertEquals(300_000, c.getAddedSize());
+            assertFalse(c.next());
+        });
+
+        sm.selectRange(10, table.getVisibleLeafColumn(1), 100_009, table.getVisibleLeafColumn(3));
+
+        assertEquals(1, indicesChangeCount[0]);
+        assertEquals(1, cellsChangeCount[0]);
+        assertEquals(300_000, sm.getSelectedCells().size());
+        assertEquals(100_000, sm.getSelectedItems().size());
+        assertEquals(10, (int) sm.getSelectedIndices().get(0));
+        assertEquals(100_009, (int) sm.getSelectedIndices().get(99_999));
+        assertFalse(sm.isSelected(50_000, table.getVisibleLeafColumn(0)));
+        assertTrue(sm.isSelected(50_000, table.getVisibleLeafColumn(3)));
+    }
+
+    @Test public void test_largeSelection_sortRemapsSelectedRows() {
+        final int rowCount = 100_000;
+        TableView<Integer> table = createLargeSelectionTable(rowCount, 3);
+        TableView.TableViewSelectionModel<Integer> sm = table.getSelectionModel();
+        sm.setSelectionMode(SelectionMode.MULTIPLE);
+        sm.setCellSelectionEnabled(true);
+        sm.selectRange(0, table.getVisibleLeafColumn(0), 9, table.getVisibleLeafColumn(1));
+
+        final int[] itemsChangeCount = new int[1];
+        sm.getSelectedItems().addListener((ListChangeListener<Integer>) c -> itemsChangeCount[0]++);
+
+        TableColumn<Integer,?> col = table.getVisibleLeafColumn(0);
+        col.setSortType(DESCENDING);
+        table.getSortOrder().add(col);
+
+        // the same items remain selected, they have just moved to the end
+        assertEquals(0, itemsChangeCount[0]);
+        assertEquals(20, sm.getSelectedCells().size());
+        assertEquals(10, sm.getSelectedIndices().size());
+        assertEquals(rowCount - 10, (int) sm.getSelectedIndices().get(0));
+        assertEquals(9, (int) sm.getSelectedItems().get(0));
+        assertEquals(0, (int) sm.getSelectedItems().get(9));
+        assertTrue(sm.isSelected(rowCount - 1, table.getVisibleLeafColumn(1)));
+        assertFalse(sm.isSelected(rowCount - 1, table.getVisibleLeafColumn(2)));
+    }
 }
@@ -43,6 +43,7 @@ import com.sun.javafx.scene.control.behavior.TreeTableCellBehavior;
 import com.sun.javafx.scene.control.infrastructure.KeyEventFirer;
 import com.sun.javafx.scene.control.infrastructure.KeyModifier;
 import com.sun.javafx.scene.control.infrastructure.MouseEventFirer;
+import com.sun.javafx.scene.control.skin.TableViewSkinBase;
 import com.sun.javafx.scene.control.skin.TreeTableCellSkin;
 import com.sun.javafx.scene.control.test.Data;
 
@@ -4953,4 +4954,45 @@ public class TreeTableViewTest {
 
         sl.dispose();
     }
+
+    @Test public void test_columnVirtualization() {
+        TreeItem<Integer> root = new TreeItem<>(0);
+        root.setExpanded(true);
+        for (int i = 1; i < 100; i++) {
+            root.getChildren().add(new TreeItem<>(i));
+        }
+
+        TreeTableView<Integer> table = new TreeTableView<>(root);
+        for (int i = 0; i < 100; i++) {
+            final int column = i;
+            TreeTableColumn<Integer,String> col = new TreeTableColumn<>("Column " + i);
+            col.setPrefWidth(50);
+            col.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(param.getValue().getValue() + "," + column));
+            table.getColumns().add(col);
+        }
+        table.setPrefSize(400, 300);
+        table.getProperties().put(TableViewSkinBase.COLUMN_VIRTUALIZATION_ENABLED_KEY, Boolean.TRUE);
+
+        StageLoader sl = new StageLoader(table);
+
+        List<TreeTableCell> cells = new ArrayList<>();
+        for (Node n : VirtualFlowTestUtils.getCell(table, 3).getChildrenUnmodifiable()) {
+            if (n instanceof TreeTableCell) cells.add((TreeTableCell) n);
+        }
+        assertTrue(cells.size() > 0 && cells.size() <= 9);
+        assertEquals("3,0", cells.get(0).getText());
+
+        VirtualFlowTestUtils.getVirtualFlowHorizontalScrollbar(table).setValue(2500);
+        Toolkit.getToolkit().firePulse();
+
+        cells.clear();
+        for (Node n : VirtualFlowTestUtils.getCell(table, 3).getChildrenUnmodifiable()) {
+            if (n instanceof TreeTableCell) cells.add((TreeTableCell) n);
+        }
+        assertTrue(cells.size() <= 9);
+        assertEquals("3,50", cells.get(0).getText());
+        assertEquals(table.getVisibleLeafColumn(50), cells.get(0).getTableColumn());
+
+        sl.dispose();
+    }
 }
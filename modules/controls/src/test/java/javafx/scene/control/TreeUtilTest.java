@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package javafx.scene.control;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javafx.collections.FXCollections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks the row to TreeItem mapping of TreeView and TreeTableView, which is
+ * maintained incrementally as TreeItems change, against a flattened copy of
+ * the tree computed from scratch.
+ */
+public class TreeUtilTest {
+
+    private TreeItem<String> root;
+    private TreeView<String> treeView;
+    private TreeTableView<String> treeTableView;
+    private List<TreeItem<String>> all;
+    private Random random;
+
+    @Before public void setup() {
+        random = new Random(31);
+        all = new ArrayList<>();
+        root = createItem("root");
+        root.setExpanded(true);
+        for (int i = 0; i < 5; i++) {
+            TreeItem<String> child = createItem("" + i);
+            root.getChildren().add(child);
+            for (int j = 0; j < 5; j++) {
+                TreeItem<String> grandChild = createItem(i + "-" + j);
+                child.getChildren().add(grandChild);
+                for (int k = 0; k < 3; k++) {
+                    grandChild.getChildren().add(createItem(i + "-" + j + "-" + k));
+                }
+            }
+        }
+
+        treeView = new TreeView<>(root);
+        treeTableView = new TreeTableView<>(root);
+    }
+
+    private TreeItem<String> createItem(String value) {
+        TreeItem<String> item = new TreeItem<>(value);
+        all.add(item);
+        return item;
+    }
+
+    private static void flatten(TreeItem<String> item, List<TreeItem<String>> rows) {
+        rows.add(item);
+        if (item.isExpanded()) {
+            for (TreeItem<String> child : item.children == null ? FXCollections.<TreeItem<String>>emptyObservableList() : item.children) {
+                flatten(child, rows);
+            }
+        }
+    }
+
+    private void assertRowsMatch() {
+        for (boolean showRoot : new boolean[] { true, false }) {
+            treeView.setShowRoot(showRoot);
+            treeTableView.setShowRoot(showRoot);
+            if (! showRoot) root.setExpanded(true);
+
+            List<TreeItem<String>> rows = new ArrayList<>();
+            flatten(root, rows);
+            if (! showRoot) rows.remove(0);
+
+            assertEquals(rows.size(), treeView.getExpandedItemCount());
+            assertEquals(rows.size(), treeTableView.getExpandedItemCount());
+            for (int row = 0; row < rows.size(); row++) {
+                TreeItem<String> item = rows.get(row);
+                assertSame(item, treeView.getTreeItem(row));
+                assertSame(item, treeTableView.getTreeItem(row));
+                assertEquals(row, treeView.getRow(item));
+                assertEquals(row, treeTableView.getRow(item));
+            }
+            assertNull(treeView.getTreeItem(rows.size()));
+            assertNull(treeTableView.getTreeItem(rows.size()));
+        }
+    }
+
+    @Test public void testInitialRows() {
+        assertRowsMatch();
+    }
+
+    @Test public void testExpandAndCollapse() {
+        for (int n = 0; n < 200; n++) {
+            TreeItem<String> item = all.get(random.nextInt(all.size()));
+            item.setExpanded(! item.isExpanded());
+            assertRowsMatch();
+        }
+    }
+
+    @Test public void testAddAndRemoveChildren() {
+        for (TreeItem<String> item : all) {
+            item.setExpanded(true);
+        }
+
+        for (int n = 0; n < 200; n++) {
+            TreeItem<String> item = all.get(random.nextInt(all.size()));
+            if (item == root) continue;
+
+            switch (random.nextInt(3)) {
+                case 0:
+                    TreeItem<String> parent = item.getParent();
+                    if (parent != null) {
+                        parent.getChildren().remove(item);
+                        all.removeIf(i -> isDescendant(i, item));
+                    }
+                    break;
+                case 1:
+                    TreeItem<String> added = createItem(item.getValue() + "+");
+                    item.getChildren().add(0, added);
+                    break;
+                default:
+                    item.setExpanded(! item.isExpanded());
+                    break;
+            }
+            assertRowsMatch();
+        }
+    }
+
+    @Test public void testChangesBelowCollapsedItem() {
+        TreeItem<String> child = root.getChildren().get(2);
+        TreeItem<String> grandChild = child.getChildren().get(1);
+        child.setExpanded(true);
+        grandChild.setExpanded(true);
+        assertRowsMatch();
+
+        child.setExpanded(false);
+        grandChild.getChildren().add(createItem("hidden"));
+        grandChild.setExpanded(false);
+        assertRowsMatch();
+
+        child.setExpanded(true);
+        grandChild.setExpanded(true);
+        assertRowsMatch();
+    }
+
+    @Test public void testSortChildren() {
+        for (TreeItem<String> item : all) {
+            item.setExpanded(true);
+        }
+        assertRowsMatch();
+
+        FXCollections.reverse(root.getChildren());
+        FXCollections.reverse(root.getChildren().get(1).getChildren());
+        assertRowsMatch();
+
+        root.getChildren().get(3).getChildren().sort((a, b) -> b.getValue().compareTo(a.getValue()));
+        assertRowsMatch();
+    }
+
+    @Test public void testSetRoot() {
+        TreeItem<String> child = root.getChildren().get(0);
+        child.setExpanded(true);
+        treeView.setRoot(child);
+        treeTableView.setRoot(child);
+        root = child;
+        all.removeIf(i -> ! isDescendant(i, child));
+        assertRowsMatch();
+    }
+
+    private static boolean isDescendant(TreeItem<String> item, TreeItem<String> ancestor) {
+        for (TreeItem<String> i = item; i != null; i = i.getParent()) {
+            if (i == ancestor) return true;
+        }
+        return false;
+    }
+}
@@ -25,6 +25,9 @@
 
 package com.sun.javafx.fxml;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -34,12 +37,14 @@ import java.lang.reflect.TypeVariable;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import java.lang.reflect.*;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 
 import javafx.beans.value.ObservableValue;
+import com.sun.javafx.property.MethodHelper;
 import sun.reflect.misc.FieldUtil;
 import sun.reflect.misc.MethodUtil;
 import sun.reflect.misc.ReflectUtil;
@@ -57,6 +62,7 @@ public class BeanAdapter extends AbstractMap<String, Object> {
     private static class MethodCache {
         private final Map<String, List<Method>> methods;
         private final MethodCache nextClassCache;
+        private final ConcurrentHashMap<String, MethodHandle> getters = new ConcurrentHashMap<>();
 
         private MethodCache(Map<String, List<Method>> methods, MethodCache nextClassCache) {
             this.methods = methods;
@@ -78,11 +84,86 @@ public class BeanAdapter extends AbstractMap<String, Object> {
             return nextClassCache != null ? nextClassCache.getMethod(name, parameterTypes) : null;
         }
 
+        private MethodHandle getGetter(String key) {
+            MethodHandle getter = getters.get(key);
+
+            if (getter == null) {
+                Method getterMethod;
+                if (key.endsWith(PROPERTY_SUFFIX)) {
+                    getterMethod = getMethod(key);
+                } else {
+                    getterMethod = getMethod(getMethodName(GET_PREFIX, key));
+
+                    if (getterMethod == null) {
+                        getterMethod = getMethod(getMethodName(IS_PREFIX, key));
+                    }
+                }
+
+                if (getterMethod != null) {
+                    getter = MethodHelper.unreflect(getterMethod).asType(GETTER_TYPE);
+                } else {
+                    getter = NULL_GETTER;
+                }
+
+                getters.putIfAbsent(key, getter);
+            }
+
+            return getter;
+        }
     }
     
     private static final HashMap<Class<?>, MethodCache> globalMethodCache =
         new HashMap<>();
 
+    // Getter handles take the bean and return the property value; keys
+    // without a getter map to a handle that returns null
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodHandle NULL_GETTER =
+        MethodHandles.dropArguments(MethodHandles.constant(Object.class, null), 0, Object.class);
+
+    // Identifies a static getter or setter lookup; the value type is null
+    // for getters
+    private static class StaticMethodKey {
+        private final Class<?> sourceType;
+        private final String key;
+        private final Class<?> valueType;
+        private final Class<?> targetType;
+
+        private StaticMethodKey(Class<?> sourceType, String key, Class<?> valueType, Class<?> targetType) {
+            this.sourceType = sourceType;
+            this.key = key;
+            this.valueType = valueType;
+            this.targetType = targetType;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof StaticMethodKey)) {
+                return false;
+            }
+
+            StaticMethodKey staticMethodKey = (StaticMethodKey)object;
+            return sourceType == staticMethodKey.sourceType
+                && key.equals(staticMethodKey.key)
+                && valueType == staticMethodKey.valueType
+                && targetType == staticMethodKey.targetType;
+        }
+
+        @Override
+        public int hashCode() {
+            int hashCode = sourceType.hashCode();
+            hashCode = 31 * hashCode + key.hashCode();
+            hashCode = 31 * hashCode + ((valueType == null) ? 0 : valueType.hashCode());
+            hashCode = 31 * hashCode + ((targetType == null) ? 0 : targetType.hashCode());
+            return hashCode;
+        }
+    }
+
+    // Static property lookups walk the target type's hierarchy and
+    // interfaces, so their results, including failed ones, are cached
+    private static final HashMap<StaticMethodKey, Method> staticMethodCache =
+        new HashMap<>();
+
     private final MethodCache localCache;
 
     public static final String GET_PREFIX = "get";
@@ -204,22 +285,49 @@ public class BeanAdapter extends AbstractMap<String, Object> {
     }
 
     private Object get(String key) {
-        Method getterMethod = key.endsWith(PROPERTY_SUFFIX) ? localCache.getMethod(key) : getGetterMethod(key);
+        return invokeGetter(localCache.getGetter(key), bean);
+    }
 
-        Object value;
-        if (getterMethod != null) {
-            try {
-                value = MethodUtil.invoke(getterMethod, bean, (Object[]) null);
-            } catch (IllegalAccessException exception) {
-                throw new RuntimeException(exception);
-            } catch (InvocationTargetException exception) {
-                throw new RuntimeException(exception);
-            }
-        } else {
-            value = null;
+    /**
+     * Returns a handle for the getter that {@link #get(Object)} invokes for
+     * the given key on beans of the given type. The handle takes the bean
+     * and returns the value (boxed, if the getter returns a primitive type);
+     * if no such getter exists, it returns <tt>null</tt>. Handles are cached
+     * per type and key.
+     *
+     * @param type
+     * The bean type.
+     *
+     * @param key
+     * The property name, or the name of the property model method.
+     */
+    public static MethodHandle getGetter(Class<?> type, String key) {
+        if (key == null) {
+            throw new NullPointerException();
         }
 
-        return value;
+        MethodCache classMethodCache = getClassMethodCache(type);
+
+        return (classMethodCache == null) ? NULL_GETTER : classMethodCache.getGetter(key);
+    }
+
+    /**
+     * Invokes a getter handle returned by {@link #getGetter(Class, String)}.
+     * Exceptions thrown by the getter are reported the same way as by
+     * {@link #get(Object)}.
+     *
+     * @param getter
+     * The getter handle.
+     *
+     * @param bean
+     * The bean.
+     */
+    public static Object invokeGetter(MethodHandle getter, Object bean) {
+        try {
+            return (Object)getter.invokeExact(bean);
+        } catch (Throwable exception) {
+            throw new RuntimeException(MethodHelper.wrap(exception));
+        }
     }
 
     /**
@@ -844,6 +952,24 @@ public class BeanAdapter extends AbstractMap<String, Object> {
             throw new NullPointerException();
         }
 
+        StaticMethodKey staticMethodKey = new StaticMethodKey(sourceType, key, null, targetType);
+        synchronized (staticMethodCache) {
+            if (staticMethodCache.containsKey(staticMethodKey)) {
+                return staticMethodCache.get(staticMethodKey);
+            }
+        }
+
+        Method method = findStaticGetterMethod(sourceType, key, targetType);
+
+        synchronized (staticMethodCache) {
+            staticMethodCache.put(staticMethodKey, method);
+        }
+
+        return method;
+    }
+
+    private static Method findStaticGetterMethod(Class<?> sourceType, String key,
+        Class<?> targetType) {
         Method method = null;
 
         if (targetType != null) {
@@ -891,7 +1017,7 @@ public class BeanAdapter extends AbstractMap<String, Object> {
             }
 
             if (method == null) {
-                method = getStaticGetterMethod(sourceType, key, targetType.getSuperclass());
+                method = findStaticGetterMethod(sourceType, key, targetType.getSuperclass());
             }
         }
 
@@ -912,6 +1038,24 @@ public class BeanAdapter extends AbstractMap<String, Object> {
             throw new NullPointerException();
         }
 
+        StaticMethodKey staticMethodKey = new StaticMethodKey(sourceType, key, valueType, targetType);
+        synchronized (staticMethodCache) {
+            if (staticMethodCache.containsKey(staticMethodKey)) {
+                return staticMethodCache.get(staticMethodKey);
+            }
+        }
+
+        Method method = findStaticSetterMethod(sourceType, key, valueType, targetType);
+
+        synchronized (staticMethodCache) {
+            staticMethodCache.put(staticMethodKey, method);
+        }
+
+        return method;
+    }
+
+    private static Method findStaticSetterMethod(Class<?> sourceType, String key,
+        Class<?> valueType, Class<?> targetType) {
         Method method = null;
 
         if (targetType != null) {
@@ -941,7 +1085,7 @@ public class BeanAdapter extends AbstractMap<String, Object> {
             }
 
             if (method == null) {
-                method = getStaticSetterMethod(sourceType, key, valueType, targetType.getSuperclass());
+                method = findStaticSetterMethod(sourceType, key, valueType, targetType.getSuperclass());
             }
         }
 
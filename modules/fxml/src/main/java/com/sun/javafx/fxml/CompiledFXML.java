@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.fxml;
+
+import java.io.IOException;
+import javafx.fxml.FXMLLoader;
+
+/**
+ * Compiled FXML document interface. Implementations are generated by
+ * {@link com.sun.javafx.fxml.compiler.FXMLCompiler} and are used by
+ * {@link FXMLLoader} in place of parsing the document they were generated
+ * from.
+ */
+public interface CompiledFXML {
+    /**
+     * Builds the object hierarchy described by the document.
+     *
+     * @param loader
+     * The loader that is loading the document. Its namespace, resources,
+     * location and controller are used as they would be while parsing.
+     *
+     * @return
+     * The root of the object hierarchy.
+     */
+    public Object load(FXMLLoader loader) throws IOException;
+
+    /**
+     * Returns the digest of the document the class was generated from.
+     * {@link FXMLLoader} parses the document instead of using the class when
+     * the digest of the document at its location differs.
+     *
+     * @see com.sun.javafx.fxml.compiler.FXMLCompiler#getDigest(java.io.InputStream)
+     */
+    public String getSourceDigest();
+}
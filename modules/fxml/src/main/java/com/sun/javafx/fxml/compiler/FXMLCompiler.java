@@ -0,0 +1,2085 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.fxml.compiler;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import javax.lang.model.SourceVersion;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import javafx.beans.DefaultProperty;
+import javafx.beans.NamedArg;
+import javafx.fxml.FXMLLoader;
+import javafx.fxml.LoadException;
+import javafx.scene.Scene;
+import javafx.scene.image.Image;
+import javafx.scene.shape.TriangleMesh;
+import javafx.scene.text.Font;
+
+import com.sun.javafx.beans.IDProperty;
+import com.sun.javafx.fxml.BeanAdapter;
+import com.sun.javafx.fxml.CompiledFXML;
+
+/**
+ * Compiles FXML documents to Java source. The generated class implements
+ * {@link CompiledFXML} and builds the document's object hierarchy with
+ * direct constructor, setter and <tt>add()</tt> calls, following the order
+ * in which {@link FXMLLoader} applies the same document. When the compiled
+ * class is found on the class path under the name returned by
+ * {@link #getClassName(String)}, {@link FXMLLoader#load()} uses it instead of
+ * parsing the document.
+ * <p>
+ * Only the subset of FXML that can be resolved at compile time is supported.
+ * Documents that use scripts, <tt>fx:include</tt>, <tt>fx:copy</tt>, binding
+ * expressions, change listener attributes or types that require a builder
+ * other than the ones handled here are rejected with a
+ * {@link LoadException}; they continue to be parsed when loaded. A compiled
+ * class records the digest of its document, and is ignored by the loader
+ * once the document changes until it is regenerated.
+ * <p>
+ * The compiler can be run from a build task:
+ * <pre>
+ * java com.sun.javafx.fxml.compiler.FXMLCompiler &lt;resource directory&gt; &lt;output directory&gt; [&lt;document&gt; ...]
+ * </pre>
+ * The types referenced by the documents must be on the compiler's class path.
+ */
+public class FXMLCompiler {
+    /**
+     * The suffix appended to the document name to form the name of the
+     * generated class.
+     */
+    public static final String CLASS_NAME_SUFFIX = "_fxml";
+
+    private static final String FXML_EXTENSION = ".fxml";
+    private static final String DIGEST_ALGORITHM = "SHA-1";
+    private static final String WEB_VIEW_CLASS_NAME = "javafx.scene.web.WebView";
+
+    private static final Pattern extraneousWhitespacePattern = Pattern.compile("\\s+");
+
+    private final ClassLoader classLoader;
+
+    /**
+     * Creates a compiler that resolves the types referenced by documents
+     * with the given class loader.
+     *
+     * @param classLoader
+     */
+    public FXMLCompiler(ClassLoader classLoader) {
+        if (classLoader == null) {
+            throw new NullPointerException();
+        }
+
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Compiles a document.
+     *
+     * @param inputStream
+     * An input stream containing the FXML data to compile.
+     *
+     * @param className
+     * The fully qualified name of the class to generate.
+     *
+     * @return
+     * The Java source of the generated class.
+     *
+     * @throws LoadException
+     * If the document is invalid or uses a feature the compiler does not
+     * support.
+     */
+    public String compile(InputStream inputStream, String className) throws IOException {
+        if (inputStream == null || className == null) {
+            throw new NullPointerException();
+        }
+
+        byte[] data = read(inputStream);
+        Document document = parse(new ByteArrayInputStream(data));
+        document.digest = digest(data);
+
+        return new Generator(className).generate(document);
+    }
+
+    /**
+     * Returns the digest of a document, as returned by the
+     * {@link CompiledFXML#getSourceDigest()} method of the class compiled
+     * from it.
+     *
+     * @param inputStream
+     * An input stream containing the FXML data.
+     */
+    public static String getDigest(InputStream inputStream) throws IOException {
+        return digest(read(inputStream));
+    }
+
+    private static byte[] read(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int count;
+        while ((count = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, count);
+        }
+
+        return outputStream.toByteArray();
+    }
+
+    private static String digest(byte[] data) {
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException exception) {
+            throw new RuntimeException(exception);
+        }
+
+        StringBuilder digest = new StringBuilder();
+        for (byte b : messageDigest.digest(data)) {
+            digest.append(Character.forDigit((b >> 4) & 0xf, 16))
+                .append(Character.forDigit(b & 0xf, 16));
+        }
+
+        return digest.toString();
+    }
+
+    /**
+     * Returns the name of the class generated for the document with the
+     * given resource name, or <tt>null</tt> if the resource name cannot be
+     * mapped to a class name.
+     *
+     * @param resourceName
+     * The document's resource name, e.g. <tt>com/foo/Bar.fxml</tt>.
+     */
+    public static String getClassName(String resourceName) {
+        String name = resourceName.startsWith("/") ? resourceName.substring(1) : resourceName;
+
+        int i = name.lastIndexOf('/');
+        String packageName = (i == -1) ? "" : name.substring(0, i).replace('/', '.');
+        String documentName = name.substring(i + 1);
+
+        int j = documentName.lastIndexOf('.');
+        if (j > 0) {
+            documentName = documentName.substring(0, j);
+        }
+
+        StringBuilder simpleName = new StringBuilder();
+        for (int k = 0, n = documentName.length(); k < n; k++) {
+            char c = documentName.charAt(k);
+            simpleName.append(Character.isJavaIdentifierPart(c) ? c : '_');
+        }
+
+        if (simpleName.length() == 0
+            || !Character.isJavaIdentifierStart(simpleName.charAt(0))) {
+            simpleName.insert(0, '_');
+        }
+
+        simpleName.append(CLASS_NAME_SUFFIX);
+
+        if (packageName.length() > 0 && !SourceVersion.isName(packageName)) {
+            return null;
+        }
+
+        return (packageName.length() == 0) ? simpleName.toString()
+            : packageName + "." + simpleName;
+    }
+
+    /**
+     * Compiles the documents found in a resource directory into Java source
+     * files. Documents that cannot be compiled are reported and skipped.
+     *
+     * @param args
+     * The resource directory, the output directory and, optionally, the
+     * resource names of the documents to compile. All <tt>.fxml</tt> files in
+     * the resource directory are compiled when no document is given.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: java " + FXMLCompiler.class.getName()
+                + " <resource directory> <output directory> [<document> ...]");
+            System.exit(1);
+        }
+
+        File resourceDirectory = new File(args[0]);
+        File outputDirectory = new File(args[1]);
+
+        List<String> resourceNames = new ArrayList<>();
+        if (args.length > 2) {
+            resourceNames.addAll(Arrays.asList(args).subList(2, args.length));
+        } else {
+            findDocuments(resourceDirectory, "", resourceNames);
+        }
+
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = FXMLCompiler.class.getClassLoader();
+        }
+
+        FXMLCompiler compiler = new FXMLCompiler(classLoader);
+        Charset charset = Charset.forName(FXMLLoader.DEFAULT_CHARSET_NAME);
+
+        for (String resourceName : resourceNames) {
+            String className = getClassName(resourceName);
+            if (className == null) {
+                System.err.println("Warning: " + resourceName + " was not compiled: "
+                    + "the resource name does not map to a class name.");
+                continue;
+            }
+
+            String source;
+            try (InputStream inputStream = new FileInputStream(new File(resourceDirectory, resourceName))) {
+                source = compiler.compile(inputStream, className);
+            } catch (LoadException exception) {
+                System.err.println("Warning: " + resourceName + " was not compiled: "
+                    + exception.getMessage());
+                continue;
+            }
+
+            File sourceFile = new File(outputDirectory, className.replace('.', File.separatorChar) + ".java");
+            sourceFile.getParentFile().mkdirs();
+
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(sourceFile), charset)) {
+                writer.write(source);
+            }
+        }
+    }
+
+    private static void findDocuments(File directory, String path, List<String> resourceNames) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        Arrays.sort(files);
+        for (File file : files) {
+            if (file.isDirectory()) {
+                findDocuments(file, path + file.getName() + "/", resourceNames);
+            } else if (file.getName().endsWith(FXML_EXTENSION)) {
+                resourceNames.add(path + file.getName());
+            }
+        }
+    }
+
+    // Parsed document
+    private static class Document {
+        public final List<String[]> processingInstructions = new ArrayList<>();
+        public Node root = null;
+        public String fxNamespaceURI = null;
+        public String digest = null;
+    }
+
+    // Parsed element; content holds child nodes and non-whitespace text
+    private static class Node {
+        public final String prefix;
+        public final String localName;
+        public final int lineNumber;
+        public final List<String[]> attributes = new ArrayList<>();
+        public final List<Object> content = new ArrayList<>();
+
+        public Node(String prefix, String localName, int lineNumber) {
+            this.prefix = prefix;
+            this.localName = localName;
+            this.lineNumber = lineNumber;
+        }
+
+        public boolean hasChildNodes() {
+            for (Object item : content) {
+                if (item instanceof Node) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        public String getAttribute(String prefix, String localName) {
+            for (String[] attribute : attributes) {
+                if (equals(prefix, attribute[0]) && localName.equals(attribute[1])) {
+                    return attribute[2];
+                }
+            }
+
+            return null;
+        }
+
+        private static boolean equals(String a, String b) {
+            return (a == null) ? b == null : a.equals(b);
+        }
+    }
+
+    private static String nullIfEmpty(String prefix) {
+        return (prefix != null && prefix.length() == 0) ? null : prefix;
+    }
+
+    private Document parse(InputStream inputStream) throws IOException {
+        Document document = new Document();
+
+        try {
+            XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+            xmlInputFactory.setProperty("javax.xml.stream.isCoalescing", true);
+
+            XMLStreamReader xmlStreamReader = xmlInputFactory.createXMLStreamReader(
+                new InputStreamReader(inputStream, FXMLLoader.DEFAULT_CHARSET_NAME));
+
+            LinkedList<Node> stack = new LinkedList<>();
+            while (xmlStreamReader.hasNext()) {
+                int event = xmlStreamReader.next();
+
+                switch (event) {
+                    case XMLStreamConstants.PROCESSING_INSTRUCTION: {
+                        document.processingInstructions.add(new String[] {
+                            xmlStreamReader.getPITarget().trim(),
+                            xmlStreamReader.getPIData().trim()
+                        });
+                        break;
+                    }
+
+                    case XMLStreamConstants.START_ELEMENT: {
+                        Node node = new Node(nullIfEmpty(xmlStreamReader.getPrefix()),
+                            xmlStreamReader.getLocalName(),
+                            xmlStreamReader.getLocation().getLineNumber());
+
+                        for (int i = 0, n = xmlStreamReader.getAttributeCount(); i < n; i++) {
+                            node.attributes.add(new String[] {
+                                nullIfEmpty(xmlStreamReader.getAttributePrefix(i)),
+                                xmlStreamReader.getAttributeLocalName(i),
+                                xmlStreamReader.getAttributeValue(i)
+                            });
+                        }
+
+                        if (stack.isEmpty()) {
+                            if (document.root != null) {
+                                throw new LoadException("Root value already specified.");
+                            }
+
+                            document.root = node;
+                            document.fxNamespaceURI = xmlStreamReader.getNamespaceContext()
+                                .getNamespaceURI(FXMLLoader.FX_NAMESPACE_PREFIX);
+                        } else {
+                            stack.peek().content.add(node);
+                        }
+
+                        stack.push(node);
+                        break;
+                    }
+
+                    case XMLStreamConstants.END_ELEMENT: {
+                        stack.pop();
+                        break;
+                    }
+
+                    case XMLStreamConstants.CHARACTERS: {
+                        if (!xmlStreamReader.isWhiteSpace() && !stack.isEmpty()) {
+                            stack.peek().content.add(xmlStreamReader.getText());
+                        }
+                        break;
+                    }
+                }
+            }
+        } catch (XMLStreamException exception) {
+            throw new LoadException(exception);
+        }
+
+        if (document.root == null) {
+            throw new LoadException("The document has no root element.");
+        }
+
+        return document;
+    }
+
+    // A value produced by the generated code: a Java expression and its static type
+    private static class Value {
+        public final String expression;
+        public final Class<?> type;
+
+        public Value(String expression, Class<?> type) {
+            this.expression = expression;
+            this.type = type;
+        }
+    }
+
+    // A local variable holding a value that has an fx:id
+    private static class Variable {
+        public final String id;
+        public final String name;
+        public final Class<?> type;
+        public final int method;
+
+        public Variable(String id, String name, Class<?> type, int method) {
+            this.id = id;
+            this.name = name;
+            this.type = type;
+            this.method = method;
+        }
+    }
+
+    // Generates the source for a single document
+    private class Generator {
+        private final String packageName;
+        private final String simpleName;
+
+        private final List<String> packages = new LinkedList<>();
+        private final Map<String, Class<?>> classes = new HashMap<>();
+        private final Map<String, Variable> variables = new HashMap<>();
+
+        private final StringBuilder methods = new StringBuilder();
+        private StringBuilder code = new StringBuilder();
+        private int method = 0;
+        private int count = 0;
+
+        private Node current = null;
+
+        public Generator(String className) {
+            int i = className.lastIndexOf('.');
+            packageName = (i == -1) ? "" : className.substring(0, i);
+            simpleName = className.substring(i + 1);
+        }
+
+        public String generate(Document document) throws LoadException {
+            for (String[] processingInstruction : document.processingInstructions) {
+                String target = processingInstruction[0];
+                if (target.equals(FXMLLoader.LANGUAGE_PROCESSING_INSTRUCTION)) {
+                    throw unsupported("Scripts are not supported.");
+                } else if (target.equals(FXMLLoader.IMPORT_PROCESSING_INSTRUCTION)) {
+                    processImport(processingInstruction[1]);
+                }
+            }
+
+            // Documents written for a newer runtime are left to the loader,
+            // which reports the version mismatch
+            String fxNamespaceURI = document.fxNamespaceURI;
+            if (fxNamespaceURI != null) {
+                String fxVersion = fxNamespaceURI.substring(fxNamespaceURI.lastIndexOf('/') + 1);
+                if (!fxVersion.equals("fxml")
+                    && !fxVersion.equals(FXMLLoader.FX_NAMESPACE_VERSION)) {
+                    throw unsupported("Unsupported FXML namespace version " + fxVersion + ".");
+                }
+            }
+
+            Value root = processValueElement(document.root, true);
+
+            StringBuilder source = new StringBuilder();
+            source.append("/*\n * Generated by ").append(FXMLCompiler.class.getName())
+                .append(". Do not edit.\n */\n");
+            if (packageName.length() > 0) {
+                source.append("package ").append(packageName).append(";\n");
+            }
+            source.append("\n@SuppressWarnings({\"unchecked\", \"rawtypes\", \"deprecation\"})\n");
+            source.append("public final class ").append(simpleName).append(" implements ")
+                .append(CompiledFXML.class.getName()).append(" {\n");
+            source.append("    @Override\n");
+            source.append("    public java.lang.Object load(final javafx.fxml.FXMLLoader loader)")
+                .append(" throws java.io.IOException {\n");
+            source.append("        final java.util.Map<java.lang.String, java.lang.Object> namespace")
+                .append(" = loader.getNamespace();\n");
+            source.append(code);
+            source.append("        return ").append(root.expression).append(";\n");
+            source.append("    }\n");
+            source.append("\n    @Override\n");
+            source.append("    public java.lang.String getSourceDigest() {\n");
+            source.append("        return \"").append(document.digest).append("\";\n");
+            source.append("    }\n");
+            source.append(methods);
+            source.append("}\n");
+
+            return source.toString();
+        }
+
+        private LoadException unsupported(String message) {
+            if (current != null) {
+                message += " (line " + current.lineNumber + ")";
+            }
+
+            return new LoadException(message);
+        }
+
+        private void emit(String statement) {
+            code.append("        ").append(statement).append('\n');
+        }
+
+        private String newVariable() {
+            return "v" + (count++);
+        }
+
+        // Imports and type lookup, as performed by FXMLLoader
+
+        private void processImport(String target) throws LoadException {
+            if (target.endsWith(".*")) {
+                packages.add(target.substring(0, target.length() - 2));
+            } else {
+                try {
+                    loadType(target, true);
+                } catch (ClassNotFoundException exception) {
+                    throw unsupported("Cannot import " + target + ".");
+                }
+            }
+        }
+
+        private Class<?> getType(String name) {
+            Class<?> type = null;
+
+            if (Character.isLowerCase(name.charAt(0))) {
+                // This is a fully-qualified class name
+                try {
+                    type = loadType(name, false);
+                } catch (ClassNotFoundException exception) {
+                    // No-op
+                }
+            } else {
+                // This is an unqualified class name
+                type = classes.get(name);
+
+                if (type == null) {
+                    for (String packageName : packages) {
+                        try {
+                            type = loadTypeForPackage(packageName, name);
+                        } catch (ClassNotFoundException exception) {
+                            // No-op
+                        }
+
+                        if (type != null) {
+                            break;
+                        }
+                    }
+
+                    if (type != null) {
+                        classes.put(name, type);
+                    }
+                }
+            }
+
+            return type;
+        }
+
+        private Class<?> loadType(String name, boolean cache) throws ClassNotFoundException {
+            int i = name.indexOf('.');
+            int n = name.length();
+            while (i != -1
+                && i < n
+                && Character.isLowerCase(name.charAt(i + 1))) {
+                i = name.indexOf('.', i + 1);
+            }
+
+            if (i == -1 || i == n) {
+                throw new ClassNotFoundException();
+            }
+
+            String packageName = name.substring(0, i);
+            String className = name.substring(i + 1);
+
+            Class<?> type = loadTypeForPackage(packageName, className);
+
+            if (cache) {
+                classes.put(className, type);
+            }
+
+            return type;
+        }
+
+        private Class<?> loadTypeForPackage(String packageName, String className) throws ClassNotFoundException {
+            return classLoader.loadClass(packageName + "." + className.replace('.', '$'));
+        }
+
+        // Type names usable in the generated source
+
+        private boolean isAccessible(Class<?> type) {
+            while (type.isArray()) {
+                type = type.getComponentType();
+            }
+
+            if (type.isPrimitive()) {
+                return true;
+            }
+
+            Package typePackage = type.getPackage();
+            boolean samePackage = (typePackage == null) ? packageName.length() == 0
+                : typePackage.getName().equals(packageName);
+
+            for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+                int modifiers = c.getModifiers();
+                if (c.isAnonymousClass()
+                    || c.isLocalClass()
+                    || Modifier.isPrivate(modifiers)
+                    || !(Modifier.isPublic(modifiers) || samePackage)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private String typeName(Class<?> type) throws LoadException {
+            if (!isAccessible(type) || type.getCanonicalName() == null) {
+                throw unsupported(type.getName() + " is not accessible from the generated class.");
+            }
+
+            return type.getCanonicalName();
+        }
+
+        private Class<?> wrap(Class<?> type) {
+            if (type == Boolean.TYPE) {
+                return Boolean.class;
+            } else if (type == Character.TYPE) {
+                return Character.class;
+            } else if (type == Byte.TYPE) {
+                return Byte.class;
+            } else if (type == Short.TYPE) {
+                return Short.class;
+            } else if (type == Integer.TYPE) {
+                return Integer.class;
+            } else if (type == Long.TYPE) {
+                return Long.class;
+            } else if (type == Float.TYPE) {
+                return Float.class;
+            } else if (type == Double.TYPE) {
+                return Double.class;
+            }
+
+            return type;
+        }
+
+        // Property lookup, as performed by BeanAdapter
+
+        private Method getGetterMethod(Class<?> type, String name) {
+            String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+
+            Method method = getInstanceMethod(type, BeanAdapter.GET_PREFIX + suffix);
+            if (method == null) {
+                method = getInstanceMethod(type, BeanAdapter.IS_PREFIX + suffix);
+            }
+
+            return method;
+        }
+
+        private Method getSetterMethod(Class<?> type, String name, Class<?> propertyType) {
+            String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            return getInstanceMethod(type, BeanAdapter.SET_PREFIX + suffix, propertyType);
+        }
+
+        private Method getInstanceMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+            try {
+                Method method = type.getMethod(name, parameterTypes);
+                return Modifier.isStatic(method.getModifiers()) ? null : method;
+            } catch (NoSuchMethodException exception) {
+                return null;
+            }
+        }
+
+        private Method getStaticSetterMethod(Class<?> sourceType, String name,
+            Class<?> propertyType, Class<?> targetType) {
+            String methodName = BeanAdapter.SET_PREFIX + Character.toUpperCase(name.charAt(0))
+                + name.substring(1);
+
+            for (Method method : sourceType.getMethods()) {
+                Class<?>[] parameterTypes = method.getParameterTypes();
+                if (Modifier.isStatic(method.getModifiers())
+                    && method.getName().equals(methodName)
+                    && parameterTypes.length == 2
+                    && parameterTypes[0].isAssignableFrom(targetType)
+                    && parameterTypes[1] == propertyType) {
+                    return method;
+                }
+            }
+
+            return null;
+        }
+
+        private Class<?> getListItemType(Type listType) throws LoadException {
+            Type itemType = BeanAdapter.getGenericListItemType(listType);
+
+            if (itemType instanceof ParameterizedType) {
+                itemType = ((ParameterizedType)itemType).getRawType();
+            }
+
+            if (!(itemType instanceof Class<?>)) {
+                throw unsupported("Cannot determine the item type of " + listType + ".");
+            }
+
+            return (Class<?>)itemType;
+        }
+
+        // Values
+
+        private String quote(String value) {
+            StringBuilder quoted = new StringBuilder("\"");
+
+            for (int i = 0, n = value.length(); i < n; i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"': quoted.append("\\\""); break;
+                    case '\\': quoted.append("\\\\"); break;
+                    case '\n': quoted.append("\\n"); break;
+                    case '\r': quoted.append("\\r"); break;
+                    case '\t': quoted.append("\\t"); break;
+                    default:
+                        if (c < 0x20 || c > 0x7e) {
+                            quoted.append(String.format("\\u%04x", (int)c));
+                        } else {
+                            quoted.append(c);
+                        }
+                }
+            }
+
+            return quoted.append('"').toString();
+        }
+
+        private String doubleLiteral(double value) {
+            if (Double.isNaN(value)) {
+                return "java.lang.Double.NaN";
+            } else if (value == Double.POSITIVE_INFINITY) {
+                return "java.lang.Double.POSITIVE_INFINITY";
+            } else if (value == Double.NEGATIVE_INFINITY) {
+                return "java.lang.Double.NEGATIVE_INFINITY";
+            }
+
+            return Double.toString(value);
+        }
+
+        private String floatLiteral(float value) {
+            if (Float.isNaN(value)) {
+                return "java.lang.Float.NaN";
+            } else if (value == Float.POSITIVE_INFINITY) {
+                return "java.lang.Float.POSITIVE_INFINITY";
+            } else if (value == Float.NEGATIVE_INFINITY) {
+                return "java.lang.Float.NEGATIVE_INFINITY";
+            }
+
+            return Float.toString(value) + "f";
+        }
+
+        /**
+         * Returns an expression that evaluates to the given string coerced to
+         * the given type, as BeanAdapter.coerce() would convert it.
+         */
+        private String literal(String value, Class<?> type) throws LoadException {
+            if (type.isAssignableFrom(String.class)) {
+                return quote(value);
+            }
+
+            try {
+                if (type == Boolean.class || type == Boolean.TYPE) {
+                    return Boolean.valueOf(value).toString();
+                } else if (type == Character.class || type == Character.TYPE) {
+                    if (value.length() == 0) {
+                        throw unsupported("Unable to coerce an empty string to " + type + ".");
+                    }
+
+                    char c = value.charAt(0);
+                    return (c == '\'') ? "'\\''"
+                        : (c == '"') ? "'\"'"
+                        : "'" + quote(String.valueOf(c)).substring(1, quote(String.valueOf(c)).length() - 1) + "'";
+                } else if (type == Byte.class || type == Byte.TYPE) {
+                    return "(byte) " + Byte.valueOf(value);
+                } else if (type == Short.class || type == Short.TYPE) {
+                    return "(short) " + Short.valueOf(value);
+                } else if (type == Integer.class || type == Integer.TYPE) {
+                    return Integer.valueOf(value).toString();
+                } else if (type == Long.class || type == Long.TYPE) {
+                    return Long.valueOf(value) + "L";
+                } else if (type == Float.class || type == Float.TYPE) {
+                    return floatLiteral(Float.valueOf(value));
+                } else if (type == Double.class || type == Double.TYPE) {
+                    return doubleLiteral(Double.valueOf(value));
+                } else if (type == Number.class) {
+                    return value.contains(".")
+                        ? "java.lang.Double.valueOf(" + doubleLiteral(Double.valueOf(value)) + ")"
+                        : "java.lang.Long.valueOf(" + Long.valueOf(value) + "L)";
+                } else if (type == BigInteger.class) {
+                    new BigInteger(value);
+                    return "new java.math.BigInteger(" + quote(value) + ")";
+                } else if (type == BigDecimal.class) {
+                    new BigDecimal(value);
+                    return "new java.math.BigDecimal(" + quote(value) + ")";
+                }
+            } catch (NumberFormatException exception) {
+                throw unsupported("Unable to coerce " + value + " to " + type + ".");
+            }
+
+            if (type == Class.class) {
+                throw unsupported("Class values are not supported.");
+            }
+
+            if (type.isEnum()) {
+                Enum<?> constant;
+                try {
+                    constant = (Enum<?>)BeanAdapter.coerce(value, type);
+                } catch (RuntimeException exception) {
+                    throw unsupported("Unable to coerce " + value + " to " + type + ".");
+                }
+
+                return typeName(type) + "." + constant.name();
+            }
+
+            // Look up the valueOf() method that BeanAdapter.coerce() would use
+            Method valueOfMethod = null;
+            for (Class<?> valueType = String.class; valueOfMethod == null && valueType != null;
+                valueType = valueType.getSuperclass()) {
+                try {
+                    valueOfMethod = type.getDeclaredMethod(BeanAdapter.VALUE_OF_METHOD_NAME, valueType);
+                } catch (NoSuchMethodException exception) {
+                    // No-op
+                }
+            }
+
+            if (valueOfMethod == null
+                || !Modifier.isPublic(valueOfMethod.getModifiers())
+                || !Modifier.isStatic(valueOfMethod.getModifiers())) {
+                throw unsupported("Unable to coerce " + value + " to " + type + ".");
+            }
+
+            return typeName(type) + "." + BeanAdapter.VALUE_OF_METHOD_NAME + "(" + quote(value) + ")";
+        }
+
+        /**
+         * Returns an expression that coerces the result of the given
+         * expression to the given type at run time.
+         */
+        private String coerce(String expression, Class<?> expressionType, Class<?> type) throws LoadException {
+            if (!type.isPrimitive() && type.isAssignableFrom(expressionType)) {
+                return expression;
+            }
+
+            if (type.isPrimitive() && wrap(type) == expressionType) {
+                return expression;
+            }
+
+            String wrapperName = typeName(wrap(type));
+            return "((" + wrapperName + ") " + BeanAdapter.class.getName() + ".coerce("
+                + expression + ", " + wrapperName + ".class))";
+        }
+
+        private String coerce(Value value, Class<?> type) throws LoadException {
+            return coerce(value.expression, value.type, type);
+        }
+
+        private String reference(Variable variable) throws LoadException {
+            if (variable.method == method) {
+                return variable.name;
+            }
+
+            return "((" + typeName(variable.type) + ") namespace.get(" + quote(variable.id) + "))";
+        }
+
+        /**
+         * Returns an expression for an attribute value, resolving the
+         * escape, location, resource and expression prefixes as FXMLLoader
+         * does and coercing the result to the given type.
+         */
+        private String attributeValue(String value, Class<?> type) throws LoadException {
+            if (value.startsWith(FXMLLoader.ESCAPE_PREFIX)) {
+                value = value.substring(FXMLLoader.ESCAPE_PREFIX.length());
+
+                if (value.length() == 0
+                    || !(value.startsWith(FXMLLoader.ESCAPE_PREFIX)
+                        || value.startsWith(FXMLLoader.RELATIVE_PATH_PREFIX)
+                        || value.startsWith(FXMLLoader.RESOURCE_KEY_PREFIX)
+                        || value.startsWith(FXMLLoader.EXPRESSION_PREFIX)
+                        || value.startsWith(FXMLLoader.BI_DIRECTIONAL_BINDING_PREFIX))) {
+                    throw unsupported("Invalid escape sequence.");
+                }
+
+                return literal(value, type);
+            }
+
+            if (value.startsWith(FXMLLoader.EXPRESSION_PREFIX)) {
+                String expression = value.substring(FXMLLoader.EXPRESSION_PREFIX.length());
+
+                if (expression.equals(FXMLLoader.NULL_KEYWORD)) {
+                    if (type.isPrimitive()) {
+                        throw unsupported("Cannot coerce null to " + type + ".");
+                    }
+
+                    return "null";
+                }
+
+                Variable variable = variables.get(expression);
+                if (variable != null
+                    && (type.isAssignableFrom(variable.type) || wrap(type) == variable.type)) {
+                    return reference(variable);
+                }
+            }
+
+            if (value.startsWith(FXMLLoader.RELATIVE_PATH_PREFIX)
+                || value.startsWith(FXMLLoader.RESOURCE_KEY_PREFIX)
+                || value.startsWith(FXMLLoader.EXPRESSION_PREFIX)) {
+                return coerce("loader.impl_resolvePrefixedValue(" + quote(value) + ")",
+                    Object.class, type);
+            }
+
+            return literal(value, type);
+        }
+
+        private boolean isBindingExpression(String value) {
+            return (value.startsWith(FXMLLoader.BINDING_EXPRESSION_PREFIX)
+                    && value.endsWith(FXMLLoader.BINDING_EXPRESSION_SUFFIX))
+                || value.startsWith(FXMLLoader.BI_DIRECTIONAL_BINDING_PREFIX);
+        }
+
+        // Elements
+
+        private boolean isPropertyElement(Node node) {
+            return node.prefix == null
+                && Character.isLowerCase(node.localName.charAt(node.localName.lastIndexOf('.') + 1));
+        }
+
+        private boolean isFXElement(Node node, String localName) {
+            return FXMLLoader.FX_NAMESPACE_PREFIX.equals(node.prefix)
+                && node.localName.equals(localName);
+        }
+
+        private Value processValueElement(Node node, boolean root) throws LoadException {
+            Node parent = current;
+            current = node;
+
+            Value value;
+            if (node.prefix == null) {
+                Class<?> type = getType(node.localName);
+                if (type == null) {
+                    throw unsupported(node.localName + " is not a valid type.");
+                }
+
+                value = processInstance(node, type, root, false);
+            } else if (isFXElement(node, FXMLLoader.ROOT_TAG)) {
+                if (!root) {
+                    throw unsupported("Root value already specified.");
+                }
+
+                String typeName = node.getAttribute(null, FXMLLoader.ROOT_TYPE_ATTRIBUTE);
+                if (typeName == null) {
+                    throw unsupported(FXMLLoader.ROOT_TYPE_ATTRIBUTE + " is required.");
+                }
+
+                Class<?> type = getType(typeName);
+                if (type == null) {
+                    throw unsupported(typeName + " is not a valid type.");
+                }
+
+                value = processInstance(node, type, root, true);
+            } else if (isFXElement(node, FXMLLoader.REFERENCE_TAG)) {
+                value = processReference(node);
+            } else {
+                throw unsupported(node.prefix + ":" + node.localName + " is not supported.");
+            }
+
+            current = parent;
+            return value;
+        }
+
+        // Generates a child value in a method of its own so that large
+        // documents do not exceed the method size limit
+        private Value processChildValueElement(Node node) throws LoadException {
+            if (!node.hasChildNodes()) {
+                return processValueElement(node, false);
+            }
+
+            StringBuilder outerCode = code;
+            int outerMethod = method;
+
+            int childMethod = count++;
+            code = new StringBuilder();
+            method = childMethod;
+
+            Value value = processValueElement(node, false);
+
+            methods.append("\n    private static ").append(typeName(value.type))
+                .append(" create").append(childMethod)
+                .append("(final javafx.fxml.FXMLLoader loader,")
+                .append(" final java.util.Map<java.lang.String, java.lang.Object> namespace)")
+                .append(" throws java.io.IOException {\n");
+            methods.append(code);
+            methods.append("        return ").append(value.expression).append(";\n");
+            methods.append("    }\n");
+
+            code = outerCode;
+            method = outerMethod;
+
+            String variable = newVariable();
+            emit("final " + typeName(value.type) + " " + variable + " = create" + childMethod
+                + "(loader, namespace);");
+
+            // Make the value directly referenceable from the calling method
+            String id = node.getAttribute(FXMLLoader.FX_NAMESPACE_PREFIX, FXMLLoader.FX_ID_ATTRIBUTE);
+            if (id != null) {
+                variables.put(id, new Variable(id, variable, value.type, method));
+            }
+
+            return new Value(variable, value.type);
+        }
+
+        private Value processReference(Node node) throws LoadException {
+            String source = null;
+            for (String[] attribute : node.attributes) {
+                if (attribute[0] == null
+                    && attribute[1].equals(FXMLLoader.REFERENCE_SOURCE_ATTRIBUTE)) {
+                    source = attribute[2];
+                } else {
+                    throw unsupported("Attributes of " + FXMLLoader.FX_NAMESPACE_PREFIX + ":"
+                        + FXMLLoader.REFERENCE_TAG + " other than "
+                        + FXMLLoader.REFERENCE_SOURCE_ATTRIBUTE + " are not supported.");
+                }
+            }
+
+            if (source == null) {
+                throw unsupported(FXMLLoader.REFERENCE_SOURCE_ATTRIBUTE + " is required.");
+            }
+
+            if (!node.content.isEmpty()) {
+                throw unsupported("Unexpected content in " + FXMLLoader.FX_NAMESPACE_PREFIX + ":"
+                    + FXMLLoader.REFERENCE_TAG + ".");
+            }
+
+            Variable variable = variables.get(source);
+            if (variable == null) {
+                throw unsupported("Value \"" + source + "\" does not exist.");
+            }
+
+            return new Value(reference(variable), variable.type);
+        }
+
+        private void processDefine(Node node) throws LoadException {
+            Node parent = current;
+            current = node;
+
+            if (!node.attributes.isEmpty()) {
+                throw unsupported("Element does not support attributes.");
+            }
+
+            for (Object item : node.content) {
+                if (!(item instanceof Node) || isPropertyElement((Node)item)) {
+                    throw unsupported("Unexpected content in " + FXMLLoader.FX_NAMESPACE_PREFIX + ":"
+                        + FXMLLoader.DEFINE_TAG + ".");
+                }
+
+                Node child = (Node)item;
+                if (isFXElement(child, FXMLLoader.DEFINE_TAG)) {
+                    processDefine(child);
+                } else {
+                    processChildValueElement(child);
+                }
+            }
+
+            current = parent;
+        }
+
+        private Value processInstance(Node node, Class<?> type, boolean root, boolean fxRoot)
+            throws LoadException {
+            String id = null;
+            String controllerName = null;
+            String fxValue = null;
+            String constant = null;
+            String factory = null;
+
+            List<String[]> propertyAttributes = new ArrayList<>();
+            List<String[]> eventHandlerAttributes = new ArrayList<>();
+            List<Object[]> staticPropertyAttributes = new ArrayList<>();
+
+            for (String[] attribute : node.attributes) {
+                String prefix = attribute[0];
+                String localName = attribute[1];
+                String value = attribute[2];
+
+                if (prefix == null) {
+                    if (fxRoot && localName.equals(FXMLLoader.ROOT_TYPE_ATTRIBUTE)) {
+                        continue;
+                    }
+
+                    if (localName.startsWith(FXMLLoader.EVENT_HANDLER_PREFIX)) {
+                        eventHandlerAttributes.add(attribute);
+                    } else {
+                        int i = localName.lastIndexOf('.');
+
+                        if (i == -1) {
+                            propertyAttributes.add(attribute);
+                        } else {
+                            Class<?> sourceType = getType(localName.substring(0, i));
+                            if (sourceType == null) {
+                                throw unsupported(localName + " is not a valid attribute.");
+                            }
+
+                            staticPropertyAttributes.add(new Object[] {
+                                sourceType, localName.substring(i + 1), value
+                            });
+                        }
+                    }
+                } else if (prefix.equals(FXMLLoader.FX_NAMESPACE_PREFIX)) {
+                    if (localName.equals(FXMLLoader.FX_ID_ATTRIBUTE)) {
+                        if (!SourceVersion.isIdentifier(value)
+                            || value.equals(FXMLLoader.NULL_KEYWORD)) {
+                            throw unsupported("Invalid identifier.");
+                        }
+
+                        id = value;
+                    } else if (localName.equals(FXMLLoader.FX_CONTROLLER_ATTRIBUTE)) {
+                        if (!root) {
+                            throw unsupported(FXMLLoader.FX_NAMESPACE_PREFIX + ":"
+                                + FXMLLoader.FX_CONTROLLER_ATTRIBUTE
+                                + " can only be applied to root element.");
+                        }
+
+                        controllerName = value;
+                    } else if (!fxRoot && localName.equals(FXMLLoader.FX_VALUE_ATTRIBUTE)) {
+                        fxValue = value;
+                    } else if (!fxRoot && localName.equals(FXMLLoader.FX_CONSTANT_ATTRIBUTE)) {
+                        constant = value;
+                    } else if (!fxRoot && localName.equals(FXMLLoader.FX_FACTORY_ATTRIBUTE)) {
+                        factory = value;
+                    } else {
+                        throw unsupported("Invalid attribute.");
+                    }
+                } else {
+                    throw unsupported(prefix + ":" + localName + " is not a valid attribute.");
+                }
+            }
+
+            if (controllerName != null) {
+                emit("loader.impl_createController(" + quote(controllerName) + ");");
+            }
+
+            if (Map.class.isAssignableFrom(type)) {
+                throw unsupported("Untyped elements are not supported.");
+            }
+
+            String expression;
+            Class<?> valueType = type;
+            if (fxRoot) {
+                String rootType = typeName(type);
+                emit("if (loader.getRoot() == null) {");
+                emit("    throw new javafx.fxml.LoadException("
+                    + quote("Root hasn't been set. Use method setRoot() before load.") + ");");
+                emit("}");
+                emit("if (!(loader.getRoot() instanceof " + rootType + ")) {");
+                emit("    throw new javafx.fxml.LoadException("
+                    + quote("Root is not an instance of " + type.getName() + ".") + ");");
+                emit("}");
+                expression = "(" + rootType + ") loader.getRoot()";
+            } else if (fxValue != null) {
+                expression = literal(fxValue, type);
+            } else if (constant != null) {
+                Field field;
+                try {
+                    field = type.getField(constant);
+                } catch (NoSuchFieldException exception) {
+                    throw unsupported(type.getName() + " does not define constant " + constant + ".");
+                }
+
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    throw unsupported(constant + " is not a constant.");
+                }
+
+                expression = typeName(type) + "." + constant;
+                valueType = field.getType();
+            } else if (factory != null) {
+                Method factoryMethod;
+                try {
+                    factoryMethod = type.getMethod(factory);
+                } catch (NoSuchMethodException exception) {
+                    throw unsupported(type.getName() + " does not define factory method " + factory + ".");
+                }
+
+                if (!Modifier.isStatic(factoryMethod.getModifiers())) {
+                    throw unsupported(factory + " is not a factory method.");
+                }
+
+                expression = typeName(type) + "." + factory + "()";
+                valueType = factoryMethod.getReturnType();
+            } else if (type == Image.class) {
+                return processImage(node, id, propertyAttributes, eventHandlerAttributes,
+                    staticPropertyAttributes);
+            } else if (type == Scene.class
+                || type == Font.class
+                || type == URL.class
+                || type == TriangleMesh.class
+                || type.getName().equals(WEB_VIEW_CLASS_NAME)) {
+                throw unsupported(type.getName() + " requires a builder.");
+            } else if (hasNamedArgConstructors(type)) {
+                return processNamedArgInstance(node, type, id, propertyAttributes,
+                    eventHandlerAttributes, staticPropertyAttributes);
+            } else {
+                Constructor<?> constructor;
+                try {
+                    constructor = type.getConstructor();
+                } catch (NoSuchMethodException exception) {
+                    throw unsupported(type.getName() + " requires a builder.");
+                }
+
+                if (Modifier.isAbstract(type.getModifiers())) {
+                    throw unsupported(type.getName() + " is abstract.");
+                }
+
+                expression = "new " + typeName(type) + "()";
+            }
+
+            String variable = newVariable();
+            emit("final " + typeName(valueType) + " " + variable + " = " + expression + ";");
+            Value value = new Value(variable, valueType);
+
+            processId(value, id);
+
+            // Child elements are applied before the attributes, as they are
+            // when the loader reaches the end tag
+            for (Object item : node.content) {
+                if (item instanceof String) {
+                    processText(value, (String)item);
+                } else {
+                    Node child = (Node)item;
+                    if (isPropertyElement(child)) {
+                        int i = child.localName.lastIndexOf('.');
+                        if (i == -1) {
+                            processPropertyElement(value, child);
+                        } else {
+                            Class<?> sourceType = getType(child.localName.substring(0, i));
+                            if (sourceType == null) {
+                                throw unsupported(child.localName + " is not a valid property.");
+                            }
+
+                            processStaticPropertyElement(value, sourceType,
+                                child.localName.substring(i + 1), child);
+                        }
+                    } else if (isFXElement(child, FXMLLoader.DEFINE_TAG)) {
+                        processDefine(child);
+                    } else {
+                        addValue(value, processChildValueElement(child));
+                    }
+                }
+            }
+
+            applyAttributes(value, propertyAttributes, eventHandlerAttributes, staticPropertyAttributes);
+
+            return value;
+        }
+
+        private void processId(Value value, String id) throws LoadException {
+            if (id == null) {
+                return;
+            }
+
+            emit("namespace.put(" + quote(id) + ", " + value.expression + ");");
+
+            // If the value defines an ID property, set it
+            IDProperty idProperty = value.type.getAnnotation(IDProperty.class);
+            if (idProperty != null) {
+                Method getterMethod = getGetterMethod(value.type, idProperty.value());
+                Method setterMethod = (getterMethod == null) ? null
+                    : getSetterMethod(value.type, idProperty.value(), getterMethod.getReturnType());
+
+                if (setterMethod == null) {
+                    throw unsupported("Property \"" + idProperty.value() + "\" does not exist"
+                        + " or is read-only.");
+                }
+
+                Class<?> propertyType = getterMethod.getReturnType();
+                emit("if (" + value.expression + "." + getterMethod.getName() + "() == null) {");
+                emit("    " + value.expression + "." + setterMethod.getName() + "(("
+                    + typeName(propertyType) + ") " + literal(id, propertyType) + ");");
+                emit("}");
+            }
+
+            // Set the controller field value
+            emit("loader.impl_injectFields(" + quote(id) + ", " + value.expression + ");");
+
+            variables.put(id, new Variable(id, value.expression, value.type, method));
+        }
+
+        private void applyAttributes(Value value, List<String[]> propertyAttributes,
+            List<String[]> eventHandlerAttributes, List<Object[]> staticPropertyAttributes)
+            throws LoadException {
+            for (String[] attribute : propertyAttributes) {
+                applyPropertyAttribute(value, attribute[1], attribute[2]);
+            }
+
+            for (String[] attribute : eventHandlerAttributes) {
+                applyEventHandlerAttribute(value, attribute[1], attribute[2]);
+            }
+
+            for (Object[] attribute : staticPropertyAttributes) {
+                Class<?> sourceType = (Class<?>)attribute[0];
+                String name = (String)attribute[1];
+                Class<?> propertyType = getStaticPropertyType(value, sourceType, name);
+                applyStaticProperty(value, sourceType, name,
+                    attributeValue((String)attribute[2], propertyType));
+            }
+        }
+
+        private void applyPropertyAttribute(Value value, String name, String attributeValue)
+            throws LoadException {
+            if (isBindingExpression(attributeValue)) {
+                throw unsupported("Binding expressions are not supported.");
+            }
+
+            Method getterMethod = getGetterMethod(value.type, name);
+            if (getterMethod == null) {
+                throw unsupported("Property \"" + name + "\" does not exist or is read-only.");
+            }
+
+            Class<?> propertyType = getterMethod.getReturnType();
+            Method setterMethod = getSetterMethod(value.type, name, propertyType);
+
+            if (setterMethod == null && List.class.isAssignableFrom(propertyType)) {
+                // Split the string and add the values to the list
+                Class<?> itemType = getListItemType(getterMethod.getGenericReturnType());
+                if (attributeValue.length() > 0) {
+                    for (String item : attributeValue.split(FXMLLoader.ARRAY_COMPONENT_DELIMITER)) {
+                        emit(value.expression + "." + getterMethod.getName() + "().add("
+                            + attributeValue(item.trim(), itemType) + ");");
+                    }
+                }
+            } else if (setterMethod == null) {
+                throw unsupported("Property \"" + name + "\" does not exist or is read-only.");
+            } else if (propertyType.isArray()) {
+                // Split the string and set the values as an array
+                Class<?> componentType = propertyType.getComponentType();
+                StringBuilder array = new StringBuilder("new ").append(typeName(componentType))
+                    .append("[] {");
+                if (attributeValue.length() > 0) {
+                    String[] items = attributeValue.split(FXMLLoader.ARRAY_COMPONENT_DELIMITER);
+                    for (int i = 0; i < items.length; i++) {
+                        array.append((i == 0) ? "" : ", ")
+                            .append(attributeValue(items[i].trim(), componentType));
+                    }
+                }
+                array.append("}");
+
+                emit(value.expression + "." + setterMethod.getName() + "(" + array + ");");
+            } else {
+                emit(value.expression + "." + setterMethod.getName() + "(("
+                    + typeName(propertyType) + ") " + attributeValue(attributeValue, propertyType) + ");");
+            }
+        }
+
+        private void applyEventHandlerAttribute(Value value, String name, String handlerName)
+            throws LoadException {
+            if (name.endsWith(FXMLLoader.CHANGE_EVENT_HANDLER_SUFFIX)) {
+                throw unsupported("Change listener attributes are not supported.");
+            }
+
+            if (!handlerName.startsWith(FXMLLoader.CONTROLLER_METHOD_PREFIX)
+                || handlerName.startsWith(FXMLLoader.CONTROLLER_METHOD_PREFIX
+                    + FXMLLoader.CONTROLLER_METHOD_PREFIX)) {
+                throw unsupported("Only controller method event handlers are supported.");
+            }
+
+            Method getterMethod = getGetterMethod(value.type, name);
+            Method setterMethod = (getterMethod == null) ? null
+                : getSetterMethod(value.type, name, getterMethod.getReturnType());
+            if (setterMethod == null) {
+                throw unsupported("Property \"" + name + "\" does not exist or is read-only.");
+            }
+
+            emit(value.expression + "." + setterMethod.getName() + "(("
+                + typeName(getterMethod.getReturnType()) + ") loader.impl_getControllerEventHandler("
+                + quote(name) + ", " + quote(handlerName) + "));");
+        }
+
+        private Class<?> getStaticPropertyType(Value value, Class<?> sourceType, String name)
+            throws LoadException {
+            Class<?> propertyType = BeanAdapter.getType(sourceType, name, value.type);
+            if (propertyType == null) {
+                throw unsupported("Static property \"" + name + "\" does not exist"
+                    + " or is read-only.");
+            }
+
+            return propertyType;
+        }
+
+        private void applyStaticProperty(Value value, Class<?> sourceType, String name,
+            String expression) throws LoadException {
+            Class<?> propertyType = getStaticPropertyType(value, sourceType, name);
+            Method setterMethod = getStaticSetterMethod(sourceType, name, propertyType, value.type);
+            if (setterMethod == null) {
+                throw unsupported("Static property \"" + name + "\" does not exist"
+                    + " or is read-only.");
+            }
+
+            emit(typeName(sourceType) + "." + setterMethod.getName() + "(" + value.expression
+                + ", (" + typeName(propertyType) + ") " + expression + ");");
+        }
+
+        private void processText(Value value, String text) throws LoadException {
+            DefaultProperty defaultProperty = value.type.getAnnotation(DefaultProperty.class);
+            if (defaultProperty == null) {
+                throw unsupported(value.type.getName() + " does not have a default property.");
+            }
+
+            text = extraneousWhitespacePattern.matcher(text).replaceAll(" ");
+
+            String name = defaultProperty.value();
+            Method getterMethod = getGetterMethod(value.type, name);
+            if (getterMethod == null) {
+                throw unsupported("Property \"" + name + "\" does not exist or is read-only.");
+            }
+
+            Class<?> propertyType = getterMethod.getReturnType();
+            Method setterMethod = getSetterMethod(value.type, name, propertyType);
+
+            if (setterMethod == null && List.class.isAssignableFrom(propertyType)) {
+                Class<?> itemType = getListItemType(getterMethod.getGenericReturnType());
+                emit(value.expression + "." + getterMethod.getName() + "().add("
+                    + literal(text, itemType) + ");");
+            } else if (setterMethod == null) {
+                throw unsupported("Property \"" + name + "\" does not exist or is read-only.");
+            } else {
+                emit(value.expression + "." + setterMethod.getName() + "(("
+                    + typeName(propertyType) + ") " + literal(text.trim(), propertyType) + ");");
+            }
+        }
+
+        // Adds a child value to the parent list or default property
+        private void addValue(Value parent, Value value) throws LoadException {
+            if (List.class.isAssignableFrom(parent.type)) {
+                emit(parent.expression + ".add(" + value.expression + ");");
+                return;
+            }
+
+            DefaultProperty defaultProperty = parent.type.getAnnotation(DefaultProperty.class);
+            if (defaultProperty == null) {
+                throw unsupported("Element does not define a default property.");
+            }
+
+            String name = defaultProperty.value();
+            Method getterMethod = getGetterMethod(parent.type, name);
+            if (getterMethod == null) {
+                throw unsupported("Property \"" + name + "\" does not exist or is read-only.");
+            }
+
+            if (List.class.isAssignableFrom(getterMethod.getReturnType())) {
+                Class<?> itemType = getListItemType(getterMethod.getGenericReturnType());
+                emit(parent.expression + "." + getterMethod.getName() + "().add("
+                    + coerce(value, itemType) + ");");
+            } else {
+                setProperty(parent, name, value);
+            }
+        }
+
+        private void setProperty(Value target, String name, Value value) throws LoadException {
+            Method getterMethod = getGetterMethod(target.type, name);
+            Method setterMethod = (getterMethod == null) ? null
+                : getSetterMethod(target.type, name, getterMethod.getReturnType());
+            if (setterMethod == null) {
+                throw unsupported("Property \"" + name + "\" does not exist or is read-only.");
+            }
+
+            Class<?> propertyType = getterMethod.getReturnType();
+            emit(target.expression + "." + setterMethod.getName() + "(("
+                + typeName(propertyType) + ") " + coerce(value, propertyType) + ");");
+        }
+
+        private void processPropertyElement(Value parent, Node node) throws LoadException {
+            Node parentNode = current;
+            current = node;
+
+            String name = node.localName;
+            if (name.startsWith(FXMLLoader.EVENT_HANDLER_PREFIX)) {
+                throw unsupported("\"" + name + "\" is not a valid element name.");
+            }
+
+            Method getterMethod = getGetterMethod(parent.type, name);
+            if (getterMethod == null) {
+                throw unsupported("Invalid property.");
+            }
+
+            Class<?> propertyType = getterMethod.getReturnType();
+            Method setterMethod = getSetterMethod(parent.type, name, propertyType);
+            String getterExpression = parent.expression + "." + getterMethod.getName() + "()";
+
+            if (setterMethod == null) {
+                if (List.class.isAssignableFrom(propertyType)) {
+                    if (!node.attributes.isEmpty()) {
+                        throw unsupported("Attributes of list properties are not supported.");
+                    }
+
+                    Class<?> itemType = getListItemType(getterMethod.getGenericReturnType());
+                    for (Object item : node.content) {
+                        if (item instanceof String) {
+                            String text = extraneousWhitespacePattern.matcher((String)item)
+                                .replaceAll(" ").trim();
+                            emit(getterExpression + ".add(" + literal(text, itemType) + ");");
+                        } else {
+                            Node child = (Node)item;
+                            if (isPropertyElement(child)) {
+                                throw unsupported("Property elements of list properties are not supported.");
+                            } else if (isFXElement(child, FXMLLoader.DEFINE_TAG)) {
+                                processDefine(child);
+                            } else {
+                                Value value = processChildValueElement(child);
+                                emit(getterExpression + ".add(" + coerce(value, itemType) + ");");
+                            }
+                        }
+                    }
+                } else if (Map.class.isAssignableFrom(propertyType)) {
+                    if (!node.content.isEmpty()) {
+                        throw unsupported("Element does not define a default property.");
+                    }
+
+                    for (String[] attribute : node.attributes) {
+                        String localName = attribute[1];
+                        String attributeValue = attribute[2];
+
+                        if (attribute[0] != null
+                            || localName.startsWith(FXMLLoader.EVENT_HANDLER_PREFIX)
+                            || localName.indexOf('.') != -1) {
+                            throw unsupported(localName + " is not supported on map properties.");
+                        }
+
+                        if (isBindingExpression(attributeValue)) {
+                            throw unsupported("Cannot bind to untyped object.");
+                        }
+
+                        emit(getterExpression + ".put(" + quote(localName) + ", "
+                            + attributeValue(attributeValue, Object.class) + ");");
+                    }
+                } else {
+                    throw unsupported("Read-only property \"" + name + "\" is not supported.");
+                }
+            } else {
+                if (!node.attributes.isEmpty()) {
+                    throw unsupported("Attributes are not supported for writable property elements.");
+                }
+
+                for (Object item : node.content) {
+                    if (item instanceof String) {
+                        String text = extraneousWhitespacePattern.matcher((String)item)
+                            .replaceAll(" ").trim();
+                        emit(parent.expression + "." + setterMethod.getName() + "(("
+                            + typeName(propertyType) + ") " + literal(text, propertyType) + ");");
+                    } else {
+                        Node child = (Node)item;
+                        if (isPropertyElement(child)) {
+                            throw unsupported("Property elements cannot be nested in writable properties.");
+                        } else if (isFXElement(child, FXMLLoader.DEFINE_TAG)) {
+                            processDefine(child);
+                        } else {
+                            setProperty(parent, name, processChildValueElement(child));
+                        }
+                    }
+                }
+            }
+
+            current = parentNode;
+        }
+
+        private void processStaticPropertyElement(Value parent, Class<?> sourceType, String name,
+            Node node) throws LoadException {
+            Node parentNode = current;
+            current = node;
+
+            if (!node.attributes.isEmpty()) {
+                throw unsupported("Attributes are not supported for writable property elements.");
+            }
+
+            Class<?> propertyType = getStaticPropertyType(parent, sourceType, name);
+            for (Object item : node.content) {
+                if (item instanceof String) {
+                    String text = extraneousWhitespacePattern.matcher((String)item)
+                        .replaceAll(" ").trim();
+                    applyStaticProperty(parent, sourceType, name, literal(text, propertyType));
+                } else {
+                    Node child = (Node)item;
+                    if (isPropertyElement(child)) {
+                        throw unsupported("Property elements cannot be nested in writable properties.");
+                    } else if (isFXElement(child, FXMLLoader.DEFINE_TAG)) {
+                        processDefine(child);
+                    } else {
+                        Value value = processChildValueElement(child);
+                        applyStaticProperty(parent, sourceType, name, coerce(value, propertyType));
+                    }
+                }
+            }
+
+            current = parentNode;
+        }
+
+        // Builders
+
+        private Value processImage(Node node, String id, List<String[]> propertyAttributes,
+            List<String[]> eventHandlerAttributes, List<Object[]> staticPropertyAttributes)
+            throws LoadException {
+            if (!node.content.isEmpty()
+                || !eventHandlerAttributes.isEmpty()
+                || !staticPropertyAttributes.isEmpty()) {
+                throw unsupported("Image elements support property attributes only.");
+            }
+
+            // Mirrors JavaFXImageBuilder
+            Map<String, String> arguments = new LinkedHashMap<>();
+            arguments.put("url", quote(""));
+            arguments.put("requestedWidth", "0.0");
+            arguments.put("requestedHeight", "0.0");
+            arguments.put("preserveRatio", "false");
+            arguments.put("smooth", "false");
+            arguments.put("backgroundLoading", "false");
+
+            for (String[] attribute : propertyAttributes) {
+                String name = attribute[1];
+                if (!arguments.containsKey(name)) {
+                    throw unsupported("Unknown Image property: " + name);
+                }
+
+                if (isBindingExpression(attribute[2])) {
+                    throw unsupported("Cannot bind to builder property.");
+                }
+
+                Class<?> type = name.equals("url") ? String.class
+                    : name.startsWith("requested") ? Double.TYPE : Boolean.TYPE;
+                arguments.put(name, attributeValue(attribute[2], type));
+            }
+
+            StringBuilder expression = new StringBuilder("new ").append(typeName(Image.class)).append("(");
+            int i = 0;
+            for (String argument : arguments.values()) {
+                expression.append((i++ == 0) ? "" : ", ").append(argument);
+            }
+            expression.append(")");
+
+            String variable = newVariable();
+            emit("final " + typeName(Image.class) + " " + variable + " = " + expression + ";");
+            Value value = new Value(variable, Image.class);
+
+            processId(value, id);
+
+            return value;
+        }
+
+        private boolean hasNamedArgConstructors(Class<?> type) {
+            for (Constructor<?> constructor : type.getConstructors()) {
+                for (Annotation[] annotations : constructor.getParameterAnnotations()) {
+                    for (Annotation annotation : annotations) {
+                        if (annotation instanceof NamedArg) {
+                            return true;
+                        }
+                    }
+                }
+            }
+
+            return false;
+        }
+
+        // Resolves the user value for a constructor argument or setter of a
+        // type built by ProxyBuilder. User values are attribute strings or
+        // lists of property element values.
+        private String userValue(Object userValue, Class<?> type) throws LoadException {
+            if (userValue instanceof String) {
+                return attributeValue((String)userValue, type);
+            }
+
+            List<?> items = (List<?>)userValue;
+            if (type.isArray()) {
+                Class<?> componentType = type.getComponentType();
+                StringBuilder array = new StringBuilder("new ").append(typeName(componentType))
+                    .append("[] {");
+                for (int i = 0; i < items.size(); i++) {
+                    array.append((i == 0) ? "" : ", ").append(listItem(items.get(i), componentType));
+                }
+
+                return array.append("}").toString();
+            }
+
+            if (type.isAssignableFrom(ArrayList.class)) {
+                StringBuilder list = new StringBuilder("new java.util.ArrayList(java.util.Arrays.asList(");
+                for (int i = 0; i < items.size(); i++) {
+                    list.append((i == 0) ? "" : ", ").append(listItem(items.get(i), Object.class));
+                }
+
+                return list.append("))").toString();
+            }
+
+            if (items.isEmpty()) {
+                throw unsupported("Missing value for " + type.getName() + ".");
+            }
+
+            return listItem(items.get(0), type);
+        }
+
+        private String listItem(Object item, Class<?> type) throws LoadException {
+            return (item instanceof Value) ? coerce((Value)item, type) : literal((String)item, type);
+        }
+
+        private String defaultValue(Class<?> type) {
+            if (type == Boolean.TYPE) {
+                return "false";
+            } else if (type == Character.TYPE) {
+                return "'\\u0000'";
+            } else if (type == Byte.TYPE) {
+                return "(byte) 0";
+            } else if (type == Short.TYPE) {
+                return "(short) 0";
+            } else if (type == Integer.TYPE) {
+                return "0";
+            } else if (type == Long.TYPE) {
+                return "0L";
+            } else if (type == Float.TYPE) {
+                return "0.0f";
+            } else if (type == Double.TYPE) {
+                return "0.0";
+            }
+
+            return "null";
+        }
+
+        private Value processNamedArgInstance(Node node, Class<?> type, String id,
+            List<String[]> propertyAttributes, List<String[]> eventHandlerAttributes,
+            List<Object[]> staticPropertyAttributes) throws LoadException {
+            // Collect the values the loader would put into the ProxyBuilder
+            Map<String, Object> userValues = new LinkedHashMap<>();
+            for (String[] attribute : propertyAttributes) {
+                if (isBindingExpression(attribute[2])) {
+                    throw unsupported("Cannot bind to builder property.");
+                }
+
+                userValues.put(attribute[1], attribute[2]);
+            }
+
+            List<Object[]> staticPropertyElements = new ArrayList<>();
+            for (Object item : node.content) {
+                if (item instanceof String) {
+                    throw unsupported("Element does not define a default property.");
+                }
+
+                Node child = (Node)item;
+                if (isFXElement(child, FXMLLoader.DEFINE_TAG)) {
+                    processDefine(child);
+                } else if (!isPropertyElement(child)) {
+                    throw unsupported("Element does not define a default property.");
+                } else if (child.localName.indexOf('.') != -1) {
+                    staticPropertyElements.add(new Object[] {child});
+                } else {
+                    Node parentNode = current;
+                    current = child;
+
+                    if (!child.attributes.isEmpty()) {
+                        throw unsupported("Attributes of builder properties are not supported.");
+                    }
+
+                    // Property elements of builders collect their values in a list
+                    List<Object> items = new ArrayList<>();
+                    for (Object childItem : child.content) {
+                        if (childItem instanceof String) {
+                            items.add(extraneousWhitespacePattern.matcher((String)childItem)
+                                .replaceAll(" ").trim());
+                        } else if (isPropertyElement((Node)childItem)) {
+                            throw unsupported("Property elements cannot be nested in builder properties.");
+                        } else if (isFXElement((Node)childItem, FXMLLoader.DEFINE_TAG)) {
+                            processDefine((Node)childItem);
+                        } else {
+                            items.add(processChildValueElement((Node)childItem));
+                        }
+                    }
+
+                    userValues.put(child.localName, items);
+                    current = parentNode;
+                }
+            }
+
+            String variable = newVariable();
+            if (!buildNamedArgInstance(type, variable, userValues)) {
+                throw unsupported("Cannot create instance of " + type.getCanonicalName()
+                    + " with given set of properties: " + userValues.keySet());
+            }
+
+            Value value = new Value(variable, type);
+
+            // The loader processes the value once it has been built
+            processId(value, id);
+
+            applyAttributes(value, Collections.<String[]>emptyList(), eventHandlerAttributes,
+                staticPropertyAttributes);
+
+            for (Object[] element : staticPropertyElements) {
+                Node child = (Node)element[0];
+                int i = child.localName.lastIndexOf('.');
+                Class<?> sourceType = getType(child.localName.substring(0, i));
+                if (sourceType == null) {
+                    throw unsupported(child.localName + " is not a valid property.");
+                }
+
+                processStaticPropertyElement(value, sourceType, child.localName.substring(i + 1), child);
+            }
+
+            return value;
+        }
+
+        // Mirrors ProxyBuilder.build(), choosing the constructor at compile time
+        private boolean buildNamedArgInstance(Class<?> type, String variable,
+            Map<String, Object> userValues) throws LoadException {
+            boolean hasDefaultConstructor = false;
+            List<Constructor<?>> constructors = new ArrayList<>();
+            Map<Constructor<?>, LinkedHashMap<String, NamedArg>> constructorArguments = new HashMap<>();
+
+            for (Constructor<?> constructor : type.getConstructors()) {
+                Annotation[][] parameterAnnotations = constructor.getParameterAnnotations();
+                if (parameterAnnotations.length == 0) {
+                    hasDefaultConstructor = true;
+                    continue;
+                }
+
+                LinkedHashMap<String, NamedArg> arguments = new LinkedHashMap<>();
+                for (Annotation[] annotations : parameterAnnotations) {
+                    NamedArg namedArg = null;
+                    for (Annotation annotation : annotations) {
+                        if (annotation instanceof NamedArg) {
+                            namedArg = (NamedArg)annotation;
+                            break;
+                        }
+                    }
+
+                    if (namedArg == null) {
+                        arguments = null;
+                        break;
+                    }
+
+                    arguments.put(namedArg.value(), namedArg);
+                }
+
+                if (arguments != null) {
+                    constructors.add(constructor);
+                    constructorArguments.put(constructor, arguments);
+                }
+            }
+
+            // Make the choice deterministic
+            Collections.sort(constructors, new Comparator<Constructor<?>>() {
+                @Override
+                public int compare(Constructor<?> c1, Constructor<?> c2) {
+                    int d = c1.getParameterTypes().length - c2.getParameterTypes().length;
+                    return (d != 0) ? d : c1.toString().compareTo(c2.toString());
+                }
+            });
+
+            Map<String, Method> properties = getBuilderProperties(type);
+            Set<String> propertyNames = userValues.keySet();
+
+            // Constructors whose arguments exactly match the given properties
+            for (Constructor<?> constructor : constructors) {
+                if (constructorArguments.get(constructor).keySet().equals(propertyNames)
+                    && construct(type, variable, constructor, constructorArguments.get(constructor),
+                        userValues, Collections.<String>emptySet(), properties)) {
+                    return true;
+                }
+            }
+
+            // The default constructor, if every property can be set
+            if (properties.keySet().containsAll(propertyNames) && hasDefaultConstructor) {
+                StringBuilder statements = new StringBuilder();
+                if (setBuilderProperties(variable, propertyNames, userValues, properties, statements)) {
+                    emit("final " + typeName(type) + " " + variable + " = new " + typeName(type) + "();");
+                    code.append(statements);
+                    return true;
+                }
+            }
+
+            // The constructor that leaves the fewest properties unset
+            Set<String> immutablesToSet = new HashSet<>(propertyNames);
+            immutablesToSet.removeAll(properties.keySet());
+
+            Set<String> propertiesToSet = new HashSet<>(propertyNames);
+            propertiesToSet.retainAll(properties.keySet());
+
+            int propertiesToSetCount = Integer.MAX_VALUE;
+            int mutablesToSetCount = Integer.MAX_VALUE;
+            List<Constructor<?>> chosenConstructors = new ArrayList<>();
+            for (Constructor<?> constructor : constructors) {
+                Set<String> argumentNames = constructorArguments.get(constructor).keySet();
+                if (!argumentNames.containsAll(immutablesToSet)) {
+                    continue;
+                }
+
+                Set<String> propertiesToSetInConstructor = new HashSet<>(argumentNames);
+                propertiesToSetInConstructor.removeAll(propertyNames);
+
+                Set<String> mutablesNotSet = new HashSet<>(propertiesToSet);
+                mutablesNotSet.removeAll(argumentNames);
+
+                int currentPropSize = propertiesToSetInConstructor.size();
+                if (propertiesToSetCount == currentPropSize
+                    && mutablesToSetCount == mutablesNotSet.size()) {
+                    chosenConstructors.add(constructor);
+                }
+
+                if (propertiesToSetCount > currentPropSize
+                    || (propertiesToSetCount == currentPropSize
+                        && mutablesToSetCount > mutablesNotSet.size())) {
+                    propertiesToSetCount = currentPropSize;
+                    mutablesToSetCount = mutablesNotSet.size();
+                    chosenConstructors.clear();
+                    chosenConstructors.add(constructor);
+                }
+            }
+
+            for (Constructor<?> constructor : chosenConstructors) {
+                if (construct(type, variable, constructor, constructorArguments.get(constructor),
+                        userValues, propertiesToSet, properties)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private boolean construct(Class<?> type, String variable, Constructor<?> constructor,
+            Map<String, NamedArg> arguments, Map<String, Object> userValues,
+            Set<String> propertiesToSet, Map<String, Method> properties) throws LoadException {
+            Class<?>[] parameterTypes = constructor.getParameterTypes();
+            StringBuilder expression = new StringBuilder("new ").append(typeName(type)).append("(");
+            Set<String> remainingProperties = new HashSet<>(propertiesToSet);
+
+            try {
+                int i = 0;
+                for (NamedArg namedArg : arguments.values()) {
+                    Class<?> parameterType = parameterTypes[i];
+                    Object userValue = userValues.get(namedArg.value());
+
+                    String argument;
+                    if (userValue != null) {
+                        argument = userValue(userValue, parameterType);
+                    } else if (!namedArg.defaultValue().isEmpty()) {
+                        argument = literal(namedArg.defaultValue(), parameterType);
+                    } else {
+                        argument = defaultValue(parameterType);
+                    }
+
+                    expression.append((i == 0) ? "" : ", ")
+                        .append("(").append(typeName(parameterType)).append(") ").append(argument);
+                    remainingProperties.remove(namedArg.value());
+                    i++;
+                }
+            } catch (LoadException exception) {
+                // Try the next constructor
+                return false;
+            }
+
+            expression.append(")");
+
+            StringBuilder statements = new StringBuilder();
+            if (!setBuilderProperties(variable, remainingProperties, userValues, properties, statements)) {
+                return false;
+            }
+
+            emit("final " + typeName(type) + " " + variable + " = " + expression + ";");
+            code.append(statements);
+            return true;
+        }
+
+        private boolean setBuilderProperties(String variable, Collection<String> names,
+            Map<String, Object> userValues, Map<String, Method> properties,
+            StringBuilder statements) {
+            StringBuilder outerCode = code;
+            code = statements;
+
+            try {
+                for (String name : userValues.keySet()) {
+                    if (!names.contains(name)) {
+                        continue;
+                    }
+
+                    Method method = properties.get(name);
+                    Object userValue = userValues.get(name);
+                    if (method.getParameterTypes().length == 1) {
+                        Class<?> propertyType = method.getParameterTypes()[0];
+                        emit(variable + "." + method.getName() + "((" + typeName(propertyType) + ") "
+                            + userValue(userValue, propertyType) + ");");
+                    } else if (userValue instanceof List<?>) {
+                        // Read-only collection property
+                        for (Object item : (List<?>)userValue) {
+                            emit(variable + "." + method.getName() + "().add("
+                                + listItem(item, Object.class) + ");");
+                        }
+                    }
+                }
+            } catch (LoadException exception) {
+                return false;
+            } finally {
+                code = outerCode;
+            }
+
+            return true;
+        }
+
+        // Mirrors ProxyBuilder.scanForSetters()
+        private Map<String, Method> getBuilderProperties(Class<?> type) {
+            Map<String, Method> properties = new HashMap<>();
+
+            for (Method method : type.getMethods()) {
+                if (Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+
+                String methodName = method.getName();
+                Class<?>[] parameterTypes = method.getParameterTypes();
+                if (methodName.startsWith(BeanAdapter.SET_PREFIX)
+                    && methodName.length() > BeanAdapter.SET_PREFIX.length()
+                    && method.getReturnType() == Void.TYPE
+                    && parameterTypes.length == 1) {
+                    String name = methodName.substring(BeanAdapter.SET_PREFIX.length());
+                    properties.put(Character.toLowerCase(name.charAt(0)) + name.substring(1), method);
+                } else if (methodName.startsWith(BeanAdapter.GET_PREFIX)
+                    && methodName.length() > BeanAdapter.GET_PREFIX.length()
+                    && Collection.class.isAssignableFrom(method.getReturnType())
+                    && parameterTypes.length == 0) {
+                    String name = methodName.substring(BeanAdapter.GET_PREFIX.length());
+                    name = Character.toLowerCase(name.charAt(0)) + name.substring(1);
+                    if (!properties.containsKey(name)) {
+                        properties.put(name, method);
+                    }
+                }
+            }
+
+            return properties;
+        }
+    }
+}
@@ -121,6 +121,10 @@ public abstract class Expression<T> {
 
                         }
 
+                        if (operand instanceof LiteralExpression) {
+                            expression = fold(expression);
+                        }
+
                         break;
                     }
 
@@ -173,6 +177,11 @@ public abstract class Expression<T> {
                                 throw new UnsupportedOperationException();
                         }
 
+                        if (left instanceof LiteralExpression
+                            && right instanceof LiteralExpression) {
+                            expression = fold(expression);
+                        }
+
                         break;
                     }
 
@@ -191,6 +200,17 @@ public abstract class Expression<T> {
             return stack.peek();
         }
 
+        // Replaces an operation on literal operands by its result. If the
+        // operation fails, it is kept so that the failure is reported when
+        // the expression is evaluated.
+        private static Expression<?> fold(Expression<?> expression) {
+            try {
+                return new LiteralExpression<Object>(expression.evaluate(null));
+            } catch (RuntimeException exception) {
+                return expression;
+            }
+        }
+
         private LinkedList<Token> tokenize(PushbackReader reader) throws IOException {
             // Read the string into a postfix list of tokens
             LinkedList<Token> tokens = new LinkedList<Token>();
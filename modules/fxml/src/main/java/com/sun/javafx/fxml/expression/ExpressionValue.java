@@ -27,9 +27,13 @@ package com.sun.javafx.fxml.expression;
 
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
 import javafx.beans.property.ReadOnlyProperty;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
@@ -45,22 +49,27 @@ import com.sun.javafx.fxml.BeanAdapter;
  * Class representing an observable expression value.
  */
 public class ExpressionValue extends ObservableValueBase<Object> {
-    // Monitors a namespace for changes along a key path
+    // Monitors a namespace for changes along a key path. Only the list
+    // index, map key or property model read by the key path is observed;
+    // the monitors further down the path are only replaced when the value
+    // they observe is replaced.
     private class KeyPathMonitor {
-        private String key;
+        private KeyAccessor accessor;
         private KeyPathMonitor next;
 
         private Object namespace = null;
+        private ObservableValue<Object> propertyModel = null;
+        private Object value = null;
 
         private ListChangeListener<Object> listChangeListener = new ListChangeListener<Object>() {
             @Override
             public void onChanged(Change<? extends Object> change) {
                 while (change.next()) {
-                    int index = Integer.parseInt(key);
+                    int index = Integer.parseInt(accessor.getKey());
 
                     if (index >= change.getFrom() && index < change.getTo()) {
-                        fireValueChangedEvent();
                         remonitor();
+                        fireValueChangedEvent();
                     }
                 }
             }
@@ -69,23 +78,26 @@ public class ExpressionValue extends ObservableValueBase<Object> {
         private MapChangeListener<String, Object> mapChangeListener = new MapChangeListener<String, Object>() {
             @Override
             public void onChanged(Change<? extends String, ? extends Object> change) {
-                if (key.equals(change.getKey())) {
-                    fireValueChangedEvent();
+                if (accessor.getKey().equals(change.getKey())) {
                     remonitor();
+                    fireValueChangedEvent();
                 }
             }
         };
 
-        private ChangeListener<Object> propertyChangeListener = new ChangeListener<Object>() {
+        // An invalidation listener keeps the property lazy; the value is
+        // read again when the expression is evaluated, which also
+        // revalidates the property
+        private InvalidationListener propertyInvalidationListener = new InvalidationListener() {
             @Override
-            public void changed(ObservableValue<? extends Object> observable, Object oldValue, Object newValue) {
-                fireValueChangedEvent();
+            public void invalidated(Observable observable) {
                 remonitor();
+                fireValueChangedEvent();
             }
         };
 
         public KeyPathMonitor(Iterator<String> keyPathIterator) {
-            this.key = keyPathIterator.next();
+            this.accessor = new KeyAccessor(keyPathIterator.next());
 
             if (keyPathIterator.hasNext()) {
                 next = new KeyPathMonitor(keyPathIterator);
@@ -100,21 +112,18 @@ public class ExpressionValue extends ObservableValueBase<Object> {
                 ((ObservableList<Object>)namespace).addListener(listChangeListener);
             } else if (namespace instanceof ObservableMap<?, ?>) {
                 ((ObservableMap<String, Object>)namespace).addListener(mapChangeListener);
-            } else {
-                BeanAdapter namespaceAdapter = new BeanAdapter(namespace);
-                ObservableValue<Object> propertyModel = namespaceAdapter.getPropertyModel(key);
+            } else if (!(namespace instanceof List<?> || namespace instanceof Map<?, ?>)) {
+                propertyModel = accessor.getPropertyModel(namespace);
 
                 if (propertyModel != null) {
-                    propertyModel.addListener(propertyChangeListener);
+                    propertyModel.addListener(propertyInvalidationListener);
                 }
-
-                namespace = namespaceAdapter;
             }
 
             this.namespace = namespace;
 
             if (next != null) {
-                Object value = Expression.get(namespace, key);
+                value = accessor.get(namespace);
                 if (value != null) {
                     next.monitor(value);
                 }
@@ -127,28 +136,30 @@ public class ExpressionValue extends ObservableValueBase<Object> {
                 ((ObservableList<Object>)namespace).removeListener(listChangeListener);
             } else if (namespace instanceof ObservableMap<?, ?>) {
                 ((ObservableMap<String, Object>)namespace).removeListener(mapChangeListener);
-            } else if (namespace != null) {
-                BeanAdapter namespaceAdapter = (BeanAdapter)namespace;
-                ObservableValue<Object> propertyModel = namespaceAdapter.getPropertyModel(key);
-
-                if (propertyModel != null) {
-                    propertyModel.removeListener(propertyChangeListener);
-                }
+            } else if (propertyModel != null) {
+                propertyModel.removeListener(propertyInvalidationListener);
+                propertyModel = null;
             }
 
             namespace = null;
 
             if (next != null) {
+                value = null;
                 next.unmonitor();
             }
         }
 
         public void remonitor() {
-            if (next != null) {
-                next.unmonitor();
-                Object value = Expression.get(namespace, key);
-                if (value != null) {
-                    next.monitor(value);
+            if (next != null && namespace != null) {
+                Object value = accessor.get(namespace);
+
+                if (value != this.value) {
+                    next.unmonitor();
+                    this.value = value;
+
+                    if (value != null) {
+                        next.monitor(value);
+                    }
                 }
             }
         }
@@ -179,7 +190,8 @@ public class ExpressionValue extends ObservableValueBase<Object> {
         this.expression = expression;
         this.type = type;
 
-        List<KeyPath> arguments = expression.getArguments();
+        // An argument that is used more than once is monitored once
+        Set<KeyPath> arguments = new LinkedHashSet<KeyPath>(expression.getArguments());
         argumentMonitors = new ArrayList<KeyPathMonitor>(arguments.size());
 
         for (KeyPath argument : arguments) {
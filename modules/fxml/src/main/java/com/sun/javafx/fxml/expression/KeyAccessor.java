@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.fxml.expression;
+
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.Map;
+
+import javafx.beans.value.ObservableValue;
+
+import com.sun.javafx.fxml.BeanAdapter;
+
+/**
+ * Reads the value at a key of a namespace the way
+ * {@link Expression#get(Object, String)} does, and the property model for
+ * that key. The getters resolved for the last bean type are kept, so reading
+ * the key from beans of the same type again does not look them up.
+ */
+final class KeyAccessor {
+    // Getters resolved for a bean type
+    private static final class Getters {
+        private final Class<?> type;
+        private final MethodHandle getter;
+        private final MethodHandle propertyModelGetter;
+
+        private Getters(Class<?> type, String key) {
+            this.type = type;
+
+            getter = BeanAdapter.getGetter(type, key);
+            propertyModelGetter = BeanAdapter.getGetter(type, key + BeanAdapter.PROPERTY_SUFFIX);
+        }
+    }
+
+    private final String key;
+
+    private Getters getters = null;
+
+    public KeyAccessor(String key) {
+        if (key == null) {
+            throw new NullPointerException();
+        }
+
+        this.key = key;
+    }
+
+    /**
+     * Returns the key this accessor reads.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the value at the key within a namespace.
+     *
+     * @param namespace
+     *
+     * @return
+     * The value at the key, or <tt>null</tt> if no such value exists.
+     */
+    @SuppressWarnings("unchecked")
+    public Object get(Object namespace) {
+        Object value;
+        if (namespace instanceof List<?>) {
+            value = ((List<Object>)namespace).get(Integer.parseInt(key));
+        } else if (namespace instanceof Map<?, ?>) {
+            value = ((Map<String, Object>)namespace).get(key);
+        } else if (namespace != null) {
+            value = BeanAdapter.invokeGetter(getGetters(namespace.getClass()).getter, namespace);
+        } else {
+            value = null;
+        }
+
+        return value;
+    }
+
+    /**
+     * Returns the property model for the key of a bean.
+     *
+     * @param bean
+     *
+     * @return
+     * The property model, or <tt>null</tt> if the bean has no such model.
+     */
+    @SuppressWarnings("unchecked")
+    public ObservableValue<Object> getPropertyModel(Object bean) {
+        return (ObservableValue<Object>)BeanAdapter.invokeGetter(getGetters(bean.getClass()).propertyModelGetter,
+            bean);
+    }
+
+    private Getters getGetters(Class<?> type) {
+        // Getters is immutable, so it can be published without
+        // synchronization; a racing thread at worst resolves it again
+        Getters getters = this.getters;
+
+        if (getters == null || getters.type != type) {
+            getters = new Getters(type, key);
+            this.getters = getters;
+        }
+
+        return getters;
+    }
+}
@@ -32,6 +32,7 @@ import java.util.List;
  */
 public class VariableExpression extends Expression<Object> {
     private KeyPath keyPath;
+    private KeyAccessor[] accessors;
 
     public VariableExpression(KeyPath keyPath) {
         if (keyPath == null) {
@@ -39,6 +40,11 @@ public class VariableExpression extends Expression<Object> {
         }
 
         this.keyPath = keyPath;
+
+        accessors = new KeyAccessor[keyPath.size()];
+        for (int i = 0; i < accessors.length; i++) {
+            accessors[i] = new KeyAccessor(keyPath.get(i));
+        }
     }
 
     /**
@@ -50,7 +56,12 @@ public class VariableExpression extends Expression<Object> {
 
     @Override
     public Object evaluate(Object namespace) {
-        return get(namespace, keyPath);
+        Object value = namespace;
+        for (int i = 0; i < accessors.length; i++) {
+            value = accessors[i].get(value);
+        }
+
+        return value;
     }
 
     @Override
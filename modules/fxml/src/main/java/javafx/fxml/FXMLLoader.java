@@ -77,9 +77,11 @@ import javax.xml.stream.util.StreamReaderDelegate;
 
 import com.sun.javafx.beans.IDProperty;
 import com.sun.javafx.fxml.BeanAdapter;
+import com.sun.javafx.fxml.CompiledFXML;
 import com.sun.javafx.fxml.LoadListener;
 import com.sun.javafx.fxml.ParseTraceElement;
 import com.sun.javafx.fxml.PropertyNotFoundException;
+import com.sun.javafx.fxml.compiler.FXMLCompiler;
 import com.sun.javafx.fxml.expression.Expression;
 import com.sun.javafx.fxml.expression.ExpressionValue;
 import com.sun.javafx.fxml.expression.KeyPath;
@@ -90,6 +92,7 @@ import java.security.PrivilegedAction;
 import java.util.EnumMap;
 import java.util.Locale;
 import java.util.StringTokenizer;
+import java.util.WeakHashMap;
 import sun.reflect.CallerSensitive;
 import sun.reflect.Reflection;
 import sun.reflect.misc.ConstructorUtil;
@@ -362,84 +365,6 @@ public class FXMLLoader {
                 return processed;
         }
 
-        /**
-         * Resolves value prefixed with RELATIVE_PATH_PREFIX and RESOURCE_KEY_PREFIX.
-         */
-        private Object resolvePrefixedValue(String aValue) throws LoadException {
-            if (aValue.startsWith(ESCAPE_PREFIX)) {
-                aValue = aValue.substring(ESCAPE_PREFIX.length());
-
-                if (aValue.length() == 0
-                    || !(aValue.startsWith(ESCAPE_PREFIX)
-                        || aValue.startsWith(RELATIVE_PATH_PREFIX)
-                        || aValue.startsWith(RESOURCE_KEY_PREFIX)
-                        || aValue.startsWith(EXPRESSION_PREFIX)
-                        || aValue.startsWith(BI_DIRECTIONAL_BINDING_PREFIX))) {
-                    throw constructLoadException("Invalid escape sequence.");
-                }
-                return aValue;
-            } else if (aValue.startsWith(RELATIVE_PATH_PREFIX)) {
-                aValue = aValue.substring(RELATIVE_PATH_PREFIX.length());
-                if (aValue.length() == 0) {
-                    throw constructLoadException("Missing relative path.");
-                }
-                if (aValue.startsWith(RELATIVE_PATH_PREFIX)) {
-                    // The prefix was escaped
-                    warnDeprecatedEscapeSequence(RELATIVE_PATH_PREFIX);
-                    return aValue;
-                } else {
-                        if (aValue.charAt(0) == '/') {
-                            final URL res = getClassLoader().getResource(aValue.substring(1));
-                            if (res == null) {
-                                throw constructLoadException("Invalid resource: " + aValue + " not found on the classpath");
-                            }
-                            return res.toString();
-                        } else {
-                            try {
-                                return new URL(FXMLLoader.this.location, aValue).toString();
-                            } catch (MalformedURLException e) {
-                                System.err.println(FXMLLoader.this.location + "/" + aValue);
-                            }
-                        }
-                }
-            } else if (aValue.startsWith(RESOURCE_KEY_PREFIX)) {
-                aValue = aValue.substring(RESOURCE_KEY_PREFIX.length());
-                if (aValue.length() == 0) {
-                    throw constructLoadException("Missing resource key.");
-                }
-                if (aValue.startsWith(RESOURCE_KEY_PREFIX)) {
-                    // The prefix was escaped
-                    warnDeprecatedEscapeSequence(RESOURCE_KEY_PREFIX);
-                    return aValue;
-                } else {
-                    // Resolve the resource value
-                    if (resources == null) {
-                        throw constructLoadException("No resources specified.");
-                    }
-                    if (!resources.containsKey(aValue)) {
-                        throw constructLoadException("Resource \"" + aValue + "\" not found.");
-                    }
-
-                    return resources.getString(aValue);
-                }
-            } else if (aValue.startsWith(EXPRESSION_PREFIX)) {
-                aValue = aValue.substring(EXPRESSION_PREFIX.length());
-                if (aValue.length() == 0) {
-                    throw constructLoadException("Missing expression.");
-                }
-                if (aValue.startsWith(EXPRESSION_PREFIX)) {
-                    // The prefix was escaped
-                    warnDeprecatedEscapeSequence(EXPRESSION_PREFIX);
-                    return aValue;
-                } else if (aValue.equals(NULL_KEYWORD)) {
-                    // The attribute value is null
-                    return null;
-                }
-                return Expression.get(namespace, KeyPath.parse(aValue));
-            }
-            return aValue;
-        }
-
         /**
          * Creates an array of given type and populates it with values from
          * a string where tokens are separated by ARRAY_COMPONENT_DELIMITER.
@@ -498,11 +423,6 @@ public class FXMLLoader {
             }
         }
 
-        public void warnDeprecatedEscapeSequence(String prefix) {
-            System.err.println(prefix + prefix + " is a deprecated escape sequence. "
-                + "Please use \\" + prefix + " instead.");
-        }
-
         public void applyProperty(String name, Class<?> sourceType, Object value) {
             if (sourceType == null) {
                 getProperties().put(name, value);
@@ -540,44 +460,6 @@ public class FXMLLoader {
             return null;
         }
 
-        private MethodHandler getControllerMethodHandle(String handlerName, SupportedType... types) throws LoadException {
-            if (handlerName.startsWith(CONTROLLER_METHOD_PREFIX)) {
-                handlerName = handlerName.substring(CONTROLLER_METHOD_PREFIX.length());
-
-                if (!handlerName.startsWith(CONTROLLER_METHOD_PREFIX)) {
-                    if (handlerName.length() == 0) {
-                        throw constructLoadException("Missing controller method.");
-                    }
-
-                    if (controller == null) {
-                        throw constructLoadException("No controller specified.");
-                    }
-
-                    for (SupportedType t : types) {
-                        Method method = controllerAccessor
-                                            .getControllerMethods()
-                                            .get(t)
-                                            .get(handlerName);
-                        if (method != null) {
-                            return new MethodHandler(controller, method, t);
-                        }
-                    }
-                    Method method = controllerAccessor
-                                        .getControllerMethods()
-                                        .get(SupportedType.PARAMETERLESS)
-                                        .get(handlerName);
-                    if (method != null) {
-                        return new MethodHandler(controller, method, SupportedType.PARAMETERLESS);
-                    }
-
-                    return null;
-
-                }
-
-            }
-            return null;
-        }
-
         public void processEventHandlerAttributes() throws LoadException {
             if (eventHandlerAttributes.size() > 0 && !staticLoad) {
                 for (Attribute attribute : eventHandlerAttributes) {
@@ -1150,6 +1032,127 @@ public class FXMLLoader {
         }
     }
 
+    /**
+     * Resolves value prefixed with RELATIVE_PATH_PREFIX and RESOURCE_KEY_PREFIX.
+     */
+    private Object resolvePrefixedValue(String aValue) throws LoadException {
+        if (aValue.startsWith(ESCAPE_PREFIX)) {
+            aValue = aValue.substring(ESCAPE_PREFIX.length());
+
+            if (aValue.length() == 0
+                || !(aValue.startsWith(ESCAPE_PREFIX)
+                    || aValue.startsWith(RELATIVE_PATH_PREFIX)
+                    || aValue.startsWith(RESOURCE_KEY_PREFIX)
+                    || aValue.startsWith(EXPRESSION_PREFIX)
+                    || aValue.startsWith(BI_DIRECTIONAL_BINDING_PREFIX))) {
+                throw constructLoadException("Invalid escape sequence.");
+            }
+            return aValue;
+        } else if (aValue.startsWith(RELATIVE_PATH_PREFIX)) {
+            aValue = aValue.substring(RELATIVE_PATH_PREFIX.length());
+            if (aValue.length() == 0) {
+                throw constructLoadException("Missing relative path.");
+            }
+            if (aValue.startsWith(RELATIVE_PATH_PREFIX)) {
+                // The prefix was escaped
+                warnDeprecatedEscapeSequence(RELATIVE_PATH_PREFIX);
+                return aValue;
+            } else {
+                    if (aValue.charAt(0) == '/') {
+                        final URL res = getClassLoader().getResource(aValue.substring(1));
+                        if (res == null) {
+                            throw constructLoadException("Invalid resource: " + aValue + " not found on the classpath");
+                        }
+                        return res.toString();
+                    } else {
+                        try {
+                            return new URL(FXMLLoader.this.location, aValue).toString();
+                        } catch (MalformedURLException e) {
+                            System.err.println(FXMLLoader.this.location + "/" + aValue);
+                        }
+                    }
+            }
+        } else if (aValue.startsWith(RESOURCE_KEY_PREFIX)) {
+            aValue = aValue.substring(RESOURCE_KEY_PREFIX.length());
+            if (aValue.length() == 0) {
+                throw constructLoadException("Missing resource key.");
+            }
+            if (aValue.startsWith(RESOURCE_KEY_PREFIX)) {
+                // The prefix was escaped
+                warnDeprecatedEscapeSequence(RESOURCE_KEY_PREFIX);
+                return aValue;
+            } else {
+                // Resolve the resource value
+                if (resources == null) {
+                    throw constructLoadException("No resources specified.");
+                }
+                if (!resources.containsKey(aValue)) {
+                    throw constructLoadException("Resource \"" + aValue + "\" not found.");
+                }
+
+                return resources.getString(aValue);
+            }
+        } else if (aValue.startsWith(EXPRESSION_PREFIX)) {
+            aValue = aValue.substring(EXPRESSION_PREFIX.length());
+            if (aValue.length() == 0) {
+                throw constructLoadException("Missing expression.");
+            }
+            if (aValue.startsWith(EXPRESSION_PREFIX)) {
+                // The prefix was escaped
+                warnDeprecatedEscapeSequence(EXPRESSION_PREFIX);
+                return aValue;
+            } else if (aValue.equals(NULL_KEYWORD)) {
+                // The attribute value is null
+                return null;
+            }
+            return Expression.get(namespace, KeyPath.parse(aValue));
+        }
+        return aValue;
+    }
+
+    private void warnDeprecatedEscapeSequence(String prefix) {
+        System.err.println(prefix + prefix + " is a deprecated escape sequence. "
+            + "Please use \\" + prefix + " instead.");
+    }
+
+    private MethodHandler getControllerMethodHandle(String handlerName, SupportedType... types) throws LoadException {
+        if (handlerName.startsWith(CONTROLLER_METHOD_PREFIX)) {
+            handlerName = handlerName.substring(CONTROLLER_METHOD_PREFIX.length());
+
+            if (!handlerName.startsWith(CONTROLLER_METHOD_PREFIX)) {
+                if (handlerName.length() == 0) {
+                    throw constructLoadException("Missing controller method.");
+                }
+
+                if (controller == null) {
+                    throw constructLoadException("No controller specified.");
+                }
+
+                for (SupportedType t : types) {
+                    Method method = controllerAccessor
+                                        .getControllerMethods()
+                                        .get(t)
+                                        .get(handlerName);
+                    if (method != null) {
+                        return new MethodHandler(controller, method, t);
+                    }
+                }
+                Method method = controllerAccessor
+                                    .getControllerMethods()
+                                    .get(SupportedType.PARAMETERLESS)
+                                    .get(handlerName);
+                if (method != null) {
+                    return new MethodHandler(controller, method, SupportedType.PARAMETERLESS);
+                }
+
+                return null;
+
+            }
+
+        }
+        return null;
+    }
+
     private void injectFields(String fieldName, Object value) throws LoadException {
         if (controller != null && fieldName != null) {
             List<Field> fields = controllerAccessor.getControllerFields().get(fieldName);
@@ -1795,6 +1798,7 @@ public class FXMLLoader {
     private FXMLLoader parentLoader;
 
     private XMLStreamReader xmlStreamReader = null;
+    private FXMLTemplate template = null;
     private Element current = null;
 
     private ScriptEngine scriptEngine = null;
@@ -1810,6 +1814,9 @@ public class FXMLLoader {
 
     private static BuilderFactory DEFAULT_BUILDER_FACTORY = new JavaFXBuilderFactory();
 
+    private static final Map<ClassLoader, Map<String, String>> compiledTypeNames =
+        new WeakHashMap<ClassLoader, Map<String, String>>();
+
     /**
      * The character set used when character set is not explicitly specified
      */
@@ -2391,6 +2398,92 @@ public class FXMLLoader {
         this.loadListener = loadListener;
     }
 
+    /**
+     * Creates the controller declared by a compiled document's
+     * <tt>fx:controller</tt> attribute.
+     *
+     * @param className
+     *
+     * @treatAsPrivate
+     * @deprecated
+     * @since JavaFX 8u40
+     */
+    public void impl_createController(String className) throws LoadException {
+        if (controller != null) {
+            throw constructLoadException("Controller value already specified.");
+        }
+
+        Class<?> type;
+        try {
+            type = getClassLoader().loadClass(className);
+        } catch (ClassNotFoundException exception) {
+            throw constructLoadException(exception);
+        }
+
+        try {
+            if (controllerFactory == null) {
+                setController(ReflectUtil.newInstance(type));
+            } else {
+                setController(controllerFactory.call(type));
+            }
+        } catch (InstantiationException exception) {
+            throw constructLoadException(exception);
+        } catch (IllegalAccessException exception) {
+            throw constructLoadException(exception);
+        }
+    }
+
+    /**
+     * Injects a value created by a compiled document into the controller
+     * fields with the given name.
+     *
+     * @param fieldName
+     * @param value
+     *
+     * @treatAsPrivate
+     * @deprecated
+     * @since JavaFX 8u40
+     */
+    public void impl_injectFields(String fieldName, Object value) throws LoadException {
+        injectFields(fieldName, value);
+    }
+
+    /**
+     * Resolves an attribute value of a compiled document that is prefixed
+     * with a location, resource or expression prefix.
+     *
+     * @param value
+     *
+     * @treatAsPrivate
+     * @deprecated
+     * @since JavaFX 8u40
+     */
+    public Object impl_resolvePrefixedValue(String value) throws LoadException {
+        return resolvePrefixedValue(value);
+    }
+
+    /**
+     * Returns an event handler that invokes the controller method named by
+     * an event handler attribute of a compiled document.
+     *
+     * @param attributeName
+     * @param handlerName
+     *
+     * @treatAsPrivate
+     * @deprecated
+     * @since JavaFX 8u40
+     */
+    public <T extends Event> EventHandler<T> impl_getControllerEventHandler(String attributeName,
+        String handlerName) throws LoadException {
+        MethodHandler handler = getControllerMethodHandle(handlerName, SupportedType.EVENT);
+        if (handler == null) {
+            throw constructLoadException("Error resolving " + attributeName + "='" + handlerName
+                + "', either the event handler is not in the Namespace or there is an error in the script.");
+        }
+
+        return new ControllerMethodEventHandler<T>(handler);
+    }
+
     /**
      * Loads an object hierarchy from a FXML document. The location from which
      * the document will be loaded must have been set by a prior call to
@@ -2403,6 +2496,11 @@ public class FXMLLoader {
      * loaded. This helps improve performance on subsequent loads by
      * eliminating the overhead of loading the classes referred to by the
      * document.
+     * <p>
+     * If the class loader provides a class compiled from the document by
+     * <tt>com.sun.javafx.fxml.compiler.FXMLCompiler</tt>, the object hierarchy
+     * is built by that class instead of by parsing the document, unless a
+     * custom builder factory has been set.
      *
      * @return
      * The loaded object hierarchy.
@@ -2431,6 +2529,70 @@ public class FXMLLoader {
                                          : null);
     }
 
+    /**
+     * Loads an object hierarchy from a template created by
+     * {@link #loadTemplate()}. The template is not parsed again, and the
+     * types it refers to are not looked up again as long as this loader uses
+     * the same class loader as the loader that created the template. If the
+     * location has not been set, the template's location is used.
+     *
+     * @param template
+     * The template to instantiate.
+     *
+     * @return
+     * The loaded object hierarchy.
+     * @since JavaFX 8u40
+     */
+    @CallerSensitive
+    public <T> T load(FXMLTemplate template) throws IOException {
+        if (template == null) {
+            throw new NullPointerException("template is null.");
+        }
+
+        if (location == null) {
+            location = template.getLocation();
+        }
+
+        return loadImpl(template, null, (System.getSecurityManager() != null)
+                                            ? Reflection.getCallerClass()
+                                            : null);
+    }
+
+    /**
+     * Parses the FXML document at the current location into a template
+     * that can be instantiated any number of times by
+     * {@link #load(FXMLTemplate)}. Templates are immutable and may be shared
+     * between threads, so they can be created on a background thread ahead
+     * of time. Creating a template resolves the types the document refers
+     * to but does not create any objects.
+     *
+     * @return
+     * The template.
+     * @since JavaFX 8u40
+     */
+    public FXMLTemplate loadTemplate() throws IOException {
+        if (location == null) {
+            throw new IllegalStateException("Location is not set.");
+        }
+
+        InputStream inputStream = null;
+        try {
+            inputStream = location.openStream();
+            clearImports();
+
+            return new FXMLTemplate(location, getClassLoader(),
+                createStreamReader(inputStream, charset), this);
+        } catch (XMLStreamException exception) {
+            throw constructLoadException(exception);
+        } finally {
+            clearImports();
+
+            if (inputStream != null) {
+                inputStream.close();
+            }
+        }
+    }
+
     private Class<?> callerClass;
 
     private <T> T loadImpl(final Class<?> callerClass) throws IOException {
@@ -2438,6 +2600,13 @@ public class FXMLLoader {
             throw new IllegalStateException("Location is not set.");
         }
 
+        if (isCompiledLoadEnabled()) {
+            Class<?> compiledType = getCompiledType(location, getClassLoader());
+            if (compiledType != null) {
+                return loadCompiled(compiledType, callerClass);
+            }
+        }
+
         InputStream inputStream = null;
         T value;
         try {
@@ -2452,13 +2621,18 @@ public class FXMLLoader {
         return value;
     }
 
-    @SuppressWarnings({ "dep-ann", "unchecked" })
     private <T> T loadImpl(InputStream inputStream,
                            Class<?> callerClass) throws IOException {
         if (inputStream == null) {
             throw new NullPointerException("inputStream is null.");
         }
 
+        return loadImpl(null, inputStream, callerClass);
+    }
+
+    @SuppressWarnings({ "dep-ann", "unchecked" })
+    private <T> T loadImpl(FXMLTemplate template, InputStream inputStream,
+                           Class<?> callerClass) throws IOException {
         this.callerClass = callerClass;
         controllerAccessor.setCallerClass(callerClass);
         try {
@@ -2471,41 +2645,20 @@ public class FXMLLoader {
             // Clear the script engine
             scriptEngine = null;
 
-            // Create the parser
-            try {
-                XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
-                xmlInputFactory.setProperty("javax.xml.stream.isCoalescing", true);
-
-                // Some stream readers incorrectly report an empty string as the prefix
-                // for the default namespace; correct this as needed
-                InputStreamReader inputStreamReader = new InputStreamReader(inputStream, charset);
-                xmlStreamReader = new StreamReaderDelegate(xmlInputFactory.createXMLStreamReader(inputStreamReader)) {
-                    @Override
-                    public String getPrefix() {
-                        String prefix = super.getPrefix();
-
-                        if (prefix != null
-                            && prefix.length() == 0) {
-                            prefix = null;
-                        }
+            // Create the parser, or replay the template; the template's types
+            // can only be used if they were resolved by the same class loader
+            if (template != null) {
+                xmlStreamReader = template.createStreamReader();
 
-                        return prefix;
-                    }
-
-                    @Override
-                    public String getAttributePrefix(int index) {
-                        String attributePrefix = super.getAttributePrefix(index);
-
-                        if (attributePrefix != null
-                            && attributePrefix.length() == 0) {
-                            attributePrefix = null;
-                        }
-
-                        return attributePrefix;
-                    }
-                };
-            } catch (XMLStreamException exception) {
-                throw constructLoadException(exception);
+                if (template.getClassLoader() == getClassLoader()) {
+                    this.template = template;
+                }
+            } else {
+                try {
+                    xmlStreamReader = createStreamReader(inputStream, charset);
+                } catch (XMLStreamException exception) {
+                    throw constructLoadException(exception);
+                }
             }
 
             // Push this loader onto the stack
@@ -2547,36 +2700,110 @@ public class FXMLLoader {
                 throw constructLoadException(exception);
             }
 
-            if (controller != null) {
-                if (controller instanceof Initializable) {
-                    ((Initializable)controller).initialize(location, resources);
-                } else {
-                    // Inject controller fields
-                    Map<String, List<Field>> controllerFields =
-                            controllerAccessor.getControllerFields();
+            initializeController();
+        } catch (final LoadException exception) {
+            throw exception;
+        } catch (final Exception exception) {
+            throw constructLoadException(exception);
+        } finally {
+            controllerAccessor.setCallerClass(null);
+            // Clear controller accessor caches
+            controllerAccessor.reset();
+            // Clear the parser
+            xmlStreamReader = null;
+            this.template = null;
+        }
 
-                    injectFields(LOCATION_KEY, location);
+        return (T)root;
+    }
 
-                    injectFields(RESOURCES_KEY, resources);
+    private static XMLStreamReader createStreamReader(InputStream inputStream, Charset charset)
+        throws XMLStreamException {
+        XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+        xmlInputFactory.setProperty("javax.xml.stream.isCoalescing", true);
 
-                    // Initialize the controller
-                    Method initializeMethod = controllerAccessor
-                                                  .getControllerMethods()
-                                                  .get(SupportedType.PARAMETERLESS)
-                                                  .get(INITIALIZE_METHOD_NAME);
+        // Some stream readers incorrectly report an empty string as the prefix
+        // for the default namespace; correct this as needed
+        InputStreamReader inputStreamReader = new InputStreamReader(inputStream, charset);
+        return new StreamReaderDelegate(xmlInputFactory.createXMLStreamReader(inputStreamReader)) {
+            @Override
+            public String getPrefix() {
+                String prefix = super.getPrefix();
 
-                    if (initializeMethod != null) {
-                        try {
-                            MethodUtil.invoke(initializeMethod, controller, new Object [] {});
-                        } catch (IllegalAccessException exception) {
-                            // TODO Throw when Initializable is deprecated/removed
-                            // throw constructLoadException(exception);
-                        } catch (InvocationTargetException exception) {
-                            throw constructLoadException(exception);
-                        }
+                if (prefix != null
+                    && prefix.length() == 0) {
+                    prefix = null;
+                }
+
+                return prefix;
+            }
+
+            @Override
+            public String getAttributePrefix(int index) {
+                String attributePrefix = super.getAttributePrefix(index);
+
+                if (attributePrefix != null
+                    && attributePrefix.length() == 0) {
+                    attributePrefix = null;
+                }
+
+                return attributePrefix;
+            }
+        };
+    }
+
+    private void initializeController() throws LoadException {
+        if (controller != null) {
+            if (controller instanceof Initializable) {
+                ((Initializable)controller).initialize(location, resources);
+            } else {
+                // Inject controller fields
+                injectFields(LOCATION_KEY, location);
+
+                injectFields(RESOURCES_KEY, resources);
+
+                // Initialize the controller
+                Method initializeMethod = controllerAccessor
+                                              .getControllerMethods()
+                                              .get(SupportedType.PARAMETERLESS)
+                                              .get(INITIALIZE_METHOD_NAME);
+
+                if (initializeMethod != null) {
+                    try {
+                        MethodUtil.invoke(initializeMethod, controller, new Object [] {});
+                    } catch (IllegalAccessException exception) {
+                        // TODO Throw when Initializable is deprecated/removed
+                        // throw constructLoadException(exception);
+                    } catch (InvocationTargetException exception) {
+                        throw constructLoadException(exception);
                     }
                 }
             }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T loadCompiled(Class<?> compiledType, Class<?> callerClass) throws IOException {
+        this.callerClass = callerClass;
+        controllerAccessor.setCallerClass(callerClass);
+        try {
+            clearImports();
+
+            // Initialize the namespace
+            namespace.put(LOCATION_KEY, location);
+            namespace.put(RESOURCES_KEY, resources);
+
+            // Clear the script engine
+            scriptEngine = null;
+
+            // Push this loader onto the stack
+            loaders.push(this);
+
+            // Let the generated code build the object hierarchy
+            CompiledFXML compiledFXML = (CompiledFXML)ReflectUtil.newInstance(compiledType);
+            root = compiledFXML.load(this);
+
+            initializeController();
         } catch (final LoadException exception) {
             throw exception;
         } catch (final Exception exception) {
@@ -2585,13 +2812,122 @@ public class FXMLLoader {
             controllerAccessor.setCallerClass(null);
             // Clear controller accessor caches
             controllerAccessor.reset();
-            // Clear the parser
-            xmlStreamReader = null;
         }
 
         return (T)root;
     }
 
+    private boolean isCompiledLoadEnabled() {
+        // Load listeners and static loads observe the parse itself, and a
+        // custom builder factory may construct values differently than the
+        // generated code does
+        return loadListener == null
+            && !staticLoad
+            && (builderFactory == null
+                || builderFactory.getClass() == JavaFXBuilderFactory.class);
+    }
+
+    /**
+     * Returns the class generated by {@link FXMLCompiler} for the document at
+     * the given location, or <tt>null</tt> if the document has not been
+     * compiled or has changed since it was compiled. Results are cached per
+     * class loader.
+     */
+    static Class<?> getCompiledType(URL location, ClassLoader classLoader) {
+        String externalForm = location.toExternalForm();
+        String className;
+        synchronized (compiledTypeNames) {
+            Map<String, String> classNames = compiledTypeNames.get(classLoader);
+            if (classNames == null) {
+                classNames = new HashMap<String, String>();
+                compiledTypeNames.put(classLoader, classNames);
+            }
+
+            className = classNames.get(externalForm);
+            if (className == null) {
+                className = findCompiledTypeName(location, classLoader);
+                classNames.put(externalForm, className);
+            }
+        }
+
+        if (className.length() == 0) {
+            return null;
+        }
+
+        try {
+            Class<?> type = classLoader.loadClass(className);
+            return CompiledFXML.class.isAssignableFrom(type) ? type : null;
+        } catch (ClassNotFoundException exception) {
+            return null;
+        }
+    }
+
+    private static String findCompiledTypeName(URL location, ClassLoader classLoader) {
+        String externalForm = location.toExternalForm();
+        String path = externalForm;
+        int i = path.lastIndexOf("!/");
+        if (i != -1) {
+            path = path.substring(i + 2);
+        } else {
+            path = location.getPath();
+        }
+
+        // Find the resource name under which the class loader knows this
+        // document, trying the longest candidate first
+        String resourceName = null;
+        int j = path.startsWith("/") ? 1 : 0;
+        while (resourceName == null && j != -1 && j < path.length()) {
+            String candidate = path.substring(j);
+            URL resource = classLoader.getResource(candidate);
+            if (resource != null && resource.toExternalForm().equals(externalForm)) {
+                resourceName = candidate;
+            } else {
+                j = path.indexOf('/', j);
+                if (j != -1) {
+                    j++;
+                }
+            }
+        }
+
+        String className = (resourceName == null) ? null : FXMLCompiler.getClassName(resourceName);
+
+        // Look for the class file first so that documents without a compiled
+        // form do not cost a class loading attempt on every load
+        if (className == null
+            || classLoader.getResource(className.replace('.', '/') + ".class") == null) {
+            return "";
+        }
+
+        // A class compiled from an earlier version of the document would
+        // build an outdated object hierarchy
+        if (!isCompiledTypeCurrent(location, classLoader, className)) {
+            return "";
+        }
+
+        return className;
+    }
+
+    private static boolean isCompiledTypeCurrent(URL location, ClassLoader classLoader,
+                                                 String className) {
+        try {
+            Class<?> type = classLoader.loadClass(className);
+            if (!CompiledFXML.class.isAssignableFrom(type)) {
+                return false;
+            }
+
+            String digest;
+            try (InputStream inputStream = location.openStream()) {
+                digest = FXMLCompiler.getDigest(inputStream);
+            }
+
+            CompiledFXML compiledFXML = (CompiledFXML)ReflectUtil.newInstance(type);
+            return digest.equals(compiledFXML.getSourceDigest());
+        } catch (ClassNotFoundException | IOException
+                 | InstantiationException | IllegalAccessException exception) {
+            return false;
+        }
+    }
+
     private void clearImports() {
         packages.clear();
         classes.clear();
@@ -2690,6 +3026,10 @@ public class FXMLLoader {
             loadListener.readImportProcessingInstruction(target);
         }
 
+        processImport(target);
+    }
+
+    void processImport(String target) throws LoadException {
         if (target.endsWith(".*")) {
             importPackage(target.substring(0, target.length() - 2));
         } else {
@@ -2853,7 +3193,14 @@ public class FXMLLoader {
         }
     }
 
-    private Class<?> getType(String name) throws LoadException {
+    Class<?> getType(String name) throws LoadException {
+        if (template != null) {
+            Class<?> type = template.getType(name);
+            if (type != null) {
+                return type;
+            }
+        }
+
         Class<?> type = null;
 
         if (Character.isLowerCase(name.charAt(0))) {
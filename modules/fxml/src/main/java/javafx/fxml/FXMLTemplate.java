@@ -0,0 +1,685 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.fxml;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.namespace.QName;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * A parsed FXML document that can be loaded any number of times without
+ * being parsed again. A template holds the document's content and the types
+ * it refers to, resolved when the template was created; it does not hold
+ * any of the objects the document describes, which are created anew each
+ * time the template is loaded.
+ * <p>
+ * Templates are created by {@link FXMLLoader#loadTemplate()} and loaded by
+ * {@link FXMLLoader#load(FXMLTemplate)}. They are immutable and may be
+ * created on one thread and loaded on any number of others concurrently,
+ * with a separate loader per load:
+ * <pre>
+ * FXMLTemplate template = new FXMLLoader(getClass().getResource("row.fxml")).loadTemplate();
+ * ...
+ * FXMLLoader loader = new FXMLLoader();
+ * loader.setResources(resources);
+ * Node row = loader.load(template);
+ * </pre>
+ *
+ * @since JavaFX 8u40
+ */
+public final class FXMLTemplate {
+    private final URL location;
+    private final ClassLoader classLoader;
+
+    // The recorded parser events and their data
+    private final int[] eventTypes;
+    private final Object[] eventData;
+    private final int[] lineNumbers;
+
+    private final Map<String, Class<?>> types;
+
+    // A start tag
+    private static class StartElement {
+        public final String prefix;
+        public final String localName;
+        public final String namespaceURI;
+        public final String[] attributes;
+        public final String[] namespaceDeclarations;
+        public final Namespaces namespaces;
+
+        public StartElement(String prefix, String localName, String namespaceURI,
+            String[] attributes, String[] namespaceDeclarations, Namespaces namespaces) {
+            this.prefix = prefix;
+            this.localName = localName;
+            this.namespaceURI = namespaceURI;
+            this.attributes = attributes;
+            this.namespaceDeclarations = namespaceDeclarations;
+            this.namespaces = namespaces;
+        }
+    }
+
+    // Character data
+    private static class Characters {
+        public final String text;
+        public final boolean whiteSpace;
+
+        public Characters(String text, boolean whiteSpace) {
+            this.text = text;
+            this.whiteSpace = whiteSpace;
+        }
+    }
+
+    // The namespaces in scope of an element
+    private static class Namespaces implements NamespaceContext {
+        public final Map<String, String> namespaceURIs;
+
+        public Namespaces(Map<String, String> namespaceURIs) {
+            this.namespaceURIs = namespaceURIs;
+        }
+
+        @Override
+        public String getNamespaceURI(String prefix) {
+            if (prefix == null) {
+                throw new IllegalArgumentException();
+            }
+
+            return namespaceURIs.get(prefix);
+        }
+
+        @Override
+        public String getPrefix(String namespaceURI) {
+            Iterator<String> prefixes = getPrefixes(namespaceURI);
+            return prefixes.hasNext() ? prefixes.next() : null;
+        }
+
+        @Override
+        public Iterator<String> getPrefixes(String namespaceURI) {
+            List<String> prefixes = new ArrayList<String>();
+            for (Map.Entry<String, String> entry : namespaceURIs.entrySet()) {
+                if (entry.getValue().equals(namespaceURI)) {
+                    prefixes.add(entry.getKey());
+                }
+            }
+
+            return prefixes.iterator();
+        }
+    }
+
+    private static final int ATTRIBUTE_SIZE = 4;
+    private static final int NAMESPACE_DECLARATION_SIZE = 2;
+    private static final Namespaces EMPTY_NAMESPACES =
+        new Namespaces(Collections.<String, String>emptyMap());
+
+    FXMLTemplate(URL location, ClassLoader classLoader, XMLStreamReader xmlStreamReader,
+        FXMLLoader loader) throws XMLStreamException, LoadException {
+        this.location = location;
+        this.classLoader = classLoader;
+
+        List<Integer> eventTypeList = new ArrayList<Integer>();
+        List<Object> eventDataList = new ArrayList<Object>();
+        List<Integer> lineNumberList = new ArrayList<Integer>();
+
+        Map<String, Class<?>> types = new HashMap<String, Class<?>>();
+
+        LinkedList<StartElement> stack = new LinkedList<StartElement>();
+
+        while (xmlStreamReader.hasNext()) {
+            int event = xmlStreamReader.next();
+            Object data;
+
+            switch (event) {
+                case XMLStreamConstants.PROCESSING_INSTRUCTION: {
+                    String target = xmlStreamReader.getPITarget();
+                    String piData = xmlStreamReader.getPIData();
+                    data = new String[] {target, piData};
+
+                    // Resolve types in the context of the imports seen so far,
+                    // as the loader does
+                    if (target.trim().equals(FXMLLoader.IMPORT_PROCESSING_INSTRUCTION)) {
+                        loader.processImport(piData.trim());
+                    }
+
+                    break;
+                }
+
+                case XMLStreamConstants.COMMENT:
+                case XMLStreamConstants.CHARACTERS: {
+                    data = new Characters(xmlStreamReader.getText(),
+                        (event == XMLStreamConstants.CHARACTERS) && xmlStreamReader.isWhiteSpace());
+                    break;
+                }
+
+                case XMLStreamConstants.START_ELEMENT: {
+                    Namespaces namespaces = stack.isEmpty() ? EMPTY_NAMESPACES : stack.peek().namespaces;
+                    int namespaceCount = xmlStreamReader.getNamespaceCount();
+                    String[] namespaceDeclarations = new String[namespaceCount * NAMESPACE_DECLARATION_SIZE];
+                    if (namespaceCount > 0) {
+                        Map<String, String> namespaceURIs =
+                            new HashMap<String, String>(namespaces.namespaceURIs);
+                        for (int i = 0; i < namespaceCount; i++) {
+                            String prefix = xmlStreamReader.getNamespacePrefix(i);
+                            String namespaceURI = xmlStreamReader.getNamespaceURI(i);
+                            namespaceDeclarations[i * NAMESPACE_DECLARATION_SIZE] = prefix;
+                            namespaceDeclarations[i * NAMESPACE_DECLARATION_SIZE + 1] = namespaceURI;
+                            namespaceURIs.put((prefix == null) ? "" : prefix, namespaceURI);
+                        }
+
+                        namespaces = new Namespaces(Collections.unmodifiableMap(namespaceURIs));
+                    }
+
+                    int attributeCount = xmlStreamReader.getAttributeCount();
+                    String[] attributes = new String[attributeCount * ATTRIBUTE_SIZE];
+                    for (int i = 0; i < attributeCount; i++) {
+                        attributes[i * ATTRIBUTE_SIZE] = xmlStreamReader.getAttributePrefix(i);
+                        attributes[i * ATTRIBUTE_SIZE + 1] = xmlStreamReader.getAttributeLocalName(i);
+                        attributes[i * ATTRIBUTE_SIZE + 2] = xmlStreamReader.getAttributeValue(i);
+                        attributes[i * ATTRIBUTE_SIZE + 3] = xmlStreamReader.getAttributeNamespace(i);
+                    }
+
+                    StartElement startElement = new StartElement(xmlStreamReader.getPrefix(),
+                        xmlStreamReader.getLocalName(), xmlStreamReader.getNamespaceURI(),
+                        attributes, namespaceDeclarations, namespaces);
+                    resolveTypes(startElement, loader, types);
+                    stack.push(startElement);
+                    data = startElement;
+                    break;
+                }
+
+                case XMLStreamConstants.END_ELEMENT: {
+                    // End tags refer to their start tag
+                    data = stack.pop();
+                    break;
+                }
+
+                default: {
+                    // The loader ignores all other events
+                    continue;
+                }
+            }
+
+            eventTypeList.add(event);
+            eventDataList.add(data);
+            lineNumberList.add(xmlStreamReader.getLocation().getLineNumber());
+        }
+
+        int n = eventTypeList.size();
+        eventTypes = new int[n];
+        eventData = eventDataList.toArray();
+        lineNumbers = new int[n];
+        for (int i = 0; i < n; i++) {
+            eventTypes[i] = eventTypeList.get(i);
+            lineNumbers[i] = lineNumberList.get(i);
+        }
+
+        this.types = Collections.unmodifiableMap(types);
+    }
+
+    // Resolves the type names the loader looks up for an element
+    private static void resolveTypes(StartElement startElement, FXMLLoader loader,
+        Map<String, Class<?>> types) throws LoadException {
+        String localName = startElement.localName;
+
+        if (startElement.prefix == null) {
+            int i = localName.lastIndexOf('.');
+            if (!Character.isLowerCase(localName.charAt(i + 1))) {
+                resolveType(localName, loader, types);
+            } else if (i != -1) {
+                resolveType(localName.substring(0, i), loader, types);
+            }
+        }
+
+        String[] attributes = startElement.attributes;
+        for (int i = 0; i < attributes.length; i += ATTRIBUTE_SIZE) {
+            if (attributes[i] != null) {
+                continue;
+            }
+
+            String name = attributes[i + 1];
+            if (FXMLLoader.FX_NAMESPACE_PREFIX.equals(startElement.prefix)
+                && FXMLLoader.ROOT_TAG.equals(localName)
+                && FXMLLoader.ROOT_TYPE_ATTRIBUTE.equals(name)) {
+                resolveType(attributes[i + 2], loader, types);
+            } else {
+                int j = name.lastIndexOf('.');
+                if (j > 0) {
+                    resolveType(name.substring(0, j), loader, types);
+                }
+            }
+        }
+    }
+
+    private static void resolveType(String name, FXMLLoader loader, Map<String, Class<?>> types)
+        throws LoadException {
+        if (name.length() > 0 && !types.containsKey(name)) {
+            Class<?> type = loader.getType(name);
+            if (type != null) {
+                types.put(name, type);
+            }
+        }
+    }
+
+    /**
+     * Returns the location of the document.
+     */
+    public URL getLocation() {
+        return location;
+    }
+
+    ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    Class<?> getType(String name) {
+        return types.get(name);
+    }
+
+    XMLStreamReader createStreamReader() {
+        return new TemplateStreamReader();
+    }
+
+    // Replays the recorded events. Events the loader ignores, like DTDs and
+    // entity references, are not recorded.
+    private class TemplateStreamReader implements XMLStreamReader, Location {
+        private int index = -1;
+
+        private StartElement getStartElement() {
+            if (eventTypes[index] != XMLStreamConstants.START_ELEMENT) {
+                throw new IllegalStateException();
+            }
+
+            return (StartElement)eventData[index];
+        }
+
+        private Characters getCharacters() {
+            if (eventTypes[index] != XMLStreamConstants.CHARACTERS
+                && eventTypes[index] != XMLStreamConstants.COMMENT) {
+                throw new IllegalStateException();
+            }
+
+            return (Characters)eventData[index];
+        }
+
+        private String[] getProcessingInstruction() {
+            return (eventTypes[index] == XMLStreamConstants.PROCESSING_INSTRUCTION)
+                ? (String[])eventData[index] : null;
+        }
+
+        private StartElement getElement() {
+            if (eventTypes[index] != XMLStreamConstants.START_ELEMENT
+                && eventTypes[index] != XMLStreamConstants.END_ELEMENT) {
+                throw new IllegalStateException();
+            }
+
+            return (StartElement)eventData[index];
+        }
+
+        @Override
+        public Object getProperty(String name) {
+            return null;
+        }
+
+        @Override
+        public int next() throws XMLStreamException {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            return eventTypes[++index];
+        }
+
+        @Override
+        public void require(int type, String namespaceURI, String localName) throws XMLStreamException {
+            if (type != getEventType()) {
+                throw new XMLStreamException("Expected event type " + type
+                    + " but was " + getEventType() + ".", this);
+            }
+
+            if ((namespaceURI != null || localName != null) && !hasName()) {
+                throw new XMLStreamException("Expected a start or end tag.", this);
+            }
+
+            if (namespaceURI != null && !namespaceURI.equals(getNamespaceURI())) {
+                throw new XMLStreamException("Expected namespace " + namespaceURI
+                    + " but was " + getNamespaceURI() + ".", this);
+            }
+
+            if (localName != null && !localName.equals(getLocalName())) {
+                throw new XMLStreamException("Expected local name " + localName
+                    + " but was " + getLocalName() + ".", this);
+            }
+        }
+
+        @Override
+        public String getElementText() throws XMLStreamException {
+            if (getEventType() != XMLStreamConstants.START_ELEMENT) {
+                throw new XMLStreamException("Not at a start tag.", this);
+            }
+
+            StringBuilder textBuilder = new StringBuilder();
+            int eventType = nextEvent();
+            while (eventType != XMLStreamConstants.END_ELEMENT) {
+                if (eventType == XMLStreamConstants.CHARACTERS) {
+                    textBuilder.append(getText());
+                } else if (eventType != XMLStreamConstants.PROCESSING_INSTRUCTION
+                    && eventType != XMLStreamConstants.COMMENT) {
+                    throw new XMLStreamException("Element text may not contain a start tag.", this);
+                }
+
+                eventType = nextEvent();
+            }
+
+            return textBuilder.toString();
+        }
+
+        @Override
+        public int nextTag() throws XMLStreamException {
+            int eventType = nextEvent();
+            while ((eventType == XMLStreamConstants.CHARACTERS && isWhiteSpace())
+                || eventType == XMLStreamConstants.PROCESSING_INSTRUCTION
+                || eventType == XMLStreamConstants.COMMENT) {
+                eventType = nextEvent();
+            }
+
+            if (eventType != XMLStreamConstants.START_ELEMENT
+                && eventType != XMLStreamConstants.END_ELEMENT) {
+                throw new XMLStreamException("Expected a start or end tag.", this);
+            }
+
+            return eventType;
+        }
+
+        // Like next(), but reports the end of the document as a stream error
+        private int nextEvent() throws XMLStreamException {
+            if (!hasNext()) {
+                throw new XMLStreamException("Unexpected end of document.", this);
+            }
+
+            return next();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index + 1 < eventTypes.length;
+        }
+
+        @Override
+        public void close() {
+            // No-op
+        }
+
+        @Override
+        public String getNamespaceURI(String prefix) {
+            return getNamespaceContext().getNamespaceURI(prefix);
+        }
+
+        @Override
+        public boolean isStartElement() {
+            return getEventType() == XMLStreamConstants.START_ELEMENT;
+        }
+
+        @Override
+        public boolean isEndElement() {
+            return getEventType() == XMLStreamConstants.END_ELEMENT;
+        }
+
+        @Override
+        public boolean isCharacters() {
+            return getEventType() == XMLStreamConstants.CHARACTERS;
+        }
+
+        @Override
+        public boolean isWhiteSpace() {
+            return isCharacters() && getCharacters().whiteSpace;
+        }
+
+        @Override
+        public String getAttributeValue(String namespaceURI, String localName) {
+            String[] attributes = getStartElement().attributes;
+            for (int i = 0; i < attributes.length; i += ATTRIBUTE_SIZE) {
+                if (attributes[i + 1].equals(localName)
+                    && (namespaceURI == null || namespaceURI.equals(attributes[i + 3]))) {
+                    return attributes[i + 2];
+                }
+            }
+
+            return null;
+        }
+
+        @Override
+        public int getAttributeCount() {
+            return getStartElement().attributes.length / ATTRIBUTE_SIZE;
+        }
+
+        @Override
+        public QName getAttributeName(int index) {
+            String prefix = getAttributePrefix(index);
+            String namespaceURI = getAttributeNamespace(index);
+            return new QName((namespaceURI == null) ? "" : namespaceURI, getAttributeLocalName(index),
+                (prefix == null) ? "" : prefix);
+        }
+
+        @Override
+        public String getAttributeNamespace(int index) {
+            return getStartElement().attributes[index * ATTRIBUTE_SIZE + 3];
+        }
+
+        @Override
+        public String getAttributeLocalName(int index) {
+            return getStartElement().attributes[index * ATTRIBUTE_SIZE + 1];
+        }
+
+        @Override
+        public String getAttributePrefix(int index) {
+            return getStartElement().attributes[index * ATTRIBUTE_SIZE];
+        }
+
+        @Override
+        public String getAttributeType(int index) {
+            return "CDATA";
+        }
+
+        @Override
+        public String getAttributeValue(int index) {
+            return getStartElement().attributes[index * ATTRIBUTE_SIZE + 2];
+        }
+
+        @Override
+        public boolean isAttributeSpecified(int index) {
+            return true;
+        }
+
+        @Override
+        public int getNamespaceCount() {
+            return getElement().namespaceDeclarations.length / NAMESPACE_DECLARATION_SIZE;
+        }
+
+        @Override
+        public String getNamespacePrefix(int index) {
+            return getElement().namespaceDeclarations[index * NAMESPACE_DECLARATION_SIZE];
+        }
+
+        @Override
+        public String getNamespaceURI(int index) {
+            return getElement().namespaceDeclarations[index * NAMESPACE_DECLARATION_SIZE + 1];
+        }
+
+        @Override
+        public NamespaceContext getNamespaceContext() {
+            return getElement().namespaces;
+        }
+
+        @Override
+        public int getEventType() {
+            return (index == -1) ? XMLStreamConstants.START_DOCUMENT : eventTypes[index];
+        }
+
+        @Override
+        public String getText() {
+            return getCharacters().text;
+        }
+
+        @Override
+        public char[] getTextCharacters() {
+            return getText().toCharArray();
+        }
+
+        @Override
+        public int getTextCharacters(int sourceStart, char[] target, int targetStart, int length)
+            throws XMLStreamException {
+            String text = getText();
+            int n = Math.min(length, text.length() - sourceStart);
+            text.getChars(sourceStart, sourceStart + n, target, targetStart);
+            return n;
+        }
+
+        @Override
+        public int getTextStart() {
+            return 0;
+        }
+
+        @Override
+        public int getTextLength() {
+            return getText().length();
+        }
+
+        @Override
+        public String getEncoding() {
+            return null;
+        }
+
+        @Override
+        public boolean hasText() {
+            int eventType = getEventType();
+            return eventType == XMLStreamConstants.CHARACTERS
+                || eventType == XMLStreamConstants.COMMENT;
+        }
+
+        @Override
+        public Location getLocation() {
+            return this;
+        }
+
+        @Override
+        public QName getName() {
+            StartElement element = getElement();
+            return new QName((element.namespaceURI == null) ? "" : element.namespaceURI,
+                element.localName, (element.prefix == null) ? "" : element.prefix);
+        }
+
+        @Override
+        public String getLocalName() {
+            return getElement().localName;
+        }
+
+        @Override
+        public boolean hasName() {
+            int eventType = getEventType();
+            return eventType == XMLStreamConstants.START_ELEMENT
+                || eventType == XMLStreamConstants.END_ELEMENT;
+        }
+
+        @Override
+        public String getNamespaceURI() {
+            return getElement().namespaceURI;
+        }
+
+        @Override
+        public String getPrefix() {
+            return getElement().prefix;
+        }
+
+        @Override
+        public String getVersion() {
+            return null;
+        }
+
+        @Override
+        public boolean isStandalone() {
+            return false;
+        }
+
+        @Override
+        public boolean standaloneSet() {
+            return false;
+        }
+
+        @Override
+        public String getCharacterEncodingScheme() {
+            return null;
+        }
+
+        @Override
+        public String getPITarget() {
+            String[] processingInstruction = getProcessingInstruction();
+            return (processingInstruction == null) ? null : processingInstruction[0];
+        }
+
+        @Override
+        public String getPIData() {
+            String[] processingInstruction = getProcessingInstruction();
+            return (processingInstruction == null) ? null : processingInstruction[1];
+        }
+
+        // Location
+
+        @Override
+        public int getLineNumber() {
+            return (index == -1) ? 1 : lineNumbers[index];
+        }
+
+        @Override
+        public int getColumnNumber() {
+            return -1;
+        }
+
+        @Override
+        public int getCharacterOffset() {
+            return -1;
+        }
+
+        @Override
+        public String getPublicId() {
+            return null;
+        }
+
+        @Override
+        public String getSystemId() {
+            return (location == null) ? null : location.toExternalForm();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.fxml;
+
+import javafx.event.ActionEvent;
+
+public class CompiledFXMLController {
+    @FXML private Widget root;
+    @FXML private Widget child1;
+    @FXML private Widget child2;
+    @FXML private String shared;
+
+    private int actionCount = 0;
+    private boolean initialized = false;
+
+    public Widget getRoot() {
+        return root;
+    }
+
+    public Widget getChild1() {
+        return child1;
+    }
+
+    public Widget getChild2() {
+        return child2;
+    }
+
+    public String getShared() {
+        return shared;
+    }
+
+    public int getActionCount() {
+        return actionCount;
+    }
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    @FXML
+    protected void initialize() {
+        initialized = true;
+    }
+
+    @FXML
+    protected void handleAction(ActionEvent event) {
+        actionCount++;
+    }
+}
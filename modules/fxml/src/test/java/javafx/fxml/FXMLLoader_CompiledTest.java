@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.fxml;
+
+import com.sun.javafx.fxml.compiler.FXMLCompiler;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.ResourceBundle;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FXMLLoader_CompiledTest {
+    private static final String DOCUMENT_NAME = "javafx/fxml/compiled.fxml";
+
+    private File outputDirectory;
+    private ClassLoader classLoader;
+
+    @Before
+    public void setUp() throws IOException {
+        outputDirectory = File.createTempFile("fxml", "");
+        outputDirectory.delete();
+        outputDirectory.mkdirs();
+
+        classLoader = new URLClassLoader(new URL[] {outputDirectory.toURI().toURL()},
+            getClass().getClassLoader());
+    }
+
+    @After
+    public void tearDown() {
+        delete(outputDirectory);
+    }
+
+    private static void delete(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                delete(child);
+            }
+        }
+
+        file.delete();
+    }
+
+    private String compile(InputStream inputStream, String className) throws IOException {
+        try {
+            return new FXMLCompiler(getClass().getClassLoader()).compile(inputStream, className);
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    private void compileSource(String className, String source) throws IOException {
+        File sourceFile = new File(outputDirectory, className.replace('.', File.separatorChar) + ".java");
+        sourceFile.getParentFile().mkdirs();
+
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(sourceFile), "UTF-8")) {
+            writer.write(source);
+        }
+
+        JavaCompiler javaCompiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull(javaCompiler);
+
+        int result = javaCompiler.run(null, null, null,
+            "-nowarn",
+            "-classpath", System.getProperty("java.class.path"),
+            "-d", outputDirectory.getPath(),
+            sourceFile.getPath());
+        assertEquals(source, 0, result);
+    }
+
+    private void compileDocument() throws IOException {
+        String className = FXMLCompiler.getClassName(DOCUMENT_NAME);
+        compileSource(className, compile(getClass().getResourceAsStream("compiled.fxml"), className));
+    }
+
+    private FXMLLoader createLoader() {
+        FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("compiled.fxml"),
+            ResourceBundle.getBundle("javafx/fxml/compiled"));
+        fxmlLoader.setClassLoader(classLoader);
+        return fxmlLoader;
+    }
+
+    private static void assertWidgetEquals(Widget expected, Widget actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getNumber(), actual.getNumber());
+        assertEquals(expected.isEnabled(), actual.isEnabled());
+        assertEquals(expected.getStyles(), actual.getStyles());
+        assertEquals(expected.getValues(), actual.getValues());
+        assertTrue(Arrays.equals(expected.getRatios(), actual.getRatios()));
+        assertTrue(Arrays.equals(expected.getNames(), actual.getNames()));
+        assertEquals(expected.getProperties(), actual.getProperties());
+        assertEquals(expected.getChildren().size(), actual.getChildren().size());
+
+        for (int i = 0, n = expected.getChildren().size(); i < n; i++) {
+            assertWidgetEquals(expected.getChildren().get(i), actual.getChildren().get(i));
+        }
+    }
+
+    @Test
+    public void testClassName() {
+        assertEquals("javafx.fxml.compiled_fxml", FXMLCompiler.getClassName(DOCUMENT_NAME));
+        assertEquals("a.b.My_View_fxml", FXMLCompiler.getClassName("/a/b/My-View.fxml"));
+        assertEquals("_1_fxml", FXMLCompiler.getClassName("1.fxml"));
+        assertNull(FXMLCompiler.getClassName("a/1b/view.fxml"));
+    }
+
+    @Test
+    public void testCompiledTypeNotFound() {
+        assertNull(FXMLLoader.getCompiledType(getClass().getResource("compiled.fxml"), classLoader));
+    }
+
+    @Test
+    public void testCompiledLoadMatchesParsedLoad() throws IOException {
+        compileDocument();
+        assertNotNull(FXMLLoader.getCompiledType(getClass().getResource("compiled.fxml"), classLoader));
+
+        FXMLLoader parsedLoader = createLoader();
+        Widget parsedRoot;
+        try (InputStream inputStream = getClass().getResourceAsStream("compiled.fxml")) {
+            parsedRoot = (Widget)parsedLoader.load(inputStream);
+        }
+
+        FXMLLoader compiledLoader = createLoader();
+        Widget compiledRoot = (Widget)compiledLoader.load();
+
+        assertWidgetEquals(parsedRoot, compiledRoot);
+        assertEquals(Alignment.LEFT, Widget.getAlignment(compiledRoot));
+        assertEquals(Alignment.RIGHT, Widget.getAlignment(compiledRoot.getChildren().get(1).getChildren().get(0)));
+        assertEquals("$escaped", compiledRoot.getChildren().get(1).getChildren().get(0).getName());
+        assertEquals(compiledLoader.getNamespace().keySet(), parsedLoader.getNamespace().keySet());
+
+        CompiledFXMLController controller = compiledLoader.getController();
+        assertTrue(controller.isInitialized());
+        assertSame(compiledRoot, controller.getRoot());
+        assertSame(compiledRoot.getChildren().get(0), controller.getChild1());
+        assertSame(compiledRoot.getChildren().get(1), controller.getChild2());
+        assertEquals("Shared", controller.getShared());
+
+        compiledRoot.fire();
+        assertEquals(1, controller.getActionCount());
+    }
+
+    @Test
+    public void testLoadPrefersCompiledClass() throws IOException {
+        // Change the generated code so that it can be told apart from a parse
+        String className = FXMLCompiler.getClassName(DOCUMENT_NAME);
+        String source = compile(getClass().getResourceAsStream("compiled.fxml"), className);
+        assertTrue(source.contains("\"Root\""));
+        compileSource(className, source.replace("\"Root\"", "\"Compiled\""));
+
+        Widget widget = (Widget)createLoader().load();
+        assertEquals("Compiled", widget.getName());
+    }
+
+    @Test
+    public void testStaleCompiledClassIsIgnored() throws IOException {
+        // A class compiled from another version of the document
+        String document = "<?import javafx.fxml.*?>"
+            + "<Widget xmlns:fx=\"http://javafx.com/fxml/1\" name=\"Compiled\"/>";
+
+        String className = FXMLCompiler.getClassName(DOCUMENT_NAME);
+        compileSource(className, compile(new ByteArrayInputStream(document.getBytes("UTF-8")), className));
+        assertNull(FXMLLoader.getCompiledType(getClass().getResource("compiled.fxml"), classLoader));
+
+        Widget widget = (Widget)createLoader().load();
+        assertEquals("Root", widget.getName());
+        assertEquals(3, widget.getChildren().size());
+    }
+
+    @Test
+    public void testSourceDigest() throws IOException {
+        String className = FXMLCompiler.getClassName(DOCUMENT_NAME);
+        String source = compile(getClass().getResourceAsStream("compiled.fxml"), className);
+
+        String digest;
+        try (InputStream inputStream = getClass().getResourceAsStream("compiled.fxml")) {
+            digest = FXMLCompiler.getDigest(inputStream);
+        }
+        assertTrue(source.contains("return \"" + digest + "\";"));
+
+        String otherDigest = FXMLCompiler.getDigest(new ByteArrayInputStream("<Widget/>".getBytes("UTF-8")));
+        assertFalse(digest.equals(otherDigest));
+    }
+
+    @Test(expected=LoadException.class)
+    public void testBindingExpressionIsNotSupported() throws IOException {
+        String document = "<?import javafx.fxml.*?>"
+            + "<Widget xmlns:fx=\"http://javafx.com/fxml/1\" fx:id=\"a\" name=\"${a.id}\"/>";
+
+        compile(new ByteArrayInputStream(document.getBytes("UTF-8")), "a.b_fxml");
+    }
+
+    @Test(expected=LoadException.class)
+    public void testScriptIsNotSupported() throws IOException {
+        String document = "<?language javascript?><?import javafx.fxml.*?>"
+            + "<Widget xmlns:fx=\"http://javafx.com/fxml/1\"/>";
+
+        compile(new ByteArrayInputStream(document.getBytes("UTF-8")), "a.b_fxml");
+    }
+}
@@ -26,8 +26,17 @@
 package javafx.fxml;
 
 import com.sun.javafx.fxml.expression.Expression;
+import com.sun.javafx.fxml.expression.ExpressionValue;
 import com.sun.javafx.fxml.expression.KeyPath;
+import com.sun.javafx.fxml.expression.LiteralExpression;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.ObservableMap;
 import org.junit.Test;
 
 import java.io.IOException;
@@ -37,6 +46,8 @@ import static com.sun.javafx.fxml.expression.Expression.*;
 import static com.sun.javafx.fxml.expression.Expression.set;
 import static com.sun.javafx.fxml.expression.Expression.valueOf;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class FXMLLoader_ExpressionTest {
 
@@ -293,6 +304,110 @@ public class FXMLLoader_ExpressionTest {
         assertEquals(expression.evaluate(null), "fiddlers 12");
     }
 
+    @Test
+    public void testConstantFolding() {
+        Expression expression = valueOf("(2 * 50) + '%'");
+        assertTrue(expression instanceof LiteralExpression);
+        assertEquals(expression.evaluate(null), "100%");
+        assertEquals(expression.getArguments().size(), 0);
+
+        expression = valueOf("-(3 - 1) * a");
+        HashMap<String, Object> namespace = new HashMap<String, Object>();
+        namespace.put("a", 4L);
+        assertEquals(expression.evaluate(namespace), -8L);
+        assertEquals(expression.getArguments().size(), 1);
+    }
+
+    @Test
+    public void testConstantFoldingFailure() {
+        // An operation that fails is not folded, so the failure is reported
+        // by evaluate()
+        Expression expression = valueOf("1 / 0");
+        try {
+            expression.evaluate(null);
+            fail();
+        } catch (ArithmeticException exception) {
+        }
+    }
+
+    public static class PathElement {
+        private final DoubleProperty value = new SimpleDoubleProperty(this, "value");
+        private final ObjectProperty<PathElement> child = new SimpleObjectProperty<PathElement>(this, "child");
+
+        public double getValue() {
+            return value.get();
+        }
+
+        public void setValue(double value) {
+            this.value.set(value);
+        }
+
+        public DoubleProperty valueProperty() {
+            return value;
+        }
+
+        public PathElement getChild() {
+            return child.get();
+        }
+
+        public void setChild(PathElement child) {
+            this.child.set(child);
+        }
+
+        public ObjectProperty<PathElement> childProperty() {
+            return child;
+        }
+    }
+
+    @Test
+    public void testExpressionValueMonitoring() {
+        ObservableMap<String, Object> namespace = FXCollections.observableHashMap();
+        PathElement root = new PathElement();
+        PathElement child1 = new PathElement();
+        PathElement child2 = new PathElement();
+        root.setChild(child1);
+        child1.setValue(2);
+        child2.setValue(3);
+        namespace.put("root", root);
+
+        ExpressionValue expressionValue = new ExpressionValue(namespace,
+            valueOf("root.child.value * root.child.value + 1"), Double.class);
+        final int[] count = new int[1];
+        InvalidationListener listener = observable -> count[0]++;
+        expressionValue.addListener(listener);
+        assertEquals(expressionValue.getValue(), 5.0);
+
+        // Arguments that are used more than once are monitored once
+        child1.setValue(4);
+        assertEquals(count[0], 1);
+        assertEquals(expressionValue.getValue(), 17.0);
+
+        // Replacing an object on the path moves the monitor to the new one
+        root.setChild(child2);
+        assertEquals(count[0], 2);
+        assertEquals(expressionValue.getValue(), 10.0);
+        child1.setValue(5);
+        assertEquals(count[0], 2);
+        child2.setValue(4);
+        assertEquals(count[0], 3);
+        assertEquals(expressionValue.getValue(), 17.0);
+
+        // Only the key read from the namespace is monitored
+        namespace.put("other", child1);
+        assertEquals(count[0], 3);
+        PathElement root2 = new PathElement();
+        root2.setChild(child1);
+        namespace.put("root", root2);
+        assertEquals(count[0], 4);
+        assertEquals(expressionValue.getValue(), 26.0);
+        child2.setValue(1);
+        assertEquals(count[0], 4);
+
+        expressionValue.removeListener(listener);
+        child1.setValue(1);
+        assertEquals(count[0], 4);
+    }
+
     @Test
     public void testMarkup() throws IOException {
         FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("expression_binding.fxml"));
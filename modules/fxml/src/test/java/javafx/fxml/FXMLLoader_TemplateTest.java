@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.fxml;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.ResourceBundle;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FXMLLoader_TemplateTest {
+    private static ResourceBundle getResources() {
+        return ResourceBundle.getBundle("javafx/fxml/compiled");
+    }
+
+    private FXMLTemplate createTemplate() throws IOException {
+        return new FXMLLoader(getClass().getResource("compiled.fxml"), getResources()).loadTemplate();
+    }
+
+    private static void assertWidgetEquals(Widget expected, Widget actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getNumber(), actual.getNumber());
+        assertEquals(expected.isEnabled(), actual.isEnabled());
+        assertEquals(expected.getStyles(), actual.getStyles());
+        assertTrue(Arrays.equals(expected.getRatios(), actual.getRatios()));
+        assertTrue(Arrays.equals(expected.getNames(), actual.getNames()));
+        assertEquals(expected.getProperties(), actual.getProperties());
+        assertEquals(expected.getChildren().size(), actual.getChildren().size());
+
+        for (int i = 0, n = expected.getChildren().size(); i < n; i++) {
+            assertWidgetEquals(expected.getChildren().get(i), actual.getChildren().get(i));
+        }
+    }
+
+    @Test
+    public void testTemplateMatchesParsedLoad() throws IOException {
+        FXMLTemplate template = createTemplate();
+        assertEquals(getClass().getResource("compiled.fxml"), template.getLocation());
+
+        Widget parsedRoot = (Widget)new FXMLLoader(getClass().getResource("compiled.fxml"),
+            getResources()).load();
+
+        FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("compiled.fxml"), getResources());
+        Widget root = (Widget)fxmlLoader.load(template);
+        assertWidgetEquals(parsedRoot, root);
+        assertEquals(Alignment.LEFT, Widget.getAlignment(root));
+
+        CompiledFXMLController controller = fxmlLoader.getController();
+        assertTrue(controller.isInitialized());
+        assertSame(root, controller.getRoot());
+        assertSame(root.getChildren().get(0), controller.getChild1());
+        assertEquals("Shared", controller.getShared());
+
+        root.fire();
+        assertEquals(1, controller.getActionCount());
+
+        // Each load creates new objects
+        Widget secondRoot = (Widget)new FXMLLoader(getClass().getResource("compiled.fxml"),
+            getResources()).load(template);
+        assertNotSame(root, secondRoot);
+        assertNotSame(root.getChildren().get(0), secondRoot.getChildren().get(0));
+        assertWidgetEquals(root, secondRoot);
+    }
+
+    @Test
+    public void testTemplateLocation() throws IOException {
+        FXMLLoader fxmlLoader = new FXMLLoader();
+        fxmlLoader.setResources(getResources());
+
+        fxmlLoader.load(createTemplate());
+        assertEquals(getClass().getResource("compiled.fxml"), fxmlLoader.getLocation());
+    }
+
+    @Test
+    public void testTemplateWithDifferentClassLoader() throws IOException {
+        FXMLTemplate template = createTemplate();
+
+        FXMLLoader fxmlLoader = new FXMLLoader(template.getLocation(), getResources());
+        fxmlLoader.setClassLoader(new URLClassLoader(new URL[0], getClass().getClassLoader()));
+
+        Widget root = (Widget)fxmlLoader.load(template);
+        assertEquals("Root", root.getName());
+    }
+
+    @Test
+    public void testConcurrentLoads() throws Exception {
+        final FXMLTemplate template = createTemplate();
+        final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for (int j = 0; j < 25; j++) {
+                            Widget root = (Widget)new FXMLLoader(template.getLocation(),
+                                getResources()).load(template);
+                            assertEquals("Hello", root.getChildren().get(1).getName());
+                        }
+                    } catch (Throwable throwable) {
+                        errors.add(throwable);
+                    }
+                }
+            };
+
+            threads[i].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(Collections.emptyList(), errors);
+    }
+
+    @Test
+    public void testErrorReportsLineNumber() throws IOException {
+        File file = File.createTempFile("template", ".fxml");
+        file.deleteOnExit();
+
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write(("<?import javafx.fxml.*?>\n"
+                + "<Widget xmlns:fx=\"http://javafx.com/fxml/1\">\n"
+                + "    <Widget undefined=\"1\"/>\n"
+                + "</Widget>\n").getBytes("UTF-8"));
+        }
+
+        FXMLTemplate template = new FXMLLoader(file.toURI().toURL()).loadTemplate();
+
+        try {
+            new FXMLLoader().load(template);
+            fail();
+        } catch (LoadException exception) {
+            assertTrue(exception.getMessage(), exception.getMessage().contains(":3"));
+        }
+    }
+
+    @Test
+    public void testStreamReader() throws IOException, XMLStreamException {
+        File file = File.createTempFile("template", ".fxml");
+        file.deleteOnExit();
+
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write(("<?import javafx.fxml.*?>\n"
+                + "<Widget xmlns:fx=\"http://javafx.com/fxml/1\">\n"
+                + "    <!-- comment -->\n"
+                + "    <name>Hello<!-- comment --> World</name>\n"
+                + "</Widget>\n").getBytes("UTF-8"));
+        }
+
+        XMLStreamReader reader = new FXMLLoader(file.toURI().toURL()).loadTemplate().createStreamReader();
+        assertEquals(XMLStreamConstants.START_ELEMENT, reader.nextTag());
+        reader.require(XMLStreamConstants.START_ELEMENT, null, "Widget");
+        assertEquals(1, reader.getNamespaceCount());
+        assertEquals("fx", reader.getNamespacePrefix(0));
+        assertEquals("http://javafx.com/fxml/1", reader.getNamespaceURI(0));
+
+        assertEquals(XMLStreamConstants.START_ELEMENT, reader.nextTag());
+        assertEquals(0, reader.getNamespaceCount());
+        assertEquals("Hello World", reader.getElementText());
+        reader.require(XMLStreamConstants.END_ELEMENT, null, "name");
+
+        assertEquals(XMLStreamConstants.END_ELEMENT, reader.nextTag());
+        assertEquals(1, reader.getNamespaceCount());
+
+        try {
+            reader.require(XMLStreamConstants.START_ELEMENT, null, null);
+            fail();
+        } catch (XMLStreamException exception) {
+            // Expected
+        }
+
+        try {
+            reader.require(XMLStreamConstants.END_ELEMENT, null, "name");
+            fail();
+        } catch (XMLStreamException exception) {
+            // Expected
+        }
+
+        try {
+            reader.nextTag();
+            fail();
+        } catch (XMLStreamException exception) {
+            // Expected
+        }
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void testTemplateRequiresLocation() throws IOException {
+        new FXMLLoader().loadTemplate();
+    }
+}
@@ -186,6 +186,16 @@ public final class SelectorPartitioning {
     /* A Map for selectors that have style classes */
     private final Map<PartitionKey, Partition> styleClassMap = new HashMap<PartitionKey,Partition>();
 
+    /*
+     * Reverse indices from the style classes and ids used in the ancestor
+     * part of a compound selector (the ".a" and "#b" in ".a #b > .c") to the
+     * selectors that use them. Changing one of these on a node can only
+     * change the selectors that match the node's descendants if it is a key
+     * of the corresponding index.
+     */
+    private final Map<String, List<Selector>> ancestorStyleClassIndex = new HashMap<String, List<Selector>>();
+    private final Map<String, List<Selector>> ancestorIdIndex = new HashMap<String, List<Selector>>();
+
     /** 
      * Keep track of the order in which a selector is added to the mapping so
      * the original order can be restored for the cascade.
@@ -197,8 +207,54 @@ public final class SelectorPartitioning {
         idMap.clear();
         typeMap.clear();
         styleClassMap.clear();
+        ancestorStyleClassIndex.clear();
+        ancestorIdIndex.clear();
         ordinal = 0;
     }
+
+    private static void addToIndex(String key, Selector selector, Map<String, List<Selector>> index) {
+        if (key == null || key.isEmpty()) return;
+        List<Selector> selectors = index.get(key);
+        if (selectors == null) {
+            selectors = new ArrayList<Selector>();
+            index.put(key, selectors);
+        }
+        selectors.add(selector);
+    }
+
+    private static List<Selector> getFromIndex(String key, Map<String, List<Selector>> index) {
+        final List<Selector> selectors = (key != null) ? index.get(key) : null;
+        return (selectors != null) ? Collections.unmodifiableList(selectors) : Collections.<Selector>emptyList();
+    }
+
+    /* Add the ancestor parts of a compound selector to the reverse indices */
+    private void index(CompoundSelector selector) {
+        final List<SimpleSelector> selectors = selector.getSelectors();
+        for (int n = 0, nMax = selectors.size() - 1; n < nMax; n++) {
+            final SimpleSelector ancestor = selectors.get(n);
+            addToIndex(ancestor.getId(), selector, ancestorIdIndex);
+            final List<String> styleClasses = ancestor.getStyleClasses();
+            for (int i = 0, iMax = styleClasses.size(); i < iMax; i++) {
+                addToIndex(styleClasses.get(i), selector, ancestorStyleClassIndex);
+            }
+        }
+    }
+
+    /**
+     * Get the selectors that need an ancestor of the node they match to have
+     * the given style class. Package accessible
+     */
+    List<Selector> getDescendantSelectorsForStyleClass(String styleClass) {
+        return getFromIndex(styleClass, ancestorStyleClassIndex);
+    }
+
+    /**
+     * Get the selectors that need an ancestor of the node they match to have
+     * the given id. Package accessible
+     */
+    List<Selector> getDescendantSelectorsForId(String id) {
+        return getFromIndex(id, ancestorIdIndex);
+    }
     
     
     /** 
@@ -232,6 +288,7 @@ public final class SelectorPartitioning {
             final List<SimpleSelector> selectors = ((CompoundSelector)selector).getSelectors();
             final int last = selectors.size()-1;
             simpleSelector = selectors.get(last);
+            index((CompoundSelector)selector);
         } else {
             simpleSelector = (SimpleSelector)selector;
         }
@@ -24,9 +24,12 @@
  */
 package com.sun.javafx.css;
 
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A cache to store values from lookup.
@@ -76,31 +79,110 @@ import java.util.Map;
  * created by StyleManager.StylesheetContainer and is passed in.
  * Note that all StyleHelper instances within a given Scene all 
  * share the same valueCache! 
+ *
+ * The number of entries in a StyleCache is bounded by the
+ * javafx.css.styleCache.maxEntries system property, and the number of
+ * StyleCaches of a Scene by javafx.css.styleCache.maxSize (see
+ * StyleManager). When either bound is reached, the least recently used
+ * entry or StyleCache is dropped. A value that is no longer in the cache is
+ * simply calculated again, so this only trades time for memory. A value
+ * of zero or less means there is no bound.
  */
 public final class StyleCache {
- 
+
+    /** The maximum number of StyleCaches in a Scene */
+    public static final int MAX_SIZE =
+            AccessController.doPrivileged((PrivilegedAction<Integer>) () ->
+                    Integer.getInteger("javafx.css.styleCache.maxSize", 4096));
+
+    /** The maximum number of StyleCacheEntry in a StyleCache */
+    public static final int MAX_ENTRIES =
+            AccessController.doPrivileged((PrivilegedAction<Integer>) () ->
+                    Integer.getInteger("javafx.css.styleCache.maxEntries", 128));
+
+    // Statistics. A StyleCache may be shared with a subtree that is styled
+    // on a background thread (see javafx.scene.SubtreeStaging).
+    private static final AtomicLong hitCount = new AtomicLong();
+    private static final AtomicLong missCount = new AtomicLong();
+    private static final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * @return the number of times getStyleCacheEntry found an entry
+     */
+    public static long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return the number of times getStyleCacheEntry did not find an entry
+     */
+    public static long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * @return the number of entries and StyleCaches that were dropped
+     * because the cache was full
+     */
+    public static long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public static void resetStatistics() {
+        hitCount.set(0);
+        missCount.set(0);
+        evictionCount.set(0);
+    }
+
+    // package for StyleManager
+    static void evicted() {
+        evictionCount.incrementAndGet();
+    }
+
     public StyleCache() {
         // no-op
     }
+
+    /**
+     * @return the number of entries in this cache
+     */
+    public synchronized int size() {
+        return entries != null ? entries.size() : 0;
+    }
     
-    public void clear() {
+    public synchronized void clear() {
         if (entries == null) return;
         Thread.dumpStack();
         entries.clear();
     }
         
-    public StyleCacheEntry getStyleCacheEntry(StyleCacheEntry.Key key) {
+    public synchronized StyleCacheEntry getStyleCacheEntry(StyleCacheEntry.Key key) {
 
         StyleCacheEntry entry = null;
         if (entries != null) {
             entry = entries.get(key);
         }
+        if (entry != null) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+        }
         return entry;
     }
 
-    public void addStyleCacheEntry(StyleCacheEntry.Key key, StyleCacheEntry entry) {
+    public synchronized void addStyleCacheEntry(StyleCacheEntry.Key key, StyleCacheEntry entry) {
         if (entries == null) {
-            entries = new HashMap<>(5);
+            // access ordered, so the eldest entry is the least recently used
+            entries = new LinkedHashMap<StyleCacheEntry.Key,StyleCacheEntry>(5, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<StyleCacheEntry.Key,StyleCacheEntry> eldest) {
+                    if (0 < MAX_ENTRIES && MAX_ENTRIES < size()) {
+                        evicted();
+                        return true;
+                    }
+                    return false;
+                }
+            };
         }
         entries.put(key, entry);
     }
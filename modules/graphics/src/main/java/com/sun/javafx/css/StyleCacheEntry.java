@@ -40,7 +40,7 @@ public final class StyleCacheEntry {
     public StyleCacheEntry() {
     }
     
-    public CalculatedValue get(String property) {
+    public synchronized CalculatedValue get(String property) {
 
         CalculatedValue cv = null;
         if (calculatedValues != null && ! calculatedValues.isEmpty()) {
@@ -49,7 +49,7 @@ public final class StyleCacheEntry {
         return cv;
     }
 
-    public void put(String property, CalculatedValue calculatedValue) {
+    public synchronized void put(String property, CalculatedValue calculatedValue) {
 
         if (calculatedValues == null) {
             this.calculatedValues = new HashMap<>(5);
@@ -69,6 +69,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -147,7 +148,16 @@ final public class StyleManager {
      * it's cache is annihilated.
      */
     // package for testing
-    static final Map<Parent, CacheContainer> cacheContainerMap = new WeakHashMap<>();
+    //
+    // Nodes that are not in a live scene may be styled on a background thread
+    // (see javafx.scene.SubtreeStaging), so the caches that such nodes share
+    // with a live scene are guarded by locks of their own. Iterating over
+    // cacheContainerMap requires holding its lock. The methods that look up
+    // or change stylesheets are synchronized on the StyleManager. Locks are
+    // taken in this order: StyleManager, cacheContainerMap, CacheContainer.
+    //
+    static final Map<Parent, CacheContainer> cacheContainerMap =
+            Collections.synchronizedMap(new WeakHashMap<>());
 
     // package for testing
     CacheContainer getCacheContainer(Styleable styleable, SubScene subScene) {
@@ -174,14 +184,46 @@ final public class StyleManager {
 
         if (root == null) return null;
 
-        CacheContainer container = cacheContainerMap.get(root);
-        if (container == null) {
-            container = new CacheContainer();
-            cacheContainerMap.put(root, container);
+        return getCacheContainer(root);
+
+    }
+
+    private static CacheContainer getCacheContainer(Parent root) {
+
+        synchronized (cacheContainerMap) {
+            CacheContainer container = cacheContainerMap.get(root);
+            if (container == null) {
+                container = new CacheContainer();
+                cacheContainerMap.put(root, container);
+            }
+            return container;
         }
+    }
 
-        return container;
+    /**
+     * Make the style cache of sceneRoot available to the nodes of the scene
+     * whose root is stagingRoot. StyleMap ids handed out to nodes styled
+     * under stagingRoot are then valid once those nodes are moved to the
+     * scene of sceneRoot.
+     */
+    public void shareCacheContainer(Parent stagingRoot, Parent sceneRoot) {
+        cacheContainerMap.put(stagingRoot, getCacheContainer(sceneRoot));
+    }
 
+    /**
+     * Undo {@link #shareCacheContainer(Parent, Parent)}. Unlike
+     * {@link #forget(Parent)}, this does not clear the shared cache.
+     */
+    public void releaseCacheContainer(Parent stagingRoot) {
+        cacheContainerMap.remove(stagingRoot);
+    }
+
+    /**
+     * @return a number that changes whenever the style cache of sceneRoot
+     * is cleared. The cache is created if sceneRoot does not have one yet.
+     */
+    public int getCacheGeneration(Parent sceneRoot) {
+        return getCacheContainer(sceneRoot).getGeneration();
     }
     /** 
      * StyleHelper uses this cache but it lives here so it can be cleared
@@ -192,18 +234,24 @@ final public class StyleManager {
         CacheContainer container = getCacheContainer(styleable, subScene);
         if (container == null) return null;
 
-        Map<StyleCache.Key,StyleCache> styleCache = container.getStyleCache();
-        if (styleCache == null) return null;
-
-        StyleCache sharedCache = styleCache.get(key);
-        if (sharedCache == null) {
-            sharedCache = new StyleCache();
-            styleCache.put(new StyleCache.Key(key), sharedCache);
-        }
-
-        return sharedCache;
+        return container.getSharedCache(key);
     }
     
+    /**
+     * @return the number of StyleCacheEntry currently held by the shared
+     * caches of all scenes
+     * @see StyleCache
+     */
+    public int getStyleCacheEntryCount() {
+        int count = 0;
+        synchronized (cacheContainerMap) {
+            for (CacheContainer container : cacheContainerMap.values()) {
+                count += container.getStyleCacheEntryCount();
+            }
+        }
+        return count;
+    }
+
     public StyleMap getStyleMap(Styleable styleable, SubScene subScene, int smapId) {
 
         if (smapId == -1) return StyleMap.EMPTY_MAP;
@@ -414,7 +462,7 @@ final public class StyleManager {
     /**
      * called from Window when the scene is closed.
      */
-    public void forget(final Scene scene) {
+    public synchronized void forget(final Scene scene) {
 
         if (scene == null) return;
 
@@ -471,17 +519,19 @@ final public class StyleManager {
     /**
      * called from Scene's stylesheets property's onChanged method
      */
-    public void stylesheetsChanged(Scene scene, Change<String> c) {
+    public synchronized void stylesheetsChanged(Scene scene, Change<String> c) {
 
         // Clear the cache so the cache will be rebuilt.
-        Set<Entry<Parent,CacheContainer>> entrySet = cacheContainerMap.entrySet();
-        for(Entry<Parent,CacheContainer> entry : entrySet) {
-            Parent parent = entry.getKey();
-            CacheContainer container = entry.getValue();
-            if (parent.getScene() == scene) {
-                container.clearCache();
-            }
+        synchronized (cacheContainerMap) {
+            Set<Entry<Parent,CacheContainer>> entrySet = cacheContainerMap.entrySet();
+            for(Entry<Parent,CacheContainer> entry : entrySet) {
+                Parent parent = entry.getKey();
+                CacheContainer container = entry.getValue();
+                if (parent.getScene() == scene) {
+                    container.clearCache();
+                }
 
+            }
         }
 
         c.reset();
@@ -509,21 +559,14 @@ final public class StyleManager {
      * Called from Parent's scenesChanged method when the Parent's scene is set to null.
      * @param parent The Parent being removed from the scene-graph
      */
-    public void forget(Parent parent) {
+    public synchronized void forget(Parent parent) {
 
         if (parent == null) return;
 
         // RT-34863 - clean up CSS cache when Parent is removed from scene-graph
-        Set<Entry<Parent, CacheContainer>> entrySet = cacheContainerMap.entrySet();
-        Iterator<Entry<Parent, CacheContainer>> iterator = entrySet.iterator();
-        while (iterator.hasNext()) {
-            Entry<Parent, CacheContainer> entry = iterator.next();
-            Parent key = entry.getKey();
-            CacheContainer container = entry.getValue();
-            if (parent == key) {
-                iterator.remove();
-                container.clearCache();
-            }
+        CacheContainer cacheContainer = cacheContainerMap.remove(parent);
+        if (cacheContainer != null) {
+            cacheContainer.clearCache();
         }
 
         final List<String> stylesheets = parent.getStylesheets();
@@ -560,7 +603,7 @@ final public class StyleManager {
     /**
      * called from Parent's stylesheets property's onChanged method
      */
-    public void stylesheetsChanged(Parent parent, Change<String> c) {
+    public synchronized void stylesheetsChanged(Parent parent, Change<String> c) {
         c.reset();
         while(c.next()) {
             if (c.wasRemoved()) {
@@ -592,7 +635,7 @@ final public class StyleManager {
     /**
      * called from Window when the scene is closed.
      */
-    public void forget(final SubScene subScene) {
+    public synchronized void forget(final SubScene subScene) {
 
         if (subScene == null) return;
         final Parent subSceneRoot = subScene.getRoot();
@@ -673,9 +716,12 @@ final public class StyleManager {
         }
 
         // if container has no references, then remove it
-        for(Entry<Parent,CacheContainer> entry : cacheContainerMap.entrySet()) {
+        final List<CacheContainer> cacheContainers;
+        synchronized (cacheContainerMap) {
+            cacheContainers = new ArrayList<>(cacheContainerMap.values());
+        }
+        for(CacheContainer container : cacheContainers) {
 
-            CacheContainer container = entry.getValue();
             if (container == null || container.cacheMap == null || container.cacheMap.isEmpty()) {
                 continue;
             }
@@ -734,43 +780,46 @@ final public class StyleManager {
 
     public Image getCachedImage(String url) {
 
-        Image image = null;
-        if (imageCache.containsKey(url)) {
-
-            image = imageCache.get(url);
-
-        } else {
-
-            try {
+        synchronized (imageCache) {
+            if (imageCache.containsKey(url)) {
+                return imageCache.get(url);
+            }
+        }
 
-                image = new Image(url);
+        // The image is loaded without holding the lock. If two threads load
+        // the same image, the image loaded last is kept.
+        Image image = null;
+        try {
 
-                // RT-31865
-                if (image.isError()) {
+            image = new Image(url);
 
-                    final PlatformLogger logger = getLogger();
-                    if (logger != null && logger.isLoggable(Level.WARNING)) {
-                        logger.warning("Error loading image: " + url);
-                    }
+            // RT-31865
+            if (image.isError()) {
 
-                    image = null;
+                final PlatformLogger logger = getLogger();
+                if (logger != null && logger.isLoggable(Level.WARNING)) {
+                    logger.warning("Error loading image: " + url);
                 }
 
+                image = null;
+            }
+
+            synchronized (imageCache) {
                 imageCache.put(url, image);
+            }
 
-            } catch (IllegalArgumentException iae) {
-                // url was empty!
-                final PlatformLogger logger = getLogger();
-                if (logger != null && logger.isLoggable(Level.WARNING)) {
-                    logger.warning(iae.getLocalizedMessage());
-                }
+        } catch (IllegalArgumentException iae) {
+            // url was empty!
+            final PlatformLogger logger = getLogger();
+            if (logger != null && logger.isLoggable(Level.WARNING)) {
+                logger.warning(iae.getLocalizedMessage());
+            }
 
-            } catch (NullPointerException npe) {
-                // url was null!
-                final PlatformLogger logger = getLogger();
-                if (logger != null && logger.isLoggable(Level.WARNING)) {
-                    logger.warning(npe.getLocalizedMessage());
-                }
+        } catch (NullPointerException npe) {
+            // url was null!
+            final PlatformLogger logger = getLogger();
+            if (logger != null && logger.isLoggable(Level.WARNING)) {
+                logger.warning(npe.getLocalizedMessage());
             }
         }
 
@@ -778,6 +827,12 @@ final public class StyleManager {
     }
 
     private void cleanUpImageCache(String imgFname) {
+        synchronized (imageCache) {
+            doCleanUpImageCache(imgFname);
+        }
+    }
+
+    private void doCleanUpImageCache(String imgFname) {
 
         if (imgFname == null && imageCache.isEmpty()) return;
 
@@ -1055,7 +1110,10 @@ final public class StyleManager {
             // either we failed to load the .bss file, or parse
             // was set to true.
             if ((url != null) && parse) {
-                stylesheet = CSSParser.getInstance().parse(url);
+                final StylesheetCache stylesheetCache = StylesheetCache.getInstance();
+                stylesheet = (stylesheetCache != null)
+                        ? stylesheetCache.load(url)
+                        : CSSParser.getInstance().parse(url);
             }
 
             if (stylesheet == null) {
@@ -1130,7 +1188,7 @@ final public class StyleManager {
      *
      * @param urls The list of stylesheet URLs as Strings.
      */
-    public void setUserAgentStylesheets(List<String> urls) {
+    public synchronized void setUserAgentStylesheets(List<String> urls) {
 
         if (urls == null || urls.size() == 0) return;
 
@@ -1194,7 +1252,7 @@ final public class StyleManager {
      *
      * @param fname The file URL, either relative or absolute, as a String.
      */
-    public void addUserAgentStylesheet(String fname) {
+    public synchronized void addUserAgentStylesheet(String fname) {
         addUserAgentStylesheet(null, fname);
     }
 
@@ -1205,7 +1263,7 @@ final public class StyleManager {
      * @param url  The file URL, either relative or absolute, as a String.
      */
     // For RT-20643
-    public void addUserAgentStylesheet(Scene scene, String url) {
+    public synchronized void addUserAgentStylesheet(Scene scene, String url) {
 
         final String fname = (url != null) ? url.trim() : null;
         if (fname == null || fname.isEmpty()) {
@@ -1249,7 +1307,7 @@ final public class StyleManager {
      * @param scene Only used in CssError for tracking back to the scene that loaded the stylesheet
      * @param ua_stylesheet  The stylesheet to add as a user-agent stylesheet
      */
-    public void addUserAgentStylesheet(Scene scene, Stylesheet ua_stylesheet) {
+    public synchronized void addUserAgentStylesheet(Scene scene, Stylesheet ua_stylesheet) {
 
         if (ua_stylesheet == null ) {
             throw new IllegalArgumentException("null arg ua_stylesheet");
@@ -1287,7 +1345,7 @@ final public class StyleManager {
      *
      * @param fname The file URL, either relative or absolute, as a String.
      */
-    public void setDefaultUserAgentStylesheet(String fname) {
+    public synchronized void setDefaultUserAgentStylesheet(String fname) {
         setDefaultUserAgentStylesheet(null, fname);
     }
 
@@ -1297,7 +1355,7 @@ final public class StyleManager {
      * @param url  The file URL, either relative or absolute, as a String.
      */
     // For RT-20643
-    public void setDefaultUserAgentStylesheet(Scene scene, String url) {
+    public synchronized void setDefaultUserAgentStylesheet(Scene scene, String url) {
 
         final String fname = (url != null) ? url.trim() : null;
         if (fname == null || fname.isEmpty()) {
@@ -1361,7 +1419,7 @@ final public class StyleManager {
      * stylesheet list.
      * @param url  The file URL, either relative or absolute, as a String.
      */
-    public void removeUserAgentStylesheet(String url) {
+    public synchronized void removeUserAgentStylesheet(String url) {
 
         final String fname = (url != null) ? url.trim() : null;
         if (fname == null || fname.isEmpty()) {
@@ -1392,7 +1450,7 @@ final public class StyleManager {
      * Set the user agent stylesheet. This is the base default stylesheet for
      * the platform
      */
-    public void setDefaultUserAgentStylesheet(Stylesheet ua_stylesheet) {
+    public synchronized void setDefaultUserAgentStylesheet(Stylesheet ua_stylesheet) {
         if (ua_stylesheet == null ) {
             return;
         }
@@ -1437,20 +1495,22 @@ final public class StyleManager {
      */
     private void userAgentStylesheetsChanged() {
 
-        for (CacheContainer container : cacheContainerMap.values()) {
-            container.clearCache();
-        }
-
-        StyleConverterImpl.clearCache();
-
         List<Parent> parents = new ArrayList<>();
-        for (Parent root : cacheContainerMap.keySet()) {
-            if (root == null) {
-                continue;
+        synchronized (cacheContainerMap) {
+            for (CacheContainer container : cacheContainerMap.values()) {
+                container.clearCache();
+            }
+
+            for (Parent root : cacheContainerMap.keySet()) {
+                if (root == null) {
+                    continue;
+                }
+                parents.add(root);
             }
-            parents.add(root);
         }
 
+        StyleConverterImpl.clearCache();
+
         for (Parent root : parents) root.impl_reapplyCSS();
     }
 
@@ -1561,13 +1621,46 @@ final public class StyleManager {
         return list;
     }
 
+    /**
+     * Returns true if a selector of a stylesheet in use needs an ancestor of
+     * the node it matches to have the given id or one of the given style
+     * classes. If this is not the case, then changing the id or these style
+     * classes on a node cannot change the styles matching its descendants.
+     *
+     * @param id an id, may be null
+     * @param styleClasses a list of style classes, may be null
+     */
+    public synchronized boolean hasDescendantSelectors(String id, List<String> styleClasses) {
+        for (StylesheetContainer container : stylesheetContainerMap.values()) {
+            if (hasDescendantSelectors(container, id, styleClasses)) return true;
+        }
+        for (int n=0, nMax=userAgentStylesheetContainers.size(); n<nMax; n++) {
+            if (hasDescendantSelectors(userAgentStylesheetContainers.get(n), id, styleClasses)) return true;
+        }
+        for (int n=0, nMax=platformUserAgentStylesheetContainers.size(); n<nMax; n++) {
+            if (hasDescendantSelectors(platformUserAgentStylesheetContainers.get(n), id, styleClasses)) return true;
+        }
+        return false;
+    }
+
+    private static boolean hasDescendantSelectors(StylesheetContainer container, String id, List<String> styleClasses) {
+        final SelectorPartitioning partitioning = container != null ? container.selectorPartitioning : null;
+        if (partitioning == null) return false;
+        if (id != null && partitioning.getDescendantSelectorsForId(id).isEmpty() == false) return true;
+        final int nMax = styleClasses != null ? styleClasses.size() : 0;
+        for (int n=0; n<nMax; n++) {
+            if (partitioning.getDescendantSelectorsForStyleClass(styleClasses.get(n)).isEmpty() == false) return true;
+        }
+        return false;
+    }
+
     // reuse key to avoid creation of numerous small objects
     private Key key = null;
 
     /**
      * Finds matching styles for this Node.
      */
-    public StyleMap findMatchingStyles(Node node, SubScene subScene, Set<PseudoClass>[] triggerStates) {
+    public synchronized StyleMap findMatchingStyles(Node node, SubScene subScene, Set<PseudoClass>[] triggerStates) {
 
         final Scene scene = node.getScene();
         if (scene == null) {
@@ -1832,14 +1925,58 @@ final public class StyleManager {
     private static List<String> cacheMapKey;
 
     // Each Scene has its own cache
+    // The style caches, the style maps and the generation are used without
+    // the StyleManager lock and are guarded by the CacheContainer lock. The
+    // cacheMap is only used with the StyleManager lock held.
     // package for testing
     static class CacheContainer {
 
+        private synchronized StyleCache getSharedCache(StyleCache.Key key) {
+
+            Map<StyleCache.Key,StyleCache> styleCache = getStyleCache();
+
+            StyleCache sharedCache = styleCache.get(key);
+            if (sharedCache == null) {
+                sharedCache = new StyleCache();
+                styleCache.put(new StyleCache.Key(key), sharedCache);
+            }
+
+            return sharedCache;
+        }
+
         private Map<StyleCache.Key,StyleCache> getStyleCache() {
-            if (styleCache == null) styleCache = new HashMap<StyleCache.Key, StyleCache>();
+            if (styleCache == null) {
+                // access ordered, so the eldest StyleCache is the least recently used
+                styleCache = new LinkedHashMap<StyleCache.Key, StyleCache>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<StyleCache.Key, StyleCache> eldest) {
+                        if (0 < StyleCache.MAX_SIZE && StyleCache.MAX_SIZE < size()) {
+                            StyleCache.evicted();
+                            return true;
+                        }
+                        return false;
+                    }
+                };
+            }
             return styleCache;
         }
 
+        // package for testing
+        synchronized int getStyleCacheSize() {
+            return styleCache != null ? styleCache.size() : 0;
+        }
+
+        // package for testing
+        synchronized int getStyleCacheEntryCount() {
+            int count = 0;
+            if (styleCache != null) {
+                for (StyleCache cache : styleCache.values()) {
+                    count += cache.size();
+                }
+            }
+            return count;
+        }
+
         private Map<Key,Cache> getCacheMap(List<StylesheetContainer> parentStylesheets, String regionUserAgentStylesheet) {
 
             if (cacheMap == null) {
@@ -1891,16 +2028,16 @@ final public class StyleManager {
             return styleMapList;
         }
 
-        private int nextSmapId() {
+        private synchronized int nextSmapId() {
             styleMapId = baseStyleMapId + getStyleMapList().size();
             return styleMapId;
         }
 
-        private void addStyleMap(StyleMap smap) {
+        private synchronized void addStyleMap(StyleMap smap) {
             getStyleMapList().add(smap);
         }
 
-        public StyleMap getStyleMap(int smapId) {
+        public synchronized StyleMap getStyleMap(int smapId) {
 
             final int correctedId = smapId - baseStyleMapId;
 
@@ -1911,12 +2048,13 @@ final public class StyleManager {
             return StyleMap.EMPTY_MAP;
         }
 
-        private void clearCache() {
+        private synchronized void clearCache() {
 
             if (cacheMap != null) cacheMap.clear();
             if (styleCache != null) styleCache.clear();
             if (styleMapList != null) styleMapList.clear();
 
+            generation += 1;
             baseStyleMapId = styleMapId;
             // 7/8ths is totally arbitrary
             if (baseStyleMapId > Integer.MAX_VALUE/8*7) {
@@ -1924,6 +2062,10 @@ final public class StyleManager {
             }
         }
 
+        private synchronized int getGeneration() {
+            return generation;
+        }
+
         /**
          * Get the mapping of property to style from Node.style for this node.
          */
@@ -2001,6 +2143,9 @@ final public class StyleManager {
         // cache and is no longer valid.
         private int baseStyleMapId = 0;
 
+        // Counts the number of times the cache has been cleared.
+        private int generation = 0;
+
             }
 
     /**
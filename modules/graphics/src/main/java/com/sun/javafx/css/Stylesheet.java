@@ -243,46 +243,81 @@ public class Stylesheet {
         try (DataInputStream dataInputStream =
                      new DataInputStream(new BufferedInputStream(url.openStream(), 40 * 1024))) {
 
-            // read file version
-            final int bssVersion = dataInputStream.readShort();
-            if (bssVersion > Stylesheet.BINARY_CSS_VERSION) {
-                throw new IOException(url.toString() + " wrong binary CSS version: "
-                        + bssVersion + ". Expected version less than or equal to" +
-                        Stylesheet.BINARY_CSS_VERSION);
-            }
-            // read strings
-            final String[] strings = StringStore.readBinary(dataInputStream);
-            // read binary data
-            stylesheet = new Stylesheet(url.toExternalForm());
+            stylesheet = loadBinary(url.toExternalForm(), dataInputStream);
 
-            try {
+        } catch (FileNotFoundException fnfe) {
+            // This comes from url.openStream() and is expected.
+            // It just means that the .bss file doesn't exist.
+        }
 
-                dataInputStream.mark(Integer.MAX_VALUE);
-                stylesheet.readBinary(bssVersion, dataInputStream, strings);
+        // return stylesheet
+        return stylesheet;
+    }
 
-            } catch (Exception e) {
+    /**
+     * Load a binary stylesheet from a stream that supports mark and reset.
+     * @param url the url of the stylesheet
+     */
+    static Stylesheet loadBinary(String url, DataInputStream dataInputStream) throws IOException {
+
+        // read file version
+        final int bssVersion = dataInputStream.readShort();
+        if (bssVersion > Stylesheet.BINARY_CSS_VERSION) {
+            throw new IOException(url + " wrong binary CSS version: "
+                    + bssVersion + ". Expected version less than or equal to" +
+                    Stylesheet.BINARY_CSS_VERSION);
+        }
+        // read strings
+        final String[] strings = StringStore.readBinary(dataInputStream);
+        // read binary data
+        Stylesheet stylesheet = new Stylesheet(url);
 
-                stylesheet = new Stylesheet(url.toExternalForm());
+        try {
 
-                dataInputStream.reset();
+            dataInputStream.mark(Integer.MAX_VALUE);
+            stylesheet.readBinary(bssVersion, dataInputStream, strings);
 
-                if (bssVersion == 2) {
-                    // RT-31022
-                    stylesheet.readBinary(3, dataInputStream, strings);
-                } else {
-                    stylesheet.readBinary(Stylesheet.BINARY_CSS_VERSION, dataInputStream, strings);
-                }
-            }
+        } catch (Exception e) {
 
-        } catch (FileNotFoundException fnfe) {
-            // This comes from url.openStream() and is expected.
-            // It just means that the .bss file doesn't exist.
+            stylesheet = new Stylesheet(url);
+
+            dataInputStream.reset();
+
+            if (bssVersion == 2) {
+                // RT-31022
+                stylesheet.readBinary(3, dataInputStream, strings);
+            } else {
+                stylesheet.readBinary(Stylesheet.BINARY_CSS_VERSION, dataInputStream, strings);
+            }
         }
 
-        // return stylesheet
         return stylesheet;
     }
 
+    /**
+     * Write this stylesheet in binary form, as read by loadBinary.
+     */
+    final void writeBinary(final DataOutputStream os) throws IOException {
+
+        // first write all the css binary data into the buffer and collect strings on way
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(baos);
+        StringStore stringStore = new StringStore();
+        writeBinary(dos, stringStore);
+        dos.flush();
+        dos.close();
+
+        // write file version
+        os.writeShort(BINARY_CSS_VERSION);
+
+        // write strings
+        stringStore.writeBinary(os);
+
+        // write binary css
+        os.write(baos.toByteArray());
+        os.flush();
+    }
+
     /**
      * Convert the .css file referenced by urlIn to binary format and write to urlOut.
      * @param source is the JavaFX .css file to convert
@@ -312,26 +347,9 @@ public class Stylesheet {
         URI sourceURI = source.toURI();
         Stylesheet stylesheet = CSSParser.getInstance().parse(sourceURI.toURL());
 
-        // first write all the css binary data into the buffer and collect strings on way
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        DataOutputStream dos = new DataOutputStream(baos);
-        StringStore stringStore = new StringStore();
-        stylesheet.writeBinary(dos, stringStore);
-        dos.flush();
-        dos.close();
-
         FileOutputStream fos = new FileOutputStream(destination);
         DataOutputStream os = new DataOutputStream(fos);
-
-        // write file version
-        os.writeShort(BINARY_CSS_VERSION);
-
-        // write strings
-        stringStore.writeBinary(os);
-
-        // write binary css
-        os.write(baos.toByteArray());
-        os.flush();
+        stylesheet.writeBinary(os);
         os.close();
     }
 
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.css;
+
+import com.sun.javafx.css.parser.CSSParser;
+import sun.util.logging.PlatformLogger;
+import sun.util.logging.PlatformLogger.Level;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.AccessController;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivilegedAction;
+import java.util.Arrays;
+
+/**
+ * An on-disk cache of parsed stylesheets, so that a .css file only has to
+ * be parsed the first time an application loads it. The parsed stylesheet
+ * is written in the binary (.bss) format to a file named after its URL,
+ * together with a checksum of the .css text. The next time the stylesheet
+ * is loaded, the binary file is memory-mapped and read back, provided the
+ * checksum still matches.
+ *
+ * The cache is enabled by setting the javafx.css.cacheDir system property
+ * to a writable directory. Stylesheets with an @import are not cached since
+ * the checksum cannot tell when an imported stylesheet changes.
+ */
+final class StylesheetCache {
+
+    // "FXCS"
+    private static final int MAGIC = 0x46584353;
+
+    private static final byte[] IMPORT = { '@', 'i', 'm', 'p', 'o', 'r', 't' };
+
+    private static final StylesheetCache INSTANCE =
+            AccessController.doPrivileged((PrivilegedAction<StylesheetCache>) () -> {
+                final String dir = System.getProperty("javafx.css.cacheDir");
+                return (dir != null && dir.isEmpty() == false) ? new StylesheetCache(new File(dir)) : null;
+            });
+
+    /**
+     * @return the cache, or null if the cache is not enabled
+     */
+    static StylesheetCache getInstance() {
+        return INSTANCE;
+    }
+
+    private final File dir;
+    private int hitCount;
+    private int missCount;
+
+    // package for testing
+    StylesheetCache(File dir) {
+        this.dir = dir;
+    }
+
+    // package for testing
+    int getHitCount() {
+        return hitCount;
+    }
+
+    // package for testing
+    int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Load the stylesheet at url from the cache, or parse it and add it
+     * to the cache.
+     */
+    Stylesheet load(final URL url) throws IOException {
+
+        final byte[] checksum = calculateCheckSum(url);
+        if (checksum == null) {
+            return CSSParser.getInstance().parse(url);
+        }
+
+        final String path = url.toExternalForm();
+        final File file = new File(dir, getFileName(path));
+
+        Stylesheet stylesheet = AccessController.doPrivileged(
+                (PrivilegedAction<Stylesheet>) () -> read(file, path, checksum));
+        if (stylesheet != null) {
+            hitCount += 1;
+            return stylesheet;
+        }
+
+        missCount += 1;
+        stylesheet = CSSParser.getInstance().parse(url);
+
+        final Stylesheet parsed = stylesheet;
+        AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
+            write(file, path, checksum, parsed);
+            return null;
+        });
+
+        return stylesheet;
+    }
+
+    private static MessageDigest getMessageDigest() {
+        try {
+            // not looking for security, just a checksum. MD5 should be faster than SHA
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new InternalError(e);
+        }
+    }
+
+    /*
+     * The checksum of the text of the stylesheet, or null if the stylesheet
+     * contains an @import and should not be cached.
+     */
+    private static byte[] calculateCheckSum(URL url) throws IOException {
+
+        try (final InputStream stream = url.openStream();
+             final DigestInputStream dis = new DigestInputStream(stream, getMessageDigest())) {
+
+            final byte[] buf = new byte[8192];
+            int matched = 0;
+            int nRead;
+            while ((nRead = dis.read(buf)) != -1) {
+                for (int n = 0; n < nRead; n++) {
+                    if (buf[n] == IMPORT[matched]) {
+                        if (++matched == IMPORT.length) return null;
+                    } else {
+                        matched = (buf[n] == IMPORT[0]) ? 1 : 0;
+                    }
+                }
+            }
+            return dis.getMessageDigest().digest();
+        }
+    }
+
+    private static String getFileName(String path) {
+        final byte[] digest = getMessageDigest().digest(path.getBytes(StandardCharsets.UTF_8));
+        final StringBuilder sbuf = new StringBuilder(2 * digest.length + 4);
+        for (byte b : digest) {
+            sbuf.append(Character.forDigit((b >> 4) & 0xf, 16));
+            sbuf.append(Character.forDigit(b & 0xf, 16));
+        }
+        return sbuf.append(".bss").toString();
+    }
+
+    private static Stylesheet read(File file, String path, byte[] checksum) {
+
+        if (file.isFile() == false) return null;
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            final DataInputStream is = new DataInputStream(new ByteBufferInputStream(buffer));
+
+            if (is.readInt() != MAGIC || path.equals(is.readUTF()) == false) {
+                return null;
+            }
+
+            final byte[] fileChecksum = new byte[is.readShort()];
+            is.readFully(fileChecksum);
+            if (Arrays.equals(checksum, fileChecksum) == false) {
+                return null;
+            }
+
+            return Stylesheet.loadBinary(path, is);
+
+        } catch (Exception e) {
+            // A truncated or otherwise bad file, the stylesheet will be parsed again
+            final PlatformLogger logger = com.sun.javafx.Logging.getCSSLogger();
+            if (logger.isLoggable(Level.FINE)) {
+                logger.fine("Could not read " + file + " for " + path + ": " + e);
+            }
+            return null;
+        }
+    }
+
+    private void write(File file, String path, byte[] checksum, Stylesheet stylesheet) {
+
+        File temp = null;
+        try {
+            if (dir.isDirectory() == false && dir.mkdirs() == false) {
+                return;
+            }
+
+            // write to a temporary file first so that nobody reads a partial file
+            temp = File.createTempFile("stylesheet", ".tmp", dir);
+            try (DataOutputStream os = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(temp)))) {
+                os.writeInt(MAGIC);
+                os.writeUTF(path);
+                os.writeShort(checksum.length);
+                os.write(checksum);
+                stylesheet.writeBinary(os);
+            }
+
+            try {
+                Files.move(temp.toPath(), file.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            temp = null;
+
+        } catch (IOException e) {
+            final PlatformLogger logger = com.sun.javafx.Logging.getCSSLogger();
+            if (logger.isLoggable(Level.FINE)) {
+                logger.fine("Could not write " + file + " for " + path + ": " + e);
+            }
+        } finally {
+            if (temp != null) temp.delete();
+        }
+    }
+
+    /*
+     * The InputStream that Stylesheet.loadBinary reads the mapped file from.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override public int read() {
+            return buffer.hasRemaining() ? (buffer.get() & 0xff) : -1;
+        }
+
+        @Override public int read(byte[] b, int off, int len) {
+            if (len == 0) return 0;
+            if (buffer.hasRemaining() == false) return -1;
+            final int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override public long skip(long n) {
+            final int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override public int available() {
+            return buffer.remaining();
+        }
+
+        @Override public boolean markSupported() {
+            return true;
+        }
+
+        @Override public void mark(int readlimit) {
+            buffer.mark();
+        }
+
+        @Override public void reset() {
+            buffer.reset();
+        }
+    }
+}
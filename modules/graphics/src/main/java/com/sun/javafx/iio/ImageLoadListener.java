@@ -54,4 +54,17 @@ public interface ImageLoadListener {
      */
     public void imageLoadMetaData(ImageLoader loader, ImageMetadata metadata);
 
+    /**
+     * Invoked when rows of the loading image have been decoded. The frame
+     * is the one that the loader will return, the rows that have not been
+     * decoded yet are undefined.
+     *
+     * @param loader the <code>ImageLoader</code> used to load the image.
+     * @param frame the frame being decoded.
+     * @param y the first decoded row.
+     * @param height the number of decoded rows.
+     */
+    public void imageLoadUpdate(ImageLoader loader, ImageFrame frame,
+                                int y, int height);
+
 }
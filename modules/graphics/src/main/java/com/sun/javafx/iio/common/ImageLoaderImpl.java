@@ -26,6 +26,7 @@
 package com.sun.javafx.iio.common;
 
 import com.sun.javafx.iio.ImageFormatDescription;
+import com.sun.javafx.iio.ImageFrame;
 import com.sun.javafx.iio.ImageLoadListener;
 import com.sun.javafx.iio.ImageLoader;
 import com.sun.javafx.iio.ImageMetadata;
@@ -88,6 +89,16 @@ public abstract class ImageLoaderImpl implements ImageLoader {
         }
     }
 
+    protected void updateImageData(ImageFrame frame, int y, int height) {
+        if (listeners != null && !listeners.isEmpty()) {
+            Iterator<ImageLoadListener> iter = listeners.iterator();
+            while (iter.hasNext()) {
+                ImageLoadListener l = iter.next();
+                l.imageLoadUpdate(this, frame, y, height);
+            }
+        }
+    }
+
     protected void updateImageMetadata(ImageMetadata metadata) {
         if(listeners != null && !listeners.isEmpty()) {
             Iterator<ImageLoadListener> iter = listeners.iterator();
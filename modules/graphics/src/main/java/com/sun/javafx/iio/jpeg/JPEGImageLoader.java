@@ -82,6 +82,12 @@ public class JPEGImageLoader extends ImageLoaderImpl {
     /** Set by setOutputAttributes native code callback. */
     private int outHeight;
     private ImageType outImageType;
+    /**
+     * The frame being decompressed if it does not need to be scaled after
+     * decompression, and the number of rows of it reported to the listeners.
+     */
+    private ImageFrame outFrame;
+    private int outLinesReported;
 
     private boolean isDisposed = false;
 
@@ -177,6 +183,11 @@ public class JPEGImageLoader extends ImageLoaderImpl {
 
     private void updateImageProgress(int outLinesDecoded) {
         updateImageProgress(100.0F * outLinesDecoded / outHeight);
+        if (outFrame != null && outLinesDecoded > outLinesReported) {
+            updateImageData(outFrame, outLinesReported,
+                            outLinesDecoded - outLinesReported);
+            outLinesReported = outLinesDecoded;
+        }
     }
 
     JPEGImageLoader(InputStream input) throws IOException {
@@ -239,6 +250,11 @@ public class JPEGImageLoader extends ImageLoaderImpl {
             // Comment out next three lines to suppress indirect ByteBuffers.
             byte[] array = new byte[outWidth*outHeight*outNumComponents];
             buffer = ByteBuffer.wrap(array);
+            if (outWidth == width && outHeight == height) {
+                // The decoded rows can be delivered as they are decompressed
+                outFrame = new ImageFrame(outImageType, buffer,
+                        outWidth, outHeight, outWidth * outNumComponents, null, md);
+            }
             decompressIndirect(structPointer, listeners != null && !listeners.isEmpty(), buffer.array());
         } catch (IOException e) {
             throw e;
@@ -284,7 +300,10 @@ public class JPEGImageLoader extends ImageLoaderImpl {
             frame = new ImageFrame(outImageType, buffer,
                     width, height, width * outNumComponents, null, md);
         }
-        else {
+        else if (outFrame != null) {
+            frame = outFrame;
+            outFrame = null;
+        } else {
             frame = new ImageFrame(outImageType, buffer,
                                    outWidth, outHeight, outWidth * outNumComponents, null, md);
         }
@@ -533,7 +533,33 @@ public final class PNGImageLoader2 extends ImageLoaderImpl {
         return start[mip] + pos * increment[mip];
     }
 
-    private void loadMip(byte image[], InputStream data, int mip) throws IOException {
+    private void readScanLine(InputStream data, byte line[], byte pline[],
+                              int bpp) throws IOException {
+        int filterByte = data.read();
+        if (filterByte == -1) {
+            throw new EOFException();
+        }
+
+        if (data.read(line) != line.length) {
+            throw new EOFException();
+        }
+
+        doFilter(line, pline, filterByte, bpp);
+    }
+
+    private void storeScanLine(byte line[], byte image[], int pos, int w,
+                               int step, int resultBpp) {
+        if (bitDepth == 16) {
+            downsample16to8(line, image, pos, step, resultBpp);
+        } else if (bitDepth < 8) {
+            upsampleTo8(line, image, pos, w, step, resultBpp);
+        } else {
+            copy(line, image, pos, step, resultBpp);
+        }
+    }
+
+    private void loadMip(byte image[], InputStream data, int mip,
+                         ImageFrame frame) throws IOException {
 
         int mipWidth = mipSize(width, mip, starting_x, increment_x);
         int mipHeight = mipSize(height, mip, starting_y, increment_y);
@@ -547,51 +573,57 @@ public final class PNGImageLoader2 extends ImageLoaderImpl {
         int resultBpp = bpp(), srcBpp = numBandsPerColorType[colorType] * bytesPerColor();
 
         for (int y = 0; y != mipHeight; ++y) {
-            int filterByte = data.read();
-            if (filterByte == -1) {
-                throw new EOFException();
-            }
-
-            if (data.read(scanLine0) != scanLineSize) {
-                throw new EOFException();
-            }
-
-            doFilter(scanLine0, scanLine1, filterByte, srcBpp);
+            readScanLine(data, scanLine0, scanLine1, srcBpp);
 
             int pos = (mipPos(y, mip, starting_y, increment_y) * width + starting_x[mip]) * resultBpp;
             int step = increment_x[mip];
 
-            if (bitDepth == 16) {
-                downsample16to8(scanLine0, image, pos, step, resultBpp);
-            } else if (bitDepth < 8) {
-                upsampleTo8(scanLine0, image, pos, mipWidth, step, resultBpp);
-            } else {
-                copy(scanLine0, image, pos, step, resultBpp);
-            }
+            storeScanLine(scanLine0, image, pos, mipWidth, step, resultBpp);
 
             byte scanLineSwp[] = scanLine0;
             scanLine0 = scanLine1;
             scanLine1 = scanLineSwp;
+
+            if (frame != null) {
+                updateImageData(frame, y, 1);
+            }
         }
     }
 
-    private void load(byte image[], InputStream data) throws IOException {
+    /*
+     * frame is the frame wrapping image if its rows can be delivered to the
+     * listeners as they are decoded, that is if the image is not interlaced
+     * and does not need to be converted or scaled once decoded.
+     */
+    private void load(byte image[], InputStream data, ImageFrame frame) throws IOException {
         if (isInterlaced) {
             for (int mip = 0; mip != 7; ++mip) {
                 if (width > starting_x[mip] && height > starting_y[mip]) {
-                    loadMip(image, data, mip);
+                    loadMip(image, data, mip, null);
                 }
             }
         } else {
-            loadMip(image, data, 7);
+            loadMip(image, data, 7, frame);
         }
     }
 
     private ImageFrame decodePalette(byte srcImage[], ImageMetadata metadata) {
         int bpp = tRNS_present ? 4 : 3;
         byte newImage[] = new byte[width * height * bpp];
-        int l = width * height;
 
+        decodePalette(srcImage, newImage, width * height);
+
+        return new ImageFrame(getPaletteType(), ByteBuffer.wrap(newImage),
+                width, height, width * bpp, null, metadata);
+    }
+
+    private ImageStorage.ImageType getPaletteType() {
+        return tRNS_present
+                ? ImageStorage.ImageType.RGBA
+                : ImageStorage.ImageType.RGB;
+    }
+
+    private void decodePalette(byte srcImage[], byte newImage[], int l) {
         if (tRNS_present) {
             for (int i = 0, j = 0; i != l; j += 4, i++) {
                 int index = 0xFF & srcImage[i];
@@ -608,13 +640,6 @@ public final class PNGImageLoader2 extends ImageLoaderImpl {
                 newImage[j + 2] = palette[2][index];
             }
         }
-
-        ImageStorage.ImageType type = tRNS_present
-                ? ImageStorage.ImageType.RGBA
-                : ImageStorage.ImageType.RGB;
-
-        return new ImageFrame(type, ByteBuffer.wrap(newImage), width, height,
-                width * bpp, null, metadata);
     }
 
     // we won`t decode palette on fly, we will do it later
@@ -645,15 +670,35 @@ public final class PNGImageLoader2 extends ImageLoaderImpl {
         }
 
         int bpp = bpp();
-        ByteBuffer bb = ByteBuffer.allocate(bpp * width * height);
         ImageMetadata metadata = updateMetadata();
 
         PNGIDATChunkInputStream iDat = new PNGIDATChunkInputStream(stream, dataSize);
         Inflater inf = new Inflater();
         InputStream data = new BufferedInputStream(new InflaterInputStream(iDat, inf));
 
+        // need remove scaler form loader
+        int[] outWH = ImageTools.computeDimensions(width, height, rWidth, rHeight, preserveAspectRatio);
+        boolean scaled = width != outWH[0] || height != outWH[1];
+
+        if (scaled && !isInterlaced) {
+            // Scale the rows as they are decoded, the full size image is
+            // never allocated
+            try {
+                return loadScaled(data, outWH[0], outWH[1], smooth, metadata);
+            } finally {
+                inf.end();
+            }
+        }
+
+        ByteBuffer bb = ByteBuffer.allocate(bpp * width * height);
+
+        ImageFrame frame = null;
+        if (colorType != PNG_COLOR_PALETTE && !scaled) {
+            frame = new ImageFrame(getType(), bb, width, height, bpp * width, palette, metadata);
+        }
+
         try {
-            load(bb.array(), data);
+            load(bb.array(), data, frame);
         } catch (IOException e) {
             throw e;
         } finally {
@@ -664,18 +709,58 @@ public final class PNGImageLoader2 extends ImageLoaderImpl {
 
         ImageFrame imgPNG = colorType == PNG_COLOR_PALETTE
                 ? decodePalette(bb.array(), metadata)
+                : frame != null ? frame
                 : new ImageFrame(getType(), bb, width, height, bpp * width, palette, metadata);
 
-        // need remove scaler form loader
-        int[] outWH = ImageTools.computeDimensions(width, height, rWidth, rHeight, preserveAspectRatio);
-
-        if (width != outWH[0] || height != outWH[1]) {
+        if (scaled) {
             imgPNG = scaleImage(imgPNG, outWH[0], outWH[1], smooth);
         }
 
         return imgPNG;
     }
 
+    private ImageFrame loadScaled(InputStream data, int rWidth, int rHeight,
+            boolean smooth, ImageMetadata metadata) throws IOException {
+        int scanLineSize = (width * bitDepth * numBandsPerColorType[colorType] + 7) / 8;
+        byte scanLine0[] = new byte[scanLineSize];
+        byte scanLine1[] = new byte[scanLineSize];
+
+        int resultBpp = bpp(), srcBpp = numBandsPerColorType[colorType] * bytesPerColor();
+        byte row[] = new byte[width * resultBpp];
+
+        ImageStorage.ImageType type = getType();
+        byte paletteRow[] = null;
+        if (colorType == PNG_COLOR_PALETTE) {
+            type = getPaletteType();
+            paletteRow = new byte[width * ImageStorage.getNumBands(type)];
+        }
+        int bands = ImageStorage.getNumBands(type);
+
+        PushbroomScaler scaler = ScalerFactory.createScaler(width, height, bands,
+                rWidth, rHeight, smooth);
+
+        for (int y = 0; y != height; ++y) {
+            readScanLine(data, scanLine0, scanLine1, srcBpp);
+            storeScanLine(scanLine0, row, 0, width, 1, resultBpp);
+
+            byte scaled[] = row;
+            if (paletteRow != null) {
+                decodePalette(row, paletteRow, width);
+                scaled = paletteRow;
+            }
+            if (scaler.putSourceScanline(scaled, 0)) {
+                break;
+            }
+
+            byte scanLineSwp[] = scanLine0;
+            scanLine0 = scanLine1;
+            scanLine1 = scanLineSwp;
+        }
+
+        return new ImageFrame(type, scaler.getDestination(),
+                rWidth, rHeight, rWidth * bands, null, metadata);
+    }
+
     private ImageFrame scaleImage(ImageFrame imgPNG, int rWidth, int rHeight, boolean smooth) {
         byte image[] = ((ByteBuffer) imgPNG.getImageData()).array();
         int bpp = ImageStorage.getNumBands(imgPNG.getImageType());
@@ -28,6 +28,7 @@ package com.sun.javafx.runtime.async;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javafx.application.Platform;
 
@@ -50,6 +51,7 @@ public abstract class AbstractAsyncOperation<V> implements AsyncOperation,
 
     private int progressGranularity = 100;
     private int progressMax, lastProgress, progressIncrement, nextProgress, bytesRead;
+    private final AtomicReference<V> pendingUpdate = new AtomicReference<V>();
 
     protected AbstractAsyncOperation(final AsyncOperationListener<V> listener) {
         this.listener = listener;
@@ -109,6 +111,22 @@ public abstract class AbstractAsyncOperation<V> implements AsyncOperation,
         Platform.runLater(() -> listener.onProgress(last, max));
     }
 
+    /**
+     * Delivers a partial result to the listener. Only the latest of the
+     * updates made before the listener was called is delivered, and
+     * updates made once the operation is done are dropped.
+     */
+    protected void notifyUpdate(final V partialValue) {
+        if (pendingUpdate.getAndSet(partialValue) == null) {
+            Platform.runLater(() -> {
+                final V value = pendingUpdate.getAndSet(null);
+                if (!future.isDone()) {
+                    listener.onUpdate(value);
+                }
+            });
+        }
+    }
+
     protected void addProgress(int amount) {
         bytesRead += amount;
         if (bytesRead > nextProgress) {
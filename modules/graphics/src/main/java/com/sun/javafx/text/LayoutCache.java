@@ -26,8 +26,12 @@
 package com.sun.javafx.text;
 
 import com.sun.javafx.font.PGFont;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 
 class LayoutCache {
+    Key key;
     int[] glyphs;
     float[] advances;
     boolean valid;
@@ -38,4 +42,103 @@ class LayoutCache {
     int runCount;
     TextLine[] lines;
     float layoutWidth, layoutHeight;
+
+    /* The content and the properties that the lines of a layout
+     * depend on. Two layouts with equal keys have the same lines.
+     */
+    static final class Key {
+        final char[] text;
+        final PGFont font;
+        final float wrapWidth, spacing;
+        final int flags;
+        private final int hash;
+
+        Key(char[] text, PGFont font, int textHash,
+            float wrapWidth, float spacing, int flags) {
+            this.text = text;
+            this.font = font;
+            this.wrapWidth = wrapWidth;
+            this.spacing = spacing;
+            this.flags = flags;
+            int h = textHash;
+            h = 31 * h + Float.floatToIntBits(wrapWidth);
+            h = 31 * h + Float.floatToIntBits(spacing);
+            h = 31 * h + flags;
+            hash = h;
+        }
+
+        @Override public int hashCode() {
+            return hash;
+        }
+
+        @Override public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            Key other = (Key)obj;
+            return hash == other.hash &&
+                   wrapWidth == other.wrapWidth &&
+                   spacing == other.spacing &&
+                   flags == other.flags &&
+                   font.equals(other.font) &&
+                   Arrays.equals(text, other.text);
+        }
+    }
+
+    /* The layouts shared by all the text layouts, bounded by the number of
+     * characters they hold. Kept in access order so that the least recently
+     * used layouts are dropped first when the cache is full.
+     */
+    static final class Cache {
+        private final LinkedHashMap<Key, LayoutCache> map =
+            new LinkedHashMap<>(16, 0.75f, true);
+        private final int maxSize;
+        private int size;
+        private long hits, misses, evictions;
+
+        Cache(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        synchronized LayoutCache get(Key key) {
+            LayoutCache cache = map.get(key);
+            if (cache != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+            return cache;
+        }
+
+        synchronized void put(LayoutCache cache) {
+            LayoutCache old = map.put(cache.key, cache);
+            if (old != null) {
+                size -= old.text.length;
+            }
+            size += cache.text.length;
+            Iterator<LayoutCache> it = map.values().iterator();
+            while (size > maxSize && it.hasNext()) {
+                LayoutCache eldest = it.next();
+                if (eldest == cache) break;
+                it.remove();
+                size -= eldest.text.length;
+                evictions++;
+            }
+        }
+
+        synchronized int getSize() {
+            return size;
+        }
+
+        synchronized long getHitCount() {
+            return hits;
+        }
+
+        synchronized long getMissCount() {
+            return misses;
+        }
+
+        synchronized long getEvictionCount() {
+            return evictions;
+        }
+    }
 }
@@ -51,7 +51,8 @@ import java.text.Bidi;
 import java.text.BreakIterator;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Hashtable;
+import static com.sun.javafx.logging.PulseLogger.PULSE_LOGGING_ENABLED;
+import com.sun.javafx.logging.PulseLogger;
 
 public class PrismTextLayout implements TextLayout {
     private static final BaseTransform IDENTITY = BaseTransform.IDENTITY_TRANSFORM;
@@ -60,11 +61,13 @@ public class PrismTextLayout implements TextLayout {
     private static final int X_MAX_INDEX = 2;
     private static final int Y_MAX_INDEX = 3;
 
-    private static final Hashtable<Integer, LayoutCache> stringCache = new Hashtable<>();
-    private static final Object  CACHE_SIZE_LOCK = new Object();
-    private static int cacheSize = 0;
+    /* The flags that the lines of a layout depend on */
+    private static final int CACHE_FLAGS_MASK = ALIGN_MASK | BOUNDS_MASK | DIRECTION_MASK;
     private static final int MAX_STRING_SIZE = 256;
     private static final int MAX_CACHE_SIZE = PrismFontFactory.cacheLayoutSize;
+    /* Shared by all the layouts */
+    private static final LayoutCache.Cache stringCache =
+        new LayoutCache.Cache(MAX_CACHE_SIZE);
 
     private char[] text;
     private TextSpan[] spans;   /* Rich text  (null for single font text) */
@@ -87,6 +90,37 @@ public class PrismTextLayout implements TextLayout {
         flags = ALIGN_LEFT;
     }
 
+    /**
+     * @return the number of layouts whose lines were found in the cache
+     */
+    public static long getCacheHitCount() {
+        return stringCache.getHitCount();
+    }
+
+    /**
+     * @return the number of cacheable layouts whose lines were not found in
+     * the cache
+     */
+    public static long getCacheMissCount() {
+        return stringCache.getMissCount();
+    }
+
+    /**
+     * @return the number of layouts dropped from the cache to make room
+     * for new ones
+     */
+    public static long getCacheEvictionCount() {
+        return stringCache.getEvictionCount();
+    }
+
+    /**
+     * @return the number of characters of the layouts in the cache, which
+     * is bounded by prism.cacheLayoutSize
+     */
+    public static int getCacheSize() {
+        return stringCache.getSize();
+    }
+
     private void reset() {
         layoutCache = null;
         runs = null;
@@ -666,50 +700,49 @@ public class PrismTextLayout implements TextLayout {
         return index;
     }
 
-    private boolean copyCache() {
-        int align = flags & ALIGN_MASK;
-        int boundsType = flags & BOUNDS_MASK;
-        /* Caching for boundsType == Center, bias towards  Modena */
-        return wrapWidth != 0 || align != ALIGN_LEFT || boundsType == 0 || isMirrored();
+    private LayoutCache.Key getCacheKey() {
+        return new LayoutCache.Key(text, font, cacheKey, wrapWidth, spacing,
+                                   flags & CACHE_FLAGS_MASK);
+    }
+
+    private static LayoutCache getCachedLayout(LayoutCache.Key key) {
+        LayoutCache cache = stringCache.get(key);
+        if (PULSE_LOGGING_ENABLED) {
+            PulseLogger.incrementCounter(cache != null ? "Text layout cache hit"
+                                                       : "Text layout cache miss");
+        }
+        return cache;
     }
 
     private void initCache() {
         if (cacheKey != null) {
-            if (layoutCache == null) {
-                LayoutCache cache = stringCache.get(cacheKey);
-                if (cache != null && cache.font.equals(font) && Arrays.equals(cache.text, text)) {
-                    layoutCache = cache;
-                    runs = cache.runs;
-                    runCount = cache.runCount;
-                    flags |= cache.analysis;
-                }
+            LayoutCache cache = getCachedLayout(getCacheKey());
+            if (cache != null) {
+                /* Another layout of the same text, font and properties:
+                 * all of its data is immutable and can be shared.
+                 */
+                layoutCache = cache;
+                runs = cache.runs;
+                runCount = cache.runCount;
+                flags |= cache.analysis;
+                lines = cache.lines;
+                layoutWidth = cache.layoutWidth;
+                layoutHeight = cache.layoutHeight;
+                float ascent = lines[0].getBounds().getMinY();
+                logicalBounds = logicalBounds.deriveWithNewBounds(0, ascent, 0,
+                        layoutWidth, layoutHeight + ascent, 0);
+                return;
             }
-            if (layoutCache != null) {
-                if (copyCache()) {
-                    /* This instance has some property that requires it to
-                     * build its own lines (i.e. wrapping width). Thus, only use
-                     * the runs from the cache (and it needs to make a copy
-                     * before using it as they will be modified).
-                     * Note: the copy of the elements in the array happens in
-                     * reuseRuns().
-                     */
-                    if (layoutCache.runs == runs) {
-                        runs = new TextRun[runCount];
-                        System.arraycopy(layoutCache.runs, 0, runs, 0, runCount);
-                    }
-                } else {
-                    if (layoutCache.lines != null) {
-                        runs = layoutCache.runs;
-                        runCount = layoutCache.runCount;
-                        flags |= layoutCache.analysis;
-                        lines = layoutCache.lines;
-                        layoutWidth = layoutCache.layoutWidth;
-                        layoutHeight = layoutCache.layoutHeight;
-                        float ascent = lines[0].getBounds().getMinY();
-                        logicalBounds = logicalBounds.deriveWithNewBounds(0, ascent, 0,
-                                layoutWidth, layoutHeight + ascent, 0);
-                    }
-                }
+            if (layoutCache != null && layoutCache.runs == runs) {
+                /* The lines of this layout are not in the cache (i.e. the
+                 * wrapping width changed) but its runs are shared with the
+                 * cache. Only use the runs from the cache and make a copy
+                 * before using them as they will be modified.
+                 * Note: the copy of the elements in the array happens in
+                 * reuseRuns().
+                 */
+                runs = new TextRun[runCount];
+                System.arraycopy(layoutCache.runs, 0, runs, 0, runCount);
             }
         }
     }
@@ -1277,12 +1310,20 @@ public class PrismTextLayout implements TextLayout {
 
 
         if (layoutCache != null) {
-            if (cacheKey != null && !layoutCache.valid && !copyCache()) {
+            if (cacheKey != null) {
                 /* After layoutCache is added to the stringCache it can be
                  * accessed by multiple threads. All the data in it must
-                 * be immutable. See copyCache() for the cases where the entire
-                 * layout is immutable.
+                 * be immutable. A valid layoutCache is already in the
+                 * stringCache with other lines, only its glyphs and advances
+                 * can be shared with the new entry.
                  */
+                if (layoutCache.valid) {
+                    LayoutCache cache = new LayoutCache();
+                    cache.glyphs = layoutCache.glyphs;
+                    cache.advances = layoutCache.advances;
+                    layoutCache = cache;
+                }
+                layoutCache.key = getCacheKey();
                 layoutCache.font = font;
                 layoutCache.text = text;
                 layoutCache.runs = runs;
@@ -1291,15 +1332,7 @@ public class PrismTextLayout implements TextLayout {
                 layoutCache.layoutWidth = layoutWidth;
                 layoutCache.layoutHeight = layoutHeight;
                 layoutCache.analysis = flags & ANALYSIS_MASK;
-                synchronized (CACHE_SIZE_LOCK) {
-                    int charCount = chars.length;
-                    if (cacheSize + charCount > MAX_CACHE_SIZE) {
-                        stringCache.clear();
-                        cacheSize = 0;
-                    }
-                    stringCache.put(cacheKey, layoutCache);
-                    cacheSize += charCount;
-                }
+                stringCache.put(layoutCache);
             }
             layoutCache.valid = true;
         }
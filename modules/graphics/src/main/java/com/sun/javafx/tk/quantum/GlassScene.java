@@ -35,6 +35,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import com.sun.glass.ui.Clipboard;
 import com.sun.glass.ui.ClipboardAssistance;
 import com.sun.glass.ui.View;
+import com.sun.javafx.logging.PulseLogger;
 import com.sun.javafx.sg.prism.NGCamera;
 import com.sun.javafx.sg.prism.NGLightBase;
 import com.sun.javafx.sg.prism.NGNode;
@@ -91,6 +92,9 @@ abstract class GlassScene implements TKScene {
     @Override
     public void dispose() {
         assert stage == null; // dispose() is called after setStage(null)
+        if (PulseLogger.PULSE_LOGGING_ENABLED) {
+            PulseLogger.disposeScene(this);
+        }
         root = null;
         camera = null;
         fillPaint = null;
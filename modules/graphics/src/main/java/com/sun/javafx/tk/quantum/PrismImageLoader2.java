@@ -33,6 +33,7 @@ import com.sun.javafx.iio.ImageLoadListener;
 import com.sun.javafx.iio.ImageLoader;
 import com.sun.javafx.iio.ImageMetadata;
 import com.sun.javafx.iio.ImageStorage;
+import com.sun.javafx.iio.ImageStorage.ImageType;
 import com.sun.javafx.iio.ImageStorageException;
 import com.sun.javafx.runtime.async.AbstractRemoteResource;
 import com.sun.javafx.runtime.async.AsyncOperationListener;
@@ -73,7 +74,24 @@ class PrismImageLoader2 implements com.sun.javafx.tk.ImageLoader {
     public PrismImageLoader2(InputStream stream, int width, int height,
                              boolean preserveRatio, boolean smooth)
     {
-        loadAll(stream, width, height, preserveRatio, smooth);
+        this(stream, width, height, preserveRatio, smooth, null);
+    }
+
+    PrismImageLoader2(InputStream stream, int width, int height,
+                      boolean preserveRatio, boolean smooth,
+                      AsyncImageLoader asyncLoader)
+    {
+        loadAll(stream, width, height, preserveRatio, smooth, asyncLoader);
+    }
+
+    /*
+     * A loader for an image that is still being decoded.
+     */
+    private PrismImageLoader2(Image partialImage) {
+        images = new Image[] { partialImage };
+        delayTimes = new int[1];
+        width = partialImage.getWidth();
+        height = partialImage.getHeight();
     }
 
     public int getWidth() {
@@ -113,7 +131,7 @@ class PrismImageLoader2 implements com.sun.javafx.tk.ImageLoader {
                          boolean preserveRatio, float pixelScale,
                          boolean smooth)
     {
-        ImageLoadListener listener = new PrismLoadListener();
+        ImageLoadListener listener = new PrismLoadListener(null);
         try {
             ImageFrame[] imgFrames =
                 ImageStorage.loadAll(url, listener, w, h, preserveRatio, pixelScale, smooth);
@@ -126,9 +144,10 @@ class PrismImageLoader2 implements com.sun.javafx.tk.ImageLoader {
     }
 
     private void loadAll(InputStream stream, int w, int h,
-                         boolean preserveRatio, boolean smooth)
+                         boolean preserveRatio, boolean smooth,
+                         AsyncImageLoader asyncLoader)
     {
-        ImageLoadListener listener = new PrismLoadListener();
+        ImageLoadListener listener = new PrismLoadListener(asyncLoader);
         try {
             ImageFrame[] imgFrames =
                 ImageStorage.loadAll(stream, listener, w, h, preserveRatio, 1.0f, smooth);
@@ -190,6 +209,12 @@ class PrismImageLoader2 implements com.sun.javafx.tk.ImageLoader {
     }
 
     private class PrismLoadListener implements ImageLoadListener {
+        private final AsyncImageLoader asyncLoader;
+
+        PrismLoadListener(AsyncImageLoader asyncLoader) {
+            this.asyncLoader = asyncLoader;
+        }
+
         public void imageLoadWarning(ImageLoader loader, String message) {
             getImageioLogger().warning(message);
         }
@@ -208,6 +233,15 @@ class PrismImageLoader2 implements com.sun.javafx.tk.ImageLoader {
         public void imageLoadMetaData(ImageLoader loader, ImageMetadata metadata) {
             // We currently have no need to listen for ImageMetadata ready.
         }
+
+        public void imageLoadUpdate(ImageLoader loader, ImageFrame frame,
+                                    int y, int height)
+        {
+            // Only background loading delivers partially decoded images
+            if (asyncLoader != null) {
+                asyncLoader.imageUpdated(frame);
+            }
+        }
     }
 
     static final class AsyncImageLoader
@@ -218,6 +252,10 @@ class PrismImageLoader2 implements com.sun.javafx.tk.ImageLoader {
 
         private final AccessControlContext acc;
 
+        // The loader of the partially decoded image, only accessed by the
+        // loading thread
+        private PrismImageLoader2 partialLoader;
+
         int width, height;
         boolean preserveRatio;
         boolean smooth;
@@ -237,7 +275,24 @@ class PrismImageLoader2 implements com.sun.javafx.tk.ImageLoader {
 
         @Override
         protected PrismImageLoader2 processStream(InputStream stream) throws IOException {
-            return new PrismImageLoader2(stream, width, height, preserveRatio, smooth);
+            return new PrismImageLoader2(stream, width, height, preserveRatio,
+                                         smooth, this);
+        }
+
+        void imageUpdated(ImageFrame frame) {
+            if (partialLoader == null) {
+                // The pixels of other types are converted once the whole
+                // image is decoded, they cannot be shown before that
+                ImageType type = frame.getImageType();
+                if (type != ImageType.GRAY && type != ImageType.RGB) {
+                    return;
+                }
+                partialLoader = new PrismImageLoader2(
+                        com.sun.prism.Image.convertImageFrame(frame));
+            } else {
+                partialLoader.images[0].pixelsUpdated();
+            }
+            notifyUpdate(partialLoader);
         }
 
         @Override
@@ -46,6 +46,7 @@ import com.sun.prism.Presentable;
 import com.sun.prism.RTTexture;
 import com.sun.prism.ResourceFactory;
 import com.sun.prism.Texture;
+import com.sun.prism.impl.GlyphCache;
 import com.sun.prism.impl.PrismSettings;
 import com.sun.prism.paint.Color;
 import com.sun.prism.paint.Paint;
@@ -163,6 +164,9 @@ abstract class ViewPainter implements Runnable {
     }
 
     protected void paintImpl(final Graphics backBufferGraphics) {
+        if (PULSE_LOGGING_ENABLED) {
+            PulseLogger.newScene(sceneState.getScene());
+        }
         // We should not be painting anything with a width / height
         // that is <= 0, so we might as well bail right off.
         if (width <= 0 || height <= 0 || backBufferGraphics == null) {
@@ -471,6 +475,11 @@ abstract class ViewPainter implements Runnable {
         }
         g.setCamera(sceneState.getCamera());
         g.setRenderRoot(renderRootPath);
+        final long glyphBytes = PULSE_LOGGING_ENABLED ? GlyphCache.getUploadedBytes() : 0;
         root.render(g);
+        if (PULSE_LOGGING_ENABLED && GlyphCache.getUploadedBytes() != glyphBytes) {
+            PulseLogger.addMessage((GlyphCache.getUploadedBytes() - glyphBytes) +
+                                   " bytes of glyphs uploaded");
+        }
     }
 }
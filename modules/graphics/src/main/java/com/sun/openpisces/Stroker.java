@@ -923,8 +923,8 @@ public final class Stroker implements PathConsumer2D {
     // finds values of t where the curve in pts should be subdivided in order
     // to get good offset curves a distance of w away from the middle curve.
     // Stores the points in ts, and returns how many of them there were.
-    private static Curve c = new Curve();
-    private static int findSubdivPoints(float[] pts, float[] ts,
+    private final Curve c = new Curve();
+    private int findSubdivPoints(float[] pts, float[] ts,
                                         final int type, final float w)
     {
         final float x12 = pts[2] - pts[0];
@@ -31,6 +31,7 @@ import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
 import com.sun.javafx.iio.ImageFrame;
 import com.sun.javafx.iio.ImageStorage;
 import com.sun.javafx.image.BytePixelGetter;
@@ -71,7 +72,9 @@ public class Image implements PlatformImage {
     private final int scanlineStride;
     private final PixelFormat pixelFormat;
     private final float pixelScale;
-    int serial[] = new int[1];
+    // Shared with the sub-images. Incremented by the thread that loads a
+    // partially decoded image and read by the render thread.
+    AtomicInteger serial = new AtomicInteger();
 
     public static Image fromIntArgbPreData(int[] pixels, int width, int height) {
         return new Image(PixelFormat.INT_ARGB_PRE, pixels, width, height);
@@ -573,7 +576,15 @@ public class Image implements PlatformImage {
     }
 
     public int getSerial() {
-        return serial[0];
+        return serial.get();
+    }
+
+    /**
+     * Notes that the pixel buffer was modified directly, so that the
+     * textures caching the pixels of this image are updated.
+     */
+    public void pixelsUpdated() {
+        serial.incrementAndGet();
     }
 
     public Image promoteByteRgbToByteBgra() {
@@ -645,7 +656,7 @@ public class Image implements PlatformImage {
     @Override
     public void setArgb(int x, int y, int argb) {
         getPixelAccessor().setArgb(x, y, argb);
-        serial[0]++;
+        serial.incrementAndGet();
     }
 
     @Override
@@ -684,7 +695,7 @@ public class Image implements PlatformImage {
     {
         getPixelAccessor().setPixels(x, y, w, h, pixelformat,
                                      pixels, scanlineBytes);
-        serial[0]++;
+        serial.incrementAndGet();
     }
 
     @Override
@@ -694,7 +705,7 @@ public class Image implements PlatformImage {
     {
         getPixelAccessor().setPixels(x, y, w, h, pixelformat,
                                      pixels, offset, scanlineBytes);
-        serial[0]++;
+        serial.incrementAndGet();
     }
 
     @Override
@@ -704,7 +715,7 @@ public class Image implements PlatformImage {
     {
         getPixelAccessor().setPixels(x, y, w, h, pixelformat,
                                      pixels, offset, scanlineInts);
-        serial[0]++;
+        serial.incrementAndGet();
     }
 
     @Override
@@ -712,7 +723,7 @@ public class Image implements PlatformImage {
                           PixelReader reader, int srcx, int srcy)
     {
         getPixelAccessor().setPixels(dstx, dsty, w, h, reader, srcx, srcy);
-        serial[0]++;
+        serial.incrementAndGet();
     }
 
     public boolean isOpaque() {
@@ -41,6 +41,8 @@ import com.sun.prism.impl.shape.MaskData;
 import com.sun.prism.paint.Color;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.WeakHashMap;
 
@@ -61,8 +63,15 @@ public class GlyphCache {
     // to 1/4 of the strikes.
     private static final int WIDTH = PrismSettings.glyphCacheWidth; // in pixels
     private static final int HEIGHT = PrismSettings.glyphCacheHeight; // in pixels
+    // The maximum number of textures of an atlas
+    private static final int MAX_PAGES = Math.max(1, Math.min(32, PrismSettings.glyphCachePages));
     private static ByteBuffer emptyMask;
 
+    // Statistics, only updated on the render thread
+    private static long uploadedBytes;
+    private static long uploadedGlyphs;
+    private static long evictedPages;
+
     private final BaseContext context;
     private final FontStrike strike;
 
@@ -76,47 +85,95 @@ public class GlyphCache {
     // Using them for subpixel
     private static final int SUBPIXEL_SHIFT = 27;
 
-    private RectanglePacker packer;
+    private final Atlas atlas;
 
     private boolean isLCDCache;
 
-    /* Share a RectanglePacker and its associated texture cache
+    /* Share an Atlas and its associated textures
      * for all uses on a particular screen.
      */
-    static WeakHashMap<BaseContext, RectanglePacker> greyPackerMap =
-        new WeakHashMap<BaseContext, RectanglePacker>();
+    static WeakHashMap<BaseContext, Atlas> greyAtlasMap =
+        new WeakHashMap<BaseContext, Atlas>();
 
-    static WeakHashMap<BaseContext, RectanglePacker> lcdPackerMap =
-        new WeakHashMap<BaseContext, RectanglePacker>();
+    static WeakHashMap<BaseContext, Atlas> lcdAtlasMap =
+        new WeakHashMap<BaseContext, Atlas>();
 
     public GlyphCache(BaseContext context, FontStrike strike) {
+        this(context, strike, getAtlas(context, strike));
+    }
+
+    GlyphCache(BaseContext context, FontStrike strike, Atlas atlas) {
         this.context = context;
         this.strike = strike;
         //numGlyphs = strike.getNumGlyphs();
         //int numSegments = (numGlyphs + SEGSIZE-1)/SEGSIZE;
         //this.glyphs = new GlyphData[numSegments][];
         isLCDCache = strike.getAAMode() == FontResource.AA_LCD;
-        WeakHashMap<BaseContext, RectanglePacker>
-            packerMap = isLCDCache ? lcdPackerMap : greyPackerMap;
-        packer = packerMap.get(context);
-        if (packer == null) {
-            ResourceFactory factory = context.getResourceFactory();
-            Texture tex = factory.createMaskTexture(WIDTH, HEIGHT,
-                                                    WrapMode.CLAMP_NOT_NEEDED);
-            tex.contentsUseful();
-            tex.makePermanent();
-            if (!isLCDCache) {
-                factory.setGlyphTexture(tex);
-            }
-            tex.setLinearFiltering(false);
-            packer = new RectanglePacker(tex, WIDTH, HEIGHT);
-            packerMap.put(context, packer);
+        this.atlas = atlas;
+    }
+
+    private static Atlas getAtlas(BaseContext context, FontStrike strike) {
+        boolean lcd = strike.getAAMode() == FontResource.AA_LCD;
+        WeakHashMap<BaseContext, Atlas>
+            atlasMap = lcd ? lcdAtlasMap : greyAtlasMap;
+        Atlas a = atlasMap.get(context);
+        if (a == null) {
+            a = new Atlas(context, lcd);
+            atlasMap.put(context, a);
         }
+        return a;
     }
 
-    public void render(BaseContext ctx, GlyphList gl, float x, float y,
-                       int start, int end, Color rangeColor, Color textColor,
-                       BaseTransform xform, BaseBounds clip) {
+    /**
+     * @return the number of bytes uploaded to the glyph textures
+     */
+    public static long getUploadedBytes() {
+        return uploadedBytes;
+    }
+
+    /**
+     * @return the number of glyphs uploaded to the glyph textures
+     */
+    public static long getUploadedGlyphCount() {
+        return uploadedGlyphs;
+    }
+
+    /**
+     * @return the number of times a page of glyphs had to be evicted to
+     * make room for new glyphs
+     */
+    public static long getEvictedPageCount() {
+        return evictedPages;
+    }
+
+    /**
+     * The page of the atlas to render first, that is the page glyphs were
+     * last added to.
+     */
+    public int getCurrentPage() {
+        return atlas.current;
+    }
+
+    /**
+     * Returns the texture of the given page of the atlas.
+     */
+    public Texture getBackingStore(int page) {
+        return atlas.pages.get(page).packer.getBackingStore();
+    }
+
+    /**
+     * Renders the glyphs of the list that are on the given page of the
+     * atlas. The caller must have set up the texture of the page, and call
+     * this method again with the returned page until it returns -1.
+     *
+     * @param firstPass true for the first call for a glyph list
+     * @return the page that the next glyph that was not rendered is on,
+     * or -1 if all the glyphs were rendered
+     */
+    public int render(BaseContext ctx, GlyphList gl, float x, float y,
+                      int start, int end, Color rangeColor, Color textColor,
+                      BaseTransform xform, BaseBounds clip,
+                      int page, boolean firstPass) {
 
         int dstw, dsth;
         if (isLCDCache) {
@@ -126,14 +183,34 @@ public class GlyphCache {
             dstw = 1;
             dsth = 1;
         }
-        Texture tex = getBackingStore();
+        // Add new glyphs to the page in use if there is room
+        atlas.current = page;
+        final Page currentPage = atlas.pages.get(page);
+        Texture tex = currentPage.packer.getBackingStore();
         VertexBuffer vb = ctx.getVertexBuffer();
+        boolean superQuad = context.isSuperShaderEnabled() &&
+                tex == context.getResourceFactory().getGlyphTexture();
 
         int len = gl.getGlyphCount();
         Color currentColor = null;
         Point2D pt = new Point2D();
 
+        // Keep track of the glyphs rendered by earlier passes
+        if (firstPass) {
+            atlas.stamp++;
+            if (atlas.rendered.length < len) {
+                atlas.rendered = new boolean[len];
+            } else {
+                Arrays.fill(atlas.rendered, 0, len, false);
+            }
+        }
+        final boolean[] rendered = atlas.rendered;
+        Page nextPage = null;
+
         for (int gi = 0; gi < len; gi++) {
+            if (rendered[gi]) {
+                continue;
+            }
             int gc = gl.getGlyphCode(gi);
 
             // If we have a supplementary character, then a special
@@ -146,6 +223,14 @@ public class GlyphCache {
             int subPixel = strike.getQuantizedPosition(pt);
             GlyphData data = getCachedGlyph(gc, subPixel);
             if (data != null) {
+                if (data.page != null && data.page != currentPage) {
+                    // Rendered by a later pass with the texture of its page
+                    if (nextPage == null) {
+                        nextPage = data.page;
+                    }
+                    continue;
+                }
+                rendered[gi] = true;
                 if (clip != null) {
                     // Always check clipping using user space.
                     if (x + gl.getPosX(gi) > clip.getMaxX()) break;
@@ -169,14 +254,15 @@ public class GlyphCache {
                     }
                 }
                 xform.transform(pt, pt);
-                addDataToQuad(data, vb, tex, pt.x, pt.y, dstw, dsth);
+                addDataToQuad(data, vb, tex, pt.x, pt.y, dstw, dsth, superQuad);
             }
         }
+        return nextPage != null ? atlas.pages.indexOf(nextPage) : -1;
     }
 
     private void addDataToQuad(GlyphData data, VertexBuffer vb,
                                Texture tex, float x, float y,
-                               float dstw, float dsth) {
+                               float dstw, float dsth, boolean superQuad) {
         // We are sampling texture using nearest point sampling, for clear
         // text. As a consequence of nearest point sampling, graphics artifacts
         // may occur when sampling close to texel boundaries.
@@ -213,7 +299,7 @@ public class GlyphCache {
         } else {
             dx1 = Math.round(dx1);
             dx2 = dx1 + gw;
-            if (context.isSuperShaderEnabled()) {
+            if (superQuad) {
                 vb.addSuperQuad(dx1, dy1, dx2, dy2, tx1, ty1, tx2, ty2, true);
             } else {
                 vb.addQuad(dx1, dy1, dx2, dy2, tx1, ty1, tx2, ty2);
@@ -221,30 +307,30 @@ public class GlyphCache {
         }
     }
 
+    /**
+     * Returns the texture of the page of the atlas glyphs were last added to.
+     */
     public Texture getBackingStore() {
-        return packer.getBackingStore();
+        return getBackingStore(getCurrentPage());
     }
 
     public void clear() {
         glyphDataMap.clear();
     }
 
-    private void clearAll() {
-        // flush any pending vertices that may depend on the current state
-        // of the glyph cache texture.
-        context.flushVertexBuffer();
-        context.clearGlyphCaches();
-        packer.clear();
-    }
-
-    private GlyphData getCachedGlyph(int glyphCode, int subPixel) {
+    GlyphData getCachedGlyph(int glyphCode, int subPixel) {
         int segIndex = glyphCode >> SEGSHIFT;
         int subIndex = glyphCode % SEGSIZE;
         segIndex |= (subPixel << SUBPIXEL_SHIFT);
         GlyphData[] segment = glyphDataMap.get(segIndex);
         if (segment != null) {
-            if (segment[subIndex] != null) {
-                return segment[subIndex];
+            final GlyphData data = segment[subIndex];
+            // The glyph is gone if its page was evicted
+            if (data != null && data.isValid()) {
+                if (data.page != null) {
+                    data.page.lastUsed = atlas.stamp;
+                }
+                return data;
             }
         } else {
             segment = new GlyphData[SEGSIZE];
@@ -279,19 +365,15 @@ public class GlyphCache {
                 int originX = maskData.getOriginX();
                 int originY = maskData.getOriginY();
                 Rectangle rect = new Rectangle(0, 0, rectW, rectH);
+                Page page = atlas.add(rect);
+                if (page == null) {
+                    // Larger than a page
+                    return null;
+                }
                 data = new GlyphData(originX, originY, border,
                                      glyph.getPixelXAdvance(),
                                      glyph.getPixelYAdvance(),
-                                     rect);
-
-                if (!packer.add(rect)) {
-                    if (PULSE_LOGGING_ENABLED) {
-                        PulseLogger.incrementCounter("Font Glyph Cache Cleared");
-                    }
-                    // If add fails,clear up the cache. Try add again.
-                    clearAll();
-                    packer.add(rect);
-                }
+                                     rect, page);
 
                 // We always pass skipFlush=true to backingStore.update()
                 // since we are in control of the contents of the backingStore
@@ -302,7 +384,7 @@ public class GlyphCache {
                 // Upload the an empty byte array to ensure the boundary
                 // area is filled with zeros. Note that the rectangle
                 // is already padded on each edge.
-                Texture backingStore = getBackingStore();
+                Texture backingStore = page.packer.getBackingStore();
                 int emw = rect.width;
                 int emh = rect.height;
                 int bpp = backingStore.getPixelFormat().getBytesPerPixelUnit();
@@ -328,6 +410,11 @@ public class GlyphCache {
                                          border + rect.y,
                                          skipFlush);
 
+                uploadedBytes += size + glyphImage.length;
+                uploadedGlyphs++;
+                if (PULSE_LOGGING_ENABLED) {
+                    PulseLogger.incrementCounter("Font Glyph Cache Uploads");
+                }
             }
             segment[subIndex] = data;
         }
@@ -354,8 +441,19 @@ public class GlyphCache {
         // The rectangle on the backing store corresponding to this glyph
         private final Rectangle rect;
 
+        // The page of the atlas holding the rectangle, and the generation
+        // of the page when the glyph was added
+        private final Page page;
+        private final int generation;
+
         GlyphData(int originX, int originY, int blankBoundary,
                   float xAdvance, float yAdvance, Rectangle rect)
+        {
+            this(originX, originY, blankBoundary, xAdvance, yAdvance, rect, null);
+        }
+
+        GlyphData(int originX, int originY, int blankBoundary,
+                  float xAdvance, float yAdvance, Rectangle rect, Page page)
         {
             this.originX = originX;
             this.originY = originY;
@@ -363,6 +461,20 @@ public class GlyphCache {
             this.xAdvance = xAdvance;
             this.yAdvance = yAdvance;
             this.rect = rect;
+            this.page = page;
+            this.generation = page != null ? page.generation : 0;
+        }
+
+        boolean isValid() {
+            return page == null || page.generation == generation;
+        }
+
+        Page getPage() {
+            return page;
+        }
+
+        int getGeneration() {
+            return generation;
         }
 
         int getOriginX() {
@@ -389,4 +501,130 @@ public class GlyphCache {
             return rect;
         }
     }
+
+    /* A texture of the atlas and the RectanglePacker managing its space */
+    static final class Page {
+        final RectanglePacker packer;
+
+        // Incremented each time the page is cleared, which invalidates
+        // the GlyphData of the glyphs that were on it
+        int generation;
+
+        // The value of Atlas.stamp when a glyph on the page was last used
+        long lastUsed;
+
+        Page(RectanglePacker packer) {
+            this.packer = packer;
+        }
+    }
+
+    /* The pages of glyphs shared by all strikes using a context. When all
+     * the pages are full, the least recently used page is cleared, rather
+     * than all of the glyphs.
+     */
+    static class Atlas {
+        private final BaseContext context;
+        private final boolean lcd;
+        private final int width, height, maxPages;
+        final ArrayList<Page> pages;
+        // The page glyphs were last added to
+        int current;
+        // Incremented for each glyph list rendered
+        long stamp;
+        // The glyphs rendered so far of the glyph list being rendered
+        boolean[] rendered = new boolean[0];
+
+        Atlas(BaseContext context, boolean lcd) {
+            this(context, lcd, WIDTH, HEIGHT, MAX_PAGES);
+        }
+
+        Atlas(BaseContext context, boolean lcd,
+              int width, int height, int maxPages) {
+            this.context = context;
+            this.lcd = lcd;
+            this.width = width;
+            this.height = height;
+            this.maxPages = maxPages;
+            pages = new ArrayList<Page>(maxPages);
+            addPage();
+        }
+
+        private Page addPage() {
+            Texture tex = createTexture(pages.isEmpty());
+            Page page = new Page(new RectanglePacker(tex, width, height));
+            pages.add(page);
+            return page;
+        }
+
+        /**
+         * Creates the texture of a new page.
+         * @param first true for the first page of the atlas
+         */
+        Texture createTexture(boolean first) {
+            ResourceFactory factory = context.getResourceFactory();
+            Texture tex = factory.createMaskTexture(width, height,
+                                                    WrapMode.CLAMP_NOT_NEEDED);
+            tex.contentsUseful();
+            tex.makePermanent();
+            if (!lcd && first) {
+                // The super shader can only use the first page
+                factory.setGlyphTexture(tex);
+            }
+            tex.setLinearFiltering(false);
+            return tex;
+        }
+
+        /**
+         * Finds room for rect on a page, evicting a page if needed.
+         * @return the page, or null if rect is larger than a page
+         */
+        Page add(Rectangle rect) {
+            if (rect.width > width || rect.height > height) {
+                return null;
+            }
+            Page page = pages.get(current);
+            if (page.packer.add(rect)) {
+                return use(page);
+            }
+            for (int i = 0, n = pages.size(); i < n; i++) {
+                page = pages.get(i);
+                if (i != current && page.packer.add(rect)) {
+                    current = i;
+                    return use(page);
+                }
+            }
+            if (pages.size() < maxPages) {
+                page = addPage();
+                current = pages.size() - 1;
+                page.packer.add(rect);
+                return use(page);
+            }
+
+            // Evict the least recently used page
+            int lru = 0;
+            for (int i = 1, n = pages.size(); i < n; i++) {
+                if (pages.get(i).lastUsed < pages.get(lru).lastUsed) {
+                    lru = i;
+                }
+            }
+            if (PULSE_LOGGING_ENABLED) {
+                PulseLogger.incrementCounter("Font Glyph Cache Page Evicted");
+            }
+            evictedPages++;
+            // flush any pending vertices that may depend on the current state
+            // of the page.
+            context.flushVertexBuffer();
+            page = pages.get(lru);
+            page.packer.clear();
+            page.generation++;
+            current = lru;
+            page.packer.add(rect);
+            return use(page);
+        }
+
+        private Page use(Page page) {
+            page.lastUsed = stamp;
+            return page;
+        }
+    }
 }
@@ -55,6 +55,7 @@ public final class PrismSettings {
     public static final List<String> tryOrder;
     public static final int prismStatFrequency;
     public static final boolean doNativePisces;
+    public static final boolean doScanlineRasterizer;
     public static final String refType;
     public static final boolean forceRepaint;
     public static final boolean noFallback;
@@ -80,6 +81,7 @@ public final class PrismSettings {
     public static final boolean disableEffects;
     public static final int glyphCacheWidth;
     public static final int glyphCacheHeight;
+    public static final int glyphCachePages;
     public static final String perfLog;
     public static final boolean perfLogExitFlush;
     public static final boolean perfLogFirstPaintFlush;
@@ -89,6 +91,8 @@ public final class PrismSettings {
     public static final boolean forceUploadingPainter;
     public static final boolean forceAlphaTestShader;
     public static final boolean forceNonAntialiasedShape;
+    public static final int swTileThreads;
+    public static final int swTileSize;
     
 
     private PrismSettings() {
@@ -225,6 +229,7 @@ public final class PrismSettings {
         } else {
             doNativePisces = Boolean.parseBoolean(npprop);
         }
+        doScanlineRasterizer = getBoolean(systemProperties, "prism.scanlinerasterizer", false);
 
         String primtex = systemProperties.getProperty("prism.primtextures");
         if (primtex == null) {
@@ -260,8 +265,12 @@ public final class PrismSettings {
                 System.out.print(s+" ");
             }
             System.out.println("");
-            String piscestype = (doNativePisces ? "native" : "java");
-            System.out.println("Using " + piscestype + "-based Pisces rasterizer");
+            if (doScanlineRasterizer) {
+                System.out.println("Using scanline rasterizer");
+            } else {
+                String piscestype = (doNativePisces ? "native" : "java");
+                System.out.println("Using " + piscestype + "-based Pisces rasterizer");
+            }
             printBooleanOption(dirtyOptsEnabled, "Using dirty region optimizations");
             if (primTextureSize == 0) {
                 System.out.println("Not using texture mask for primitives");
@@ -321,6 +330,8 @@ public final class PrismSettings {
                 "Try -Dprism.glyphCacheWidth=<number>");
         glyphCacheHeight = getInt(systemProperties, "prism.glyphCacheHeight", 1024,
                 "Try -Dprism.glyphCacheHeight=<number>");
+        glyphCachePages = getInt(systemProperties, "prism.glyphCachePages", 4,
+                "Try -Dprism.glyphCachePages=<number>");
 
         /*
          * Performance Logger flags
@@ -342,6 +353,20 @@ public final class PrismSettings {
         // Force non anti-aliasing (not smooth) shape rendering
         forceNonAntialiasedShape = getBoolean(systemProperties, "prism.forceNonAntialiasedShape", false);
 
+        /*
+         * Number of worker threads used by the software pipeline to replay
+         * a frame tile by tile. A value <= 1 renders the frame on the
+         * render thread only (the default).
+         */
+        swTileThreads = getInt(systemProperties, "prism.sw.threads", 0,
+                Runtime.getRuntime().availableProcessors(),
+                "Try -Dprism.sw.threads=<number>");
+        swTileSize = getInt(systemProperties, "prism.sw.tilesize", 256,
+                "Try -Dprism.sw.tilesize=<number>");
+        if (verbose && swTileThreads > 1) {
+            System.out.println("Using " + swTileThreads + " threads to render " +
+                               swTileSize + "x" + swTileSize + " software tiles");
+        }
     }
 
     private static int parseInt(String s, int dflt, int trueDflt,
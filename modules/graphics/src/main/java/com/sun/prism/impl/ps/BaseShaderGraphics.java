@@ -2035,33 +2035,25 @@ public abstract class BaseShaderGraphics
          * description.
          */
         GlyphCache glyphCache = context.getGlyphCache(strike);
-        Texture cacheTex = glyphCache.getBackingStore();
+
+        if (isSimpleTranslate) {
+            // Applying this rounding allows for smoother text animation,
+            // when animating simple translated text.
+            // Asking glyph textures to be rendered at non-integral
+            // locations produces very poor text. This doesn't solve
+            // the problem for scaled (etc) cases, but addresses a
+            // common case.
+            p2d.y = Math.round(p2d.y);
+            p2d.x = Math.round(p2d.x);
+        }
 
         //Since we currently cannot support LCD text on transparant surfaces, we
         //verify that we are drawing to an opaque surface.
-        if (strike.getAAMode() == FontResource.AA_LCD) {
-            if (nodeBounds == null) {
-                // If drawString is called directly without using
-                // setNodeBounds then we must determine the bounds of the str,
-                // before we render background to texture.
-                // This is slow, but required by webnode.
-
-                Metrics m = strike.getMetrics();
-                // Ruff guess for padding, since lots of glyphs exceed advance
-                RectBounds textBounds =
-                        new RectBounds(x - 2,
-                                       y + m.getAscent(),
-                                       x + 2 + gl.getWidth(),
-                                       y + 1 + m.getDescent() + m.getLineGap());
-
-                setNodeBounds(textBounds);
-                initLCDSampleRT();
-                setNodeBounds(null);
-            } else {
-                initLCDSampleRT();
-            }
-            float invgamma = PrismFontFactory.getLCDContrast();
-            float gamma = 1.0f/invgamma;
+        final boolean lcd = strike.getAAMode() == FontResource.AA_LCD;
+        float gamma = 1.0f, invgamma = 1.0f;
+        if (lcd) {
+            invgamma = PrismFontFactory.getLCDContrast();
+            gamma = 1.0f/invgamma;
             textColor = new Color((float)Math.pow(textColor.getRed(),   invgamma),
                                   (float)Math.pow(textColor.getGreen(), invgamma),
                                   (float)Math.pow(textColor.getBlue(),  invgamma),
@@ -2073,35 +2065,57 @@ public abstract class BaseShaderGraphics
                         (float)Math.pow(selectColor.getBlue(),  invgamma),
                         (float)Math.pow(selectColor.getAlpha(), invgamma));
             }
+        }
 
-            // In order to handle transparency, the LCD shader need to manually
-            // composite source with destination. Thus, SRC_OVER compositing
-            // needs to be set to SRC, while shader is active.
-            setCompositeMode(CompositeMode.SRC);
+        // The glyphs may be spread over several pages of the glyph cache,
+        // render the glyphs of one page at a time.
+        int page = glyphCache.getCurrentPage();
+        boolean firstPass = true;
+        while (page >= 0) {
+            Texture cacheTex = glyphCache.getBackingStore(page);
+            if (lcd) {
+                if (nodeBounds == null) {
+                    // If drawString is called directly without using
+                    // setNodeBounds then we must determine the bounds of the str,
+                    // before we render background to texture.
+                    // This is slow, but required by webnode.
+
+                    Metrics m = strike.getMetrics();
+                    // Ruff guess for padding, since lots of glyphs exceed advance
+                    RectBounds textBounds =
+                            new RectBounds(x - 2,
+                                           y + m.getAscent(),
+                                           x + 2 + gl.getWidth(),
+                                           y + 1 + m.getDescent() + m.getLineGap());
+
+                    setNodeBounds(textBounds);
+                    initLCDSampleRT();
+                    setNodeBounds(null);
+                } else {
+                    initLCDSampleRT();
+                }
 
-            //set our 2nd LCD shader.
-            Shader shader = context.validateLCDOp(this, IDENT,
-                                                context.getLCDBuffer(),
-                                                cacheTex, false, textColor);
+                // In order to handle transparency, the LCD shader need to manually
+                // composite source with destination. Thus, SRC_OVER compositing
+                // needs to be set to SRC, while shader is active.
+                setCompositeMode(CompositeMode.SRC);
 
-            float unitXCoord = 1.0f/((float)cacheTex.getPhysicalWidth());
-            shader.setConstant("gamma", gamma, invgamma, unitXCoord);
-            setCompositeMode(blendMode); // Restore composite mode
-        } else {
-            context.validatePaintOp(this, IDENT, cacheTex, bx, by, bw, bh);
-        }
-        if (isSimpleTranslate) {
-            // Applying this rounding allows for smoother text animation,
-            // when animating simple translated text.
-            // Asking glyph textures to be rendered at non-integral
-            // locations produces very poor text. This doesn't solve
-            // the problem for scaled (etc) cases, but addresses a
-            // common case.
-            p2d.y = Math.round(p2d.y);
-            p2d.x = Math.round(p2d.x);
+                //set our 2nd LCD shader.
+                Shader shader = context.validateLCDOp(this, IDENT,
+                                                    context.getLCDBuffer(),
+                                                    cacheTex, false, textColor);
+
+                float unitXCoord = 1.0f/((float)cacheTex.getPhysicalWidth());
+                shader.setConstant("gamma", gamma, invgamma, unitXCoord);
+                setCompositeMode(blendMode); // Restore composite mode
+            } else {
+                context.validatePaintOp(this, IDENT, cacheTex, bx, by, bw, bh);
+            }
+            page = glyphCache.render(context, gl, p2d.x, p2d.y, selectStart, selectEnd,
+                                     selectColor, textColor, xform, clip,
+                                     page, firstPass);
+            firstPass = false;
         }
-        glyphCache.render(context, gl, p2d.x, p2d.y, selectStart, selectEnd,
-                          selectColor, textColor, xform, clip);
     }
 
     //This function is used by the LCD path to render a quad into the
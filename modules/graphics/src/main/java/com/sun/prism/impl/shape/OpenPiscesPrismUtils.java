@@ -39,15 +39,25 @@ import com.sun.openpisces.TransformingPathConsumer2D;
 import com.sun.prism.BasicStroke;
 
 public class OpenPiscesPrismUtils {
-    private static final Renderer savedAARenderer = new Renderer(3, 3);
-    private static final Renderer savedRenderer = new Renderer(0, 0);
-    private static final Stroker savedStroker = new Stroker(savedRenderer);
-    private static final Dasher savedDasher = new Dasher(savedStroker);
+    /*
+     * The renderers and filters are reused from one shape to the next.
+     * Every thread gets its own set so that the software pipeline can
+     * rasterize several tiles concurrently.
+     */
+    private static final class SavedState {
+        final Renderer savedAARenderer = new Renderer(3, 3);
+        final Renderer savedRenderer = new Renderer(0, 0);
+        final Stroker savedStroker = new Stroker(savedRenderer);
+        final Dasher savedDasher = new Dasher(savedStroker);
+        final TransformingPathConsumer2D.FilterSet transformer =
+            new TransformingPathConsumer2D.FilterSet();
+    }
 
-    private static TransformingPathConsumer2D.FilterSet transformer =
-        new TransformingPathConsumer2D.FilterSet();
+    private static final ThreadLocal<SavedState> savedState =
+        ThreadLocal.withInitial(SavedState::new);
 
-    private static PathConsumer2D initRenderer(BasicStroke stroke,
+    private static PathConsumer2D initRenderer(SavedState state,
+                                               BasicStroke stroke,
                                                BaseTransform tx,
                                                Rectangle clip,
                                                int pirule,
@@ -56,16 +66,16 @@ public class OpenPiscesPrismUtils {
         int oprule = (stroke == null && pirule == PathIterator.WIND_EVEN_ODD) ?
             Renderer.WIND_EVEN_ODD : Renderer.WIND_NON_ZERO;
         renderer.reset(clip.x, clip.y, clip.width, clip.height, oprule);
-        PathConsumer2D ret = transformer.getConsumer(renderer, tx);
+        PathConsumer2D ret = state.transformer.getConsumer(renderer, tx);
         if (stroke != null) {
-            savedStroker.reset(stroke.getLineWidth(), stroke.getEndCap(),
-                               stroke.getLineJoin(), stroke.getMiterLimit());
-            savedStroker.setConsumer(ret);
-            ret = savedStroker;
+            state.savedStroker.reset(stroke.getLineWidth(), stroke.getEndCap(),
+                                     stroke.getLineJoin(), stroke.getMiterLimit());
+            state.savedStroker.setConsumer(ret);
+            ret = state.savedStroker;
             float dashes[] = stroke.getDashArray();
             if (dashes != null) {
-                savedDasher.reset(dashes, stroke.getDashPhase());
-                ret = savedDasher;
+                state.savedDasher.reset(dashes, stroke.getDashPhase());
+                ret = state.savedDasher;
             }
         }
         return ret;
@@ -107,8 +117,9 @@ public class OpenPiscesPrismUtils {
                                   boolean antialiasedShape)
     {
         PathIterator pi = shape.getPathIterator(null);
-        Renderer r = antialiasedShape ? savedAARenderer : savedRenderer;
-        feedConsumer(pi, initRenderer(stroke, xform, rclip, pi.getWindingRule(), r));
+        SavedState state = savedState.get();
+        Renderer r = antialiasedShape ? state.savedAARenderer : state.savedRenderer;
+        feedConsumer(pi, initRenderer(state, stroke, xform, rclip, pi.getWindingRule(), r));
         return r;
     }
 
@@ -118,8 +129,9 @@ public class OpenPiscesPrismUtils {
                                   Rectangle rclip,
                                   boolean antialiasedShape)
     {
-        Renderer r = antialiasedShape ? savedAARenderer : savedRenderer;
-        PathConsumer2D pc2d = initRenderer(stroke, xform, rclip, p2d.getWindingRule(), r);
+        SavedState state = savedState.get();
+        Renderer r = antialiasedShape ? state.savedAARenderer : state.savedRenderer;
+        PathConsumer2D pc2d = initRenderer(state, stroke, xform, rclip, p2d.getWindingRule(), r);
 
         float coords[] = p2d.getFloatCoordsNoClone();
         byte types[] = p2d.getCommandsNoClone();
@@ -0,0 +1,567 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.prism.impl.shape;
+
+import com.sun.javafx.geom.Path2D;
+import com.sun.javafx.geom.PathConsumer2D;
+import com.sun.javafx.geom.PathIterator;
+import com.sun.javafx.geom.RectBounds;
+import com.sun.javafx.geom.Shape;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.openpisces.Dasher;
+import com.sun.openpisces.Stroker;
+import com.sun.openpisces.TransformingPathConsumer2D;
+import com.sun.prism.BasicStroke;
+import com.sun.prism.impl.PrismSettings;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A scanline rasterizer that does not allocate once it has warmed up.
+ * <p>
+ * Edges are kept in flat primitive arrays and bucketed by the first
+ * sample row they cross. The active edge table is an array of edge
+ * indices kept sorted on x with an insertion sort, which is linear for
+ * the nearly sorted lists produced from one sample row to the next.
+ * Coverage is accumulated in a single delta row and resolved into the
+ * mask once per pixel row. Curves are flattened directly into the edge
+ * list and strokes are widened by the (reused) OpenPisces stroker.
+ * <p>
+ * All the working storage, including the returned {@code MaskData}, is
+ * owned by the calling thread and grown on demand, so the mask is only
+ * valid until the next call made on the same thread.
+ */
+public class ScanlineRasterizer implements ShapeRasterizer {
+    private static final MaskData emptyData = MaskData.create(new byte[1], 0, 0, 1, 1);
+
+    private static final ThreadLocal<Renderer> savedRenderer =
+        ThreadLocal.withInitial(Renderer::new);
+
+    @Override
+    public MaskData getMaskData(Shape shape,
+                                BasicStroke stroke,
+                                RectBounds xformBounds,
+                                BaseTransform xform,
+                                boolean close, boolean antialiasedShape)
+    {
+        if (stroke != null && stroke.getType() != BasicStroke.TYPE_CENTERED) {
+            // See OpenPiscesRasterizer (RT-27427)
+            shape = stroke.createStrokedShape(shape);
+            stroke = null;
+        }
+        if (xformBounds == null) {
+            if (stroke != null) {
+                shape = stroke.createStrokedShape(shape);
+                stroke = null;
+            }
+            xformBounds = new RectBounds();
+            xformBounds = (RectBounds) xform.transform(shape.getBounds(), xformBounds);
+        }
+        // Same rounding as new Rectangle(xformBounds)
+        int x0 = (int) Math.floor(xformBounds.getMinX());
+        int y0 = (int) Math.floor(xformBounds.getMinY());
+        int x1 = (int) Math.ceil(xformBounds.getMaxX());
+        int y1 = (int) Math.ceil(xformBounds.getMaxY());
+        if (x1 <= x0 || y1 <= y0) {
+            return emptyData;
+        }
+
+        Renderer r = savedRenderer.get();
+        PathConsumer2D pc2d;
+        if (shape instanceof Path2D) {
+            Path2D p2d = (Path2D) shape;
+            pc2d = r.init(x0, y0, x1, y1, antialiasedShape,
+                          stroke, xform, p2d.getWindingRule());
+            feedPath(p2d, pc2d);
+        } else {
+            PathIterator pi = shape.getPathIterator(null);
+            pc2d = r.init(x0, y0, x1, y1, antialiasedShape,
+                          stroke, xform, pi.getWindingRule());
+            feedIterator(pi, pc2d, r.coords);
+        }
+        return r.produceMask() ? r.maskData : emptyData;
+    }
+
+    private static void feedPath(Path2D p2d, PathConsumer2D pc2d) {
+        float coords[] = p2d.getFloatCoordsNoClone();
+        byte types[] = p2d.getCommandsNoClone();
+        int nsegs = p2d.getNumCommands();
+        int coff = 0;
+        for (int i = 0; i < nsegs; i++) {
+            switch (types[i]) {
+                case PathIterator.SEG_MOVETO:
+                    pc2d.moveTo(coords[coff+0], coords[coff+1]);
+                    coff += 2;
+                    break;
+                case PathIterator.SEG_LINETO:
+                    pc2d.lineTo(coords[coff+0], coords[coff+1]);
+                    coff += 2;
+                    break;
+                case PathIterator.SEG_QUADTO:
+                    pc2d.quadTo(coords[coff+0], coords[coff+1],
+                                coords[coff+2], coords[coff+3]);
+                    coff += 4;
+                    break;
+                case PathIterator.SEG_CUBICTO:
+                    pc2d.curveTo(coords[coff+0], coords[coff+1],
+                                 coords[coff+2], coords[coff+3],
+                                 coords[coff+4], coords[coff+5]);
+                    coff += 6;
+                    break;
+                case PathIterator.SEG_CLOSE:
+                    pc2d.closePath();
+                    break;
+            }
+        }
+        pc2d.pathDone();
+    }
+
+    private static void feedIterator(PathIterator pi, PathConsumer2D pc2d, float coords[]) {
+        while (!pi.isDone()) {
+            switch (pi.currentSegment(coords)) {
+                case PathIterator.SEG_MOVETO:
+                    pc2d.moveTo(coords[0], coords[1]);
+                    break;
+                case PathIterator.SEG_LINETO:
+                    pc2d.lineTo(coords[0], coords[1]);
+                    break;
+                case PathIterator.SEG_QUADTO:
+                    pc2d.quadTo(coords[0], coords[1],
+                                coords[2], coords[3]);
+                    break;
+                case PathIterator.SEG_CUBICTO:
+                    pc2d.curveTo(coords[0], coords[1],
+                                 coords[2], coords[3],
+                                 coords[4], coords[5]);
+                    break;
+                case PathIterator.SEG_CLOSE:
+                    pc2d.closePath();
+                    break;
+            }
+            pi.next();
+        }
+        pc2d.pathDone();
+    }
+
+    /**
+     * The per-thread edge list, active edge table, coverage accumulator
+     * and mask storage.
+     */
+    static final class Renderer implements PathConsumer2D {
+        private static final int AA_LG = 3;
+        private static final byte AA_ALPHA_MAP[] = createAlphaMap(1 << (AA_LG + AA_LG));
+        private static final byte BW_ALPHA_MAP[] = createAlphaMap(1);
+
+        // Maximum pixel deviation of a flattened curve from the real one
+        private static final float FLATNESS = 0.1f;
+        private static final int MAX_CURVE_SEGMENTS = 1024;
+
+        private static byte[] createAlphaMap(int maxalpha) {
+            byte map[] = new byte[maxalpha+1];
+            for (int i = 0; i <= maxalpha; i++) {
+                map[i] = (byte) ((i*255 + maxalpha/2)/maxalpha);
+            }
+            return map;
+        }
+
+        final float coords[] = new float[6];
+        final MaskData maskData = new MaskData();
+
+        private final Stroker stroker = new Stroker(this);
+        private final Dasher dasher = new Dasher(stroker);
+        private final TransformingPathConsumer2D.FilterSet transformer =
+            new TransformingPathConsumer2D.FilterSet();
+
+        // Sampling configuration
+        private int lgSub, sub, subMask;
+        private byte alphaMap[];
+        private boolean evenOdd;
+
+        // Clip, in pixels and in sample rows / columns
+        private int clipX0, clipY0, clipX1, clipY1;
+        private int rowClip0, rowClip1;
+
+        // Edges: x at the current sample row and slope, both in
+        // subpixels, and the last (exclusive) sample row and direction
+        private float edgeX[] = new float[64];
+        private float edgeSlope[] = new float[64];
+        private int edgeYMax[] = new int[64];
+        private int edgeDir[] = new int[64];
+        private int edgeNext[] = new int[64];
+        private int numEdges;
+        private float edgeMinX, edgeMaxX;
+        private int rowMin, rowMax;
+
+        // First edge starting on each sample row, relative to rowClip0
+        private int buckets[] = new int[256];
+
+        // Indices of the edges crossing the current sample row, sorted on x
+        private int active[] = new int[64];
+
+        // Per pixel coverage deltas for the current pixel row
+        private int accum[] = new int[64];
+
+        private byte mask[] = new byte[4096];
+        private ByteBuffer maskBuffer = ByteBuffer.wrap(mask);
+
+        // Current and sub-path start points, in pixels
+        private float curX, curY, movX, movY;
+
+        PathConsumer2D init(int x0, int y0, int x1, int y1, boolean antialiased,
+                            BasicStroke stroke, BaseTransform xform, int windingRule)
+        {
+            lgSub = antialiased ? AA_LG : 0;
+            sub = 1 << lgSub;
+            subMask = sub - 1;
+            alphaMap = antialiased ? AA_ALPHA_MAP : BW_ALPHA_MAP;
+            evenOdd = (stroke == null && windingRule == PathIterator.WIND_EVEN_ODD);
+
+            clipX0 = x0;
+            clipY0 = y0;
+            clipX1 = x1;
+            clipY1 = y1;
+            rowClip0 = y0 << lgSub;
+            rowClip1 = y1 << lgSub;
+            int rows = rowClip1 - rowClip0;
+            if (buckets.length < rows) {
+                buckets = new int[grow(buckets.length, rows)];
+            }
+            Arrays.fill(buckets, 0, rows, -1);
+
+            numEdges = 0;
+            edgeMinX = Float.POSITIVE_INFINITY;
+            edgeMaxX = Float.NEGATIVE_INFINITY;
+            rowMin = Integer.MAX_VALUE;
+            rowMax = Integer.MIN_VALUE;
+            curX = curY = movX = movY = 0f;
+
+            PathConsumer2D ret = transformer.getConsumer(this, xform);
+            if (stroke != null) {
+                stroker.reset(stroke.getLineWidth(), stroke.getEndCap(),
+                              stroke.getLineJoin(), stroke.getMiterLimit());
+                stroker.setConsumer(ret);
+                ret = stroker;
+                float dashes[] = stroke.getDashArray();
+                if (dashes != null) {
+                    dasher.reset(dashes, stroke.getDashPhase());
+                    ret = dasher;
+                }
+            }
+            return ret;
+        }
+
+        private static int grow(int cur, int needed) {
+            int len = Math.max(cur, 16);
+            while (len < needed) {
+                len = (len > (Integer.MAX_VALUE >> 1)) ? needed : len << 1;
+            }
+            return len;
+        }
+
+        private void addEdge(float x0, float y0, float x1, float y1) {
+            float sy0 = y0 * sub;
+            float sy1 = y1 * sub;
+            if (sy0 == sy1) {
+                return;
+            }
+            int dir = 1;
+            if (sy0 > sy1) {
+                float t = sy0; sy0 = sy1; sy1 = t;
+                t = x0; x0 = x1; x1 = t;
+                dir = -1;
+            }
+            // Sample rows are crossed at their centers
+            int first = Math.max((int) Math.ceil(sy0 - 0.5f), rowClip0);
+            int last = Math.min((int) Math.ceil(sy1 - 0.5f), rowClip1);
+            if (first >= last) {
+                return;
+            }
+            float sx0 = x0 * sub;
+            float sx1 = x1 * sub;
+            float slope = (sx1 - sx0) / (sy1 - sy0);
+
+            int e = numEdges;
+            if (e == edgeX.length) {
+                int len = grow(e, e + 1);
+                edgeX = Arrays.copyOf(edgeX, len);
+                edgeSlope = Arrays.copyOf(edgeSlope, len);
+                edgeYMax = Arrays.copyOf(edgeYMax, len);
+                edgeDir = Arrays.copyOf(edgeDir, len);
+                edgeNext = Arrays.copyOf(edgeNext, len);
+            }
+            edgeX[e] = sx0 + (first + 0.5f - sy0) * slope;
+            edgeSlope[e] = slope;
+            edgeYMax[e] = last;
+            edgeDir[e] = dir;
+            int b = first - rowClip0;
+            edgeNext[e] = buckets[b];
+            buckets[b] = e;
+            numEdges = e + 1;
+
+            if (sx0 < sx1) {
+                if (sx0 < edgeMinX) edgeMinX = sx0;
+                if (sx1 > edgeMaxX) edgeMaxX = sx1;
+            } else {
+                if (sx1 < edgeMinX) edgeMinX = sx1;
+                if (sx0 > edgeMaxX) edgeMaxX = sx0;
+            }
+            if (first < rowMin) rowMin = first;
+            if (last > rowMax) rowMax = last;
+        }
+
+        /**
+         * Scan converts the edges collected since the last call to
+         * {@code init} into {@link #maskData}.
+         *
+         * @return false if the shape does not cover any pixel
+         */
+        boolean produceMask() {
+            if (numEdges == 0) {
+                return false;
+            }
+            final int lg = lgSub;
+            final int sub = this.sub;
+            final int subMask = this.subMask;
+
+            int outX0 = Math.max(clipX0, (int) Math.floor(edgeMinX / sub - 0.5f));
+            int outX1 = Math.min(clipX1, (int) Math.ceil(edgeMaxX / sub + 0.5f));
+            int outY0 = rowMin >> lg;
+            int outY1 = (rowMax + subMask) >> lg;
+            int w = outX1 - outX0;
+            int h = outY1 - outY0;
+            if (w <= 0 || h <= 0) {
+                return false;
+            }
+            if (mask.length < w * h) {
+                int csize = (w * h + 0xfff) & (~0xfff);
+                mask = new byte[csize];
+                maskBuffer = ByteBuffer.wrap(mask);
+                if (PrismSettings.verbose) {
+                    System.out.println("new alphas");
+                }
+            }
+            if (accum.length < w + 2) {
+                accum = new int[grow(accum.length, w + 2)];
+            } else {
+                Arrays.fill(accum, 0, w + 2, 0);
+            }
+            if (active.length < numEdges) {
+                active = new int[grow(active.length, numEdges)];
+            }
+
+            final float edgeX[] = this.edgeX;
+            final float edgeSlope[] = this.edgeSlope;
+            final int edgeYMax[] = this.edgeYMax;
+            final int edgeDir[] = this.edgeDir;
+            final int edgeNext[] = this.edgeNext;
+            final int buckets[] = this.buckets;
+            final int active[] = this.active;
+            final int accum[] = this.accum;
+            final byte mask[] = this.mask;
+            final byte alphaMap[] = this.alphaMap;
+            final int windMask = evenOdd ? 1 : -1;
+
+            final int bx0 = outX0 << lg;
+            final int bx1 = outX1 << lg;
+            int numActive = 0;
+            int pixMin = Integer.MAX_VALUE;
+            int pixMax = Integer.MIN_VALUE;
+
+            for (int row = rowMin; row < rowMax; row++) {
+                // Drop the edges that ended on the previous row
+                int n = 0;
+                for (int i = 0; i < numActive; i++) {
+                    int e = active[i];
+                    if (edgeYMax[e] > row) {
+                        active[n++] = e;
+                    }
+                }
+                // Add the edges starting on this row
+                for (int e = buckets[row - rowClip0]; e >= 0; e = edgeNext[e]) {
+                    active[n++] = e;
+                }
+                numActive = n;
+                // Insertion sort on x
+                for (int i = 1; i < numActive; i++) {
+                    int e = active[i];
+                    float x = edgeX[e];
+                    int j = i - 1;
+                    while (j >= 0 && edgeX[active[j]] > x) {
+                        active[j+1] = active[j];
+                        j--;
+                    }
+                    active[j+1] = e;
+                }
+
+                // Accumulate the spans with a non-zero winding
+                int wind = 0;
+                int spanStart = 0;
+                for (int i = 0; i < numActive; i++) {
+                    int e = active[i];
+                    int sx = (int) Math.ceil(edgeX[e] - 0.5f);
+                    if (sx < bx0) {
+                        sx = bx0;
+                    } else if (sx > bx1) {
+                        sx = bx1;
+                    }
+                    int prev = wind & windMask;
+                    wind += edgeDir[e];
+                    if ((wind & windMask) != 0) {
+                        if (prev == 0) {
+                            spanStart = sx;
+                        }
+                    } else if (prev != 0 && sx > spanStart) {
+                        int xa = spanStart - bx0;
+                        int xb = sx - bx0;
+                        int px = xa >> lg;
+                        int pxm = (xb - 1) >> lg;
+                        if (px == pxm) {
+                            accum[px] += xb - xa;
+                            accum[px+1] -= xb - xa;
+                        } else {
+                            pxm = xb >> lg;
+                            accum[px] += sub - (xa & subMask);
+                            accum[px+1] += (xa & subMask);
+                            accum[pxm] -= sub - (xb & subMask);
+                            accum[pxm+1] -= (xb & subMask);
+                        }
+                        if (px < pixMin) pixMin = px;
+                        if (pxm > pixMax) pixMax = pxm;
+                    }
+                    edgeX[e] += edgeSlope[e];
+                }
+
+                if ((row & subMask) == subMask || row == rowMax - 1) {
+                    int off = ((row >> lg) - outY0) * w;
+                    if (pixMin > pixMax) {
+                        Arrays.fill(mask, off, off + w, (byte) 0);
+                    } else {
+                        if (pixMin > 0) {
+                            Arrays.fill(mask, off, off + pixMin, (byte) 0);
+                        }
+                        int end = Math.min(pixMax + 1, w);
+                        int a = 0;
+                        for (int i = pixMin; i < end; i++) {
+                            a += accum[i];
+                            accum[i] = 0;
+                            mask[off + i] = alphaMap[a];
+                        }
+                        Arrays.fill(accum, end, pixMax + 2, 0);
+                        if (end < w) {
+                            Arrays.fill(mask, off + end, off + w, (byte) 0);
+                        }
+                        pixMin = Integer.MAX_VALUE;
+                        pixMax = Integer.MIN_VALUE;
+                    }
+                }
+            }
+            maskData.update(maskBuffer, outX0, outY0, w, h);
+            return true;
+        }
+
+        private void addCurve(int degree,
+                              float x1, float y1, float x2, float y2,
+                              float x3, float y3)
+        {
+            float x0 = curX, y0 = curY;
+            // Wang's formula on the second differences of the control polygon
+            float dd;
+            if (degree == 2) {
+                dd = 0.25f * Math.max(Math.abs(x0 - 2f * x1 + x2), Math.abs(y0 - 2f * y1 + y2));
+            } else {
+                dd = 0.75f * Math.max(Math.max(Math.abs(x0 - 2f * x1 + x2), Math.abs(y0 - 2f * y1 + y2)),
+                                      Math.max(Math.abs(x1 - 2f * x2 + x3), Math.abs(y1 - 2f * y2 + y3)));
+            }
+            int n = (int) Math.ceil(Math.sqrt(dd / FLATNESS));
+            if (n < 1) {
+                n = 1;
+            } else if (n > MAX_CURVE_SEGMENTS) {
+                n = MAX_CURVE_SEGMENTS;
+            }
+            float px = x0, py = y0;
+            for (int i = 1; i < n; i++) {
+                float t = (float) i / n;
+                float u = 1f - t;
+                float nx, ny;
+                if (degree == 2) {
+                    float a = u * u, b = 2f * u * t, c = t * t;
+                    nx = a * x0 + b * x1 + c * x2;
+                    ny = a * y0 + b * y1 + c * y2;
+                } else {
+                    float a = u * u * u, b = 3f * u * u * t, c = 3f * u * t * t, d = t * t * t;
+                    nx = a * x0 + b * x1 + c * x2 + d * x3;
+                    ny = a * y0 + b * y1 + c * y2 + d * y3;
+                }
+                addEdge(px, py, nx, ny);
+                px = nx;
+                py = ny;
+            }
+            float ex = (degree == 2) ? x2 : x3;
+            float ey = (degree == 2) ? y2 : y3;
+            addEdge(px, py, ex, ey);
+            curX = ex;
+            curY = ey;
+        }
+
+        @Override
+        public void moveTo(float x0, float y0) {
+            closePath();
+            curX = movX = x0;
+            curY = movY = y0;
+        }
+
+        @Override
+        public void lineTo(float x1, float y1) {
+            addEdge(curX, curY, x1, y1);
+            curX = x1;
+            curY = y1;
+        }
+
+        @Override
+        public void quadTo(float xc, float yc, float x1, float y1) {
+            addCurve(2, xc, yc, x1, y1, 0f, 0f);
+        }
+
+        @Override
+        public void curveTo(float xc0, float yc0, float xc1, float yc1,
+                            float x1, float y1)
+        {
+            addCurve(3, xc0, yc0, xc1, yc1, x1, y1);
+        }
+
+        @Override
+        public void closePath() {
+            addEdge(curX, curY, movX, movY);
+            curX = movX;
+            curY = movY;
+        }
+
+        @Override
+        public void pathDone() {
+            closePath();
+        }
+    }
+}
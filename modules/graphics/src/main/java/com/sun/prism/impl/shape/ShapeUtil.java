@@ -35,7 +35,9 @@ public class ShapeUtil {
 
     private static final ShapeRasterizer shapeRasterizer;
     static {
-        if (PrismSettings.doNativePisces) {
+        if (PrismSettings.doScanlineRasterizer) {
+            shapeRasterizer = new ScanlineRasterizer();
+        } else if (PrismSettings.doNativePisces) {
             shapeRasterizer = new NativePiscesRasterizer();
         } else {
             shapeRasterizer = new OpenPiscesRasterizer();
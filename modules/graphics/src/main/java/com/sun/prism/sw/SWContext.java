@@ -122,8 +122,17 @@ final class SWContext {
     }
 
     SWContext(ResourceFactory factory) {
+        this(factory, PrismSettings.doNativePisces);
+    }
+
+    /**
+     * Creates a context rasterizing shapes with the native or the Java
+     * version of Pisces. Only the latter may be used by several contexts
+     * concurrently, since the native rasterizer keeps a global state.
+     */
+    SWContext(ResourceFactory factory, boolean nativePisces) {
         this.factory = factory;
-        this.shapeRenderer = (PrismSettings.doNativePisces) ? new NativeShapeRenderer() : new JavaShapeRenderer();
+        this.shapeRenderer = nativePisces ? new NativeShapeRenderer() : new JavaShapeRenderer();
     }
 
     void renderShape(PiscesRenderer pr, Shape shape, BasicStroke stroke, BaseTransform tr, Rectangle clip, boolean antialiasedShape) {
@@ -61,6 +61,8 @@ import com.sun.prism.paint.Color;
 import com.sun.prism.paint.ImagePattern;
 import com.sun.prism.paint.Paint;
 
+import java.util.Arrays;
+
 final class SWGraphics implements ReadbackGraphics {
 
     private static final BasicStroke DEFAULT_STROKE =
@@ -74,6 +76,9 @@ final class SWGraphics implements ReadbackGraphics {
 
     private final BaseTransform tx = new Affine2D();
 
+    private final SWTileRenderer tileRenderer;
+    private final Rectangle tileBounds;
+
     private CompositeMode compositeMode = CompositeMode.SRC_OVER;
 
     private Rectangle clip;
@@ -104,10 +109,26 @@ final class SWGraphics implements ReadbackGraphics {
     }
 
     public SWGraphics(SWRTTexture target, SWContext context, PiscesRenderer pr) {
+        this(target, context, pr, target.getTileRenderer(), null);
+    }
+
+    /**
+     * Creates a graphics used by {@code SWTileRenderer} to replay recorded
+     * operations. All the rendering is confined to the given tile.
+     */
+    SWGraphics(SWRTTexture target, SWContext context, PiscesRenderer pr, Rectangle tileBounds) {
+        this(target, context, pr, null, tileBounds);
+    }
+
+    private SWGraphics(SWRTTexture target, SWContext context, PiscesRenderer pr,
+                       SWTileRenderer tileRenderer, Rectangle tileBounds)
+    {
         this.target = target;
         this.context = context;
         this.pr = pr;
         this.swPaint = new SWPaint(context, pr);
+        this.tileRenderer = tileRenderer;
+        this.tileBounds = tileBounds;
 
         this.setClipRect(null);
     }
@@ -241,6 +262,9 @@ final class SWGraphics implements ReadbackGraphics {
 
     public void setClipRect(Rectangle clipRect) {
         finalClip.setBounds(target.getDimensions());
+        if (tileBounds != null) {
+            finalClip.intersectWith(tileBounds);
+        }
         if (clipRect == null) {
             if (PrismSettings.debug) {
                 System.out.println("+ PR.resetClip");
@@ -358,6 +382,13 @@ final class SWGraphics implements ReadbackGraphics {
         if (PrismSettings.debug) {
             System.out.println("+ PR.clear: " + color);
         }
+        if (tileRenderer != null) {
+            tileRenderer.record(captureState(), g -> g.clear(color),
+                                finalClip.x, finalClip.y,
+                                finalClip.x + finalClip.width, finalClip.y + finalClip.height);
+            getRenderTarget().setOpaque(color.isOpaque());
+            return;
+        }
         this.swPaint.setColor(color, 1f);
         pr.clearRect(0, 0, target.getPhysicalWidth(), target.getPhysicalHeight());
         getRenderTarget().setOpaque(color.isOpaque());
@@ -398,6 +429,13 @@ final class SWGraphics implements ReadbackGraphics {
         if (PrismSettings.debug) {
             System.out.printf("+ SWG.fillRect, x: %f, y: %f, w: %f, h: %f\n", x, y, width, height);
         }
+        if (isRecording()) {
+            final RectBounds bounds = new RectBounds(x, y, x + width, y + height);
+            tx.transform(bounds, bounds);
+            record(g -> g.fillRect(x, y, width, height),
+                   bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY());
+            return;
+        }
         if (tx.getMxy() == 0 && tx.getMyx() == 0) {
             if (PrismSettings.debug) {
                 System.out.println("GR: " + this);
@@ -483,6 +521,22 @@ final class SWGraphics implements ReadbackGraphics {
             }
             return;
         }
+        if (isRecording()) {
+            // the shape and the stroke may be reused by the caller
+            final Shape s = shape.copy();
+            final BasicStroke stroke = (st == null) ? null : st.copy();
+            final float bbox[] = {
+                Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY,
+                Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY,
+            };
+            if (stroke == null) {
+                Shape.accumulate(bbox, s, tr);
+            } else {
+                stroke.accumulateShapeBounds(bbox, s, tr);
+            }
+            record(g -> g.paintShape(s, stroke, g.tx), bbox[0], bbox[1], bbox[2], bbox[3]);
+            return;
+        }
         swPaint.setPaintFromShape(this.paint, this.tx, shape, this.nodeBounds, 0,0,0,0);
         this.paintShapePaintAlreadySet(shape, st, tr);
     }
@@ -606,6 +660,12 @@ final class SWGraphics implements ReadbackGraphics {
             glyphTx = new Affine2D();
         }
 
+        if (isRecording()) {
+            recordString(gl, strike, x, y, selectColor, selectStart, selectEnd,
+                         bx, by, bw, bh, drawAsMasks, doLCDText);
+            return;
+        }
+
         if (selectColor == null) {
             swPaint.setPaintBeforeDraw(this.paint, this.tx, bx, by, bw, bh);
             for (int i = 0; i < gl.getGlyphCount(); i++) {
@@ -654,6 +714,141 @@ final class SWGraphics implements ReadbackGraphics {
         }
     }
 
+    /**
+     * Resolves the glyphs of the given list on the calling thread, since
+     * neither the strikes nor the glyphs can be accessed concurrently, and
+     * records the masks and outlines to be replayed by the tiles.
+     */
+    private void recordString(GlyphList gl, FontStrike strike, float x, float y,
+                              Color selectColor, int selectStart, int selectEnd,
+                              float bx, float by, float bw, float bh,
+                              boolean drawAsMasks, boolean doLCDText)
+    {
+        final int count = gl.getGlyphCount();
+        final RecordedGlyph glyphs[] = new RecordedGlyph[count];
+        final float bbox[] = {
+            Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY,
+            Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY,
+        };
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            final Glyph g = strike.getGlyph(gl.getGlyphCode(i));
+            final RecordedGlyph rg = new RecordedGlyph();
+            if (selectColor != null) {
+                final int offset = gl.getCharOffset(i);
+                rg.selected = selectStart <= offset && offset < selectEnd;
+            }
+            if (drawAsMasks) {
+                final Point2D pt = new Point2D((float)(x + tx.getMxt() + gl.getPosX(i)),
+                                               (float)(y + tx.getMyt() + gl.getPosY(i)));
+                final int subPixel = strike.getQuantizedPosition(pt);
+                rg.mask = g.getPixelData(subPixel);
+                if (rg.mask == null) {
+                    continue;
+                }
+                rg.x = g.getOriginX() + (int)pt.x;
+                rg.y = g.getOriginY() + (int)pt.y;
+                rg.width = g.getWidth();
+                rg.height = g.getHeight();
+                rg.lcd = g.isLCDGlyph();
+                bbox[0] = Math.min(bbox[0], rg.x);
+                bbox[1] = Math.min(bbox[1], rg.y);
+                bbox[2] = Math.max(bbox[2], rg.x + rg.width);
+                bbox[3] = Math.max(bbox[3], rg.y + rg.height);
+            } else {
+                rg.shape = g.getShape();
+                if (rg.shape == null) {
+                    continue;
+                }
+                rg.shapeTx = new Affine2D(tx);
+                rg.shapeTx.deriveWithTranslation(x + gl.getPosX(i), y + gl.getPosY(i));
+                Shape.accumulate(bbox, rg.shape, rg.shapeTx);
+            }
+            glyphs[n++] = rg;
+        }
+        if (n == 0) {
+            return;
+        }
+        final RecordedGlyph recorded[] = (n == count) ? glyphs : Arrays.copyOf(glyphs, n);
+        record(g -> g.renderGlyphs(recorded, selectColor, bx, by, bw, bh, doLCDText),
+               bbox[0], bbox[1], bbox[2], bbox[3]);
+    }
+
+    private void renderGlyphs(RecordedGlyph glyphs[], Color selectColor,
+                              float bx, float by, float bw, float bh,
+                              boolean doLCDText)
+    {
+        if (doLCDText) {
+            this.pr.setLCDGammaCorrection(1f / PrismFontFactory.getLCDContrast());
+        }
+        Paint current = null;
+        for (RecordedGlyph rg : glyphs) {
+            final Paint p = rg.selected ? selectColor : this.paint;
+            if (p != current) {
+                swPaint.setPaintBeforeDraw(p, this.tx, bx, by, bw, bh);
+                current = p;
+            }
+            if (rg.mask == null) {
+                this.paintShapePaintAlreadySet(rg.shape, null, rg.shapeTx);
+            } else if (rg.lcd) {
+                this.pr.fillLCDAlphaMask(rg.mask, rg.x, rg.y, rg.width, rg.height, 0, rg.width);
+            } else {
+                this.pr.fillAlphaMask(rg.mask, rg.x, rg.y, rg.width, rg.height, 0, rg.width);
+            }
+        }
+    }
+
+    private static final class RecordedGlyph {
+        byte mask[];
+        int x, y, width, height;
+        boolean lcd;
+        Shape shape;
+        BaseTransform shapeTx;
+        boolean selected;
+    }
+
+    /**
+     * Returns true if the drawing operations must be recorded for
+     * {@code SWTileRenderer} rather than rendered right away. Image
+     * patterns are always rendered on the calling thread, after flushing
+     * the pending operations, to avoid uploading the image on every tile.
+     */
+    private boolean isRecording() {
+        if (tileRenderer == null) {
+            return false;
+        }
+        if (paint.getType() == Paint.Type.IMAGE_PATTERN) {
+            tileRenderer.flush();
+            return false;
+        }
+        return true;
+    }
+
+    private void record(SWTileRenderer.Op op, float x0, float y0, float x1, float y1) {
+        // pad by one pixel to account for antialiasing
+        final int ix0 = Math.max(finalClip.x, (int) Math.floor(x0) - 1);
+        final int iy0 = Math.max(finalClip.y, (int) Math.floor(y0) - 1);
+        final int ix1 = Math.min(finalClip.x + finalClip.width, (int) Math.ceil(x1) + 1);
+        final int iy1 = Math.min(finalClip.y + finalClip.height, (int) Math.ceil(y1) + 1);
+        tileRenderer.record(captureState(), op, ix0, iy0, ix1, iy1);
+    }
+
+    private SWTileRenderer.State captureState() {
+        return new SWTileRenderer.State(new Affine2D(tx), clip, paint, compositeMode,
+                                        getExtraAlpha(), antialiasedShape,
+                                        (nodeBounds == null) ? null : new RectBounds(nodeBounds));
+    }
+
+    void restoreState(SWTileRenderer.State state) {
+        setTransform(state.tx);
+        setClipRect(state.clip);
+        setPaint(state.paint);
+        setCompositeMode(state.compositeMode);
+        setExtraAlpha(state.extraAlpha);
+        setAntialiasedShape(state.antialiasedShape);
+        setNodeBounds(state.nodeBounds);
+    }
+
     public void drawTexture(Texture tex, float x, float y, float w, float h) {
         if (PrismSettings.debug) {
             System.out.printf("+ drawTexture1, x: %f, y: %f, w: %f, h: %f\n", x, y, w, h);
@@ -689,6 +884,10 @@ final class SWGraphics implements ReadbackGraphics {
                             float dx1, float dy1, float dx2, float dy2,
                             float sx1, float sy1, float sx2, float sy2,
                             int lEdge, int rEdge, int tEdge, int bEdge) {
+        if (tileRenderer != null) {
+            // the texture may be modified once this call returns
+            tileRenderer.flush();
+        }
         if (PrismSettings.debug) {
             System.out.println("+ drawTexture: " + tex + ", imageMode: " + imageMode +
                     ", tex.w: " + tex.getPhysicalWidth() + ", tex.h: " + tex.getPhysicalHeight() +
@@ -905,6 +1104,9 @@ final class SWGraphics implements ReadbackGraphics {
             return rbb;
         }
 
+        if (tileRenderer != null) {
+            tileRenderer.flush();
+        }
         final int pixels[] = rbb.getDataNoClone();
         this.target.getSurface().getRGB(pixels, 0, rbb.getPhysicalWidth(), view.x, view.y, w, h);
         return rbb;
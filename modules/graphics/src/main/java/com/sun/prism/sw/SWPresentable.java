@@ -37,6 +37,7 @@ final class SWPresentable extends SWRTTexture implements Presentable {
     private final PresentableState pState;
     private Pixels pixels;
     private QueuedPixelSource pixelSource = new QueuedPixelSource(false);
+    private SWTileRenderer tileRenderer;
 
     public SWPresentable(PresentableState pState, SWResourceFactory factory) {
         super(factory, pState.getWidth(), pState.getHeight());
@@ -48,7 +49,16 @@ final class SWPresentable extends SWRTTexture implements Presentable {
                 getPhysicalHeight() != pState.getHeight());
     }
 
+    @Override
+    SWTileRenderer getTileRenderer() {
+        if (tileRenderer == null && SWTileRenderer.isEnabled()) {
+            tileRenderer = new SWTileRenderer(this);
+        }
+        return tileRenderer;
+    }
+
     public boolean prepare(Rectangle dirtyregion) {
+        flushTiles();
         if (!pState.isViewClosed()) {
             /*
              * RT-27374
@@ -89,4 +99,12 @@ final class SWPresentable extends SWRTTexture implements Presentable {
     @Override public boolean isMSAA() {
         return super.isMSAA();
     }
+
+    @Override public void dispose() {
+        if (tileRenderer != null) {
+            tileRenderer.dispose();
+            tileRenderer = null;
+        }
+        super.dispose();
+    }
 }
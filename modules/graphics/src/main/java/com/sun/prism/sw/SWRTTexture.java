@@ -56,8 +56,28 @@ class SWRTTexture extends SWArgbPreTexture implements RTTexture {
         return this.surface;
     }
 
+    /**
+     * Returns the renderer recording the operations issued on this texture
+     * to replay them tile by tile, or null if they are rendered right away.
+     */
+    SWTileRenderer getTileRenderer() {
+        return null;
+    }
+
+    /**
+     * Makes sure the pixels of this texture reflect all the operations
+     * issued on it so far.
+     */
+    void flushTiles() {
+        final SWTileRenderer tileRenderer = getTileRenderer();
+        if (tileRenderer != null) {
+            tileRenderer.flush();
+        }
+    }
+
     @Override
     public int[] getPixels() {
+        flushTiles();
         if (contentWidth == physicalWidth) {
             return getDataNoClone();
         } else {
@@ -80,6 +100,7 @@ class SWRTTexture extends SWArgbPreTexture implements RTTexture {
         if (PrismSettings.debug) {
             System.out.println("+ SWRTT.readPixels: this: " + this);
         }
+        flushTiles();
 
         final int pixbuf[] = getDataNoClone();
         pixels.clear();
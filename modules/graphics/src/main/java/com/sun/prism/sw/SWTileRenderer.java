@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.prism.sw;
+
+import com.sun.javafx.geom.RectBounds;
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.geom.transform.Affine2D;
+import com.sun.pisces.JavaSurface;
+import com.sun.pisces.PiscesRenderer;
+import com.sun.pisces.RendererBase;
+import com.sun.prism.CompositeMode;
+import com.sun.prism.impl.PrismSettings;
+import com.sun.prism.paint.Paint;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Records the drawing operations issued on an {@code SWRTTexture} and
+ * replays them in parallel, one task per screen tile. Every tile owns its
+ * own {@code PiscesRenderer}, {@code JavaSurface} and {@code SWContext}, all
+ * of them sharing the pixel array of the target texture. Since a tile only
+ * ever touches the pixels inside its bounds, and replays the operations in
+ * the order they were recorded, the result is identical to rendering the
+ * frame on a single thread.
+ *
+ * Operations that read pixels back (texture draws, blits, read backs, frame
+ * presentation) must call {@link #flush()} first.
+ */
+final class SWTileRenderer {
+
+    /**
+     * A single recorded drawing operation, replayed on the graphics of
+     * every tile its device bounds intersect.
+     */
+    interface Op {
+        void render(SWGraphics g);
+    }
+
+    /**
+     * The subset of the {@code SWGraphics} state that affects the pixels
+     * produced by a recorded operation.
+     */
+    static final class State {
+        final Affine2D tx;
+        final Rectangle clip;
+        final Paint paint;
+        final CompositeMode compositeMode;
+        final float extraAlpha;
+        final boolean antialiasedShape;
+        final RectBounds nodeBounds;
+
+        State(Affine2D tx, Rectangle clip, Paint paint, CompositeMode compositeMode,
+              float extraAlpha, boolean antialiasedShape, RectBounds nodeBounds)
+        {
+            this.tx = tx;
+            this.clip = clip;
+            this.paint = paint;
+            this.compositeMode = compositeMode;
+            this.extraAlpha = extraAlpha;
+            this.antialiasedShape = antialiasedShape;
+            this.nodeBounds = nodeBounds;
+        }
+
+        boolean isSameAs(State other) {
+            return other != null &&
+                   paint == other.paint &&
+                   compositeMode == other.compositeMode &&
+                   extraAlpha == other.extraAlpha &&
+                   antialiasedShape == other.antialiasedShape &&
+                   (nodeBounds == null ? other.nodeBounds == null : nodeBounds.equals(other.nodeBounds)) &&
+                   (clip == null ? other.clip == null : clip.equals(other.clip)) &&
+                   tx.equals(other.tx);
+        }
+    }
+
+    private static final class Entry {
+        final State state;
+        final Op op;
+        final int x0, y0, x1, y1;
+
+        Entry(State state, Op op, int x0, int y0, int x1, int y1) {
+            this.state = state;
+            this.op = op;
+            this.x0 = x0;
+            this.y0 = y0;
+            this.x1 = x1;
+            this.y1 = y1;
+        }
+    }
+
+    private final class Tile extends RecursiveAction {
+        final Rectangle bounds;
+        final SWContext context;
+        final SWGraphics graphics;
+
+        Tile(int x, int y, int w, int h) {
+            this.bounds = new Rectangle(x, y, w, h);
+            this.context = new SWContext(target.getResourceFactory(), false);
+            final JavaSurface surface = new JavaSurface(target.getDataNoClone(),
+                    RendererBase.TYPE_INT_ARGB_PRE,
+                    target.getPhysicalWidth(), target.getPhysicalHeight());
+            this.graphics = new SWGraphics(target, context, new PiscesRenderer(surface), bounds);
+        }
+
+        @Override protected void compute() {
+            final int bx0 = bounds.x;
+            final int by0 = bounds.y;
+            final int bx1 = bounds.x + bounds.width;
+            final int by1 = bounds.y + bounds.height;
+            State current = null;
+            for (int i = 0, n = entries.size(); i < n; i++) {
+                final Entry e = entries.get(i);
+                if (e.x1 <= bx0 || e.x0 >= bx1 || e.y1 <= by0 || e.y0 >= by1) {
+                    continue;
+                }
+                if (e.state != current) {
+                    current = e.state;
+                    graphics.restoreState(current);
+                }
+                e.op.render(graphics);
+            }
+        }
+    }
+
+    private static ForkJoinPool pool;
+
+    private static synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(PrismSettings.swTileThreads);
+        }
+        return pool;
+    }
+
+    static boolean isEnabled() {
+        return PrismSettings.swTileThreads > 1;
+    }
+
+    private final SWRTTexture target;
+    private final ArrayList<Entry> entries = new ArrayList<Entry>();
+    private State lastState;
+    private Tile[] tiles;
+
+    SWTileRenderer(SWRTTexture target) {
+        this.target = target;
+    }
+
+    /**
+     * Records {@code op} to be replayed with the given graphics state on
+     * the tiles intersecting the device space rectangle
+     * {@code [x0, x1) x [y0, y1)}.
+     */
+    void record(State state, Op op, int x0, int y0, int x1, int y1) {
+        if (x0 >= x1 || y0 >= y1) {
+            return;
+        }
+        if (state.isSameAs(lastState)) {
+            state = lastState;
+        } else {
+            lastState = state;
+        }
+        entries.add(new Entry(state, op, x0, y0, x1, y1));
+    }
+
+    /**
+     * Replays all the pending operations on the tiles and waits for them
+     * to complete.
+     */
+    void flush() {
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (PrismSettings.debug) {
+            System.out.println("+ SWTileRenderer.flush, ops: " + entries.size());
+        }
+        validateTiles();
+        try {
+            getPool().invoke(new RecursiveAction() {
+                @Override protected void compute() {
+                    ForkJoinTask.invokeAll(tiles);
+                }
+            });
+        } finally {
+            for (Tile t : tiles) {
+                t.reinitialize();
+            }
+            entries.clear();
+            lastState = null;
+        }
+    }
+
+    private void validateTiles() {
+        if (tiles != null) {
+            return;
+        }
+        final int w = target.getPhysicalWidth();
+        final int h = target.getPhysicalHeight();
+        final int size = Math.max(16, PrismSettings.swTileSize);
+        final int cols = (w + size - 1) / size;
+        final int rows = (h + size - 1) / size;
+        tiles = new Tile[cols * rows];
+        int i = 0;
+        for (int y = 0; y < h; y += size) {
+            for (int x = 0; x < w; x += size) {
+                tiles[i++] = new Tile(x, y, Math.min(size, w - x), Math.min(size, h - y));
+            }
+        }
+    }
+
+    /**
+     * Drops any pending operation and releases the resources held by the
+     * tiles.
+     */
+    void dispose() {
+        entries.clear();
+        lastState = null;
+        if (tiles != null) {
+            for (Tile t : tiles) {
+                t.context.dispose();
+            }
+            tiles = null;
+        }
+    }
+}
@@ -183,6 +183,116 @@ final class CssStyleHelper {
         return helper;
     }
 
+    /**
+     * Refreshes the StyleHelper of a node whose matching styles are known not
+     * to have changed, for example because an ancestor changed a style class
+     * that no selector uses to match descendants. This does what
+     * createStyleHelper does, except that the current StyleMap and trigger
+     * states are kept instead of being matched again.
+     */
+    static CssStyleHelper refreshStyleHelper(final Node node) {
+
+        final CssStyleHelper helper = node.styleHelper;
+
+        // No styles, or only inherited ones, nothing to refresh
+        if (helper == null || helper.cacheContainer == null) {
+            return helper;
+        }
+
+        final StyleMap styleMap = helper.getStyleMap(node);
+        if (styleMap == null) {
+            return createStyleHelper(node);
+        }
+
+        if ( canReuseStyleHelper(node, styleMap) ) {
+
+            // see createStyleHelper (RT-33080)
+            if (helper.isUserSetFont(node)) {
+                helper.cacheContainer.fontSizeCache.clear();
+            }
+            helper.cacheContainer.forceSlowpath = true;
+            return helper;
+        }
+
+        // The StyleMap of some parent has changed, so the shared cache of
+        // calculated values needs a new key.
+        int depth = 0;
+        Styleable parent = node;
+        while(parent != null) {
+            depth++;
+            parent = parent.getStyleableParent();
+        }
+
+        final CssStyleHelper newHelper = new CssStyleHelper();
+        newHelper.triggerStates.addAll(helper.triggerStates);
+        newHelper.cacheContainer = new CacheContainer(node, styleMap, depth);
+
+        helper.resetToInitialValues(node);
+
+        return newHelper;
+    }
+
+    /**
+     * Called when the StyleHelper of a node was recreated without matching
+     * the styles of its descendants again. The pseudo-class states that the
+     * descendants added to the old helper have to be carried over to the new
+     * one.
+     *
+     * @return false if the states could not be carried over, in which case
+     * the descendants need to be matched again
+     */
+    static boolean transferTriggerStates(final CssStyleHelper oldHelper, final CssStyleHelper newHelper) {
+        if (oldHelper == null || oldHelper == newHelper || oldHelper.triggerStates.isEmpty()) {
+            return true;
+        }
+        if (newHelper == null) {
+            return false;
+        }
+        newHelper.triggerStates.addAll(oldHelper.triggerStates);
+        return true;
+    }
+
+    /**
+     * Add the given pseudo-class states to the trigger states of the node's
+     * StyleHelper, creating the StyleHelper if necessary.
+     */
+    static void addTriggerStates(final Node node, final Set<PseudoClass> states) {
+        if (states == null || states.isEmpty()) {
+            return;
+        }
+        if (node.styleHelper == null) {
+            node.styleHelper = new CssStyleHelper();
+        }
+        node.styleHelper.triggerStates.addAll(states);
+    }
+
+    /**
+     * @return a copy of the trigger states of the node's StyleHelper, or
+     * null if the node does not have a StyleHelper
+     */
+    static Set<PseudoClass> getTriggerStates(final Node node) {
+        final CssStyleHelper helper = node.styleHelper;
+        if (helper == null || helper.triggerStates.isEmpty()) {
+            return null;
+        }
+        final PseudoClassState states = new PseudoClassState();
+        states.addAll(helper.triggerStates);
+        return states;
+    }
+
+    /**
+     * @return true if the font of the node, or of one of its parents, was
+     * set from code rather than from a stylesheet
+     */
+    static boolean hasUserSetFont(final Node node) {
+        for (Node n = node; n != null; n = n.getParent()) {
+            if (n.styleHelper != null) {
+                return n.styleHelper.isUserSetFont(n);
+            }
+        }
+        return false;
+    }
+
     private static void updateParentTriggerStates(Styleable styleable, int depth, PseudoClassState[] triggerStates) {
         // make sure parent's transition states include the pseudo-classes
         // found when matching selectors
@@ -124,6 +124,7 @@ import com.sun.javafx.collections.UnmodifiableListSet;
 import com.sun.javafx.css.PseudoClassState;
 import com.sun.javafx.css.Selector;
 import com.sun.javafx.css.Style;
+import com.sun.javafx.css.StyleManager;
 import com.sun.javafx.css.converters.BooleanConverter;
 import com.sun.javafx.css.converters.CursorConverter;
 import com.sun.javafx.css.converters.EffectConverter;
@@ -141,6 +142,7 @@ import com.sun.javafx.geom.transform.GeneralTransform3D;
 import com.sun.javafx.geom.transform.NoninvertibleTransformException;
 import com.sun.javafx.jmx.MXNodeAlgorithm;
 import com.sun.javafx.jmx.MXNodeAlgorithmContext;
+import com.sun.javafx.logging.PulseLogger;
 import com.sun.javafx.perf.PerformanceTracker;
 import com.sun.javafx.scene.BoundsAccessor;
 import com.sun.javafx.scene.CameraHelper;
@@ -163,6 +165,8 @@ import javafx.scene.shape.Shape3D;
 import sun.util.logging.PlatformLogger;
 import sun.util.logging.PlatformLogger.Level;
 
+import static com.sun.javafx.logging.PulseLogger.PULSE_LOGGING_ENABLED;
+
 /**
  * Base class for scene graph nodes. A scene graph is a set of tree data structures
  * where every item has zero or one parent, and each item is either
@@ -964,9 +968,20 @@ public abstract class Node implements EventTarget, Styleable {
         if (id == null) {
             id = new StringPropertyBase() {
 
+                // The id before it was invalidated
+                private String oldId = null;
+
                 @Override
                 protected void invalidated() {
-                    impl_reapplyCSS();
+                    final String newId = get();
+                    // Descendants only need to be matched again if some
+                    // selector needs one of their ancestors to have this id
+                    final StyleManager styleManager = StyleManager.getInstance();
+                    final boolean rematchDescendants =
+                            styleManager.hasDescendantSelectors(oldId, null) ||
+                            styleManager.hasDescendantSelectors(newId, null);
+                    oldId = newId;
+                    reapplyCSS(rematchDescendants);
                     if (PrismSettings.printRenderGraph) {
                         impl_markDirty(DirtyBits.DEBUG);
                     }
@@ -999,7 +1014,16 @@ public abstract class Node implements EventTarget, Styleable {
     private ObservableList<String> styleClass = new TrackableObservableList<String>() {
         @Override
         protected void onChanged(Change<String> c) {
-            impl_reapplyCSS();
+            // Descendants only need to be matched again if some selector
+            // needs one of their ancestors to have an added or removed class
+            final StyleManager styleManager = StyleManager.getInstance();
+            boolean rematchDescendants = false;
+            while (rematchDescendants == false && c.next()) {
+                rematchDescendants =
+                        styleManager.hasDescendantSelectors(null, c.getRemoved()) ||
+                        (c.wasAdded() && styleManager.hasDescendantSelectors(null, c.getAddedSubList()));
+            }
+            reapplyCSS(rematchDescendants);
         }
 
         @Override
@@ -8801,13 +8825,23 @@ public abstract class Node implements EventTarget, Styleable {
      */
     final CssFlags getCSSFlags() { return cssFlag; }
 
+    /**
+     * Set on the nodes of a subtree that was styled by {@link SubtreeStaging}
+     * while it was detached. Consumed by the first call to reapplyCSS once
+     * the node is in a scene again.
+     */
+    boolean cssStaged = false;
+
     /**
      * Called when a CSS pseudo-class change would cause styles to be reapplied.
      */
     private void requestCssStateTransition() {
         // If there is no scene, then we cannot make it dirty, so we'll leave
-        // the flag alone
-        if (getScene() == null) return;
+        // the flag alone. Styles applied by SubtreeStaging are now stale.
+        if (getScene() == null) {
+            cssStaged = false;
+            return;
+        }
         // Don't bother doing anything if the cssFlag is not CLEAN.
         // If the flag indicates a DIRTY_BRANCH, the flag needs to be changed
         // to UPDATE to ensure that impl_processCSS is called on the node.
@@ -8910,6 +8944,28 @@ public abstract class Node implements EventTarget, Styleable {
      */
     @Deprecated
     public final void impl_reapplyCSS() {
+        reapplyCSS(true);
+    }
+
+    //
+    // If rematchDescendants is false, the change that caused CSS to be reapplied
+    // cannot affect which selectors match the descendants of this node, so the
+    // descendants keep their style maps and only their calculated values are
+    // refreshed.
+    //
+    private void reapplyCSS(final boolean rematchDescendants) {
+
+        // If styles were applied by SubtreeStaging against the same
+        // stylesheets before this node was attached, there is nothing to
+        // reapply. The node gets its parent before its scene when it is
+        // attached, so the marker is kept until the scene is set. Any other
+        // request to reapply CSS, including one made while the node is
+        // detached, makes the staged styles stale.
+        if (cssStaged) {
+            final boolean attaching = SubtreeStaging.isAttaching();
+            if (attaching == false || getScene() != null) cssStaged = false;
+            if (attaching) return;
+        }
 
         if (getScene() == null) return;
 
@@ -8922,7 +8978,7 @@ public abstract class Node implements EventTarget, Styleable {
             return;
         }
 
-        reapplyCss();
+        reapplyCss(rematchDescendants);
 
         //
         // One idiom employed by developers is to, during the layout pass,
@@ -8951,6 +9007,10 @@ public abstract class Node implements EventTarget, Styleable {
     // over other CSS states.
     //
     private void reapplyCss() {
+        reapplyCss(true);
+    }
+
+    private void reapplyCss(boolean rematchDescendants) {
 
         // Hang on to current styleHelper so we can know whether
         // createStyleHelper returned the same styleHelper
@@ -8959,8 +9019,21 @@ public abstract class Node implements EventTarget, Styleable {
         // CSS state is "REAPPLY"
         cssFlag = CssFlags.REAPPLY;
 
+        if (PULSE_LOGGING_ENABLED) {
+            PulseLogger.incrementCounter("CSS nodes visited");
+            PulseLogger.incrementCounter("CSS nodes restyled");
+        }
+
         styleHelper = CssStyleHelper.createStyleHelper(this);
 
+        // The descendants of this node add their pseudo-class states to the
+        // trigger states of our styleHelper when they are matched. If they are
+        // not going to be matched again, a new styleHelper has to keep them.
+        if (rematchDescendants == false &&
+                CssStyleHelper.transferTriggerStates(oldStyleHelper, styleHelper) == false) {
+            rematchDescendants = true;
+        }
+
         // REAPPLY to my children, too.
         if (this instanceof Parent) {
 
@@ -8988,7 +9061,11 @@ public abstract class Node implements EventTarget, Styleable {
                 List<Node> children = ((Parent) this).getChildren();
                 for (int n = 0, nMax = children.size(); n < nMax; n++) {
                     Node child = children.get(n);
-                    child.reapplyCss();
+                    if (rematchDescendants) {
+                        child.reapplyCss();
+                    } else {
+                        child.refreshCss();
+                    }
                 }
             }
 
@@ -8997,7 +9074,11 @@ public abstract class Node implements EventTarget, Styleable {
             // SubScene root is a Parent, but reapplyCss is a private method in Node
             final Node subSceneRoot = ((SubScene)this).getRoot();
             if (subSceneRoot != null) {
-                subSceneRoot.reapplyCss();
+                if (rematchDescendants) {
+                    subSceneRoot.reapplyCss();
+                } else {
+                    subSceneRoot.refreshCss();
+                }
             }
 
         } else if (styleHelper == null) {
@@ -9013,6 +9094,48 @@ public abstract class Node implements EventTarget, Styleable {
 
     }
 
+    //
+    // Like reapplyCss, but for a node whose ancestor has changed in a way that
+    // does not affect the selectors matching this node. The style map of this
+    // node is kept as is, but the values calculated from it may still depend on
+    // the styles of the ancestor (inherit, looked-up colors, font sizes), so
+    // they are calculated again on the next CSS pass.
+    //
+    private void refreshCss() {
+
+        // CSS state is "REAPPLY"
+        cssFlag = CssFlags.REAPPLY;
+
+        if (PULSE_LOGGING_ENABLED) {
+            PulseLogger.incrementCounter("CSS nodes visited");
+        }
+
+        styleHelper = CssStyleHelper.refreshStyleHelper(this);
+
+        if (this instanceof Parent) {
+
+            List<Node> children = ((Parent) this).getChildren();
+            for (int n = 0, nMax = children.size(); n < nMax; n++) {
+                Node child = children.get(n);
+                child.refreshCss();
+            }
+
+        } else if (this instanceof SubScene) {
+
+            final Node subSceneRoot = ((SubScene)this).getRoot();
+            if (subSceneRoot != null) {
+                subSceneRoot.refreshCss();
+            }
+
+        } else if (styleHelper == null) {
+            cssFlag = CssFlags.CLEAN;
+            return;
+        }
+
+        cssFlag = CssFlags.UPDATE;
+
+    }
+
     void processCSS() {
         switch (cssFlag) {
             case CLEAN:
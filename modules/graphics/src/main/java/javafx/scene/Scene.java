@@ -2387,6 +2387,7 @@ public class Scene implements EventTarget {
             disposeAccessibles();
 
             if (PULSE_LOGGING_ENABLED) {
+                PulseLogger.newScene(impl_peer);
                 PulseLogger.newPhase("CSS Pass");
             }
             Scene.this.doCSSPass();
@@ -0,0 +1,389 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.scene;
+
+import com.sun.javafx.css.PseudoClassState;
+import com.sun.javafx.css.StyleManager;
+import javafx.css.PseudoClass;
+import javafx.scene.layout.Region;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Builds detached subtrees off the JavaFX Application Thread and hands them
+ * over to a live scene graph.
+ * <p>
+ * Creating a large subtree is cheap compared to styling it and laying it
+ * out, which normally happens on the JavaFX Application Thread once the
+ * subtree is added to a scene. A {@code SubtreeStaging} is created on the
+ * JavaFX Application Thread for the {@code Parent} that will receive the
+ * subtree. It takes a snapshot of everything that determines the styles of
+ * the children of that parent: the stylesheets of the scene and of the
+ * parent's ancestors, and the type selector, id, style classes, inline style
+ * and pseudo-class states of each ancestor. {@link #prepare(Node)} may then
+ * be called on any thread, any number of times and concurrently, to apply
+ * CSS to a detached subtree against that snapshot and to lay it out.
+ * Finally, {@link #attach(Node)} adds the subtree to the parent on the
+ * JavaFX Application Thread without styling it again.
+ * </p>
+ * <pre><code>
+ *     final SubtreeStaging staging = new SubtreeStaging(container);
+ *     executor.submit(() -&gt; {
+ *         final Node page = createPage();
+ *         staging.prepare(page);
+ *         Platform.runLater(() -&gt; staging.attach(page));
+ *     });
+ * </code></pre>
+ * <p>
+ * If anything that the snapshot was taken from has changed by the time the
+ * subtree is attached, or if the subtree was modified after it was
+ * prepared, {@code attach} falls back to adding the subtree as
+ * {@code getChildren().add} would, and CSS is reapplied to it in the next
+ * pulse. The result is the same either way; only the cost differs.
+ * Subtrees whose parent is in a {@link SubScene}, or whose parent or
+ * ancestors have a font set from code, always take the fallback.
+ * </p>
+ * <p>
+ * The nodes of the subtree, including any controls and skins in it, must
+ * not be accessed by other threads while they are being prepared.
+ * </p>
+ * @since JavaFX 8u40
+ */
+public final class SubtreeStaging {
+
+    // The thread that is adding a prepared subtree to a scene, see Node#reapplyCSS
+    private static Thread attachingThread;
+
+    static boolean isAttaching() {
+        return attachingThread == Thread.currentThread();
+    }
+
+    private final Parent target;
+    private final Scene scene;
+    private final List<String> sceneStylesheets;
+    private final String sceneUserAgentStylesheet;
+    private final Ancestor[] ancestors;
+    private final int cacheGeneration;
+
+    // The pseudo-class states that the prepared subtrees added to the
+    // trigger states of each ancestor, indexed like ancestors
+    private final Set<PseudoClass>[] triggerStates;
+
+    // The roots of the subtrees that were prepared by this SubtreeStaging
+    private final Map<Node, Boolean> prepared = new WeakHashMap<>();
+
+    /**
+     * Creates a {@code SubtreeStaging} for subtrees that will be added to
+     * the children of the given parent. This must be called on the JavaFX
+     * Application Thread.
+     *
+     * @param target the parent the subtrees will be added to
+     * @throws NullPointerException if target is null
+     * @throws IllegalArgumentException if target is not in a scene
+     */
+    @SuppressWarnings("unchecked")
+    public SubtreeStaging(Parent target) {
+        if (target == null) {
+            throw new NullPointerException("target cannot be null");
+        }
+        this.target = target;
+        this.scene = target.getScene();
+        if (scene == null) {
+            throw new IllegalArgumentException("target is not in a scene");
+        }
+        this.sceneStylesheets = new ArrayList<>(scene.getStylesheets());
+        this.sceneUserAgentStylesheet = scene.getUserAgentStylesheet();
+        this.ancestors = snapshotAncestors();
+        this.cacheGeneration = StyleManager.getInstance().getCacheGeneration(scene.getRoot());
+        this.triggerStates = new Set[ancestors != null ? ancestors.length : 0];
+    }
+
+    /**
+     * Returns the parent that subtrees are attached to.
+     *
+     * @return the target parent
+     */
+    public Parent getTarget() {
+        return target;
+    }
+
+    /**
+     * Applies CSS to the detached subtree rooted at node and lays it out at
+     * its preferred size. This may be called on any thread.
+     *
+     * @param node the root of a subtree that is not in a scene
+     * @throws IllegalArgumentException if node has a parent or is in a scene
+     */
+    public void prepare(Node node) {
+        prepare(node, -1, -1);
+    }
+
+    /**
+     * Applies CSS to the detached subtree rooted at node and lays it out at
+     * the given size. A negative width or height stands for the preferred
+     * width or height of the node. This may be called on any thread. If the
+     * subtree cannot be staged, for example because a {@code Parent} in it
+     * has stylesheets of its own, this does nothing and {@link #attach(Node)}
+     * styles and lays out the subtree as usual.
+     *
+     * @param node the root of a subtree that is not in a scene
+     * @param width the width to lay out the node at
+     * @param height the height to lay out the node at
+     * @throws IllegalArgumentException if node has a parent or is in a scene
+     */
+    public void prepare(Node node, double width, double height) {
+        if (node.getParent() != null || node.getScene() != null) {
+            throw new IllegalArgumentException("node is already part of a scene graph");
+        }
+
+        if (ancestors == null || hasParentStylesheets(node)) {
+            // attach will apply CSS and lay out the subtree as usual
+            return;
+        }
+
+        final StandIn[] standIns = new StandIn[ancestors.length];
+        for (int n = 0; n < ancestors.length; n++) {
+            standIns[n] = new StandIn(ancestors[n], n == 0);
+            if (n > 0) {
+                standIns[n - 1].getChildren().add(standIns[n]);
+            }
+        }
+
+        // The stylesheets are set before the style cache of the target's
+        // scene is shared, since changing them clears the style cache.
+        final Scene staging = new Scene(standIns[0]);
+        if (sceneUserAgentStylesheet != null) {
+            staging.setUserAgentStylesheet(sceneUserAgentStylesheet);
+        }
+        staging.getStylesheets().setAll(sceneStylesheets);
+        StyleManager.getInstance().shareCacheContainer(standIns[0], scene.getRoot());
+
+        final StandIn parent = standIns[ancestors.length - 1];
+        parent.getChildren().add(node);
+        try {
+            node.applyCss();
+            final double w = width < 0 ? node.prefWidth(-1) : width;
+            final double h = height < 0 ? node.prefHeight(w) : height;
+            node.resize(w, h);
+            if (node instanceof Parent) {
+                ((Parent) node).layout();
+            }
+        } finally {
+            parent.getChildren().remove(node);
+            StyleManager.getInstance().releaseCacheContainer(standIns[0]);
+        }
+
+        synchronized (this) {
+            for (int n = 0; n < standIns.length; n++) {
+                final Set<PseudoClass> states = CssStyleHelper.getTriggerStates(standIns[n]);
+                if (states == null) continue;
+                if (triggerStates[n] == null) {
+                    triggerStates[n] = new PseudoClassState();
+                }
+                triggerStates[n].addAll(states);
+            }
+            markStaged(node);
+            prepared.put(node, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Adds node to the children of the target parent. If node was prepared
+     * by this {@code SubtreeStaging} and the styles it was prepared with
+     * still apply, the subtree is attached without applying CSS to it again.
+     * This must be called on the JavaFX Application Thread.
+     *
+     * @param node the root of the subtree to attach
+     */
+    public void attach(Node node) {
+        final boolean wasPrepared;
+        synchronized (this) {
+            wasPrepared = prepared.remove(node) != null;
+        }
+
+        if (wasPrepared == false || node.cssStaged == false || isValid() == false) {
+            target.getChildren().add(node);
+            return;
+        }
+
+        attachingThread = Thread.currentThread();
+        try {
+            target.getChildren().add(node);
+        } finally {
+            attachingThread = null;
+        }
+
+        synchronized (this) {
+            Node ancestor = target;
+            for (int n = ancestors.length - 1; n >= 0; n--) {
+                CssStyleHelper.addTriggerStates(ancestor, triggerStates[n]);
+                ancestor = ancestor.getParent();
+            }
+        }
+    }
+
+    /**
+     * Returns true if the styles that subtrees are prepared with still
+     * apply to the children of the target parent, in which case
+     * {@link #attach(Node)} does not need to apply CSS again.
+     *
+     * @return true if prepared subtrees can be attached as they are
+     */
+    public boolean isValid() {
+        if (ancestors == null
+                || target.getScene() != scene
+                || scene.getStylesheets().equals(sceneStylesheets) == false
+                || Objects.equals(scene.getUserAgentStylesheet(), sceneUserAgentStylesheet) == false
+                || StyleManager.getInstance().getCacheGeneration(scene.getRoot()) != cacheGeneration) {
+            return false;
+        }
+        final Ancestor[] current = snapshotAncestors();
+        if (current == null || current.length != ancestors.length) {
+            return false;
+        }
+        for (int n = 0; n < current.length; n++) {
+            if (current[n].sameStyles(ancestors[n]) == false) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Returns null if the target cannot be staged
+    private Ancestor[] snapshotAncestors() {
+        if (target.getSubScene() != null || CssStyleHelper.hasUserSetFont(target)) {
+            return null;
+        }
+        final List<Ancestor> list = new ArrayList<>();
+        for (Parent p = target; p != null; p = p.getParent()) {
+            list.add(new Ancestor(p));
+        }
+        Collections.reverse(list);
+        return list.toArray(new Ancestor[list.size()]);
+    }
+
+    // Stylesheets of a Parent in the subtree are tracked by StyleManager
+    // for the Parent as long as it is in a scene, so those subtrees are
+    // styled again when they are attached.
+    private static boolean hasParentStylesheets(Node node) {
+        if (node instanceof Parent) {
+            final Parent parent = (Parent) node;
+            if (parent.getStylesheets().isEmpty() == false) {
+                return true;
+            }
+            final List<Node> children = parent.getChildren();
+            for (int n = 0, nMax = children.size(); n < nMax; n++) {
+                if (hasParentStylesheets(children.get(n))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void markStaged(Node node) {
+        node.cssStaged = true;
+        if (node instanceof Parent) {
+            final List<Node> children = ((Parent) node).getChildren();
+            for (int n = 0, nMax = children.size(); n < nMax; n++) {
+                markStaged(children.get(n));
+            }
+        }
+    }
+
+    /*
+     * What an ancestor of the target contributes to the styles of the
+     * target's children.
+     */
+    private static final class Ancestor {
+        final String typeSelector;
+        final String id;
+        final List<String> styleClass;
+        final String style;
+        final List<String> stylesheets;
+        final Set<PseudoClass> pseudoClassStates;
+        final String userAgentStylesheet;
+
+        Ancestor(Parent parent) {
+            typeSelector = parent.getTypeSelector();
+            id = parent.getId();
+            styleClass = new ArrayList<>(parent.getStyleClass());
+            style = parent.getStyle();
+            stylesheets = new ArrayList<>(parent.getStylesheets());
+            pseudoClassStates = new PseudoClassState();
+            pseudoClassStates.addAll(parent.getPseudoClassStates());
+            userAgentStylesheet = parent instanceof Region
+                    ? ((Region) parent).getUserAgentStylesheet() : null;
+        }
+
+        boolean sameStyles(Ancestor other) {
+            return Objects.equals(typeSelector, other.typeSelector)
+                    && Objects.equals(id, other.id)
+                    && styleClass.equals(other.styleClass)
+                    && Objects.equals(style, other.style)
+                    && stylesheets.equals(other.stylesheets)
+                    && pseudoClassStates.equals(other.pseudoClassStates)
+                    && Objects.equals(userAgentStylesheet, other.userAgentStylesheet);
+        }
+    }
+
+    /*
+     * Takes the place of an ancestor of the target in the scene that
+     * subtrees are styled in.
+     */
+    private static final class StandIn extends Region {
+        private final Ancestor ancestor;
+
+        StandIn(Ancestor ancestor, boolean root) {
+            this.ancestor = ancestor;
+            setId(ancestor.id);
+            setStyle(ancestor.style);
+            final List<String> styleClass = ancestor.styleClass;
+            // Scene adds the "root" style class to its root
+            final int from = root && styleClass.isEmpty() == false
+                    && "root".equals(styleClass.get(0)) ? 1 : 0;
+            getStyleClass().setAll(styleClass.subList(from, styleClass.size()));
+            getStylesheets().setAll(ancestor.stylesheets);
+            for (PseudoClass pseudoClass : ancestor.pseudoClassStates) {
+                pseudoClassStateChanged(pseudoClass, true);
+            }
+        }
+
+        @Override public String getTypeSelector() {
+            return ancestor.typeSelector;
+        }
+
+        @Override public String getUserAgentStylesheet() {
+            return ancestor.userAgentStylesheet;
+        }
+    }
+}
@@ -32,7 +32,7 @@ import java.net.URL;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
-import java.util.LinkedList;
+import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.concurrent.CancellationException;
 import java.util.regex.Pattern;
@@ -774,6 +774,38 @@ public class Image {
 
     private ImageTask backgroundTask;
 
+    // The number of ImageViews showing this image, and whether any ever did
+    private int viewCount;
+    private boolean viewed;
+
+    /**
+     * Called by ImageView when it starts showing this image while it is
+     * loaded in background, the images that are showing are loaded first.
+     */
+    void addView() {
+        viewCount++;
+        viewed = true;
+        updateTaskPriority();
+    }
+
+    /**
+     * Called by ImageView when it stops showing this image. The loading of
+     * an image that is no longer shown is deferred until the other images
+     * are loaded.
+     */
+    void removeView() {
+        viewCount--;
+        updateTaskPriority();
+    }
+
+    private void updateTaskPriority() {
+        if (backgroundTask != null) {
+            backgroundTask.setPriority(viewCount > 0 ? PRIORITY_SHOWING
+                                       : viewed ? PRIORITY_HIDDEN
+                                       : PRIORITY_NORMAL);
+        }
+    }
+
     private void initialize(Object externalImage) {
         // we need to check the original values here, because setting placeholder
         // changes platformImage, so wrong branch of if would be used
@@ -898,8 +930,13 @@ public class Image {
         }
     }
 
-    private void cycleTasks() {
+    private static void cycleTasks(final ImageTask task) {
         synchronized (pendingTasks) {
+            if (!task.running) {
+                // cancelled before it was started, or already cycled
+                return;
+            }
+            task.running = false;
             runningTasks--;
             // do we have any pending tasks to run ?
             // we can assume we are under the throttle limit because
@@ -914,6 +951,7 @@ public class Image {
 
     private void loadInBackground() {
         backgroundTask = new ImageTask();
+        updateTaskPriority();
         // This is an artificial throttle on background image loading tasks.
         // It has been shown that with large images, we can quickly use up the
         // heap loading images, even if they result in thumbnails.
@@ -983,36 +1021,69 @@ public class Image {
         platformImage.set(newPlatformImage);
     }
 
+    // Priorities of the background loading tasks, the pending tasks with
+    // the highest priority are started first
+    private static final int PRIORITY_HIDDEN = 0;
+    private static final int PRIORITY_NORMAL = 1;
+    private static final int PRIORITY_SHOWING = 2;
+
     private static final int MAX_RUNNING_TASKS = 4;
     private static int runningTasks = 0;
+    private static long taskCount = 0;
     private static final Queue<ImageTask> pendingTasks =
-            new LinkedList<ImageTask>();
+            new PriorityQueue<ImageTask>(16, (t1, t2) -> {
+                if (t1.priority != t2.priority) {
+                    return t2.priority - t1.priority;
+                }
+                return Long.compare(t1.sequence, t2.sequence);
+            });
 
     private final class ImageTask
             implements AsyncOperationListener<ImageLoader> {
 
         private final AsyncOperation peer;
 
+        // Guarded by pendingTasks
+        private final long sequence;
+        private int priority = PRIORITY_NORMAL;
+        private boolean running;
+
         public ImageTask() {
+            synchronized (pendingTasks) {
+                sequence = taskCount++;
+            }
             peer = constructPeer();
         }
 
         @Override
         public void onCancel() {
             finishImage(new CancellationException("Loading cancelled"));
-            cycleTasks();
+            cycleTasks(this);
         }
 
         @Override
         public void onException(Exception exception) {
             finishImage(exception);
-            cycleTasks();
+            cycleTasks(this);
+        }
+
+        @Override
+        public void onUpdate(ImageLoader partialValue) {
+            // Show the rows decoded so far
+            PlatformImage pi = partialValue.getFrame(0);
+            if (impl_getPlatformImage() != pi) {
+                double w = partialValue.getWidth() / pi.getPixelScale();
+                double h = partialValue.getHeight() / pi.getPixelScale();
+                setPlatformImageWH(pi, w, h);
+            } else {
+                pixelsDirty();
+            }
         }
 
         @Override
         public void onCompletion(ImageLoader value) {
             finishImage(value);
-            cycleTasks();
+            cycleTasks(this);
         }
 
         @Override
@@ -1026,13 +1097,30 @@ public class Image {
         }
 
         public void start() {
+            running = true;
             peer.start();
         }
 
         public void cancel() {
+            synchronized (pendingTasks) {
+                pendingTasks.remove(this);
+            }
             peer.cancel();
         }
 
+        void setPriority(int newPriority) {
+            synchronized (pendingTasks) {
+                if (priority != newPriority) {
+                    // reposition the task if it is still pending
+                    final boolean pending = pendingTasks.remove(this);
+                    priority = newPriority;
+                    if (pending) {
+                        pendingTasks.offer(this);
+                    }
+                }
+            }
+        }
+
         private AsyncOperation constructPeer() {
             return loadImageAsync(this, url,
                                   requestedWidth, requestedHeight,
@@ -37,7 +37,9 @@ import com.sun.javafx.sg.prism.NGImageView;
 import com.sun.javafx.sg.prism.NGNode;
 import com.sun.javafx.tk.Toolkit;
 import javafx.beans.DefaultProperty;
+import javafx.beans.InvalidationListener;
 import javafx.beans.Observable;
+import javafx.beans.WeakInvalidationListener;
 import javafx.beans.property.*;
 import javafx.css.CssMetaData;
 import javafx.css.Styleable;
@@ -218,6 +220,8 @@ public class ImageView extends Node {
                         Toolkit.getImageAccessor().getImageProperty(_image).
                                 addListener(platformImageChangeListener.getWeakListener());
                     }
+                    setLoadingImage(_image != null && _image.isBackgroundLoading()
+                                    && _image.getProgress() < 1 ? _image : null);
                     if (dimensionChanged) {
                         invalidateWidthHeight();
                         impl_geomChanged();
@@ -280,6 +284,66 @@ public class ImageView extends Node {
         return imageUrl;
     }    
 
+    /*
+     * The image being loaded in background, and whether this ImageView is
+     * showing it. The images that are showing are loaded first. The
+     * listeners are only registered while an image is loading.
+     */
+    private Image loadingImage;
+    private boolean showingLoadingImage;
+    private InvalidationListener showingListener;
+    private InvalidationListener progressListener;
+    private WeakInvalidationListener weakProgressListener;
+
+    private void setLoadingImage(Image newImage) {
+        if (loadingImage == newImage) {
+            return;
+        }
+        if (showingLoadingImage) {
+            showingLoadingImage = false;
+            loadingImage.removeView();
+        }
+        if (loadingImage != null) {
+            loadingImage.progressProperty().removeListener(weakProgressListener);
+        }
+        if (newImage != null) {
+            if (showingListener == null) {
+                showingListener = valueModel -> updateShowingLoadingImage();
+                sceneProperty().addListener(showingListener);
+                impl_treeVisibleProperty().addListener(showingListener);
+            }
+            if (progressListener == null) {
+                progressListener = valueModel -> {
+                    if (loadingImage != null && loadingImage.getProgress() >= 1) {
+                        setLoadingImage(null);
+                    }
+                };
+                weakProgressListener = new WeakInvalidationListener(progressListener);
+            }
+            newImage.progressProperty().addListener(weakProgressListener);
+        } else if (showingListener != null) {
+            sceneProperty().removeListener(showingListener);
+            impl_treeVisibleProperty().removeListener(showingListener);
+            showingListener = null;
+        }
+        loadingImage = newImage;
+        updateShowingLoadingImage();
+    }
+
+    private void updateShowingLoadingImage() {
+        final boolean showing = loadingImage != null
+                && loadingImage.getProgress() < 1
+                && getScene() != null && impl_isTreeVisible();
+        if (showingLoadingImage != showing) {
+            showingLoadingImage = showing;
+            if (showing) {
+                loadingImage.addView();
+            } else {
+                loadingImage.removeView();
+            }
+        }
+    }
+
     private final AbstractNotifyListener platformImageChangeListener =
             new AbstractNotifyListener() {
         @Override
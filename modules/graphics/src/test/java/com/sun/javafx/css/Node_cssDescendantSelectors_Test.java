@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.css;
+
+import com.sun.javafx.css.parser.CSSParser;
+import java.util.Arrays;
+import java.util.Collections;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class Node_cssDescendantSelectors_Test {
+
+    /* Counts how many times the styles of this node are matched */
+    private static class CountingRectangle extends Rectangle {
+        int matches;
+
+        CountingRectangle() {
+            super(50, 50);
+            getStyleClass().add("rect");
+        }
+
+        @Override public String getTypeSelector() {
+            matches += 1;
+            return super.getTypeSelector();
+        }
+    }
+
+    private Group root;
+    private Group group;
+    private CountingRectangle rect;
+
+    @Before
+    public void setUp() {
+        StyleManager sm = StyleManager.getInstance();
+        sm.userAgentStylesheetContainers.clear();
+        sm.platformUserAgentStylesheetContainers.clear();
+        sm.stylesheetContainerMap.clear();
+        sm.cacheContainerMap.clear();
+        sm.hasDefaultUserAgentStylesheet = false;
+
+        rect = new CountingRectangle();
+        group = new Group(rect);
+        root = new Group(group);
+        new Scene(root);
+    }
+
+    private void setStylesheet(String name, String css) throws Exception {
+        Stylesheet stylesheet = CSSParser.getInstance().parse(name, css);
+        StyleManager.getInstance().setDefaultUserAgentStylesheet(stylesheet);
+        root.applyCss();
+    }
+
+    @Test
+    public void testSelectorPartitioningIndexesAncestorParts() {
+        Stylesheet stylesheet = CSSParser.getInstance().parse(
+                ".a #b:hover > .c { -fx-fill: red; }" +
+                ".c.d { -fx-fill: blue; }"
+        );
+        SelectorPartitioning partitioning = new SelectorPartitioning();
+        for (Rule rule : stylesheet.getRules()) {
+            for (Selector selector : rule.getSelectors()) {
+                partitioning.partition(selector);
+            }
+        }
+
+        assertEquals(1, partitioning.getDescendantSelectorsForStyleClass("a").size());
+        assertEquals(1, partitioning.getDescendantSelectorsForId("b").size());
+        // .c and .d are only used by the node the selectors match
+        assertTrue(partitioning.getDescendantSelectorsForStyleClass("c").isEmpty());
+        assertTrue(partitioning.getDescendantSelectorsForStyleClass("d").isEmpty());
+        assertTrue(partitioning.getDescendantSelectorsForId(null).isEmpty());
+
+        partitioning.reset();
+        assertTrue(partitioning.getDescendantSelectorsForStyleClass("a").isEmpty());
+    }
+
+    @Test
+    public void testHasDescendantSelectors() throws Exception {
+        setStylesheet("testHasDescendantSelectors",
+                ".a .rect { -fx-fill: red; }" +
+                "#b > .rect { -fx-fill: blue; }" +
+                ".c { -fx-fill: green; }"
+        );
+
+        StyleManager sm = StyleManager.getInstance();
+        assertTrue(sm.hasDescendantSelectors(null, Arrays.asList("a")));
+        assertTrue(sm.hasDescendantSelectors("b", null));
+        assertTrue(sm.hasDescendantSelectors(null, Arrays.asList("c", "a")));
+        assertFalse(sm.hasDescendantSelectors(null, Arrays.asList("c")));
+        assertFalse(sm.hasDescendantSelectors(null, Arrays.asList("rect")));
+        assertFalse(sm.hasDescendantSelectors("a", Collections.<String>emptyList()));
+        assertFalse(sm.hasDescendantSelectors(null, null));
+    }
+
+    @Test
+    public void testStyleClassChangeWithDescendantSelectorRematchesChildren() throws Exception {
+        setStylesheet("testStyleClassChangeWithDescendantSelectorRematchesChildren",
+                ".rect { -fx-fill: red; }" +
+                ".a .rect { -fx-fill: green; }"
+        );
+        assertEquals(Color.RED, rect.getFill());
+
+        rect.matches = 0;
+        group.getStyleClass().add("a");
+        root.applyCss();
+
+        assertTrue(rect.matches > 0);
+        assertEquals(Color.GREEN, rect.getFill());
+
+        group.getStyleClass().remove("a");
+        root.applyCss();
+
+        assertEquals(Color.RED, rect.getFill());
+    }
+
+    @Test
+    public void testStyleClassChangeWithoutDescendantSelectorDoesNotRematchChildren() throws Exception {
+        setStylesheet("testStyleClassChangeWithoutDescendantSelectorDoesNotRematchChildren",
+                ".rect { -fx-fill: red; }" +
+                ".a .rect { -fx-fill: green; }" +
+                ".b { -fx-opacity: 0.5; }"
+        );
+
+        rect.matches = 0;
+        group.getStyleClass().add("b");
+        root.applyCss();
+
+        assertEquals(0, rect.matches);
+        assertEquals(0.5, group.getOpacity(), 1e-6);
+        assertEquals(Color.RED, rect.getFill());
+    }
+
+    @Test
+    public void testIdChangeWithDescendantSelectorRematchesChildren() throws Exception {
+        setStylesheet("testIdChangeWithDescendantSelectorRematchesChildren",
+                ".rect { -fx-fill: red; }" +
+                "#a > .rect { -fx-fill: green; }"
+        );
+
+        rect.matches = 0;
+        group.setId("a");
+        root.applyCss();
+
+        assertTrue(rect.matches > 0);
+        assertEquals(Color.GREEN, rect.getFill());
+
+        // the old id was used by a selector, too
+        group.setId("c");
+        root.applyCss();
+
+        assertEquals(Color.RED, rect.getFill());
+
+        rect.matches = 0;
+        group.setId("d");
+        root.applyCss();
+
+        assertEquals(0, rect.matches);
+        assertEquals(Color.RED, rect.getFill());
+    }
+
+    @Test
+    public void testLookedUpColorsAreRecalculatedWithoutRematch() throws Exception {
+        group.getStyleClass().add("a");
+        setStylesheet("testLookedUpColorsAreRecalculatedWithoutRematch",
+                ".a { my-color: red; }" +
+                ".b { my-color: blue; }" +
+                ".rect { -fx-fill: my-color; }"
+        );
+        assertEquals(Color.RED, rect.getFill());
+
+        rect.matches = 0;
+        group.getStyleClass().setAll("b");
+        root.applyCss();
+
+        assertEquals(0, rect.matches);
+        assertEquals(Color.BLUE, rect.getFill());
+    }
+}
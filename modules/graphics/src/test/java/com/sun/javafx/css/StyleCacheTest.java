@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.css;
+
+import java.util.Set;
+import javafx.css.PseudoClass;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.scene.text.Font;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class StyleCacheTest {
+
+    @Before
+    public void setUp() {
+        StyleCache.resetStatistics();
+    }
+
+    private static StyleCacheEntry.Key key(int n) {
+        final PseudoClassState states = new PseudoClassState();
+        states.add(PseudoClass.getPseudoClass("state" + n));
+        return new StyleCacheEntry.Key(new Set[] { states }, Font.getDefault());
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        StyleCache cache = new StyleCache();
+        assertNull(cache.getStyleCacheEntry(key(0)));
+        StyleCacheEntry entry = new StyleCacheEntry();
+        cache.addStyleCacheEntry(key(0), entry);
+        assertSame(entry, cache.getStyleCacheEntry(key(0)));
+        assertSame(entry, cache.getStyleCacheEntry(key(0)));
+
+        assertEquals(2, StyleCache.getHitCount());
+        assertEquals(1, StyleCache.getMissCount());
+        assertEquals(0, StyleCache.getEvictionCount());
+
+        StyleCache.resetStatistics();
+        assertEquals(0, StyleCache.getHitCount());
+        assertEquals(0, StyleCache.getMissCount());
+    }
+
+    @Test
+    public void testEntriesAreBounded() {
+        StyleCache cache = new StyleCache();
+        final int nMax = StyleCache.MAX_ENTRIES + 10;
+        for (int n = 0; n < nMax; n++) {
+            cache.addStyleCacheEntry(key(n), new StyleCacheEntry());
+            // keep the first entry in use
+            assertNotNull(cache.getStyleCacheEntry(key(0)));
+        }
+
+        assertEquals(StyleCache.MAX_ENTRIES, cache.size());
+        assertEquals(10, StyleCache.getEvictionCount());
+        // the least recently used entries are the ones that were dropped
+        assertNotNull(cache.getStyleCacheEntry(key(0)));
+        assertNull(cache.getStyleCacheEntry(key(1)));
+        assertNotNull(cache.getStyleCacheEntry(key(nMax - 1)));
+    }
+
+    @Test
+    public void testSharedCachesAreBounded() {
+        StyleManager sm = StyleManager.getInstance();
+        sm.cacheContainerMap.clear();
+
+        Group root = new Group();
+        new Scene(root);
+
+        final StyleCache first = sm.getSharedCache(root, null, new StyleCache.Key(new int[] { 0 }, 1));
+        final int nMax = StyleCache.MAX_SIZE + 10;
+        for (int n = 1; n < nMax; n++) {
+            sm.getSharedCache(root, null, new StyleCache.Key(new int[] { n }, 1));
+            // keep the first cache in use
+            assertSame(first, sm.getSharedCache(root, null, new StyleCache.Key(new int[] { 0 }, 1)));
+        }
+
+        StyleManager.CacheContainer container = sm.getCacheContainer(root, null);
+        assertEquals(StyleCache.MAX_SIZE, container.getStyleCacheSize());
+        assertEquals(10, StyleCache.getEvictionCount());
+    }
+
+    @Test
+    public void testStyleCacheEntryCount() {
+        StyleManager sm = StyleManager.getInstance();
+        sm.cacheContainerMap.clear();
+
+        Group root = new Group();
+        new Scene(root);
+
+        StyleCache cache = sm.getSharedCache(root, null, new StyleCache.Key(new int[] { 0 }, 1));
+        cache.addStyleCacheEntry(key(0), new StyleCacheEntry());
+        cache.addStyleCacheEntry(key(1), new StyleCacheEntry());
+        cache = sm.getSharedCache(root, null, new StyleCache.Key(new int[] { 1 }, 1));
+        cache.addStyleCacheEntry(key(0), new StyleCacheEntry());
+
+        assertEquals(3, sm.getStyleCacheEntryCount());
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.css;
+
+import com.sun.javafx.css.parser.CSSParser;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class StylesheetCacheTest {
+
+    private File dir;
+    private File source;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = File.createTempFile("StylesheetCacheTest_", "");
+        assertTrue(dir.delete());
+        source = File.createTempFile("StylesheetCacheTest_", ".css");
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) file.delete();
+        }
+        dir.delete();
+        source.delete();
+    }
+
+    private void write(String css) throws IOException {
+        try (FileWriter writer = new FileWriter(source)) {
+            writer.write(css);
+        }
+    }
+
+    // Rule.toString only shows declarations that have been read already
+    private static String toString(Stylesheet stylesheet) {
+        StringBuilder sbuf = new StringBuilder(stylesheet.getUrl());
+        for (Rule rule : stylesheet.getRules()) {
+            sbuf.append('\n').append(rule.getUnobservedSelectorList());
+            sbuf.append(rule.getUnobservedDeclarationList());
+        }
+        return sbuf.toString();
+    }
+
+    private static final String CSS =
+            ".a { -fx-fill: red; -fx-background-image: url(\"image.png\"); }\n" +
+            ".b:hover > #c { -fx-font: 12px \"Amble\"; }\n";
+
+    @Test
+    public void testParsedStylesheetIsCached() throws IOException {
+        write(CSS);
+        StylesheetCache cache = new StylesheetCache(dir);
+
+        Stylesheet first = cache.load(source.toURI().toURL());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, dir.listFiles().length);
+
+        Stylesheet second = cache.load(source.toURI().toURL());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        Stylesheet parsed = CSSParser.getInstance().parse(source.toURI().toURL());
+        assertEquals(parsed.getUrl(), second.getUrl());
+        assertEquals(toString(parsed), toString(first));
+        assertEquals(toString(parsed), toString(second));
+    }
+
+    @Test
+    public void testChangedStylesheetIsParsedAgain() throws IOException {
+        write(CSS);
+        StylesheetCache cache = new StylesheetCache(dir);
+        cache.load(source.toURI().toURL());
+
+        write(".a { -fx-fill: blue; }");
+        Stylesheet stylesheet = cache.load(source.toURI().toURL());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(toString(CSSParser.getInstance().parse(source.toURI().toURL())), toString(stylesheet));
+
+        cache.load(source.toURI().toURL());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testStylesheetWithImportIsNotCached() throws IOException {
+        write("@import \"other.css\";\n" + CSS);
+        StylesheetCache cache = new StylesheetCache(dir);
+        cache.load(source.toURI().toURL());
+        cache.load(source.toURI().toURL());
+        assertEquals(0, cache.getHitCount());
+        assertFalse(dir.exists() && dir.listFiles().length > 0);
+    }
+
+    @Test
+    public void testTruncatedCacheFileIsReplaced() throws IOException {
+        write(CSS);
+        StylesheetCache cache = new StylesheetCache(dir);
+        cache.load(source.toURI().toURL());
+
+        File cached = dir.listFiles()[0];
+        try (RandomAccessFile raf = new RandomAccessFile(cached, "rw")) {
+            raf.setLength(raf.length() / 2);
+        }
+
+        Stylesheet stylesheet = cache.load(source.toURI().toURL());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(toString(CSSParser.getInstance().parse(source.toURI().toURL())), toString(stylesheet));
+
+        cache.load(source.toURI().toURL());
+        assertEquals(1, cache.getHitCount());
+    }
+}
@@ -135,6 +135,15 @@ public class ImageLoaderScalingTest {
         }
     }
 
+    @Test
+    public void testScalePalette() throws Exception {
+        BufferedImage bImg = new BufferedImage(40, 30, BufferedImage.TYPE_BYTE_INDEXED);
+        ImageTestHelper.drawImageRandom(bImg);
+        scaleAndCompareImage(bImg, 40, 30);
+        scaleAndCompareImage(bImg, 13, 7);
+        scaleAndCompareImage(bImg, 80, 45);
+    }
+
     @Test
     public void testRT20295() throws Exception {
         // (62.0 / 78.0) * 78 != 62
@@ -84,4 +84,8 @@ public class StubAsyncImageLoader implements AsyncOperation {
     public void setProgress(final int cur, final int max) {
         listener.onProgress(cur, max);
     }
+
+    public void update(final ImageLoader partialImageLoader) {
+        listener.onUpdate(partialImageLoader);
+    }
 }
@@ -25,11 +25,14 @@
 
 package com.sun.javafx.text;
 
+import java.lang.reflect.Proxy;
+
 import javafx.scene.text.Font;
 
 import com.sun.javafx.font.PGFont;
 import com.sun.javafx.geom.RectBounds;
 import com.sun.javafx.scene.text.GlyphList;
+import com.sun.javafx.scene.text.TextLayout;
 import com.sun.javafx.scene.text.TextSpan;
 import com.sun.javafx.scene.text.TextLine;
 import com.sun.javafx.text.PrismTextLayout;
@@ -224,4 +227,146 @@ public class TextLayoutTest {
         
     }    
     
+    /* A font that is only equal to itself, for the cache tests that
+     * never lay out any text.
+     */
+    private static PGFont stubFont() {
+        return (PGFont)Proxy.newProxyInstance(PGFont.class.getClassLoader(),
+            new Class<?>[] {PGFont.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "equals": return proxy == args[0];
+                    case "hashCode": return System.identityHashCode(proxy);
+                    default: throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    private static LayoutCache.Key key(String text, PGFont font, float wrapWidth,
+                                       float spacing, int flags) {
+        return new LayoutCache.Key(text.toCharArray(), font, text.hashCode(),
+                                   wrapWidth, spacing, flags);
+    }
+
+    private static LayoutCache entry(LayoutCache.Key key) {
+        LayoutCache cache = new LayoutCache();
+        cache.key = key;
+        cache.text = key.text;
+        cache.font = key.font;
+        return cache;
+    }
+
+    @Test public void layoutCacheKeyEquality() {
+        PGFont font = stubFont();
+        LayoutCache.Key key = key("hello", font, 100, 2, TextLayout.ALIGN_LEFT);
+        LayoutCache.Key same = key("hello", font, 100, 2, TextLayout.ALIGN_LEFT);
+        assertEquals(key, same);
+        assertEquals(key.hashCode(), same.hashCode());
+
+        assertFalse(key.equals(key("hellO", font, 100, 2, TextLayout.ALIGN_LEFT)));
+        assertFalse(key.equals(key("hello", stubFont(), 100, 2, TextLayout.ALIGN_LEFT)));
+        assertFalse(key.equals(key("hello", font, 101, 2, TextLayout.ALIGN_LEFT)));
+        assertFalse(key.equals(key("hello", font, 100, 3, TextLayout.ALIGN_LEFT)));
+        assertFalse(key.equals(key("hello", font, 100, 2, TextLayout.ALIGN_RIGHT)));
+        assertFalse(key.equals(null));
+    }
+
+    @Test public void layoutCacheDoesNotShareAcrossWrapWidthOrSpacing() {
+        PGFont font = stubFont();
+        LayoutCache.Cache cache = new LayoutCache.Cache(100);
+        LayoutCache wrapped = entry(key("hello world", font, 50, 0, 0));
+        cache.put(wrapped);
+
+        assertNull(cache.get(key("hello world", font, 0, 0, 0)));
+        assertNull(cache.get(key("hello world", font, 60, 0, 0)));
+        assertNull(cache.get(key("hello world", font, 50, 4, 0)));
+        assertSame(wrapped, cache.get(key("hello world", font, 50, 0, 0)));
+    }
+
+    @Test public void layoutCacheEvictsLeastRecentlyUsed() {
+        PGFont font = stubFont();
+        LayoutCache.Cache cache = new LayoutCache.Cache(10);
+        LayoutCache a = entry(key("aaaa", font, 0, 0, 0));
+        LayoutCache b = entry(key("bbbb", font, 0, 0, 0));
+        LayoutCache c = entry(key("cccc", font, 0, 0, 0));
+        cache.put(a);
+        cache.put(b);
+        assertEquals(8, cache.getSize());
+
+        /* Using a makes b the least recently used layout */
+        assertSame(a, cache.get(a.key));
+        cache.put(c);
+        assertEquals(8, cache.getSize());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.get(b.key));
+        assertSame(a, cache.get(a.key));
+        assertSame(c, cache.get(c.key));
+
+        /* A layout larger than the cache replaces everything else */
+        LayoutCache big = entry(key("dddddddddddd", font, 0, 0, 0));
+        cache.put(big);
+        assertEquals(12, cache.getSize());
+        assertEquals(3, cache.getEvictionCount());
+        assertSame(big, cache.get(big.key));
+        assertNull(cache.get(a.key));
+    }
+
+    @Test public void layoutCacheCounters() {
+        PGFont font = stubFont();
+        LayoutCache.Cache cache = new LayoutCache.Cache(100);
+        LayoutCache.Key key = key("hello", font, 0, 0, 0);
+
+        assertNull(cache.get(key));
+        cache.put(entry(key));
+        assertNotNull(cache.get(key));
+        assertNotNull(cache.get(key("hello", font, 0, 0, 0)));
+        assertNull(cache.get(key("other", font, 0, 0, 0)));
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(0, cache.getEvictionCount());
+        assertEquals(5, cache.getSize());
+
+        /* Replacing a layout is not an eviction */
+        cache.put(entry(key("hello", font, 0, 0, 0)));
+        assertEquals(0, cache.getEvictionCount());
+        assertEquals(5, cache.getSize());
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test public void cachedWrappedLayoutMatchesUncachedLayout() {
+        PGFont font = (PGFont)Font.font("System", 12).impl_getNativeFont();
+        String text = "The quick brown fox jumps over the lazy dog " +
+                      System.nanoTime();
+
+        PrismTextLayout first = new PrismTextLayout();
+        first.setContent(text, font);
+        first.setWrapWidth(60);
+        first.setLineSpacing(3);
+        TextLine[] firstLines = first.getLines();
+
+        long hits = PrismTextLayout.getCacheHitCount();
+        PrismTextLayout cached = new PrismTextLayout();
+        cached.setContent(text, font);
+        cached.setWrapWidth(60);
+        cached.setLineSpacing(3);
+        TextLine[] cachedLines = cached.getLines();
+        assertEquals(hits + 1, PrismTextLayout.getCacheHitCount());
+        assertSame(firstLines, cachedLines);
+
+        /* Rich text is never cached */
+        PrismTextLayout uncached = new PrismTextLayout();
+        setContent(uncached, text, font);
+        uncached.setWrapWidth(60);
+        uncached.setLineSpacing(3);
+        TextLine[] uncachedLines = uncached.getLines();
+
+        assertTrue(cachedLines.length > 1);
+        assertEquals(uncachedLines.length, cachedLines.length);
+        for (int i = 0; i < cachedLines.length; i++) {
+            assertEquals("line " + i, uncachedLines[i].getStart(), cachedLines[i].getStart());
+            assertEquals("line " + i, uncachedLines[i].getLength(), cachedLines[i].getLength());
+            assertEquals("line " + i, uncachedLines[i].getBounds(), cachedLines[i].getBounds());
+        }
+        assertEquals(uncached.getBounds(), cached.getBounds());
+    }
 }
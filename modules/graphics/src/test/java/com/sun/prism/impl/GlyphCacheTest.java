@@ -0,0 +1,352 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.prism.impl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import com.sun.javafx.font.FontStrike;
+import com.sun.javafx.font.Glyph;
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.javafx.scene.text.GlyphList;
+import com.sun.javafx.sg.prism.NGCamera;
+import com.sun.prism.PixelFormat;
+import com.sun.prism.RTTexture;
+import com.sun.prism.RenderTarget;
+import com.sun.prism.Texture;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GlyphCacheTest {
+
+    // Pages of 64x64 pixels hold four glyphs of 30x30 pixels, which take
+    // 32x32 pixels with their blank boundary
+    private static final int PAGE_SIZE = 64;
+    private static final int GLYPH_SIZE = 30;
+    private static final int GLYPHS_PER_PAGE = 4;
+
+    private TestVertexBuffer vb;
+    private TestContext context;
+
+    @Before
+    public void setUp() {
+        vb = new TestVertexBuffer();
+        context = new TestContext(vb);
+    }
+
+    @Test
+    public void pagesAreAddedUntilTheMaximumIsReached() {
+        GlyphCache.Atlas atlas = new TestAtlas(context, 2);
+        assertEquals(1, atlas.pages.size());
+        for (int i = 0; i < GLYPHS_PER_PAGE; i++) {
+            assertSame(atlas.pages.get(0), atlas.add(glyphRect()));
+        }
+        assertEquals(1, atlas.pages.size());
+
+        GlyphCache.Page page = atlas.add(glyphRect());
+        assertEquals(2, atlas.pages.size());
+        assertSame(atlas.pages.get(1), page);
+        assertEquals(1, atlas.current);
+        assertNotSame(atlas.pages.get(0).packer.getBackingStore(),
+                      atlas.pages.get(1).packer.getBackingStore());
+        assertEquals(0, page.generation);
+        assertEquals(0, context.flushes);
+    }
+
+    @Test
+    public void leastRecentlyUsedPageIsEvictedFirst() {
+        GlyphCache.Atlas atlas = new TestAtlas(context, 2);
+        GlyphCache.Page first = atlas.pages.get(0);
+        atlas.stamp = 1;
+        fill(atlas);
+        atlas.stamp = 2;
+        GlyphCache.Page second = atlas.add(glyphRect());
+        fill(atlas);
+
+        // Both pages are full, the first one was used least recently
+        long evicted = GlyphCache.getEvictedPageCount();
+        atlas.stamp = 3;
+        assertSame(first, atlas.add(glyphRect()));
+        assertEquals(1, first.generation);
+        assertEquals(0, second.generation);
+        assertEquals(0, atlas.current);
+        assertEquals(evicted + 1, GlyphCache.getEvictedPageCount());
+        assertEquals(1, context.flushes);
+
+        // Now the second page is the least recently used one
+        fill(atlas);
+        atlas.stamp = 4;
+        assertSame(second, atlas.add(glyphRect()));
+        assertEquals(1, first.generation);
+        assertEquals(1, second.generation);
+        assertEquals(1, atlas.current);
+        assertEquals(evicted + 2, GlyphCache.getEvictedPageCount());
+        assertEquals(2, context.flushes);
+        assertEquals(2, atlas.pages.size());
+    }
+
+    @Test
+    public void rectangleLargerThanAPageIsNotAdded() {
+        GlyphCache.Atlas atlas = new TestAtlas(context, 2);
+        assertNull(atlas.add(new Rectangle(0, 0, PAGE_SIZE + 1, 1)));
+        assertEquals(1, atlas.pages.size());
+    }
+
+    @Test
+    public void glyphOfEvictedPageIsUploadedAgain() {
+        GlyphCache.Atlas atlas = new TestAtlas(context, 1);
+        GlyphCache cache = new GlyphCache(context, strike(), atlas);
+
+        GlyphCache.GlyphData data = cache.getCachedGlyph(0, 0);
+        GlyphCache.Page page = data.getPage();
+        assertEquals(0, data.getGeneration());
+        assertSame(data, cache.getCachedGlyph(0, 0));
+
+        // Filling the only page evicts it along with glyph 0
+        for (int gc = 1; gc <= GLYPHS_PER_PAGE; gc++) {
+            cache.getCachedGlyph(gc, 0);
+        }
+        assertEquals(1, page.generation);
+        assertFalse(data.isValid());
+
+        long uploads = GlyphCache.getUploadedGlyphCount();
+        GlyphCache.GlyphData reloaded = cache.getCachedGlyph(0, 0);
+        assertNotSame(data, reloaded);
+        assertTrue(reloaded.isValid());
+        assertSame(page, reloaded.getPage());
+        assertEquals(page.generation, reloaded.getGeneration());
+        assertEquals(uploads + 1, GlyphCache.getUploadedGlyphCount());
+    }
+
+    @Test
+    public void glyphsOnSeveralPagesAreRenderedOnce() {
+        GlyphCache.Atlas atlas = new TestAtlas(context, 2);
+        GlyphCache cache = new GlyphCache(context, strike(), atlas);
+
+        // Glyphs 0 to 3 fill the first page, 4 to 7 go on the second one
+        List<Integer> pages = drawString(cache, 0, 1, 2, 3);
+        assertEquals(1, pages.size());
+        pages = drawString(cache, 4, 5, 6, 7);
+        assertEquals(2, pages.size());
+        assertEquals(2, atlas.pages.size());
+        vb.quads.clear();
+
+        long uploads = GlyphCache.getUploadedGlyphCount();
+        int[] glyphs = { 0, 4, 1, 5, 2, 6, 3, 7 };
+        pages = drawString(cache, glyphs);
+        assertEquals(2, pages.size());
+        assertEquals(uploads, GlyphCache.getUploadedGlyphCount());
+
+        // One quad per glyph, at the position of the glyph, each drawn in
+        // the pass of the page holding it
+        assertEquals(glyphs.length, vb.quads.size());
+        boolean[] drawn = new boolean[glyphs.length];
+        for (float[] quad : vb.quads) {
+            int gi = (int) quad[0] / 100;
+            assertFalse("glyph " + gi + " drawn twice", drawn[gi]);
+            drawn[gi] = true;
+            int page = pages.get((int) quad[1]);
+            assertSame(cache.getCachedGlyph(glyphs[gi], 0).getPage(),
+                       atlas.pages.get(page));
+        }
+    }
+
+    /**
+     * Renders the glyphs one page at a time the way BaseShaderGraphics
+     * does, and returns the page rendered by each pass.
+     */
+    private List<Integer> drawString(GlyphCache cache, int... glyphs) {
+        GlyphList gl = glyphList(glyphs);
+        List<Integer> pages = new ArrayList<Integer>();
+        int page = cache.getCurrentPage();
+        boolean firstPass = true;
+        while (page >= 0) {
+            assertTrue("too many passes", pages.size() <= glyphs.length);
+            vb.pass = pages.size();
+            pages.add(page);
+            page = cache.render(context, gl, 0, 0, 0, 0, null, null,
+                                BaseTransform.IDENTITY_TRANSFORM, null,
+                                page, firstPass);
+            vb.record();
+            firstPass = false;
+        }
+        return pages;
+    }
+
+    private static Rectangle glyphRect() {
+        return new Rectangle(0, 0, GLYPH_SIZE + 2, GLYPH_SIZE + 2);
+    }
+
+    private static void fill(GlyphCache.Atlas atlas) {
+        GlyphCache.Page page = atlas.pages.get(atlas.current);
+        while (page.packer.add(glyphRect())) {
+            page.lastUsed = atlas.stamp;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, final InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+            new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    if (method.getDeclaringClass() == Object.class) {
+                        switch (method.getName()) {
+                            case "equals": return proxy == args[0];
+                            case "hashCode": return System.identityHashCode(proxy);
+                            default: return "stub";
+                        }
+                    }
+                    Object result = handler != null ? handler.invoke(proxy, method, args) : null;
+                    return result != null ? result : defaultValue(method.getReturnType());
+                }
+            });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0f;
+        if (type == double.class) return 0d;
+        if (type == short.class) return (short) 0;
+        if (type == byte.class) return (byte) 0;
+        if (type == char.class) return '\0';
+        return null;
+    }
+
+    private static Texture texture() {
+        return stub(Texture.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getPixelFormat": return PixelFormat.BYTE_ALPHA;
+                case "getPhysicalWidth":
+                case "getPhysicalHeight":
+                case "getContentWidth":
+                case "getContentHeight": return PAGE_SIZE;
+                default: return null;
+            }
+        });
+    }
+
+    private static FontStrike strike() {
+        final Glyph glyph = stub(Glyph.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getPixelData": return new byte[GLYPH_SIZE * GLYPH_SIZE];
+                case "getWidth":
+                case "getHeight": return GLYPH_SIZE;
+                default: return null;
+            }
+        });
+        return stub(FontStrike.class, (proxy, method, args) ->
+            method.getName().equals("getGlyph") ? glyph : null);
+    }
+
+    /* Glyph i is at x = 100 * i so that the quads identify the glyphs */
+    private static GlyphList glyphList(final int... glyphs) {
+        return stub(GlyphList.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getGlyphCount": return glyphs.length;
+                case "getGlyphCode": return glyphs[(Integer) args[0]];
+                case "getPosX": return 100f * (Integer) args[0];
+                default: return null;
+            }
+        });
+    }
+
+    /* An atlas of small pages with stub textures */
+    private static final class TestAtlas extends GlyphCache.Atlas {
+        TestAtlas(BaseContext context, int maxPages) {
+            super(context, false, PAGE_SIZE, PAGE_SIZE, maxPages);
+        }
+
+        @Override
+        Texture createTexture(boolean first) {
+            return texture();
+        }
+    }
+
+    /* Records the destination x and the pass of each quad added */
+    private static final class TestVertexBuffer extends VertexBuffer {
+        final List<float[]> quads = new ArrayList<float[]>();
+        int pass;
+
+        TestVertexBuffer() {
+            super(16);
+        }
+
+        void record() {
+            for (int v = 0; v < index; v += VERTS_PER_QUAD) {
+                quads.add(new float[] { coordArray[v * FLOATS_PER_VERT], pass });
+            }
+            rewind();
+        }
+    }
+
+    private static final class TestContext extends BaseContext {
+        final TestVertexBuffer vb;
+        int flushes;
+
+        TestContext(TestVertexBuffer vb) {
+            super(null, null, vb);
+            this.vb = vb;
+        }
+
+        @Override
+        public void flushVertexBuffer() {
+            flushes++;
+            vb.record();
+        }
+
+        @Override
+        protected void setRenderTarget(RenderTarget target, NGCamera camera,
+                                       boolean depthTest, boolean state3D) {
+        }
+
+        @Override
+        public void validateClearOp(BaseGraphics g) {
+        }
+
+        @Override
+        public void validatePaintOp(BaseGraphics g, BaseTransform xform, Texture maskTex,
+                                    float bx, float by, float bw, float bh) {
+        }
+
+        @Override
+        public void validateTextureOp(BaseGraphics g, BaseTransform xform,
+                                      Texture src, PixelFormat format) {
+        }
+
+        @Override
+        public RTTexture getLCDBuffer() {
+            return null;
+        }
+    }
+}
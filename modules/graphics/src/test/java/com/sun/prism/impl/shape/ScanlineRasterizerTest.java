@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.prism.impl.shape;
+
+import com.sun.javafx.geom.Ellipse2D;
+import com.sun.javafx.geom.Path2D;
+import com.sun.javafx.geom.RectBounds;
+import com.sun.javafx.geom.RoundRectangle2D;
+import com.sun.javafx.geom.Shape;
+import com.sun.javafx.geom.transform.Affine2D;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.prism.BasicStroke;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ScanlineRasterizerTest {
+    static final int CLIP = 200;
+
+    final ShapeRasterizer scanline = new ScanlineRasterizer();
+    final ShapeRasterizer pisces = new OpenPiscesRasterizer();
+
+    /**
+     * Expands the mask into a CLIP x CLIP array so that masks with
+     * different origins and sizes can be compared.
+     */
+    static int[] expand(MaskData md) {
+        int out[] = new int[CLIP * CLIP];
+        int w = md.getWidth();
+        int h = md.getHeight();
+        int x0 = md.getOriginX();
+        int y0 = md.getOriginY();
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int a = md.getMaskBuffer().get(y * w + x) & 0xff;
+                int px = x + x0;
+                int py = y + y0;
+                if (a != 0) {
+                    assertTrue("coverage outside of the clip at "+px+", "+py,
+                               px >= 0 && py >= 0 && px < CLIP && py < CLIP);
+                    out[py * CLIP + px] = a;
+                }
+            }
+        }
+        return out;
+    }
+
+    static RectBounds bounds(Shape s, BasicStroke stroke, BaseTransform tx) {
+        if (stroke != null) {
+            s = stroke.createStrokedShape(s);
+        }
+        RectBounds b = (RectBounds) tx.transform(s.getBounds(), new RectBounds());
+        b.intersectWith(0, 0, CLIP, CLIP);
+        return b;
+    }
+
+    int[] rasterize(ShapeRasterizer r, Shape s, BasicStroke stroke,
+                    BaseTransform tx, boolean aa)
+    {
+        return expand(r.getMaskData(s, stroke, bounds(s, stroke, tx), tx, true, aa));
+    }
+
+    void compare(Shape s, BasicStroke stroke, BaseTransform tx, boolean aa) {
+        int expected[] = rasterize(pisces, s, stroke, tx, aa);
+        int actual[] = rasterize(scanline, s, stroke, tx, aa);
+        long esum = 0, asum = 0;
+        int maxdiff = 0;
+        for (int i = 0; i < expected.length; i++) {
+            esum += expected[i];
+            asum += actual[i];
+            maxdiff = Math.max(maxdiff, Math.abs(expected[i] - actual[i]));
+        }
+        // The curves are not flattened the same way, so a few edge pixels
+        // may differ slightly, but the total coverage must match closely.
+        assertTrue("total coverage "+asum+" vs "+esum,
+                   Math.abs(asum - esum) <= Math.max(255, esum / 100));
+        assertTrue("max pixel difference "+maxdiff, maxdiff <= (aa ? 64 : 255));
+    }
+
+    @Test
+    public void testAlignedRect() {
+        Path2D p = new Path2D();
+        p.moveTo(10, 20);
+        p.lineTo(50, 20);
+        p.lineTo(50, 30);
+        p.lineTo(10, 30);
+        p.closePath();
+        MaskData md = scanline.getMaskData(p, null, new RectBounds(10, 20, 50, 30),
+                                           BaseTransform.IDENTITY_TRANSFORM, true, true);
+        assertEquals(10, md.getOriginX());
+        assertEquals(20, md.getOriginY());
+        assertEquals(40, md.getWidth());
+        assertEquals(10, md.getHeight());
+        for (int i = 0; i < 400; i++) {
+            assertEquals(255, md.getMaskBuffer().get(i) & 0xff);
+        }
+    }
+
+    @Test
+    public void testHalfPixelRect() {
+        Path2D p = new Path2D();
+        p.moveTo(10.5f, 20);
+        p.lineTo(20, 20);
+        p.lineTo(20, 21);
+        p.lineTo(10.5f, 21);
+        p.closePath();
+        int mask[] = rasterize(scanline, p, null, BaseTransform.IDENTITY_TRANSFORM, true);
+        assertEquals(128, mask[20 * CLIP + 10]);
+        assertEquals(255, mask[20 * CLIP + 11]);
+        assertEquals(0, mask[20 * CLIP + 9]);
+        assertEquals(0, mask[21 * CLIP + 11]);
+    }
+
+    @Test
+    public void testEmptyShapes() {
+        Path2D p = new Path2D();
+        MaskData md = scanline.getMaskData(p, null, new RectBounds(),
+                                           BaseTransform.IDENTITY_TRANSFORM, true, true);
+        assertEquals(1, md.getWidth());
+        assertEquals(1, md.getHeight());
+        assertEquals(0, md.getMaskBuffer().get(0));
+        p.moveTo(10, 10);
+        p.lineTo(20, 10);
+        int mask[] = rasterize(scanline, p, null, BaseTransform.IDENTITY_TRANSFORM, true);
+        for (int a : mask) {
+            assertEquals(0, a);
+        }
+    }
+
+    @Test
+    public void testEllipse() {
+        Ellipse2D e = new Ellipse2D(10.3f, 20.7f, 150f, 90f);
+        compare(e, null, BaseTransform.IDENTITY_TRANSFORM, true);
+        compare(e, null, BaseTransform.IDENTITY_TRANSFORM, false);
+    }
+
+    @Test
+    public void testTransformedRoundRect() {
+        RoundRectangle2D rr = new RoundRectangle2D(0, 0, 100, 60, 20, 20);
+        Affine2D tx = new Affine2D();
+        tx.translate(100, 20);
+        tx.rotate(Math.PI / 6);
+        compare(rr, null, tx, true);
+    }
+
+    @Test
+    public void testWindingRules() {
+        for (int rule : new int[] { Path2D.WIND_EVEN_ODD, Path2D.WIND_NON_ZERO }) {
+            Path2D star = new Path2D(rule);
+            star.moveTo(100, 10);
+            star.lineTo(160, 190);
+            star.lineTo(10, 70);
+            star.lineTo(190, 70);
+            star.lineTo(40, 190);
+            star.closePath();
+            compare(star, null, BaseTransform.IDENTITY_TRANSFORM, true);
+        }
+    }
+
+    @Test
+    public void testClippedShape() {
+        Ellipse2D e = new Ellipse2D(-50, -50, 150, 400);
+        compare(e, null, BaseTransform.IDENTITY_TRANSFORM, true);
+    }
+
+    @Test
+    public void testStrokes() {
+        Path2D p = new Path2D();
+        p.moveTo(10, 10);
+        p.curveTo(190, 10, 10, 190, 190, 190);
+        compare(p, new BasicStroke(1f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10f),
+                BaseTransform.IDENTITY_TRANSFORM, true);
+        compare(p, new BasicStroke(8f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND, 10f),
+                BaseTransform.IDENTITY_TRANSFORM, true);
+        compare(p, new BasicStroke(3f, BasicStroke.CAP_SQUARE, BasicStroke.JOIN_BEVEL, 10f,
+                                   new float[] { 5f, 3f }, 1f),
+                BaseTransform.IDENTITY_TRANSFORM, true);
+    }
+
+    @Test
+    public void testManySegments() {
+        Path2D p = new Path2D();
+        p.moveTo(100, 100);
+        for (int i = 1; i <= 10000; i++) {
+            double a = i * 2 * Math.PI / 10000;
+            double r = 50 + 40 * Math.sin(a * 37);
+            p.lineTo((float) (100 + r * Math.cos(a)), (float) (100 + r * Math.sin(a)));
+        }
+        p.closePath();
+        compare(p, null, BaseTransform.IDENTITY_TRANSFORM, true);
+    }
+
+    @Test
+    public void testMaskReuse() {
+        Ellipse2D big = new Ellipse2D(0, 0, 190, 190);
+        Ellipse2D small = new Ellipse2D(50, 50, 10, 10);
+        int expected[] = rasterize(scanline, small, null, BaseTransform.IDENTITY_TRANSFORM, true);
+        rasterize(scanline, big, null, BaseTransform.IDENTITY_TRANSFORM, true);
+        int actual[] = rasterize(scanline, small, null, BaseTransform.IDENTITY_TRANSFORM, true);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], actual[i]);
+        }
+    }
+}
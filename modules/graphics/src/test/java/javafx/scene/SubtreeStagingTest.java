@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.scene;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.javafx.scene.CssFlags;
+import javafx.css.PseudoClass;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.Shape;
+import javafx.stage.Stage;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SubtreeStagingTest {
+
+    private Pane root;
+    private Pane container;
+    private Scene scene;
+
+    @Before
+    public void setUp() {
+        container = new Pane();
+        container.getStyleClass().add("container");
+        root = new Pane(container);
+        scene = new Scene(root);
+        scene.getStylesheets().add(getClass().getResource("SubtreeStagingTest.css").toExternalForm());
+        Stage stage = new Stage();
+        stage.setScene(scene);
+        stage.show();
+        root.applyCss();
+    }
+
+    private static HBox createRow() {
+        final Rectangle r1 = new Rectangle(10, 10);
+        r1.getStyleClass().add("cell");
+        final Rectangle r2 = new Rectangle(10, 10);
+        r2.getStyleClass().add("cell");
+        final HBox row = new HBox(r1, r2);
+        row.getStyleClass().add("row");
+        return row;
+    }
+
+    private static Shape cell(HBox row) {
+        return (Shape) row.getChildren().get(0);
+    }
+
+    // package-private members of Node are not accessible through subclasses
+    // in other packages
+    private static Node node(Node node) {
+        return node;
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testTargetMustBeInScene() {
+        new SubtreeStaging(new Pane());
+    }
+
+    @Test
+    public void testPrepareAppliesStylesAndLayout() {
+        final SubtreeStaging staging = new SubtreeStaging(container);
+        final HBox row = createRow();
+        staging.prepare(row);
+
+        assertEquals(Color.RED, cell(row).getFill());
+        assertEquals(Color.LIME, cell(row).getStroke());
+        assertEquals(5, row.getPadding().getTop(), 0);
+        // the 1 pixel stroke makes each cell 11 pixels wide
+        assertEquals(5 + 11 + 2 + 11 + 5, row.getWidth(), 1e-3);
+        assertEquals(5 + 11 + 5, row.getHeight(), 1e-3);
+        assertEquals(5 + 11 + 2, row.getChildren().get(1).getBoundsInParent().getMinX(), 1e-3);
+        assertEquals(null, row.getScene());
+        assertEquals(null, row.getParent());
+    }
+
+    @Test
+    public void testAttachDoesNotReapplyCss() {
+        final SubtreeStaging staging = new SubtreeStaging(container);
+        final HBox row = createRow();
+        staging.prepare(row);
+        final CssStyleHelper helper = node(cell(row)).styleHelper;
+        assertNotNull(helper);
+
+        assertTrue(staging.isValid());
+        staging.attach(row);
+
+        assertSame(container, row.getParent());
+        assertSame(helper, node(cell(row)).styleHelper);
+        assertEquals(CssFlags.CLEAN, node(cell(row)).getCSSFlags());
+        assertEquals(CssFlags.CLEAN, node(row).getCSSFlags());
+        assertFalse(node(cell(row)).cssStaged);
+
+        root.applyCss();
+        assertSame(helper, node(cell(row)).styleHelper);
+        assertEquals(Color.RED, cell(row).getFill());
+        assertEquals(Color.LIME, cell(row).getStroke());
+    }
+
+    @Test
+    public void testTriggerStatesAreTransferred() {
+        final SubtreeStaging staging = new SubtreeStaging(container);
+        final HBox row = createRow();
+        staging.prepare(row);
+        staging.attach(row);
+
+        container.pseudoClassStateChanged(PseudoClass.getPseudoClass("hover"), true);
+        root.applyCss();
+        assertEquals(Color.GREEN, cell(row).getFill());
+
+        container.pseudoClassStateChanged(PseudoClass.getPseudoClass("hover"), false);
+        root.applyCss();
+        assertEquals(Color.RED, cell(row).getFill());
+    }
+
+    @Test
+    public void testStylesheetChangeFallsBackToReapply() {
+        final SubtreeStaging staging = new SubtreeStaging(container);
+        final HBox row = createRow();
+        staging.prepare(row);
+
+        scene.getStylesheets().add(getClass().getResource("SubtreeStagingTest_more.css").toExternalForm());
+        assertFalse(staging.isValid());
+        staging.attach(row);
+
+        root.applyCss();
+        assertEquals(Color.YELLOW, cell(row).getFill());
+        assertEquals(Color.LIME, cell(row).getStroke());
+    }
+
+    @Test
+    public void testAncestorChangeFallsBackToReapply() {
+        final SubtreeStaging staging = new SubtreeStaging(container);
+        final HBox row = createRow();
+        staging.prepare(row);
+
+        container.getStyleClass().remove("container");
+        assertFalse(staging.isValid());
+        staging.attach(row);
+
+        root.applyCss();
+        assertEquals(Color.BLACK, cell(row).getFill());
+        assertEquals(Color.LIME, cell(row).getStroke());
+    }
+
+    @Test
+    public void testChangeAfterPrepareIsStyled() {
+        final SubtreeStaging staging = new SubtreeStaging(container);
+        final HBox row = createRow();
+        staging.prepare(row);
+
+        cell(row).getStyleClass().add("special");
+        staging.attach(row);
+
+        root.applyCss();
+        assertEquals(Color.BLUE, cell(row).getFill());
+        assertEquals(Color.RED, ((Rectangle) row.getChildren().get(1)).getFill());
+    }
+
+    @Test
+    public void testNodeThatWasNotPreparedIsStyled() {
+        final SubtreeStaging staging = new SubtreeStaging(container);
+        final HBox row = createRow();
+        staging.attach(row);
+
+        root.applyCss();
+        assertEquals(Color.RED, cell(row).getFill());
+    }
+
+    @Test
+    public void testPrepareOnAnotherThread() throws Exception {
+        final SubtreeStaging staging = new SubtreeStaging(container);
+        final HBox[] rows = new HBox[4];
+        final Thread[] threads = new Thread[rows.length];
+        for (int n = 0; n < rows.length; n++) {
+            final HBox row = rows[n] = createRow();
+            threads[n] = new Thread(() -> staging.prepare(row));
+            threads[n].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (HBox row : rows) {
+            staging.attach(row);
+            assertEquals(CssFlags.CLEAN, node(cell(row)).getCSSFlags());
+            assertEquals(Color.RED, cell(row).getFill());
+            assertEquals(Color.LIME, cell(row).getStroke());
+        }
+    }
+}
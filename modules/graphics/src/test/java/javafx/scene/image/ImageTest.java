@@ -25,11 +25,14 @@
 
 package javafx.scene.image;
 
+import com.sun.javafx.binding.ExpressionHelper;
 import com.sun.javafx.pgstub.*;
 import com.sun.javafx.test.PropertyInvalidationCounter;
 import com.sun.javafx.tk.Toolkit;
 import javafx.beans.InvalidationListener;
 import javafx.beans.Observable;
+import javafx.scene.Group;
+import javafx.scene.Scene;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -141,6 +144,122 @@ public final class ImageTest {
         assertTrue(p3 == p4);
     }
 
+    @Test
+    public void loadImageAsyncPartialUpdateTest() {
+        final String url = "file:partial.png";
+        registerImage(url, 200, 100);
+
+        final Image image = new Image(url, true);
+        final StubAsyncImageLoader lastAsyncImageLoader =
+                getLastAsyncImageLoader();
+
+        final com.sun.javafx.tk.ImageLoader partialLoader =
+                imageLoaderFactory.createImageLoader(url, 0, 0, false, false);
+        lastAsyncImageLoader.update(partialLoader);
+        assertSame(partialLoader.getFrame(0), getPlatformImage(image));
+        assertEquals(200, (int) image.getWidth());
+        assertEquals(100, (int) image.getHeight());
+        assertTrue(image.getProgress() < 1);
+
+        lastAsyncImageLoader.finish();
+        assertNotSame(partialLoader.getFrame(0), getPlatformImage(image));
+        verifyLoadedImage(image, 0, 0, false, false, 200, 100);
+    }
+
+    @Test
+    public void loadShowingImagesFirstTest() {
+        // fill the running tasks so that the next images are pending
+        final Queue<StubAsyncImageLoader> runningLoaders =
+                new LinkedList<StubAsyncImageLoader>();
+        StubAsyncImageLoader asyncLoader;
+        int count = 0;
+        while (true) {
+            final String url = "file:running" + count++ + ".png";
+            registerImage(url, 100, 100);
+            new Image(url, true);
+            asyncLoader = imageLoaderFactory.getLastAsyncImageLoader();
+            if (!asyncLoader.isStarted()) {
+                break;
+            }
+            runningLoaders.add(asyncLoader);
+        }
+        assertFalse(runningLoaders.isEmpty());
+        final StubAsyncImageLoader firstPendingLoader = asyncLoader;
+
+        registerImage("file:pending.png", 100, 100);
+        new Image("file:pending.png", true);
+        final StubAsyncImageLoader pendingLoader =
+                imageLoaderFactory.getLastAsyncImageLoader();
+
+        registerImage("file:showing.png", 100, 100);
+        final Image showingImage = new Image("file:showing.png", true);
+        final StubAsyncImageLoader showingLoader =
+                imageLoaderFactory.getLastAsyncImageLoader();
+
+        final ImageView imageView = new ImageView(showingImage);
+        final Group root = new Group(imageView);
+        new Scene(root);
+
+        runningLoaders.poll().finish();
+        assertTrue(showingLoader.isStarted());
+        assertFalse(firstPendingLoader.isStarted());
+
+        // an image that is no longer shown is loaded last
+        registerImage("file:hidden.png", 100, 100);
+        final Image hiddenImage = new Image("file:hidden.png", true);
+        final StubAsyncImageLoader hiddenLoader =
+                imageLoaderFactory.getLastAsyncImageLoader();
+        imageView.setImage(hiddenImage);
+        root.getChildren().clear();
+
+        runningLoaders.poll().finish();
+        assertTrue(firstPendingLoader.isStarted());
+        showingLoader.finish();
+        assertTrue(pendingLoader.isStarted());
+        assertFalse(hiddenLoader.isStarted());
+
+        while (!runningLoaders.isEmpty()) {
+            runningLoaders.poll().finish();
+        }
+        firstPendingLoader.finish();
+        pendingLoader.finish();
+        assertTrue(hiddenLoader.isStarted());
+        hiddenLoader.finish();
+    }
+
+    @Test
+    public void loadingImageListenersRemovedTest() {
+        final int listenerCount =
+                ExpressionHelper.getListenerCount(new ImageView().sceneProperty());
+
+        registerImage("file:loaded.png", 100, 100);
+        final Image loadedImage = new Image("file:loaded.png", true);
+        final StubAsyncImageLoader loadedLoader =
+                imageLoaderFactory.getLastAsyncImageLoader();
+        final ImageView imageView = new ImageView(loadedImage);
+        assertEquals(listenerCount + 1,
+                     ExpressionHelper.getListenerCount(imageView.sceneProperty()));
+
+        loadedLoader.finish();
+        assertEquals(listenerCount,
+                     ExpressionHelper.getListenerCount(imageView.sceneProperty()));
+        assertEquals(0, ExpressionHelper.getListenerCount(loadedImage.progressProperty()));
+
+        registerImage("file:replaced.png", 100, 100);
+        final Image replacedImage = new Image("file:replaced.png", true);
+        final StubAsyncImageLoader replacedLoader =
+                imageLoaderFactory.getLastAsyncImageLoader();
+        imageView.setImage(replacedImage);
+        assertEquals(listenerCount + 1,
+                     ExpressionHelper.getListenerCount(imageView.sceneProperty()));
+
+        imageView.setImage(null);
+        assertEquals(listenerCount,
+                     ExpressionHelper.getListenerCount(imageView.sceneProperty()));
+        assertEquals(0, ExpressionHelper.getListenerCount(replacedImage.progressProperty()));
+        replacedLoader.finish();
+    }
+
     /*
     @Test
     public void loadImageAsyncPlaceholderTest() {
@@ -26,6 +26,7 @@
 package com.oracle.javafx.jmx;
 
 import com.sun.javafx.jmx.MXExtension;
+import com.sun.javafx.logging.PulseRecorder;
 import com.sun.scenario.animation.AnimationPulse;
 import java.lang.management.ManagementFactory;
 import javax.management.MBeanServer;
@@ -44,5 +45,12 @@ public final class MXExtensionImpl extends MXExtension {
         mbeanServer.registerMBean(
                 AnimationPulse.getDefaultBean(),
                 new ObjectName(":type=AnimationPulse"));
+
+        final PulseRecorder pulseRecorder = PulseRecorder.getInstance();
+        if (pulseRecorder != null) {
+            mbeanServer.registerMBean(
+                    new PulseMXBeanImpl(pulseRecorder),
+                    new ObjectName("com.oracle.javafx.jmx:type=PulseBean"));
+        }
     }
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.oracle.javafx.jmx;
+
+/**
+ * The <code>PulseMXBean</code> publishes the pulse phase latencies recorded
+ * by the JavaFX runtime when it runs with
+ * <code>-Djavafx.pulseRecorder=true</code>. It lets monitoring tools
+ * watch and alert on slow frames without attaching a profiler.
+ *
+ * All times are reported in milliseconds. The phase names are the ones
+ * used by the pulse logger ("CSS Pass", "Layout Pass", "Painting", ...)
+ * plus "Pulse" (FX thread part of the pulse), "Render" (render thread part
+ * of the pulse) and "Frame" (from the start of the pulse to the end of its
+ * rendering).
+ */
+public interface PulseMXBean {
+
+    /**
+     * Returns the number of pulses run since the application started.
+     *
+     * @return the number of pulses
+     */
+    long getPulseCount();
+
+    /**
+     * Returns the latency statistics of every phase, for all the scenes.
+     *
+     * @return the statistics of every phase, sorted by phase name
+     */
+    PulsePhaseStatistics[] getPhaseStatistics();
+
+    /**
+     * Returns the names of the live scenes, to be used as an input to
+     * {@link #getSceneStatistics(String)}.
+     *
+     * @return the names of all the live scenes
+     */
+    String[] getScenes();
+
+    /**
+     * Returns the latency statistics of every phase of the given scene.
+     *
+     * @param scene the name of the scene obtained by {@link #getScenes()}
+     * @return the statistics of every phase of the scene, or an empty array
+     * if there is no such scene
+     */
+    PulsePhaseStatistics[] getSceneStatistics(String scene);
+
+    /**
+     * Returns the time below which the given percentage of the frames
+     * completed, a convenience for alerting on jank.
+     *
+     * @param percentile a percentage in the range [0, 100], e.g. 99
+     * @return the frame time at the percentile, in milliseconds
+     */
+    double getFrameTime(double percentile);
+
+    /**
+     * Clears all the recorded statistics.
+     */
+    void reset();
+}
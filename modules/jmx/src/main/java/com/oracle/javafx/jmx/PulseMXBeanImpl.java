@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.oracle.javafx.jmx;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.sun.javafx.logging.PulseHistogram;
+import com.sun.javafx.logging.PulseRecorder;
+
+/**
+ * Default implementation of {@link PulseMXBean} interface, backed by the
+ * {@link PulseRecorder}.
+ */
+public class PulseMXBeanImpl implements PulseMXBean {
+
+    private static final PulsePhaseStatistics[] NO_STATISTICS = new PulsePhaseStatistics[0];
+
+    private final PulseRecorder recorder;
+
+    public PulseMXBeanImpl(PulseRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    private static double toMillis(double micros) {
+        return micros / 1000.0;
+    }
+
+    private static PulsePhaseStatistics[] toStatistics(Map<String, PulseHistogram> histograms) {
+        Map<String, PulseHistogram> sorted = new TreeMap<String, PulseHistogram>(histograms);
+        PulsePhaseStatistics[] result = new PulsePhaseStatistics[sorted.size()];
+        int i = 0;
+        for (Map.Entry<String, PulseHistogram> entry : sorted.entrySet()) {
+            PulseHistogram h = entry.getValue();
+            result[i++] = new PulsePhaseStatistics(entry.getKey(),
+                    h.getCount(),
+                    toMillis(h.getMean()),
+                    toMillis(h.getValueAtPercentile(50)),
+                    toMillis(h.getValueAtPercentile(90)),
+                    toMillis(h.getValueAtPercentile(99)),
+                    toMillis(h.getValueAtPercentile(99.9)),
+                    toMillis(h.getMax()));
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getPulseCount() {
+        return recorder.getPulseCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PulsePhaseStatistics[] getPhaseStatistics() {
+        return toStatistics(recorder.getPhaseHistograms());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String[] getScenes() {
+        return new TreeMap<String, Object>(recorder.getSceneHistograms()).keySet().toArray(new String[0]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PulsePhaseStatistics[] getSceneStatistics(String scene) {
+        Map<String, PulseHistogram> histograms = recorder.getSceneHistograms().get(scene);
+        return histograms == null ? NO_STATISTICS : toStatistics(histograms);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getFrameTime(double percentile) {
+        PulseHistogram h = recorder.getPhaseHistograms().get(PulseRecorder.FRAME);
+        return h == null ? 0.0 : toMillis(h.getValueAtPercentile(percentile));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() {
+        recorder.reset();
+    }
+}
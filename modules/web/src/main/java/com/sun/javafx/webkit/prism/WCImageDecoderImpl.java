@@ -191,6 +191,9 @@ final class WCImageDecoderImpl extends WCImageDecoder {
         }
         @Override public void imageLoadWarning(ImageLoader l, String warning) {
         }
+        @Override public void imageLoadUpdate(ImageLoader l, ImageFrame frame,
+                                              int y, int height) {
+        }
         @Override public void imageLoadMetaData(ImageLoader l, ImageMetadata metadata) {
             if (log.isLoggable(Level.FINE)) {
                 log.fine(String.format("%X Image size %dx%d",